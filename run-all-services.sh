@@ -14,6 +14,9 @@ LOG_DIR="${ROOT_DIR}/logs"
 
 mkdir -p "${LOG_DIR}"
 
+# risk-service needs a stable instance id for its feature consumer group
+export RISK_FEATURES_INSTANCE_ID="${RISK_FEATURES_INSTANCE_ID:-local}"
+
 services=(
   "services/identity-service"
   "services/customer-service"
@@ -0,0 +1,33 @@
+package com.banking.card.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Size bound shared by the hand-rolled near-caches. Entries carry a {@link System#nanoTime()}
+ * deadline; a full map first drops the expired ones and, if that frees nothing, an arbitrary
+ * tenth. No recency is tracked, so a put never pays for more than an occasional sweep.
+ */
+public final class BoundedMaps {
+
+    private BoundedMaps() {
+    }
+
+    /**
+     * Makes room for one more entry when {@code map} holds {@code maxSize} or more.
+     */
+    public static <K, V> void makeRoom(Map<K, V> map, int maxSize, ToLongFunction<V> expiresAtNanos) {
+        if (map.size() < maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        map.values().removeIf(value -> now - expiresAtNanos.applyAsLong(value) >= 0);
+        int toRemove = map.size() >= maxSize ? Math.max(1, maxSize / 10) : 0;
+        Iterator<K> keys = map.keySet().iterator();
+        while (toRemove-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -43,6 +43,12 @@ public class CardAnalytics {
     @Column(name = "most_used_country", length = 2)
     private String mostUsedCountry;
 
+    @Column(name = "merchant_category_sketch", columnDefinition = "TEXT")
+    private String merchantCategorySketch;
+
+    @Column(name = "country_sketch", columnDefinition = "TEXT")
+    private String countrySketch;
+
     @Column(name = "last_updated_at", nullable = false)
     private Instant lastUpdatedAt;
 
@@ -125,5 +131,20 @@ public class CardAnalytics {
     public void setLastUpdatedAt(Instant lastUpdatedAt) {
         this.lastUpdatedAt = lastUpdatedAt;
     }
-}
 
+    public String getMerchantCategorySketch() {
+        return merchantCategorySketch;
+    }
+
+    public void setMerchantCategorySketch(String merchantCategorySketch) {
+        this.merchantCategorySketch = merchantCategorySketch;
+    }
+
+    public String getCountrySketch() {
+        return countrySketch;
+    }
+
+    public void setCountrySketch(String countrySketch) {
+        this.countrySketch = countrySketch;
+    }
+}
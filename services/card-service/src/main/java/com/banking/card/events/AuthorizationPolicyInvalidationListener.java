@@ -0,0 +1,57 @@
+package com.banking.card.events;
+
+import com.banking.card.service.AuthorizationPolicyCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts compiled authorization policies when any instance publishes a card event, so a block,
+ * freeze or restriction change made elsewhere takes effect here without waiting for the TTL.
+ * Replacements and renewals also evict the card they supersede. Every instance keeps its own
+ * cache, so each one joins its own consumer group and sees every event.
+ */
+@Component
+public class AuthorizationPolicyInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizationPolicyInvalidationListener.class);
+
+    private final AuthorizationPolicyCache policyCache;
+    private final ObjectMapper objectMapper;
+
+    public AuthorizationPolicyInvalidationListener(AuthorizationPolicyCache policyCache, ObjectMapper objectMapper) {
+        this.policyCache = policyCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(
+            topics = "card-events",
+            groupId = "card-service-policy-cache-${random.uuid}",
+            properties = "auto.offset.reset=latest")
+    public void onCardEvent(ConsumerRecord<String, String> record) {
+        try {
+            JsonNode event = objectMapper.readTree(record.value());
+            invalidate(record.key() != null ? record.key() : text(event, "cardId"));
+            invalidate(text(event, "oldCardId"));
+        } catch (Exception e) {
+            log.warn("Ignoring card event without a readable card id at {}-{}@{}",
+                    record.topic(), record.partition(), record.offset());
+        }
+    }
+
+    private void invalidate(String cardId) {
+        if (cardId != null) {
+            policyCache.invalidate(UUID.fromString(cardId));
+        }
+    }
+
+    private static String text(JsonNode event, String field) {
+        JsonNode value = event.get(field);
+        return value != null && value.isTextual() ? value.asText() : null;
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.slf4j.Logger;
@@ -77,6 +78,21 @@ public class CardEventPublisher {
         ));
     }
 
+    /**
+     * Publishes a CardRenewed event for each card, then flushes the producer once so a bulk run
+     * does not wait on the linger timer per event. Each card's {@code renewedFromCardId} is the
+     * card it replaces.
+     */
+    public void publishCardsRenewed(List<Card> newCards) {
+        for (Card newCard : newCards) {
+            publishEvent("CardRenewed", newCard.getId(), newCard.getCustomerId(), Map.of(
+                    "oldCardId", newCard.getRenewedFromCardId().toString(),
+                    "renewalCount", newCard.getRenewalCount() != null ? newCard.getRenewalCount() : 0
+            ));
+        }
+        kafkaTemplate.flush();
+    }
+
     public void publishPinChanged(Card card) {
         publishEvent("PinChanged", card.getId(), card.getCustomerId(), Map.of());
     }
@@ -85,6 +101,10 @@ public class CardEventPublisher {
         publishEvent("CvvRotated", card.getId(), card.getCustomerId(), Map.of());
     }
 
+    public void publishRestrictionsChanged(Card card) {
+        publishEvent("RestrictionsChanged", card.getId(), card.getCustomerId(), Map.of());
+    }
+
     public void publishLimitUpdated(Card card, String limitType, String oldValue, String newValue) {
         publishEvent("LimitUpdated", card.getId(), card.getCustomerId(), Map.of(
                 "limitType", limitType,
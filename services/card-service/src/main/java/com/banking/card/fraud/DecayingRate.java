@@ -0,0 +1,40 @@
+package com.banking.card.fraud;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exponentially weighted per-minute rate, the same smoothing as a one-minute load average.
+ * {@link #mark()} is a striped add on the hot path; {@link #tick()} folds the events seen since
+ * the previous tick into the average and must be called every {@code tickSeconds}.
+ */
+final class DecayingRate {
+
+    private final LongAdder uncounted = new LongAdder();
+    private final double alpha;
+    private final double tickSeconds;
+    private volatile double perMinute;
+    private volatile boolean initialized;
+
+    DecayingRate(double tickSeconds, double windowSeconds) {
+        this.tickSeconds = tickSeconds;
+        this.alpha = 1 - Math.exp(-tickSeconds / windowSeconds);
+    }
+
+    void mark() {
+        uncounted.increment();
+    }
+
+    void tick() {
+        double instant = uncounted.sumThenReset() * 60.0 / tickSeconds;
+        if (initialized) {
+            perMinute += alpha * (instant - perMinute);
+        } else {
+            perMinute = instant;
+            initialized = true;
+        }
+    }
+
+    double perMinute() {
+        return perMinute;
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.card.fraud;
+
+/**
+ * Where a fraud feature comes from. Each source other than {@link #REQUEST} is one repository
+ * query, fetched at most once per check no matter how many rules read its features.
+ */
+public enum FeatureSource {
+    REQUEST,
+    HOUR_VELOCITY,
+    DAY_VELOCITY,
+    RECENT_TRANSACTIONS,
+    UNRESOLVED_FRAUD_EVENTS
+}
@@ -0,0 +1,12 @@
+package com.banking.card.fraud;
+
+import com.banking.card.domain.FraudSeverity;
+import java.util.List;
+
+public record FraudAssessment(
+        boolean fraudulent,
+        double score,
+        FraudSeverity severity,
+        List<String> riskFactors
+) {
+}
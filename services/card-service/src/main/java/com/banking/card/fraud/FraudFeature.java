@@ -0,0 +1,29 @@
+package com.banking.card.fraud;
+
+/**
+ * Numeric inputs a fraud rule can compare against its threshold.
+ */
+public enum FraudFeature {
+    AMOUNT(FeatureSource.REQUEST),
+    HOUR_TRANSACTION_COUNT(FeatureSource.HOUR_VELOCITY),
+    /** Amount already spent in the hourly window plus the amount being checked. */
+    HOUR_AMOUNT_WITH_CURRENT(FeatureSource.HOUR_VELOCITY),
+    DAY_TRANSACTION_COUNT(FeatureSource.DAY_VELOCITY),
+    /** Amount already spent in the daily window plus the amount being checked. */
+    DAY_AMOUNT_WITH_CURRENT(FeatureSource.DAY_VELOCITY),
+    /** Amount divided by the average of the card's last ten transactions; NaN without history. */
+    AMOUNT_TO_RECENT_AVERAGE(FeatureSource.RECENT_TRANSACTIONS),
+    /** 1 if any of the card's last five transactions was in a different country, else 0. */
+    RECENT_FOREIGN_COUNTRY(FeatureSource.RECENT_TRANSACTIONS),
+    UNRESOLVED_FRAUD_EVENTS(FeatureSource.UNRESOLVED_FRAUD_EVENTS);
+
+    private final FeatureSource source;
+
+    FraudFeature(FeatureSource source) {
+        this.source = source;
+    }
+
+    public FeatureSource source() {
+        return source;
+    }
+}
@@ -0,0 +1,42 @@
+package com.banking.card.fraud;
+
+import com.banking.card.service.HeavyHittersSketch;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/fraudhotcards}: the cards with the most recent fraud checks. Counts are
+ * Space-Saving estimates that may overstate a card by at most its {@code error}.
+ */
+@Component
+@Endpoint(id = "fraudhotcards")
+public class FraudHotCardsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final FraudTelemetry telemetry;
+
+    public FraudHotCardsEndpoint(FraudTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    @ReadOperation
+    public HotCardsReport hotCards(@Nullable Integer limit) {
+        int size = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        return new HotCardsReport(
+                telemetry.checksPerMinute(),
+                telemetry.detectionsPerMinute(),
+                telemetry.hotCards(size)
+        );
+    }
+
+    public record HotCardsReport(
+            double checksPerMinute,
+            double detectionsPerMinute,
+            List<HeavyHittersSketch.Estimate> cards
+    ) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.banking.card.fraud;
+
+import com.banking.card.domain.FraudSeverity;
+
+/**
+ * One configured rule: when {@code feature operator threshold} holds, {@code score} is added
+ * and the check's severity is raised to at least {@code severity}.
+ */
+public class FraudRuleDefinition {
+
+    private String name;
+    private String description;
+    private FraudFeature feature;
+    private RuleOperator operator = RuleOperator.GT;
+    private double threshold;
+    private double score;
+    private FraudSeverity severity = FraudSeverity.LOW;
+    private boolean enabled = true;
+
+    public FraudRuleDefinition() {
+    }
+
+    public FraudRuleDefinition(String name, String description, FraudFeature feature, RuleOperator operator,
+                               double threshold, double score, FraudSeverity severity) {
+        this.name = name;
+        this.description = description;
+        this.feature = feature;
+        this.operator = operator;
+        this.threshold = threshold;
+        this.score = score;
+        this.severity = severity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public FraudFeature getFeature() {
+        return feature;
+    }
+
+    public void setFeature(FraudFeature feature) {
+        this.feature = feature;
+    }
+
+    public RuleOperator getOperator() {
+        return operator;
+    }
+
+    public void setOperator(RuleOperator operator) {
+        this.operator = operator;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public FraudSeverity getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(FraudSeverity severity) {
+        this.severity = severity;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
@@ -0,0 +1,72 @@
+package com.banking.card.fraud;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the active {@link FraudRulePlan}. The plan is compiled from {@code card.fraud.rules}, or
+ * from {@code card.fraud.rules-file} when one is configured. The file is polled and a changed
+ * rule set is compiled and swapped in atomically. A set that fails to compile is logged and
+ * the previous plan stays active.
+ */
+@Component
+public class FraudRuleEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FraudRuleEngine.class);
+
+    private final FraudRuleProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final AtomicReference<FraudRulePlan> plan = new AtomicReference<>();
+    private volatile FileTime loadedFileVersion;
+
+    public FraudRuleEngine(FraudRuleProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        plan.set(FraudRulePlan.compile(properties.getRules(), properties.getFraudThreshold(), meterRegistry));
+        reloadIfChanged();
+    }
+
+    public FraudRulePlan plan() {
+        return plan.get();
+    }
+
+    @Scheduled(fixedDelayString = "${card.fraud.rules-reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        if (properties.getRulesFile() == null || properties.getRulesFile().isBlank()) {
+            return;
+        }
+        Path file = Paths.get(properties.getRulesFile());
+        try {
+            FileTime version = Files.getLastModifiedTime(file);
+            if (version.equals(loadedFileVersion)) {
+                return;
+            }
+            loadedFileVersion = version;
+            RuleSet ruleSet = objectMapper.readValue(file.toFile(), RuleSet.class);
+            double threshold = ruleSet.fraudThreshold() != null ? ruleSet.fraudThreshold() : properties.getFraudThreshold();
+            FraudRulePlan compiled = FraudRulePlan.compile(
+                    ruleSet.rules() != null ? ruleSet.rules() : List.of(), threshold, meterRegistry);
+            plan.set(compiled);
+            log.info("Loaded {} fraud rules from {}", compiled.size(), file);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Could not load fraud rules from {}; keeping the active rule set", file, e);
+        }
+    }
+
+    record RuleSet(Double fraudThreshold, List<FraudRuleDefinition> rules) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.banking.card.fraud;
+
+import com.banking.card.domain.FraudSeverity;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "card.fraud")
+public class FraudRuleProperties {
+
+    /**
+     * Total score at which a check is reported as fraudulent.
+     */
+    private double fraudThreshold = 50;
+
+    /**
+     * Optional JSON rule set ({@code {"fraudThreshold": .., "rules": [..]}}) that overrides the
+     * rules below and is re-read whenever it changes on disk.
+     */
+    private String rulesFile;
+
+    private List<FraudRuleDefinition> rules = new ArrayList<>(defaultRules());
+
+    public double getFraudThreshold() {
+        return fraudThreshold;
+    }
+
+    public void setFraudThreshold(double fraudThreshold) {
+        this.fraudThreshold = fraudThreshold;
+    }
+
+    public String getRulesFile() {
+        return rulesFile;
+    }
+
+    public void setRulesFile(String rulesFile) {
+        this.rulesFile = rulesFile;
+    }
+
+    public List<FraudRuleDefinition> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<FraudRuleDefinition> rules) {
+        this.rules = rules;
+    }
+
+    static List<FraudRuleDefinition> defaultRules() {
+        return List.of(
+                new FraudRuleDefinition("hourly-count", "Hourly transaction limit exceeded",
+                        FraudFeature.HOUR_TRANSACTION_COUNT, RuleOperator.GTE, 10, 30, FraudSeverity.HIGH),
+                new FraudRuleDefinition("hourly-amount", "Hourly amount limit exceeded",
+                        FraudFeature.HOUR_AMOUNT_WITH_CURRENT, RuleOperator.GT, 5000, 25, FraudSeverity.HIGH),
+                new FraudRuleDefinition("daily-count", "Daily transaction limit exceeded",
+                        FraudFeature.DAY_TRANSACTION_COUNT, RuleOperator.GTE, 50, 40, FraudSeverity.CRITICAL),
+                new FraudRuleDefinition("daily-amount", "Daily amount limit exceeded",
+                        FraudFeature.DAY_AMOUNT_WITH_CURRENT, RuleOperator.GT, 10000, 35, FraudSeverity.CRITICAL),
+                new FraudRuleDefinition("unusual-amount", "Unusual transaction amount",
+                        FraudFeature.AMOUNT_TO_RECENT_AVERAGE, RuleOperator.GT, 3, 20, FraudSeverity.MEDIUM),
+                new FraudRuleDefinition("unusual-location", "Unusual transaction location",
+                        FraudFeature.RECENT_FOREIGN_COUNTRY, RuleOperator.GTE, 1, 25, FraudSeverity.HIGH),
+                new FraudRuleDefinition("unresolved-events", "Existing unresolved fraud events",
+                        FraudFeature.UNRESOLVED_FRAUD_EVENTS, RuleOperator.GTE, 1, 15, FraudSeverity.HIGH)
+        );
+    }
+}
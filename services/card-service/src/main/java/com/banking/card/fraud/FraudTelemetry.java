@@ -0,0 +1,114 @@
+package com.banking.card.fraud;
+
+import com.banking.card.domain.FraudSeverity;
+import com.banking.card.domain.VelocityWindow;
+import com.banking.card.service.HeavyHittersSketch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fraud metrics whose cardinality does not grow with the number of cards. Meters are tagged by
+ * window or severity only; per-card activity goes into a fixed-size heavy-hitters sketch that is
+ * decayed periodically, so the hottest cards are visible through the {@code fraudhotcards}
+ * actuator endpoint without keeping a meter per card.
+ */
+@Component
+public class FraudTelemetry {
+
+    static final int TICK_SECONDS = 5;
+    private static final int RATE_WINDOW_SECONDS = 60;
+
+    private final Map<VelocityWindow, Counter> velocityUpdates = new EnumMap<>(VelocityWindow.class);
+    private final Map<FraudSeverity, Counter> detections = new EnumMap<>(FraudSeverity.class);
+    private final DecayingRate checkRate = new DecayingRate(TICK_SECONDS, RATE_WINDOW_SECONDS);
+    private final DecayingRate detectionRate = new DecayingRate(TICK_SECONDS, RATE_WINDOW_SECONDS);
+    private final HeavyHittersSketch hotCards;
+    private final double decayFactor;
+
+    public FraudTelemetry(MeterRegistry meterRegistry,
+                          @Value("${card.fraud.telemetry.hot-cards:100}") int hotCardCapacity,
+                          @Value("${card.fraud.telemetry.decay-factor:0.5}") double decayFactor) {
+        this.hotCards = new HeavyHittersSketch(hotCardCapacity);
+        this.decayFactor = decayFactor;
+        for (VelocityWindow window : VelocityWindow.values()) {
+            velocityUpdates.put(window, Counter.builder("card.fraud.velocity.updated")
+                    .tag("window", window.name())
+                    .description("Velocity tracking windows updated by fraud checks")
+                    .register(meterRegistry));
+        }
+        for (FraudSeverity severity : FraudSeverity.values()) {
+            detections.put(severity, Counter.builder("card.fraud.detected")
+                    .tag("severity", severity.name())
+                    .description("Fraud checks that crossed the fraud threshold")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("card.fraud.checks.rate", checkRate, DecayingRate::perMinute)
+                .description("Fraud checks per minute, exponentially decayed")
+                .baseUnit("per_minute")
+                .register(meterRegistry);
+        Gauge.builder("card.fraud.detected.rate", detectionRate, DecayingRate::perMinute)
+                .description("Fraud detections per minute, exponentially decayed")
+                .baseUnit("per_minute")
+                .register(meterRegistry);
+        Gauge.builder("card.fraud.hot_cards.tracked", this, FraudTelemetry::trackedCards)
+                .description("Cards currently held in the hot-card sketch")
+                .register(meterRegistry);
+    }
+
+    public void recordCheck(UUID cardId) {
+        checkRate.mark();
+        synchronized (hotCards) {
+            hotCards.offer(cardId.toString());
+        }
+    }
+
+    public void recordVelocityUpdate(VelocityWindow window) {
+        velocityUpdates.get(window).increment();
+    }
+
+    public void recordDetection(FraudSeverity severity) {
+        detections.get(severity).increment();
+        detectionRate.mark();
+    }
+
+    public double checksPerMinute() {
+        return checkRate.perMinute();
+    }
+
+    public double detectionsPerMinute() {
+        return detectionRate.perMinute();
+    }
+
+    public List<HeavyHittersSketch.Estimate> hotCards(int limit) {
+        synchronized (hotCards) {
+            return hotCards.heaviest(limit);
+        }
+    }
+
+    @Scheduled(fixedRate = TICK_SECONDS * 1000L)
+    public void tick() {
+        checkRate.tick();
+        detectionRate.tick();
+    }
+
+    @Scheduled(fixedDelayString = "${card.fraud.telemetry.decay-interval-ms:60000}")
+    public void decayHotCards() {
+        synchronized (hotCards) {
+            hotCards.decay(decayFactor);
+        }
+    }
+
+    private int trackedCards() {
+        synchronized (hotCards) {
+            return hotCards.size();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.banking.card.fraud;
+
+public enum RuleOperator {
+    GT,
+    GTE,
+    LT,
+    LTE,
+    EQ;
+
+    /**
+     * NaN never matches, so rules over a missing feature stay silent.
+     */
+    boolean test(double value, double threshold) {
+        return switch (this) {
+            case GT -> value > threshold;
+            case GTE -> value >= threshold;
+            case LT -> value < threshold;
+            case LTE -> value <= threshold;
+            case EQ -> value == threshold;
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.banking.card.hold;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Open-to-buy for one account: the last known balance, the total of its active holds and the
+ * total of its captures the account service has not posted yet, swapped together by
+ * compare-and-set so a reservation never sees one without the others. Authorizations
+ * on different accounts never touch the same state; those on one account retry only against each
+ * other.
+ */
+final class AccountFunds {
+
+    private final AtomicReference<Position> position;
+    private volatile boolean stale;
+
+    AccountFunds(long balance, long held, boolean stale) {
+        this.position = new AtomicReference<>(new Position(balance, held, 0));
+        this.stale = stale;
+    }
+
+    boolean tryReserve(long units) {
+        while (true) {
+            Position current = position.get();
+            if (current.available() < units) {
+                return false;
+            }
+            if (position.compareAndSet(current, current.withHeld(current.held() + units))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Re-adds a hold read back from storage, without checking it against the balance.
+     */
+    void restore(long units) {
+        position.updateAndGet(current -> current.withHeld(current.held() + units));
+    }
+
+    /**
+     * Re-adds an unposted capture read back from storage.
+     */
+    void restoreCaptured(long units) {
+        position.updateAndGet(current -> new Position(current.balance(), current.held(), current.captured() + units));
+    }
+
+    void release(long units) {
+        position.updateAndGet(current -> current.withHeld(current.held() - units));
+    }
+
+    /**
+     * Turns held funds into a debit the account service has yet to post. They stop counting as
+     * held and count as captured instead, so the amount available to spend does not change and
+     * stays that way through a {@link #rebase} until the debit is posted.
+     */
+    void capture(long units) {
+        position.updateAndGet(current ->
+                new Position(current.balance(), current.held() - units, current.captured() + units));
+    }
+
+    /**
+     * Records that the account service has booked a captured debit: it comes off the balance,
+     * as the next fetched balance will show, and stops counting as captured.
+     */
+    void posted(long units) {
+        position.updateAndGet(current ->
+                new Position(current.balance() - units, current.held(), current.captured() - units));
+    }
+
+    /**
+     * Replaces the balance with a fresh one from the account service, keeping active holds and
+     * unposted captures, which that balance does not include yet.
+     */
+    void rebase(long balance) {
+        position.updateAndGet(current -> new Position(balance, current.held(), current.captured()));
+        stale = false;
+    }
+
+    void markStale() {
+        stale = true;
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+
+    long available() {
+        return position.get().available();
+    }
+
+    long held() {
+        return position.get().held();
+    }
+
+    long captured() {
+        return position.get().captured();
+    }
+
+    private record Position(long balance, long held, long captured) {
+
+        long available() {
+            return balance - held - captured;
+        }
+
+        Position withHeld(long newHeld) {
+            return new Position(balance, newHeld, captured);
+        }
+    }
+}
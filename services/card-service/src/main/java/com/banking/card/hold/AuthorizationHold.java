@@ -0,0 +1,92 @@
+package com.banking.card.hold;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Funds reserved for one approved authorization. The amount is kept in ten-thousandths, the scale
+ * of the {@code amount} columns (finer amounts round up), so the ledger works in exact
+ * {@code long} arithmetic. Only an
+ * ACTIVE hold can move, and only once, which makes capture, release and expiry race-free. A
+ * captured hold moves once more, to POSTED, when the account service has booked the debit.
+ */
+public final class AuthorizationHold {
+
+    static final int SCALE = 4;
+
+    private final UUID id;
+    private final UUID cardId;
+    private final UUID accountId;
+    private final long units;
+    private final String currency;
+    private final Instant expiresAt;
+    private final Instant createdAt;
+    private final AtomicReference<HoldStatus> status;
+
+    AuthorizationHold(UUID id, UUID cardId, UUID accountId, long units, String currency,
+                      Instant expiresAt, Instant createdAt, HoldStatus status) {
+        this.id = id;
+        this.cardId = cardId;
+        this.accountId = accountId;
+        this.units = units;
+        this.currency = currency;
+        this.expiresAt = expiresAt;
+        this.createdAt = createdAt;
+        this.status = new AtomicReference<>(status);
+    }
+
+    static long toUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    boolean finish(HoldStatus outcome) {
+        return status.compareAndSet(HoldStatus.ACTIVE, outcome);
+    }
+
+    boolean post() {
+        return status.compareAndSet(HoldStatus.CAPTURED, HoldStatus.POSTED);
+    }
+
+    public UUID id() {
+        return id;
+    }
+
+    public UUID cardId() {
+        return cardId;
+    }
+
+    public UUID accountId() {
+        return accountId;
+    }
+
+    long units() {
+        return units;
+    }
+
+    public BigDecimal amount() {
+        return fromUnits(units);
+    }
+
+    public String currency() {
+        return currency;
+    }
+
+    public Instant expiresAt() {
+        return expiresAt;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public HoldStatus status() {
+        return status.get();
+    }
+}
@@ -0,0 +1,281 @@
+package com.banking.card.hold;
+
+import com.banking.card.integration.CoalescingBalanceClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory open-to-buy ledger. Each approved authorization reserves its amount against the
+ * card's account; the hold is later captured, released or left to expire. The available amount
+ * is the account's balance, fetched once and refreshed when {@code account-events} reports a
+ * change, less its active holds and the captures the account service has not posted yet. A
+ * capture stays outstanding, in memory and in {@code authorization_holds}, until
+ * {@link #posted} reports the debit booked, so a refreshed balance never hands captured funds
+ * back.
+ *
+ * <p>Reserve, capture and release are compare-and-set operations on per-account state, so there
+ * is no lock on the authorization path. Persistence goes through {@link HoldWriteBehind}; active
+ * holds are read back on startup before any request is served.
+ *
+ * <p>The state is only correct if every hold of an account goes through one ledger, so exactly one
+ * instance runs it: the holder of the {@link HoldLedgerLease}. The others reject hold operations
+ * with {@link HoldLedgerUnavailableException} and keep trying for the lease; the one that gets it
+ * reads the holds back from storage before serving. Authorization, capture and transfer traffic
+ * should be routed to the owning instance.
+ */
+@Component
+public class AuthorizationHoldLedger implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizationHoldLedger.class);
+
+    private final CoalescingBalanceClient balanceClient;
+    private final HoldWriteBehind writeBehind;
+    private final HoldLedgerLease lease;
+    private final Duration holdTtl;
+    private final long tickMillis;
+    private final int wheelSize;
+    private volatile HoldExpiryWheel expiryWheel;
+    private volatile boolean owner;
+    private final Map<UUID, AccountFunds> accounts = new ConcurrentHashMap<>();
+    private final Map<UUID, AuthorizationHold> holds = new ConcurrentHashMap<>();
+    private final Map<UUID, AuthorizationHold> unposted = new ConcurrentHashMap<>();
+    private final Counter reserved;
+    private final Counter declined;
+    private final Counter captured;
+    private final Counter posted;
+    private final Counter released;
+    private final Counter expired;
+
+    public AuthorizationHoldLedger(
+            CoalescingBalanceClient balanceClient,
+            HoldWriteBehind writeBehind,
+            HoldLedgerLease lease,
+            MeterRegistry meterRegistry,
+            @Value("${card.authorization.hold.ttl:7d}") Duration holdTtl,
+            @Value("${card.authorization.hold.tick-ms:1000}") long tickMillis,
+            @Value("${card.authorization.hold.wheel-size:3600}") int wheelSize) {
+        this.balanceClient = balanceClient;
+        this.writeBehind = writeBehind;
+        this.lease = lease;
+        this.holdTtl = holdTtl;
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.reserved = meterRegistry.counter("card.authorization.holds", "outcome", "reserved");
+        this.declined = meterRegistry.counter("card.authorization.holds", "outcome", "insufficient_funds");
+        this.captured = meterRegistry.counter("card.authorization.holds", "outcome", "captured");
+        this.posted = meterRegistry.counter("card.authorization.holds", "outcome", "posted");
+        this.released = meterRegistry.counter("card.authorization.holds", "outcome", "released");
+        this.expired = meterRegistry.counter("card.authorization.holds", "outcome", "expired");
+        meterRegistry.gauge("card.authorization.holds.active", holds, Map::size);
+        meterRegistry.gauge("card.authorization.holds.unposted", unposted, Map::size);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        renewLease();
+    }
+
+    /**
+     * Renews the ledger lease, taking the ledger over when this instance gets it and dropping its
+     * state when the lease is lost or ran out since the last renewal.
+     */
+    @Scheduled(fixedDelayString = "${card.authorization.hold.lease.renew-ms:5000}",
+            initialDelayString = "${card.authorization.hold.lease.renew-ms:5000}")
+    public synchronized void renewLease() {
+        boolean lapsed = owner && !lease.isHeld();
+        boolean held = lease.tryAcquire();
+        if (owner && (lapsed || !held)) {
+            owner = false;
+            clear();
+            log.error("Lost the authorization hold ledger lease; rejecting hold operations until it is regained");
+        }
+        if (held && !owner) {
+            takeOver();
+        }
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        if (owner) {
+            owner = false;
+            writeBehind.flush();
+            lease.release();
+        }
+    }
+
+    private void takeOver() {
+        clear();
+        List<AuthorizationHold> outstanding = writeBehind.loadOutstanding(Instant.now());
+        for (AuthorizationHold hold : outstanding) {
+            // The balance is unknown until the account's next reservation fetches it.
+            AccountFunds funds = accounts.computeIfAbsent(hold.accountId(), id -> new AccountFunds(0, 0, true));
+            if (hold.status() == HoldStatus.CAPTURED) {
+                unposted.put(hold.id(), hold);
+                funds.restoreCaptured(hold.units());
+            } else {
+                holds.put(hold.id(), hold);
+                funds.restore(hold.units());
+                expiryWheel.schedule(hold);
+            }
+        }
+        owner = true;
+        log.info("Took over the authorization hold ledger: restored {} active holds and {} unposted captures "
+                + "across {} accounts", holds.size(), unposted.size(), accounts.size());
+    }
+
+    private void clear() {
+        accounts.clear();
+        holds.clear();
+        unposted.clear();
+        expiryWheel = new HoldExpiryWheel(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Reserves {@code amount} on the account. Returns the hold, or {@code null} when the account
+     * does not have that much available.
+     */
+    public AuthorizationHold reserve(UUID holdId, UUID cardId, UUID accountId, BigDecimal amount, String currency) {
+        requireOwner();
+        long units = AuthorizationHold.toUnits(amount);
+        AccountFunds funds = fundsFor(accountId, currency);
+        if (!funds.tryReserve(units)) {
+            declined.increment();
+            return null;
+        }
+        Instant now = Instant.now();
+        AuthorizationHold hold = new AuthorizationHold(
+                holdId, cardId, accountId, units, currency, now.plus(holdTtl), now, HoldStatus.ACTIVE);
+        holds.put(holdId, hold);
+        expiryWheel.schedule(hold);
+        writeBehind.enqueue(hold, HoldStatus.ACTIVE);
+        reserved.increment();
+        return hold;
+    }
+
+    public AuthorizationHold capture(UUID holdId) {
+        AuthorizationHold hold = finish(holdId, HoldStatus.CAPTURED);
+        unposted.put(holdId, hold);
+        accounts.get(hold.accountId()).capture(hold.units());
+        captured.increment();
+        return hold;
+    }
+
+    /**
+     * Records that the account service has booked the debit of a captured hold, so the
+     * account's balance now includes it.
+     */
+    public AuthorizationHold posted(UUID holdId) {
+        requireOwner();
+        AuthorizationHold hold = unposted.get(holdId);
+        if (hold == null) {
+            throw new HoldNotFoundException(holdId);
+        }
+        if (!hold.post()) {
+            throw new IllegalStateException("Authorization hold " + holdId + " is already " + hold.status());
+        }
+        unposted.remove(holdId);
+        accounts.get(hold.accountId()).posted(hold.units());
+        writeBehind.enqueue(hold, HoldStatus.POSTED);
+        posted.increment();
+        return hold;
+    }
+
+    public AuthorizationHold release(UUID holdId) {
+        AuthorizationHold hold = finish(holdId, HoldStatus.RELEASED);
+        accounts.get(hold.accountId()).release(hold.units());
+        released.increment();
+        return hold;
+    }
+
+    /**
+     * An active hold, or a captured one the account service has not posted yet.
+     */
+    public AuthorizationHold get(UUID holdId) {
+        requireOwner();
+        AuthorizationHold hold = holds.get(holdId);
+        if (hold == null) {
+            hold = unposted.get(holdId);
+        }
+        if (hold == null) {
+            throw new HoldNotFoundException(holdId);
+        }
+        return hold;
+    }
+
+    /**
+     * Amount still available to spend on the account, or {@code null} if the ledger has not
+     * loaded it yet.
+     */
+    public BigDecimal available(UUID accountId) {
+        AccountFunds funds = accounts.get(accountId);
+        return funds != null ? AuthorizationHold.fromUnits(funds.available()) : null;
+    }
+
+    /**
+     * Schedules a balance refresh for the account before its next reservation.
+     */
+    public void refreshBalance(UUID accountId) {
+        AccountFunds funds = accounts.get(accountId);
+        if (funds != null) {
+            funds.markStale();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${card.authorization.hold.tick-ms:1000}")
+    public void expireDue() {
+        if (!owner) {
+            return;
+        }
+        expiryWheel.advance(System.currentTimeMillis(), hold -> {
+            if (hold.finish(HoldStatus.EXPIRED)) {
+                accounts.get(hold.accountId()).release(hold.units());
+                holds.remove(hold.id());
+                writeBehind.enqueue(hold, HoldStatus.EXPIRED);
+                expired.increment();
+            }
+        });
+    }
+
+    private AuthorizationHold finish(UUID holdId, HoldStatus outcome) {
+        AuthorizationHold hold = get(holdId);
+        if (!hold.finish(outcome)) {
+            throw new IllegalStateException("Authorization hold " + holdId + " is already " + hold.status());
+        }
+        holds.remove(holdId);
+        writeBehind.enqueue(hold, outcome);
+        return hold;
+    }
+
+    private void requireOwner() {
+        if (!owner || !lease.isHeld()) {
+            throw new HoldLedgerUnavailableException();
+        }
+    }
+
+    private AccountFunds fundsFor(UUID accountId, String currency) {
+        AccountFunds funds = accounts.get(accountId);
+        if (funds == null || funds.isStale()) {
+            // Fetched outside the map so a slow balance call never blocks other accounts.
+            long balance = AuthorizationHold.toUnits(balanceClient.getAvailableBalance(accountId, currency));
+            if (funds == null) {
+                funds = accounts.computeIfAbsent(accountId, id -> new AccountFunds(balance, 0, false));
+            }
+            funds.rebase(balance);
+        }
+        return funds;
+    }
+}
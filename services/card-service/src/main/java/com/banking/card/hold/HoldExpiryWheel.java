@@ -0,0 +1,75 @@
+package com.banking.card.hold;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for hold expiry. Scheduling drops the hold into the slot for its deadline
+ * tick in O(1); each {@link #advance} visits only the slots for ticks that have passed, and within
+ * a slot only holds due on a later revolution are skipped. Holds that finished before expiring are
+ * discarded when their slot comes round. {@code advance} is expected from a single thread;
+ * {@code schedule} may be called from any.
+ */
+final class HoldExpiryWheel {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Queue<Entry>[] slots;
+    private volatile long processedTick;
+
+    @SuppressWarnings("unchecked")
+    HoldExpiryWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("tick and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.slots = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    void schedule(AuthorizationHold hold) {
+        long deadlineTick = Math.max(processedTick + 1, tickOf(hold.expiresAt()));
+        slots[(int) (deadlineTick % slots.length)].add(new Entry(hold, deadlineTick));
+    }
+
+    /**
+     * Expires every hold whose deadline tick is at or before {@code nowMillis}.
+     */
+    void advance(long nowMillis, Consumer<AuthorizationHold> onExpired) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        long tick = processedTick;
+        long lastTick = Math.min(targetTick, tick + slots.length);
+        while (tick < lastTick) {
+            tick++;
+            expireSlot(slots[(int) (tick % slots.length)], targetTick, onExpired);
+        }
+        processedTick = Math.max(tick, targetTick);
+    }
+
+    private void expireSlot(Queue<Entry> slot, long targetTick, Consumer<AuthorizationHold> onExpired) {
+        Iterator<Entry> entries = slot.iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.hold().status() != HoldStatus.ACTIVE) {
+                entries.remove();
+            } else if (entry.deadlineTick() <= targetTick) {
+                entries.remove();
+                onExpired.accept(entry.hold());
+            }
+        }
+    }
+
+    private long tickOf(Instant instant) {
+        long millis = instant.toEpochMilli() - startMillis;
+        return Math.floorDiv(millis + tickMillis - 1, tickMillis);
+    }
+
+    private record Entry(AuthorizationHold hold, long deadlineTick) {
+    }
+}
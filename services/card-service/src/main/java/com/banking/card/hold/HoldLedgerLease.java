@@ -0,0 +1,80 @@
+package com.banking.card.hold;
+
+import java.time.Duration;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lease on the single row of {@code authorization_hold_ledger_lease}, naming the one instance
+ * allowed to run the hold ledger. The holder renews it well within its TTL; another instance can
+ * take it only once it has expired by the database clock. The holder counts the lease as held
+ * for the TTL from the start of its last successful renewal, so it stops serving before anyone
+ * else can start, even if renewals fail because the database is unreachable.
+ */
+@Component
+public class HoldLedgerLease {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldLedgerLease.class);
+
+    private static final String ACQUIRE = """
+            INSERT INTO authorization_hold_ledger_lease (id, owner, expires_at)
+            VALUES (1, ?, now() + make_interval(secs => ?))
+            ON CONFLICT (id) DO UPDATE
+                SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at
+                WHERE authorization_hold_ledger_lease.owner = EXCLUDED.owner
+                   OR authorization_hold_ledger_lease.expires_at < now()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final String owner = UUID.randomUUID().toString();
+    private volatile boolean held;
+    private volatile long heldUntilNanos;
+
+    public HoldLedgerLease(
+            JdbcTemplate jdbcTemplate,
+            @Value("${card.authorization.hold.lease.ttl:15s}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Takes or renews the lease. Returns whether this instance holds it afterwards; a renewal
+     * that fails on a database error leaves the current lease to run out.
+     */
+    public boolean tryAcquire() {
+        long startedAt = System.nanoTime();
+        try {
+            if (jdbcTemplate.update(ACQUIRE, owner, ttl.toMillis() / 1000.0) == 1) {
+                heldUntilNanos = startedAt + ttl.toNanos();
+                held = true;
+            } else {
+                held = false;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not renew the authorization hold ledger lease: {}", e.getMessage());
+        }
+        return isHeld();
+    }
+
+    public boolean isHeld() {
+        return held && heldUntilNanos - System.nanoTime() > 0;
+    }
+
+    /**
+     * Gives the lease up so another instance can take over without waiting for it to expire.
+     */
+    void release() {
+        held = false;
+        try {
+            jdbcTemplate.update("DELETE FROM authorization_hold_ledger_lease WHERE owner = ?", owner);
+        } catch (DataAccessException e) {
+            log.warn("Could not release the authorization hold ledger lease; it expires in {}", ttl, e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.banking.card.hold;
+
+public class HoldLedgerUnavailableException extends RuntimeException {
+
+    public HoldLedgerUnavailableException() {
+        super("This instance does not own the authorization hold ledger");
+    }
+}
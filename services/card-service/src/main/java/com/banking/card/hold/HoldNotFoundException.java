@@ -0,0 +1,10 @@
+package com.banking.card.hold;
+
+import java.util.UUID;
+
+public class HoldNotFoundException extends RuntimeException {
+
+    public HoldNotFoundException(UUID id) {
+        super("Authorization hold not found: " + id);
+    }
+}
@@ -0,0 +1,9 @@
+package com.banking.card.hold;
+
+public enum HoldStatus {
+    ACTIVE,
+    CAPTURED,
+    POSTED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,142 @@
+package com.banking.card.hold;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persists hold changes off the authorization path. Changes are queued in memory and flushed in
+ * JDBC batches; several changes to one hold within a flush collapse into one, where the change
+ * further along ACTIVE, finished, POSTED wins and otherwise the latest does. A failed batch is
+ * retried ahead of anything queued since, and rows only ever move forward, out of ACTIVE or from
+ * CAPTURED to POSTED, so a retried stale write cannot resurrect a finished hold. A crash loses at
+ * most the changes of one flush interval.
+ */
+@Component
+public class HoldWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldWriteBehind.class);
+
+    private static final String UPSERT = """
+            INSERT INTO authorization_holds
+                (id, card_id, account_id, amount, currency, status, expires_at, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE
+                SET status = EXCLUDED.status, updated_at = EXCLUDED.updated_at
+                WHERE authorization_holds.status = 'ACTIVE'
+                   OR (authorization_holds.status = 'CAPTURED' AND EXCLUDED.status = 'POSTED')
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final ConcurrentLinkedQueue<HoldChange> pending = new ConcurrentLinkedQueue<>();
+    // Changes from a failed batch, guarded by this
+    private final Map<UUID, HoldChange> retry = new LinkedHashMap<>();
+
+    public HoldWriteBehind(
+            JdbcTemplate jdbcTemplate,
+            @Value("${card.authorization.hold.flush-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    void enqueue(AuthorizationHold hold, HoldStatus status) {
+        pending.add(new HoldChange(hold, status, Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${card.authorization.hold.flush-interval-ms:200}")
+    public synchronized void flush() {
+        while (!retry.isEmpty() || !pending.isEmpty()) {
+            Map<UUID, HoldChange> batch = new LinkedHashMap<>(retry);
+            retry.clear();
+            HoldChange change;
+            while (batch.size() < batchSize && (change = pending.poll()) != null) {
+                batch.merge(change.hold().id(), change, HoldWriteBehind::settled);
+            }
+            try {
+                write(new ArrayList<>(batch.values()));
+            } catch (RuntimeException e) {
+                log.error("Failed to persist {} authorization hold changes; retrying on the next flush", batch.size(), e);
+                retry.putAll(batch);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Marks holds that expired while the service was down and returns the rest of the active ones,
+     * along with the captured ones not posted yet.
+     */
+    List<AuthorizationHold> loadOutstanding(Instant now) {
+        jdbcTemplate.update(
+                "UPDATE authorization_holds SET status = 'EXPIRED', updated_at = ? WHERE status = 'ACTIVE' AND expires_at <= ?",
+                Timestamp.from(now), Timestamp.from(now));
+        return jdbcTemplate.query(
+                "SELECT id, card_id, account_id, amount, currency, status, expires_at, created_at "
+                        + "FROM authorization_holds WHERE status IN ('ACTIVE', 'CAPTURED')",
+                (rs, rowNum) -> new AuthorizationHold(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("card_id", UUID.class),
+                        rs.getObject("account_id", UUID.class),
+                        AuthorizationHold.toUnits(rs.getBigDecimal("amount")),
+                        rs.getString("currency"),
+                        rs.getTimestamp("expires_at").toInstant(),
+                        rs.getTimestamp("created_at").toInstant(),
+                        HoldStatus.valueOf(rs.getString("status"))));
+    }
+
+    /**
+     * The change to keep when two touch the same hold. A hold only moves forward, so the change
+     * further along wins whatever order the two arrived in.
+     */
+    private static HoldChange settled(HoldChange earlier, HoldChange later) {
+        int byStage = Integer.compare(stage(earlier.status()), stage(later.status()));
+        if (byStage != 0) {
+            return byStage > 0 ? earlier : later;
+        }
+        return later.changedAt().isBefore(earlier.changedAt()) ? earlier : later;
+    }
+
+    private static int stage(HoldStatus status) {
+        return switch (status) {
+            case ACTIVE -> 0;
+            case CAPTURED, RELEASED, EXPIRED -> 1;
+            case POSTED -> 2;
+        };
+    }
+
+    private void write(List<HoldChange> changes) {
+        jdbcTemplate.batchUpdate(UPSERT, changes, changes.size(), (ps, change) -> {
+            AuthorizationHold hold = change.hold();
+            ps.setObject(1, hold.id());
+            ps.setObject(2, hold.cardId());
+            ps.setObject(3, hold.accountId());
+            ps.setBigDecimal(4, hold.amount());
+            ps.setString(5, hold.currency());
+            ps.setString(6, change.status().name());
+            ps.setTimestamp(7, Timestamp.from(hold.expiresAt()));
+            ps.setTimestamp(8, Timestamp.from(hold.createdAt()));
+            ps.setTimestamp(9, Timestamp.from(change.changedAt()));
+        });
+    }
+
+    private record HoldChange(AuthorizationHold hold, HoldStatus status, Instant changedAt) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.banking.card.integration;
+
+import com.banking.card.hold.AuthorizationHoldLedger;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached balances, and has the hold ledger refresh its copy, when the account service
+ * reports a change. Every instance keeps its own
+ * cache, so each one joins its own consumer group and sees every event.
+ */
+@Component
+public class AccountBalanceInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountBalanceInvalidationListener.class);
+
+    private final CoalescingBalanceClient balanceClient;
+    private final AuthorizationHoldLedger holdLedger;
+    private final ObjectMapper objectMapper;
+
+    public AccountBalanceInvalidationListener(CoalescingBalanceClient balanceClient,
+                                              AuthorizationHoldLedger holdLedger,
+                                              ObjectMapper objectMapper) {
+        this.balanceClient = balanceClient;
+        this.holdLedger = holdLedger;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(
+            topics = "${card.balance.cache.invalidation-topic:account-events}",
+            groupId = "card-service-balance-cache-${random.uuid}",
+            properties = "auto.offset.reset=latest")
+    public void onAccountEvent(ConsumerRecord<String, String> record) {
+        UUID accountId = accountId(record);
+        if (accountId != null) {
+            balanceClient.invalidate(accountId);
+            holdLedger.refreshBalance(accountId);
+        }
+    }
+
+    private UUID accountId(ConsumerRecord<String, String> record) {
+        try {
+            if (record.key() != null) {
+                return UUID.fromString(record.key());
+            }
+            JsonNode accountId = objectMapper.readTree(record.value()).get("accountId");
+            return accountId != null && accountId.isTextual() ? UUID.fromString(accountId.asText()) : null;
+        } catch (Exception e) {
+            log.warn("Ignoring account event without a readable account id at {}-{}@{}",
+                    record.topic(), record.partition(), record.offset());
+            return null;
+        }
+    }
+}
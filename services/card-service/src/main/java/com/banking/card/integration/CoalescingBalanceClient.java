@@ -0,0 +1,179 @@
+package com.banking.card.integration;
+
+import com.banking.card.cache.BoundedMaps;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Front for {@link BalanceServiceClient} that turns a burst of balance checks for one account into
+ * a single remote call:
+ * <ul>
+ *   <li>only {@code getAvailableBalance} is called; callers derive sufficiency from it,</li>
+ *   <li>concurrent lookups for the same account and currency share one in-flight call,</li>
+ *   <li>results are cached for a short TTL and evicted when {@code account-events} reports a
+ *       change to the account,</li>
+ *   <li>a call still running after the observed p95 latency gets a hedged second request, and
+ *       whichever answers first wins.</li>
+ * </ul>
+ * A result fetched while an invalidation was in flight is returned but not cached.
+ */
+@Component
+public class CoalescingBalanceClient implements DisposableBean {
+
+    private static final long MIN_SAMPLES_FOR_P95 = 20;
+
+    private final BalanceServiceClient delegate;
+    private final CircuitBreaker externalHttpCircuitBreaker;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final long defaultHedgeDelayMillis;
+    private final long minHedgeDelayMillis;
+    private final Map<UUID, CachedBalance> cache = new ConcurrentHashMap<>();
+    private final Map<BalanceKey, CompletableFuture<BigDecimal>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Timer remoteLatency;
+    private final Counter cacheHits;
+    private final Counter coalesced;
+    private final Counter remoteCalls;
+    private final Counter hedges;
+
+    public CoalescingBalanceClient(
+            BalanceServiceClient delegate,
+            CircuitBreaker externalHttpCircuitBreaker,
+            MeterRegistry meterRegistry,
+            @Value("${card.balance.cache.ttl-ms:2000}") long ttlMillis,
+            @Value("${card.balance.cache.max-size:50000}") int maxSize,
+            @Value("${card.balance.hedge.default-delay-ms:250}") long defaultHedgeDelayMillis,
+            @Value("${card.balance.hedge.min-delay-ms:20}") long minHedgeDelayMillis) {
+        this.delegate = delegate;
+        this.externalHttpCircuitBreaker = externalHttpCircuitBreaker;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxSize = maxSize;
+        this.defaultHedgeDelayMillis = defaultHedgeDelayMillis;
+        this.minHedgeDelayMillis = minHedgeDelayMillis;
+        this.remoteLatency = Timer.builder("card.balance.remote.latency")
+                .description("Latency of remote available-balance calls")
+                .publishPercentiles(0.95)
+                .register(meterRegistry);
+        this.cacheHits = meterRegistry.counter("card.balance.lookups", "outcome", "cache_hit");
+        this.coalesced = meterRegistry.counter("card.balance.lookups", "outcome", "coalesced");
+        this.remoteCalls = meterRegistry.counter("card.balance.lookups", "outcome", "remote");
+        this.hedges = meterRegistry.counter("card.balance.hedged.requests");
+    }
+
+    public BigDecimal getAvailableBalance(UUID accountId, String currency) {
+        long now = System.nanoTime();
+        CachedBalance cached = cache.get(accountId);
+        if (cached != null && cached.currency().equals(currency) && now - cached.expiresAt() < 0) {
+            cacheHits.increment();
+            return cached.availableBalance();
+        }
+        BalanceKey key = new BalanceKey(accountId, currency);
+        CompletableFuture<BigDecimal> call = inFlight.get(key);
+        if (call != null) {
+            coalesced.increment();
+        } else {
+            CompletableFuture<BigDecimal> started = new CompletableFuture<>();
+            call = inFlight.putIfAbsent(key, started);
+            if (call != null) {
+                coalesced.increment();
+            } else {
+                call = started;
+                remoteCalls.increment();
+                fetch(key, started);
+            }
+        }
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(UUID accountId) {
+        invalidations.incrementAndGet();
+        cache.remove(accountId);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void fetch(BalanceKey key, CompletableFuture<BigDecimal> result) {
+        long generation = invalidations.get();
+        executor.execute(() -> attempt(key, result, true));
+        CompletableFuture.delayedExecutor(hedgeDelayMillis(), TimeUnit.MILLISECONDS, executor).execute(() -> {
+            if (!result.isDone()) {
+                hedges.increment();
+                attempt(key, result, false);
+            }
+        });
+        result.whenComplete((balance, error) -> {
+            inFlight.remove(key, result);
+            if (error == null && invalidations.get() == generation) {
+                BoundedMaps.makeRoom(cache, maxSize, CachedBalance::expiresAt);
+                cache.put(key.accountId(), new CachedBalance(key.currency(), balance, System.nanoTime() + ttlNanos));
+                if (invalidations.get() != generation) {
+                    cache.remove(key.accountId());
+                }
+            }
+        });
+    }
+
+    /**
+     * One remote call. A failed primary fails the lookup so callers see circuit-breaker and
+     * client errors as before; a failed hedge is dropped because the primary still owns the result.
+     */
+    private void attempt(BalanceKey key, CompletableFuture<BigDecimal> result, boolean primary) {
+        long start = System.nanoTime();
+        try {
+            BigDecimal balance = externalHttpCircuitBreaker.executeSupplier(() ->
+                    delegate.getAvailableBalance(key.accountId(), key.currency()));
+            remoteLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            result.complete(balance);
+        } catch (RuntimeException e) {
+            if (primary) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private long hedgeDelayMillis() {
+        if (remoteLatency.count() < MIN_SAMPLES_FOR_P95) {
+            return defaultHedgeDelayMillis;
+        }
+        for (ValueAtPercentile percentile : remoteLatency.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.95) {
+                return Math.max(minHedgeDelayMillis, (long) percentile.value(TimeUnit.MILLISECONDS));
+            }
+        }
+        return defaultHedgeDelayMillis;
+    }
+
+    private record BalanceKey(UUID accountId, String currency) {
+    }
+
+    private record CachedBalance(String currency, BigDecimal availableBalance, long expiresAt) {
+    }
+}
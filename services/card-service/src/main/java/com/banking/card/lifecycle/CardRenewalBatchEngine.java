@@ -0,0 +1,491 @@
+package com.banking.card.lifecycle;
+
+import com.banking.card.domain.Card;
+import com.banking.card.domain.CardStatus;
+import com.banking.card.domain.CardType;
+import com.banking.card.events.CardEventPublisher;
+import com.banking.card.service.AuthorizationPolicyCache;
+import com.banking.card.service.CardCredentials;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Renews every card expiring on or before a cutoff date in one resumable run.
+ * <ul>
+ *   <li>cards are read in keyset chunks of {@code (expiration_date, id)}, so each chunk is an
+ *       index range scan no matter how far the run has got,</li>
+ *   <li>the replacement cards of a chunk, BCrypt CVV hashes included, are generated on a bounded
+ *       worker pool while the previous chunk is being written,</li>
+ *   <li>each chunk cancels its old cards, inserts the new ones in a JDBC batch and advances the
+ *       run's checkpoint in one transaction. A chunk that hits an existing card number is rolled
+ *       back, its taken numbers reissued and the chunk written again,</li>
+ *   <li>CardRenewed events go out per chunk after commit. A restarted run first re-sends the
+ *       events of a chunk committed but not yet marked published, so delivery is at least once.</li>
+ * </ul>
+ * A run that fails or whose instance dies stays RUNNING and is picked up by the next request once
+ * its heartbeat is older than {@code card.lifecycle.renewal.stale-after}.
+ */
+@Service
+public class CardRenewalBatchEngine implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CardRenewalBatchEngine.class);
+
+    static final String RUN_TYPE = "RENEWAL";
+    static final String RENEWAL_REASON = "Renewed - replaced by new card";
+    private static final int CARDS_PER_TASK = 64;
+    private static final int MAX_CHUNK_WRITE_ATTEMPTS = 5;
+
+    private static final String RUN_COLUMNS = """
+            id, cutoff_date, status, last_expiration_date, last_card_id, published_expiration_date,
+            published_card_id, cards_scanned, cards_renewed, error_message, started_at, heartbeat_at,
+            completed_at""";
+
+    private static final String FIRST_CHUNK = "SELECT " + RenewalCandidate.COLUMNS + """
+             FROM cards
+            WHERE status <> 'CANCELLED' AND expiration_date <= ?
+            ORDER BY expiration_date, id
+            LIMIT ?
+            """;
+
+    private static final String NEXT_CHUNK = "SELECT " + RenewalCandidate.COLUMNS + """
+             FROM cards
+            WHERE status <> 'CANCELLED' AND expiration_date <= ? AND (expiration_date, id) > (?, ?)
+            ORDER BY expiration_date, id
+            LIMIT ?
+            """;
+
+    private static final String CANCEL_CARDS = """
+            UPDATE cards SET status = 'CANCELLED', cancellation_reason = ?, updated_at = ?
+             WHERE id = ANY(?) AND status <> 'CANCELLED'
+            RETURNING id
+            """;
+
+    private static final String INSERT_CARD = """
+            INSERT INTO cards
+                (id, customer_id, account_id, card_number, masked_number, status, type, currency,
+                 spending_limit, daily_transaction_limit, monthly_transaction_limit, daily_atm_limit,
+                 monthly_atm_limit, cardholder_name, created_at, updated_at, issued_at, expiration_date,
+                 frozen, pin_attempts, is_replacement, renewal_count, renewed_from_card_id, last_renewed_at,
+                 cvv_hash, cvv_generated_at, cvv_rotation_due_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, 0, FALSE, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String CHECKPOINT = """
+            UPDATE card_lifecycle_runs
+               SET last_expiration_date = ?, last_card_id = ?, cards_scanned = cards_scanned + ?,
+                   cards_renewed = cards_renewed + ?, heartbeat_at = ?
+             WHERE id = ?
+            """;
+
+    private static final String MARK_PUBLISHED = """
+            UPDATE card_lifecycle_runs
+               SET published_expiration_date = ?, published_card_id = ?, heartbeat_at = ?
+             WHERE id = ?
+            """;
+
+    private static final String TAKEN_NUMBERS = "SELECT card_number FROM cards WHERE card_number = ANY(?)";
+
+    // Renewals written by this run for old cards between the published and the written cursor
+    private static final String UNPUBLISHED_RENEWALS = """
+            SELECT n.id, n.customer_id, n.renewal_count, n.renewed_from_card_id
+              FROM cards o
+              JOIN cards n ON n.renewed_from_card_id = o.id
+             WHERE o.status = 'CANCELLED' AND o.expiration_date <= ?
+               AND (o.expiration_date, o.id) <= (?, ?)
+               AND n.created_at >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final CardEventPublisher eventPublisher;
+    private final AuthorizationPolicyCache policyCache;
+    private final CacheManager cacheManager;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int lookaheadDays;
+    private final Duration staleAfter;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "card-renewal-run");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CardRenewalBatchEngine(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            PasswordEncoder passwordEncoder,
+            CardEventPublisher eventPublisher,
+            AuthorizationPolicyCache policyCache,
+            CacheManager cacheManager,
+            @Value("${card.lifecycle.renewal.chunk-size:1000}") int chunkSize,
+            @Value("${card.lifecycle.renewal.parallelism:0}") int parallelism,
+            @Value("${card.lifecycle.renewal.lookahead-days:45}") int lookaheadDays,
+            @Value("${card.lifecycle.renewal.stale-after:5m}") Duration staleAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.policyCache = policyCache;
+        this.cacheManager = cacheManager;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.lookaheadDays = lookaheadDays;
+        this.staleAfter = staleAfter;
+    }
+
+    @Scheduled(cron = "${card.lifecycle.renewal.cron:0 0 1 1 * *}")
+    public void renewExpiringCards() {
+        CardRenewalRun run;
+        try {
+            run = claim(defaultCutoff());
+        } catch (IllegalStateException e) {
+            log.info("Skipping scheduled card renewal: {}", e.getMessage());
+            return;
+        }
+        // Run on the engine's own thread; a long run must not hold up the shared scheduler
+        submit(run);
+    }
+
+    /**
+     * Claims a run and executes it in the background. Throws {@link IllegalStateException} when
+     * another run is still live. A stale run is resumed with its own cutoff instead of starting a
+     * new one.
+     */
+    public CardRenewalRun start(LocalDate expiringOnOrBefore) {
+        CardRenewalRun run = claim(expiringOnOrBefore != null ? expiringOnOrBefore : defaultCutoff());
+        submit(run);
+        return run;
+    }
+
+    public Optional<CardRenewalRun> findRun(UUID runId) {
+        return jdbcTemplate.query("SELECT " + RUN_COLUMNS + " FROM card_lifecycle_runs WHERE id = ?",
+                CardRenewalRun::map, runId).stream().findFirst();
+    }
+
+    @Override
+    public void destroy() {
+        runner.shutdownNow();
+    }
+
+    private void submit(CardRenewalRun run) {
+        runner.execute(() -> {
+            try {
+                execute(run);
+            } catch (RuntimeException e) {
+                // Already recorded on the run
+            }
+        });
+    }
+
+    private LocalDate defaultCutoff() {
+        return LocalDate.now().plusDays(lookaheadDays);
+    }
+
+    private CardRenewalRun claim(LocalDate cutoff) {
+        Instant now = Instant.now();
+        List<CardRenewalRun> running = jdbcTemplate.query(
+                "SELECT " + RUN_COLUMNS + " FROM card_lifecycle_runs WHERE run_type = ? AND status = 'RUNNING'",
+                CardRenewalRun::map, RUN_TYPE);
+        if (!running.isEmpty()) {
+            CardRenewalRun existing = running.get(0);
+            int claimed = jdbcTemplate.update("""
+                    UPDATE card_lifecycle_runs SET heartbeat_at = ?, error_message = NULL
+                     WHERE id = ? AND status = 'RUNNING' AND (heartbeat_at IS NULL OR heartbeat_at < ?)
+                    """, Timestamp.from(now), existing.id(), Timestamp.from(now.minus(staleAfter)));
+            if (claimed == 0) {
+                throw new IllegalStateException("Card renewal run " + existing.id() + " is already in progress");
+            }
+            log.info("Resuming card renewal run {} for cards expiring on or before {}", existing.id(), existing.cutoffDate());
+            return findRun(existing.id()).orElseThrow();
+        }
+        UUID runId = UUID.randomUUID();
+        try {
+            jdbcTemplate.update("""
+                    INSERT INTO card_lifecycle_runs (id, run_type, cutoff_date, status, started_at, heartbeat_at)
+                    VALUES (?, ?, ?, 'RUNNING', ?, ?)
+                    """, runId, RUN_TYPE, Date.valueOf(cutoff), Timestamp.from(now), Timestamp.from(now));
+        } catch (DuplicateKeyException e) {
+            throw new IllegalStateException("Another card renewal run has just started", e);
+        }
+        log.info("Started card renewal run {} for cards expiring on or before {}", runId, cutoff);
+        return findRun(runId).orElseThrow();
+    }
+
+    void execute(CardRenewalRun run) {
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            republishUnpublished(run);
+            List<RenewalCandidate> chunk = fetchChunk(run.cutoffDate(), run.lastExpirationDate(), run.lastCardId());
+            CompletableFuture<List<Card>> renewals = chunk.isEmpty() ? null : generate(chunk, workers);
+            while (renewals != null) {
+                List<RenewalCandidate> current = chunk;
+                List<Card> generated = renewals.join();
+                RenewalCandidate last = current.get(current.size() - 1);
+
+                // Hash the next chunk's CVVs while this one is written
+                chunk = current.size() < chunkSize
+                        ? List.of()
+                        : fetchChunk(run.cutoffDate(), last.expirationDate(), last.id());
+                renewals = chunk.isEmpty() ? null : generate(chunk, workers);
+
+                List<Card> written = writeChunk(run.id(), current, generated, last);
+                published(run.id(), written, last.expirationDate(), last.id());
+            }
+            jdbcTemplate.update("""
+                    UPDATE card_lifecycle_runs SET status = 'COMPLETED', completed_at = ?, heartbeat_at = ?
+                     WHERE id = ?
+                    """, Timestamp.from(Instant.now()), Timestamp.from(Instant.now()), run.id());
+            log.info("Completed card renewal run {}", run.id());
+        } catch (RuntimeException e) {
+            log.error("Card renewal run {} failed; it will resume from its last checkpoint", run.id(), e);
+            jdbcTemplate.update(
+                    "UPDATE card_lifecycle_runs SET error_message = ?, heartbeat_at = NULL WHERE id = ?",
+                    String.valueOf(e.getMessage()), run.id());
+            throw e;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private List<RenewalCandidate> fetchChunk(LocalDate cutoff, LocalDate afterExpiration, UUID afterId) {
+        if (afterId == null) {
+            return jdbcTemplate.query(FIRST_CHUNK, RenewalCandidate::map, Date.valueOf(cutoff), chunkSize);
+        }
+        return jdbcTemplate.query(NEXT_CHUNK, RenewalCandidate::map,
+                Date.valueOf(cutoff), Date.valueOf(afterExpiration), afterId, chunkSize);
+    }
+
+    private CompletableFuture<List<Card>> generate(List<RenewalCandidate> chunk, ExecutorService workers) {
+        Instant now = Instant.now();
+        List<CompletableFuture<List<Card>>> slices = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += CARDS_PER_TASK) {
+            List<RenewalCandidate> slice = chunk.subList(from, Math.min(from + CARDS_PER_TASK, chunk.size()));
+            slices.add(CompletableFuture.supplyAsync(
+                    () -> slice.stream().map(candidate -> renewalOf(candidate, now)).toList(), workers));
+        }
+        return CompletableFuture.allOf(slices.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            List<Card> cards = new ArrayList<>(chunk.size());
+            slices.forEach(slice -> cards.addAll(slice.join()));
+            return cards;
+        });
+    }
+
+    /**
+     * The card that replaces {@code candidate}, built the same way as a single renewal.
+     */
+    Card renewalOf(RenewalCandidate candidate, Instant now) {
+        Card card = new Card();
+        assignNumber(card, UUID.randomUUID());
+        card.setCustomerId(candidate.customerId());
+        card.setAccountId(candidate.accountId());
+        card.setStatus(CardStatus.PENDING_ACTIVATION);
+        card.setType(CardType.valueOf(candidate.type()));
+        card.setCurrency(candidate.currency());
+        card.setSpendingLimit(candidate.spendingLimit());
+        card.setDailyTransactionLimit(candidate.dailyTransactionLimit());
+        card.setMonthlyTransactionLimit(candidate.monthlyTransactionLimit());
+        card.setDailyAtmLimit(candidate.dailyAtmLimit());
+        card.setMonthlyAtmLimit(candidate.monthlyAtmLimit());
+        card.setCardholderName(candidate.cardholderName());
+        card.setCreatedAt(now);
+        card.setUpdatedAt(now);
+        card.setIssuedAt(now);
+        card.setExpirationDate(CardCredentials.expirationDate(LocalDate.now()));
+        card.setFrozen(false);
+        card.setPinAttempts(0);
+        card.setIsReplacement(false);
+        card.setRenewalCount(candidate.renewalCount() + 1);
+        card.setRenewedFromCardId(candidate.id());
+        card.setLastRenewedAt(now);
+        card.setCvvHash(passwordEncoder.encode(CardCredentials.newCvv()));
+        card.setCvvGeneratedAt(now);
+        card.setCvvRotationDueDate(now.plus(CardCredentials.CVV_ROTATION_PERIOD));
+        return card;
+    }
+
+    private static void assignNumber(Card card, UUID id) {
+        String cardNumber = CardCredentials.cardNumber(id);
+        card.setId(id);
+        card.setCardNumber(cardNumber);
+        card.setMaskedNumber(CardCredentials.mask(cardNumber));
+    }
+
+    /**
+     * Writes a chunk in its own transaction. Card numbers carry 40 random bits, so across a large
+     * book one occasionally repeats an existing card's; the insert then fails on the unique
+     * {@code card_number}, the whole chunk rolls back, and it is written again with the taken
+     * numbers reissued.
+     */
+    private List<Card> writeChunk(UUID runId, List<RenewalCandidate> candidates, List<Card> generated,
+                                  RenewalCandidate last) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> write(runId, candidates, generated, last));
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_CHUNK_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+                int reissued = reissueTakenNumbers(generated);
+                log.warn("Card renewal run {} hit a duplicate card number; reissued {} numbers and retrying the "
+                        + "chunk (attempt {})", runId, reissued, attempt);
+            }
+        }
+    }
+
+    /**
+     * Gives a new id, and with it a new card number, to every renewal whose number is already in
+     * use or repeats an earlier one of the chunk. Returns how many were reissued.
+     */
+    private int reissueTakenNumbers(List<Card> renewals) {
+        String[] numbers = renewals.stream().map(Card::getCardNumber).toArray(String[]::new);
+        Set<String> taken = new HashSet<>(jdbcTemplate.query(TAKEN_NUMBERS,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", numbers)),
+                (rs, rowNum) -> rs.getString(1)));
+        Set<String> assigned = new HashSet<>();
+        int reissued = 0;
+        for (Card renewal : renewals) {
+            if (taken.contains(renewal.getCardNumber()) || assigned.contains(renewal.getCardNumber())) {
+                do {
+                    assignNumber(renewal, UUID.randomUUID());
+                } while (taken.contains(renewal.getCardNumber()) || assigned.contains(renewal.getCardNumber()));
+                reissued++;
+            }
+            assigned.add(renewal.getCardNumber());
+        }
+        return reissued;
+    }
+
+    /**
+     * Cancels the chunk's cards and inserts replacements for the ones this transaction actually
+     * cancelled; a card cancelled concurrently through the API is left alone.
+     */
+    private List<Card> write(UUID runId, List<RenewalCandidate> candidates, List<Card> generated,
+                             RenewalCandidate last) {
+        Instant now = Instant.now();
+        UUID[] ids = candidates.stream().map(RenewalCandidate::id).toArray(UUID[]::new);
+        Set<UUID> cancelled = new HashSet<>(jdbcTemplate.query(CANCEL_CARDS, ps -> {
+            ps.setString(1, RENEWAL_REASON);
+            ps.setTimestamp(2, Timestamp.from(now));
+            Array array = ps.getConnection().createArrayOf("uuid", ids);
+            ps.setArray(3, array);
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class)));
+
+        List<Card> renewals = generated.stream()
+                .filter(card -> cancelled.contains(card.getRenewedFromCardId()))
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_CARD, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bindInsert(ps, renewals.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return renewals.size();
+            }
+        });
+        jdbcTemplate.update(CHECKPOINT, Date.valueOf(last.expirationDate()), last.id(),
+                candidates.size(), renewals.size(), Timestamp.from(now), runId);
+        return renewals;
+    }
+
+    private static void bindInsert(PreparedStatement ps, Card card) throws SQLException {
+        ps.setObject(1, card.getId());
+        ps.setObject(2, card.getCustomerId());
+        ps.setObject(3, card.getAccountId());
+        ps.setString(4, card.getCardNumber());
+        ps.setString(5, card.getMaskedNumber());
+        ps.setString(6, card.getStatus().name());
+        ps.setString(7, card.getType().name());
+        ps.setString(8, card.getCurrency());
+        ps.setBigDecimal(9, card.getSpendingLimit());
+        ps.setBigDecimal(10, card.getDailyTransactionLimit());
+        ps.setBigDecimal(11, card.getMonthlyTransactionLimit());
+        ps.setBigDecimal(12, card.getDailyAtmLimit());
+        ps.setBigDecimal(13, card.getMonthlyAtmLimit());
+        ps.setString(14, card.getCardholderName());
+        ps.setTimestamp(15, Timestamp.from(card.getCreatedAt()));
+        ps.setTimestamp(16, Timestamp.from(card.getUpdatedAt()));
+        ps.setTimestamp(17, Timestamp.from(card.getIssuedAt()));
+        ps.setDate(18, Date.valueOf(card.getExpirationDate()));
+        ps.setInt(19, card.getRenewalCount());
+        ps.setObject(20, card.getRenewedFromCardId());
+        ps.setTimestamp(21, Timestamp.from(card.getLastRenewedAt()));
+        ps.setString(22, card.getCvvHash());
+        ps.setTimestamp(23, Timestamp.from(card.getCvvGeneratedAt()));
+        ps.setTimestamp(24, Timestamp.from(card.getCvvRotationDueDate()));
+    }
+
+    private void published(UUID runId, List<Card> renewals, LocalDate lastExpirationDate, UUID lastCardId) {
+        if (!renewals.isEmpty()) {
+            eventPublisher.publishCardsRenewed(renewals);
+        }
+        jdbcTemplate.update(MARK_PUBLISHED, Date.valueOf(lastExpirationDate), lastCardId,
+                Timestamp.from(Instant.now()), runId);
+        Cache cards = cacheManager.getCache("cards");
+        for (Card renewal : renewals) {
+            policyCache.invalidate(renewal.getRenewedFromCardId());
+            if (cards != null) {
+                cards.evict(renewal.getRenewedFromCardId());
+            }
+        }
+    }
+
+    /**
+     * Re-sends the events of the chunk that was committed before the run was interrupted but not
+     * marked published. Published trails written by at most one chunk.
+     */
+    private void republishUnpublished(CardRenewalRun run) {
+        if (run.lastCardId() == null || run.lastCardId().equals(run.publishedCardId())) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(run.cutoffDate()),
+                Date.valueOf(run.lastExpirationDate()), run.lastCardId(), Timestamp.from(run.startedAt())));
+        String sql = UNPUBLISHED_RENEWALS;
+        if (run.publishedCardId() != null) {
+            sql += " AND (o.expiration_date, o.id) > (?, ?)";
+            args.add(Date.valueOf(run.publishedExpirationDate()));
+            args.add(run.publishedCardId());
+        }
+        List<Card> renewals = jdbcTemplate.query(sql + " ORDER BY o.expiration_date, o.id", (rs, rowNum) -> {
+            Card card = new Card();
+            card.setId(rs.getObject("id", UUID.class));
+            card.setCustomerId(rs.getObject("customer_id", UUID.class));
+            card.setRenewalCount(rs.getInt("renewal_count"));
+            card.setRenewedFromCardId(rs.getObject("renewed_from_card_id", UUID.class));
+            return card;
+        }, args.toArray());
+        log.info("Re-publishing {} renewal events of card renewal run {}", renewals.size(), run.id());
+        published(run.id(), renewals, run.lastExpirationDate(), run.lastCardId());
+    }
+}
@@ -0,0 +1,52 @@
+package com.banking.card.lifecycle;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A row of {@code card_lifecycle_runs}. {@code lastExpirationDate}/{@code lastCardId} is the
+ * keyset position of the last committed chunk; the published pair trails it until that chunk's
+ * events are sent.
+ */
+public record CardRenewalRun(
+        UUID id,
+        LocalDate cutoffDate,
+        String status,
+        LocalDate lastExpirationDate,
+        UUID lastCardId,
+        LocalDate publishedExpirationDate,
+        UUID publishedCardId,
+        long cardsScanned,
+        long cardsRenewed,
+        String errorMessage,
+        Instant startedAt,
+        Instant heartbeatAt,
+        Instant completedAt
+) {
+
+    static CardRenewalRun map(ResultSet rs, int rowNum) throws SQLException {
+        return new CardRenewalRun(
+                rs.getObject("id", UUID.class),
+                rs.getObject("cutoff_date", LocalDate.class),
+                rs.getString("status"),
+                rs.getObject("last_expiration_date", LocalDate.class),
+                rs.getObject("last_card_id", UUID.class),
+                rs.getObject("published_expiration_date", LocalDate.class),
+                rs.getObject("published_card_id", UUID.class),
+                rs.getLong("cards_scanned"),
+                rs.getLong("cards_renewed"),
+                rs.getString("error_message"),
+                toInstant(rs.getTimestamp("started_at")),
+                toInstant(rs.getTimestamp("heartbeat_at")),
+                toInstant(rs.getTimestamp("completed_at"))
+        );
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
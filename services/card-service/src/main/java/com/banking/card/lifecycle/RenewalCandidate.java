@@ -0,0 +1,50 @@
+package com.banking.card.lifecycle;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * The columns of an expiring card that carry over to its renewal.
+ */
+record RenewalCandidate(
+        UUID id,
+        UUID customerId,
+        UUID accountId,
+        String type,
+        String currency,
+        BigDecimal spendingLimit,
+        BigDecimal dailyTransactionLimit,
+        BigDecimal monthlyTransactionLimit,
+        BigDecimal dailyAtmLimit,
+        BigDecimal monthlyAtmLimit,
+        String cardholderName,
+        int renewalCount,
+        LocalDate expirationDate
+) {
+
+    static final String COLUMNS = """
+            id, customer_id, account_id, type, currency, spending_limit, daily_transaction_limit,
+            monthly_transaction_limit, daily_atm_limit, monthly_atm_limit, cardholder_name,
+            renewal_count, expiration_date""";
+
+    static RenewalCandidate map(ResultSet rs, int rowNum) throws SQLException {
+        return new RenewalCandidate(
+                rs.getObject("id", UUID.class),
+                rs.getObject("customer_id", UUID.class),
+                rs.getObject("account_id", UUID.class),
+                rs.getString("type"),
+                rs.getString("currency"),
+                rs.getBigDecimal("spending_limit"),
+                rs.getBigDecimal("daily_transaction_limit"),
+                rs.getBigDecimal("monthly_transaction_limit"),
+                rs.getBigDecimal("daily_atm_limit"),
+                rs.getBigDecimal("monthly_atm_limit"),
+                rs.getString("cardholder_name"),
+                rs.getInt("renewal_count"),
+                rs.getObject("expiration_date", LocalDate.class)
+        );
+    }
+}
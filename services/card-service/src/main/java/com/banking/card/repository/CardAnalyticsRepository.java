@@ -1,13 +1,49 @@
 package com.banking.card.repository;
 
 import com.banking.card.domain.CardAnalytics;
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CardAnalyticsRepository extends JpaRepository<CardAnalytics, UUID> {
     Optional<CardAnalytics> findByCardId(UUID cardId);
-}
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM CardAnalytics a WHERE a.cardId = :cardId")
+    Optional<CardAnalytics> findByCardIdForUpdate(@Param("cardId") UUID cardId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM CardAnalytics a WHERE a.cardId BETWEEN :fromCardId AND :toCardId ORDER BY a.cardId")
+    List<CardAnalytics> findRangeForUpdate(@Param("fromCardId") UUID fromCardId, @Param("toCardId") UUID toCardId);
+
+    /**
+     * Creates an empty analytics row unless one exists; returns 1 when this call created it.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO card_analytics (card_id, total_transactions, total_amount, average_transaction_amount,
+                                        declined_transactions, last_updated_at)
+            VALUES (:cardId, 0, 0, 0, 0, :now)
+            ON CONFLICT (card_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("cardId") UUID cardId, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO card_analytics (card_id, total_transactions, total_amount, average_transaction_amount,
+                                        declined_transactions, last_updated_at)
+            SELECT id, 0, 0, 0, 0, :now FROM cards WHERE id BETWEEN :fromCardId AND :toCardId
+            ON CONFLICT (card_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertMissingInRange(@Param("fromCardId") UUID fromCardId, @Param("toCardId") UUID toCardId,
+                             @Param("now") Instant now);
+}
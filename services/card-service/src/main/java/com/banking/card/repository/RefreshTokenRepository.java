@@ -1,14 +1,24 @@
 package com.banking.card.repository;
 
 import com.banking.card.domain.RefreshToken;
-import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
 
     Optional<RefreshToken> findByToken(String token);
 
-    List<RefreshToken> findBySubject(String subject);
-}
+    /**
+     * Revokes one token unless it is already revoked; returns 1 when this call revoked it.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.revoked = true, t.revocationReason = :reason WHERE t.token = :token AND t.revoked = false")
+    int revoke(@Param("token") String token, @Param("reason") String reason);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.revoked = true, t.revocationReason = :reason WHERE t.subject = :subject AND t.revoked = false")
+    int revokeAllForSubject(@Param("subject") String subject, @Param("reason") String reason);
+}
@@ -0,0 +1,144 @@
+package com.banking.card.security;
+
+import com.banking.card.cache.BoundedMaps;
+import com.banking.card.security.RefreshTokenService.RefreshTokenInfo;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Near-cache of recently validated refresh tokens, keyed by SHA-256 digest so the heap holds no
+ * usable token values.
+ * <ul>
+ *   <li>a revoked token goes into a {@link RevocationFilter} and is never served from the cache
+ *       again, even if a validation racing with the revocation re-caches it,</li>
+ *   <li>revoking all tokens of a subject bumps an epoch that invalidates every cached entry,</li>
+ *   <li>revocations made on other instances arrive through
+ *       {@link RefreshTokenRevocationBroadcaster} shortly after they commit; entries live for
+ *       {@code ttl-ms}, which bounds the window only if a notice is lost.</li>
+ * </ul>
+ */
+@Component
+public class RefreshTokenCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<String, CachedToken> cache = new ConcurrentHashMap<>();
+    private final RevocationFilter revocations;
+    private final AtomicLong epoch = new AtomicLong();
+
+    public RefreshTokenCache(
+            @Value("${card.security.refresh-token.cache.max-size:100000}") int maxSize,
+            @Value("${card.security.refresh-token.cache.ttl-ms:60000}") long ttlMillis,
+            @Value("${card.security.refresh-token.cache.expected-revocations:200000}") int expectedRevocations) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.revocations = new RevocationFilter(expectedRevocations);
+    }
+
+    static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * The cached info for {@code token}, or null when it is not cached, has gone stale or may
+     * have been revoked.
+     */
+    RefreshTokenInfo get(String token, byte[] digest) {
+        CachedToken cached = cache.get(HexFormat.of().formatHex(digest));
+        if (cached == null || cached.epoch() != epoch.get() || System.nanoTime() - cached.cachedUntil() >= 0
+                || revocations.mightContain(digest)) {
+            return null;
+        }
+        return cached.toInfo(token);
+    }
+
+    /**
+     * Caches a token read from the database at {@code readEpoch}; skipped if a subject-wide
+     * revocation happened since.
+     */
+    void put(byte[] digest, RefreshTokenInfo info, long readEpoch) {
+        if (epoch.get() != readEpoch || revocations.mightContain(digest)) {
+            return;
+        }
+        BoundedMaps.makeRoom(cache, maxSize, CachedToken::cachedUntil);
+        String key = HexFormat.of().formatHex(digest);
+        cache.put(key, CachedToken.of(info, readEpoch, System.nanoTime() + ttlNanos));
+        if (epoch.get() != readEpoch) {
+            cache.remove(key);
+        }
+    }
+
+    void revoked(byte[] digest) {
+        revocations.add(digest);
+        cache.remove(HexFormat.of().formatHex(digest));
+    }
+
+    /**
+     * Drops every entry now and again after the surrounding transaction completes, so a
+     * validation that read the database before the revocation committed cannot re-cache a token.
+     */
+    void invalidateAll() {
+        epoch.incrementAndGet();
+        cache.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    epoch.incrementAndGet();
+                    cache.clear();
+                }
+            });
+        }
+    }
+
+    /**
+     * A revoked token's entry expires within one TTL, so two filter generations of one TTL each
+     * cover it.
+     */
+    @Scheduled(fixedDelayString = "${card.security.refresh-token.cache.ttl-ms:60000}")
+    public void rollRevocations() {
+        revocations.roll();
+    }
+
+    private record CachedToken(
+            String subject,
+            String scope,
+            Instant issuedAt,
+            Instant expiresAt,
+            String deviceId,
+            String userAgent,
+            long epoch,
+            long cachedUntil
+    ) {
+
+        static CachedToken of(RefreshTokenInfo info, long epoch, long cachedUntil) {
+            return new CachedToken(info.subject(), info.scope(), info.issuedAt(), info.expiresAt(),
+                    info.deviceId(), info.userAgent(), epoch, cachedUntil);
+        }
+
+        RefreshTokenInfo toInfo(String token) {
+            return new RefreshTokenInfo(token, subject, scope, issuedAt, expiresAt, false, null,
+                    deviceId, userAgent, null);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.banking.card.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HexFormat;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tells the other instances' {@link RefreshTokenCache} about revocations made here. A notice goes
+ * out once the revoking transaction commits and carries either the token digest or, for a
+ * subject-wide revocation, the subject. Every instance keeps its own cache, so each one joins
+ * its own consumer group and sees every notice; notices it sent itself are skipped.
+ */
+@Component
+public class RefreshTokenRevocationBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenRevocationBroadcaster.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final RefreshTokenCache cache;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+
+    public RefreshTokenRevocationBroadcaster(
+            RefreshTokenCache cache,
+            KafkaTemplate<String, String> kafkaTemplate,
+            ObjectMapper objectMapper,
+            @Value("${card.security.refresh-token.cache.revocation-topic:card-token-revocations}") String topic) {
+        this.cache = cache;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+    }
+
+    void tokenRevoked(byte[] digest) {
+        afterCommit(new Notice(instanceId, HexFormat.of().formatHex(digest), null));
+    }
+
+    void subjectRevoked(String subject) {
+        afterCommit(new Notice(instanceId, null, subject));
+    }
+
+    @KafkaListener(
+            topics = "${card.security.refresh-token.cache.revocation-topic:card-token-revocations}",
+            groupId = "card-service-refresh-token-cache-${random.uuid}",
+            properties = "auto.offset.reset=latest")
+    public void onNotice(ConsumerRecord<String, String> record) {
+        Notice notice;
+        try {
+            notice = objectMapper.readValue(record.value(), Notice.class);
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable refresh token revocation at {}-{}@{}",
+                    record.topic(), record.partition(), record.offset());
+            return;
+        }
+        if (instanceId.equals(notice.origin())) {
+            return;
+        }
+        if (notice.digest() != null) {
+            cache.revoked(HexFormat.of().parseHex(notice.digest()));
+        } else if (notice.subject() != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private void afterCommit(Notice notice) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(notice);
+                }
+            });
+        } else {
+            send(notice);
+        }
+    }
+
+    private void send(Notice notice) {
+        try {
+            kafkaTemplate.send(topic, notice.subject() != null ? notice.subject() : notice.digest(),
+                    objectMapper.writeValueAsString(notice));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The other instances still drop the entry once its cache TTL runs out
+            log.warn("Failed to broadcast refresh token revocation", e);
+        }
+    }
+
+    record Notice(String origin, String digest, String subject) {
+    }
+}
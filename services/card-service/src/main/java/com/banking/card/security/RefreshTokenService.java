@@ -16,19 +16,31 @@ import org.springframework.util.StringUtils;
 /**
  * Persistent refresh token store backed by the database.
  *
- * Tokens survive service restarts and are shared across instances.
+ * Tokens survive service restarts and are shared across instances. Recently validated tokens
+ * are served from {@link RefreshTokenCache}; revocations always go to the database first-hand,
+ * reach the other instances' caches through {@link RefreshTokenRevocationBroadcaster}, and
+ * last-used timestamps are written behind by {@link RefreshTokenUsageWriter}.
  */
 @Service
 public class RefreshTokenService {
 
     private final Duration refreshTokenTtl;
     private final RefreshTokenRepository repository;
+    private final RefreshTokenCache cache;
+    private final RefreshTokenUsageWriter usageWriter;
+    private final RefreshTokenRevocationBroadcaster broadcaster;
 
     public RefreshTokenService(
             RefreshTokenRepository repository,
+            RefreshTokenCache cache,
+            RefreshTokenUsageWriter usageWriter,
+            RefreshTokenRevocationBroadcaster broadcaster,
             @Value("${card.security.refresh-token.ttl-seconds:2592000}") long ttlSeconds // 30 days default
     ) {
         this.repository = repository;
+        this.cache = cache;
+        this.usageWriter = usageWriter;
+        this.broadcaster = broadcaster;
         this.refreshTokenTtl = Duration.ofSeconds(ttlSeconds);
     }
 
@@ -78,36 +90,45 @@ public class RefreshTokenService {
         }
 
         String tokenValue = Objects.requireNonNull(token);
+        byte[] digest = RefreshTokenCache.digest(tokenValue);
+        Instant now = Instant.now();
+
+        RefreshTokenInfo cached = cache.get(tokenValue, digest);
+        if (cached != null && !now.isAfter(cached.expiresAt()) && bindingMatches(cached, deviceId, userAgent)) {
+            usageWriter.touch(tokenValue, now);
+            return Optional.of(withLastUsedAt(cached, now));
+        }
 
-        return repository.findById(tokenValue)
-                .filter(rt -> {
-                    if (rt.isRevoked()) {
-                        handleReuse(rt);
-                        return false;
-                    }
-                    if (Instant.now().isAfter(rt.getExpiresAt())) {
-                        // Mark as revoked on next write transaction to prevent reuse
-                        markExpired(rt);
-                        return false;
-                    }
-                    if (rt.getDeviceId() != null && deviceId != null && !rt.getDeviceId().equals(deviceId)) {
-                        // Device mismatch -> revoke all tokens for subject
-                        revokeAllForSubject(rt.getSubject(), "device-mismatch");
-                        return false;
-                    }
-                    if (rt.getUserAgent() != null && userAgent != null && !rt.getUserAgent().equals(userAgent)) {
-                        revokeAllForSubject(rt.getSubject(), "device-mismatch");
-                        return false;
-                    }
-                    rt.setLastUsedAt(Instant.now());
-                    repository.save(rt);
-                    return true;
-                })
-                .map(this::toInfo);
+        long epoch = cache.epoch();
+        Optional<RefreshToken> stored = repository.findById(tokenValue);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken rt = stored.get();
+        if (rt.isRevoked()) {
+            handleReuse(rt);
+            return Optional.empty();
+        }
+        if (now.isAfter(rt.getExpiresAt())) {
+            markExpired(tokenValue, digest, now);
+            return Optional.empty();
+        }
+        RefreshTokenInfo info = toInfo(rt);
+        if (!bindingMatches(info, deviceId, userAgent)) {
+            // Device mismatch -> revoke all tokens for subject
+            revokeAllForSubject(rt.getSubject(), "device-mismatch");
+            return Optional.empty();
+        }
+        cache.put(digest, info, epoch);
+        usageWriter.touch(tokenValue, now);
+        return Optional.of(withLastUsedAt(info, now));
     }
 
     /**
      * Rotates a refresh token: revokes the old token and issues a new one preserving subject/scope/device binding.
+     * Of two concurrent rotations of one token only the first succeeds. Presenting a token that is
+     * already revoked, including one the near-cache still held after another instance rotated it,
+     * is treated as reuse.
      */
     @Transactional
     public Optional<RefreshTokenInfo> rotate(String token, String deviceId, String userAgent) {
@@ -115,12 +136,30 @@ public class RefreshTokenService {
             return Optional.empty();
         }
         String tokenValue = Objects.requireNonNull(token);
-        return repository.findById(tokenValue)
-                .filter(rt -> !rt.isRevoked() && !Instant.now().isAfter(rt.getExpiresAt()))
-                .flatMap(rt -> {
-                    revokeWithReason(rt, "rotated");
-                    return Optional.of(issue(rt.getSubject(), rt.getScope(), deviceId, userAgent));
-                });
+        byte[] digest = RefreshTokenCache.digest(tokenValue);
+        RefreshTokenInfo current = cache.get(tokenValue, digest);
+        if (current == null) {
+            Optional<RefreshToken> stored = repository.findById(tokenValue);
+            if (stored.isEmpty()) {
+                return Optional.empty();
+            }
+            if (stored.get().isRevoked()) {
+                handleReuse(stored.get());
+                return Optional.empty();
+            }
+            current = toInfo(stored.get());
+        }
+        if (Instant.now().isAfter(current.expiresAt())) {
+            return Optional.empty();
+        }
+        if (!revokeWithReason(tokenValue, digest, "rotated")) {
+            // Revoked since it was read; the revoke cleared the persistence context, so this reads the row afresh
+            repository.findById(tokenValue)
+                    .filter(RefreshToken::isRevoked)
+                    .ifPresent(this::handleReuse);
+            return Optional.empty();
+        }
+        return Optional.of(issue(current.subject(), current.scope(), deviceId, userAgent));
     }
 
     /**
@@ -132,14 +171,19 @@ public class RefreshTokenService {
             return;
         }
         String tokenValue = Objects.requireNonNull(token);
-        repository.findById(tokenValue).ifPresent(rt -> {
-            revokeWithReason(rt, "revoked");
-        });
+        revokeWithReason(tokenValue, RefreshTokenCache.digest(tokenValue), "revoked");
+    }
+
+    private static boolean bindingMatches(RefreshTokenInfo info, String deviceId, String userAgent) {
+        if (info.deviceId() != null && deviceId != null && !info.deviceId().equals(deviceId)) {
+            return false;
+        }
+        return info.userAgent() == null || userAgent == null || info.userAgent().equals(userAgent);
     }
 
-    private void markExpired(RefreshToken token) {
-        revokeWithReason(token, "expired");
-        token.setLastUsedAt(Instant.now());
+    private void markExpired(String token, byte[] digest, Instant now) {
+        revokeWithReason(token, digest, "expired");
+        usageWriter.touch(token, now);
     }
 
     private void handleReuse(RefreshToken token) {
@@ -148,15 +192,27 @@ public class RefreshTokenService {
     }
 
     private void revokeAllForSubject(String subject, String reason) {
-        repository.findBySubject(subject).forEach(rt -> {
-            revokeWithReason(rt, reason);
-        });
+        cache.invalidateAll();
+        if (repository.revokeAllForSubject(subject, reason) > 0) {
+            broadcaster.subjectRevoked(subject);
+        }
+    }
+
+    /**
+     * Returns true when this call revoked the token, false when it was already revoked or unknown.
+     */
+    private boolean revokeWithReason(String token, byte[] digest, String reason) {
+        cache.revoked(digest);
+        if (repository.revoke(token, reason) != 1) {
+            return false;
+        }
+        broadcaster.tokenRevoked(digest);
+        return true;
     }
 
-    private void revokeWithReason(RefreshToken token, String reason) {
-        token.setRevoked(true);
-        token.setRevocationReason(reason);
-        repository.save(token);
+    private static RefreshTokenInfo withLastUsedAt(RefreshTokenInfo info, Instant lastUsedAt) {
+        return new RefreshTokenInfo(info.token(), info.subject(), info.scope(), info.issuedAt(), info.expiresAt(),
+                info.revoked(), info.revocationReason(), info.deviceId(), info.userAgent(), lastUsedAt);
     }
 
     private RefreshTokenInfo toInfo(RefreshToken token) {
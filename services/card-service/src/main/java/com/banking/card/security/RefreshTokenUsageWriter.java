@@ -0,0 +1,86 @@
+package com.banking.card.security;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes refresh token {@code last_used_at} off the request path. Uses of one token between
+ * flushes collapse into the latest, and a flush never moves the column backwards. A crash loses
+ * at most one flush interval of usage timestamps.
+ */
+@Component
+public class RefreshTokenUsageWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenUsageWriter.class);
+
+    private static final String UPDATE_LAST_USED = """
+            UPDATE refresh_tokens SET last_used_at = ?
+             WHERE token = ? AND (last_used_at IS NULL OR last_used_at < ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Map<String, Instant> pending = new ConcurrentHashMap<>();
+
+    public RefreshTokenUsageWriter(
+            JdbcTemplate jdbcTemplate,
+            @Value("${card.security.refresh-token.usage-flush-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    void touch(String token, Instant usedAt) {
+        pending.merge(token, usedAt, (earlier, later) -> later.isAfter(earlier) ? later : earlier);
+    }
+
+    @Scheduled(fixedDelayString = "${card.security.refresh-token.usage-flush-interval-ms:1000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (String token : pending.keySet()) {
+            Instant usedAt = pending.remove(token);
+            if (usedAt == null) {
+                continue;
+            }
+            Timestamp timestamp = Timestamp.from(usedAt);
+            batch.add(new Object[] {timestamp, token, timestamp});
+            if (batch.size() == batchSize && !write(batch)) {
+                return;
+            }
+        }
+        write(batch);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private boolean write(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_USED, batch);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to record last use of {} refresh tokens; retrying on the next flush", batch.size(), e);
+            for (Object[] row : batch) {
+                touch((String) row[1], ((Timestamp) row[0]).toInstant());
+            }
+            return false;
+        } finally {
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.banking.card.security;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rolling Bloom filter of revoked token digests. Two generations are kept and {@link #roll()}
+ * drops the older one, so a digest is remembered for at least one roll interval. A false
+ * positive only sends the lookup to the database.
+ */
+final class RevocationFilter {
+
+    private static final int HASHES = 7;
+    private static final double BITS_PER_INSERTION = 9.6; // ~1% false positives with 7 hashes
+
+    private final int bits;
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+
+    RevocationFilter(int expectedInsertions) {
+        long wanted = (long) Math.ceil(Math.max(1, expectedInsertions) * BITS_PER_INSERTION);
+        int words = (int) Math.min(Integer.MAX_VALUE / 64, (wanted + 63) / 64);
+        this.bits = words * 64;
+        this.current = new AtomicLongArray(words);
+        this.previous = new AtomicLongArray(words);
+    }
+
+    void add(byte[] digest) {
+        AtomicLongArray words = current;
+        long h1 = ByteBuffer.wrap(digest).getLong(0);
+        long h2 = ByteBuffer.wrap(digest).getLong(8);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) bits);
+            long mask = 1L << (bit & 63);
+            int word = bit >>> 6;
+            long value;
+            while (((value = words.get(word)) & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                // retry
+            }
+        }
+    }
+
+    boolean mightContain(byte[] digest) {
+        return contains(current, digest) || contains(previous, digest);
+    }
+
+    synchronized void roll() {
+        previous = current;
+        current = new AtomicLongArray(bits / 64);
+    }
+
+    private boolean contains(AtomicLongArray words, byte[] digest) {
+        long h1 = ByteBuffer.wrap(digest).getLong(0);
+        long h2 = ByteBuffer.wrap(digest).getLong(8);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) bits);
+            if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
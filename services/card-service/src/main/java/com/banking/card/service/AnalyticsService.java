@@ -7,42 +7,79 @@ import com.banking.card.repository.CardAnalyticsRepository;
 import com.banking.card.repository.CardRepository;
 import com.banking.card.repository.CardTransactionRepository;
 import com.banking.card.web.dto.CardAnalyticsResponse;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Card analytics are maintained incrementally: {@link #recordTransaction} folds each new
+ * transaction into the card's row under a row lock, with top merchant category and country
+ * tracked by bounded heavy-hitter sketches. Full rebuilds stream the card's history through a
+ * JDBC cursor, and {@link #backfillAllAnalytics} fans card id ranges out over a fork-join pool.
+ */
 @Service
 @Transactional
 public class AnalyticsService {
 
+    private static final String TRANSACTION_COLUMNS =
+            "amount, status, transaction_date, merchant_category_code, merchant_country";
+    private static final String STREAM_CARD =
+            "SELECT " + TRANSACTION_COLUMNS + " FROM card_transactions WHERE card_id = ?";
+    private static final String STREAM_CARD_RANGE =
+            "SELECT card_id, " + TRANSACTION_COLUMNS + " FROM card_transactions WHERE card_id BETWEEN ? AND ?";
+
     private final CardRepository cardRepository;
     private final CardTransactionRepository transactionRepository;
     private final CardAnalyticsRepository analyticsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int cardsPerBackfillTask;
+    private final int backfillParallelism;
 
     public AnalyticsService(
             CardRepository cardRepository,
             CardTransactionRepository transactionRepository,
-            CardAnalyticsRepository analyticsRepository) {
+            CardAnalyticsRepository analyticsRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${card.analytics.cursor-fetch-size:1000}") int cursorFetchSize,
+            @Value("${card.analytics.backfill.cards-per-task:500}") int cardsPerBackfillTask,
+            @Value("${card.analytics.backfill.parallelism:0}") int backfillParallelism) {
         this.cardRepository = cardRepository;
         this.transactionRepository = transactionRepository;
         this.analyticsRepository = analyticsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorTemplate.setFetchSize(cursorFetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cardsPerBackfillTask = Math.max(1, cardsPerBackfillTask);
+        this.backfillParallelism = backfillParallelism;
     }
 
-    @Transactional(readOnly = true)
     public CardAnalyticsResponse getCardAnalytics(UUID cardId) {
+        CardAnalytics analytics = analyticsRepository.findByCardId(cardId).orElse(null);
+        if (analytics != null) {
+            return toResponse(analytics);
+        }
         if (!cardRepository.existsById(cardId)) {
             throw new CardNotFoundException(cardId);
         }
-
-        CardAnalytics analytics = analyticsRepository.findByCardId(cardId)
-                .orElseGet(() -> calculateAndSaveAnalytics(cardId));
-
-        return toResponse(analytics);
+        return toResponse(rebuild(cardId));
     }
 
     public CardAnalyticsResponse refreshAnalytics(UUID cardId) {
@@ -50,68 +87,99 @@ public class AnalyticsService {
             throw new CardNotFoundException(cardId);
         }
 
-        CardAnalytics analytics = calculateAndSaveAnalytics(cardId);
+        CardAnalytics analytics = rebuild(cardId);
         return toResponse(analytics);
     }
 
-    private CardAnalytics calculateAndSaveAnalytics(UUID cardId) {
-        List<CardTransaction> allTransactions = transactionRepository
-                .findByCardIdOrderByTransactionDateDesc(cardId,
-                        org.springframework.data.domain.PageRequest.of(0, Integer.MAX_VALUE))
-                .getContent();
-
-        CardAnalytics analytics = analyticsRepository.findByCardId(cardId)
-                .orElseGet(() -> {
-                    CardAnalytics newAnalytics = new CardAnalytics();
-                    newAnalytics.setCardId(cardId);
-                    newAnalytics.setCard(cardRepository.getReferenceById(cardId));
-                    return newAnalytics;
-                });
-
-        int totalTransactions = allTransactions.size();
-        BigDecimal totalAmount = allTransactions.stream()
-                .map(CardTransaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal averageAmount = totalTransactions > 0
-                ? totalAmount.divide(new BigDecimal(totalTransactions), 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
-
-        long declinedCount = allTransactions.stream()
-                .filter(t -> t.getStatus() == TransactionStatus.DECLINED)
-                .count();
-
-        Instant lastTransactionDate = allTransactions.stream()
-                .map(CardTransaction::getTransactionDate)
-                .max(Instant::compareTo)
-                .orElse(null);
-
-        String topMcc = allTransactions.stream()
-                .filter(t -> t.getMerchantCategoryCode() != null)
-                .collect(Collectors.groupingBy(CardTransaction::getMerchantCategoryCode, Collectors.counting()))
-                .entrySet().stream()
-                .max(java.util.Map.Entry.comparingByValue())
-                .map(java.util.Map.Entry::getKey)
-                .orElse(null);
-
-        String mostUsedCountry = allTransactions.stream()
-                .filter(t -> t.getMerchantCountry() != null)
-                .collect(Collectors.groupingBy(CardTransaction::getMerchantCountry, Collectors.counting()))
-                .entrySet().stream()
-                .max(java.util.Map.Entry.comparingByValue())
-                .map(java.util.Map.Entry::getKey)
-                .orElse(null);
-
-        analytics.setTotalTransactions(totalTransactions);
-        analytics.setTotalAmount(totalAmount);
-        analytics.setAverageTransactionAmount(averageAmount);
-        analytics.setDeclinedTransactions((int) declinedCount);
-        analytics.setLastTransactionDate(lastTransactionDate);
-        analytics.setTopMerchantCategory(topMcc);
-        analytics.setMostUsedCountry(mostUsedCountry);
-        analytics.setLastUpdatedAt(Instant.now());
-
-        return analyticsRepository.save(analytics);
+    /**
+     * Folds a newly saved transaction into its card's analytics, in the caller's transaction.
+     * A card without analytics yet, or with a row predating the sketches, is rebuilt instead.
+     */
+    public void recordTransaction(CardTransaction transaction) {
+        UUID cardId = transaction.getCard().getId();
+        Instant now = Instant.now();
+        if (analyticsRepository.insertIfAbsent(cardId, now) == 1) {
+            rebuild(cardId);
+            return;
+        }
+        CardAnalytics analytics = analyticsRepository.findByCardIdForUpdate(cardId)
+                .orElseThrow(() -> new IllegalStateException("Analytics row missing for card " + cardId));
+        if (analytics.getMerchantCategorySketch() == null
+                && analytics.getTotalTransactions() != null && analytics.getTotalTransactions() > 0) {
+            rebuild(cardId);
+            return;
+        }
+        CardAnalyticsAccumulator accumulator = CardAnalyticsAccumulator.from(analytics);
+        accumulator.add(
+                transaction.getAmount(),
+                transaction.getStatus(),
+                transaction.getTransactionDate(),
+                transaction.getMerchantCategoryCode(),
+                transaction.getMerchantCountry()
+        );
+        accumulator.applyTo(analytics, now);
+    }
+
+    /**
+     * Rebuilds analytics for every card. Card ids are split into contiguous ranges, and each
+     * range is rebuilt in its own transaction on a fork-join worker with a single cursor over
+     * its transactions. Returns the number of cards rebuilt.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int backfillAllAnalytics() {
+        List<UUID> cardIds = jdbcTemplate.queryForList("SELECT id FROM cards ORDER BY id", UUID.class);
+        if (cardIds.isEmpty()) {
+            return 0;
+        }
+        ForkJoinPool pool = backfillParallelism > 0 ? new ForkJoinPool(backfillParallelism) : new ForkJoinPool();
+        try {
+            return pool.invoke(new BackfillTask(cardIds, 0, cardIds.size()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private CardAnalytics rebuild(UUID cardId) {
+        analyticsRepository.insertIfAbsent(cardId, Instant.now());
+        CardAnalytics analytics = analyticsRepository.findByCardIdForUpdate(cardId)
+                .orElseThrow(() -> new IllegalStateException("Analytics row missing for card " + cardId));
+        // The cursor reads through JDBC, so pending JPA inserts must reach the database first
+        transactionRepository.flush();
+
+        CardAnalyticsAccumulator accumulator = CardAnalyticsAccumulator.empty();
+        cursorTemplate.query(STREAM_CARD, (ResultSet rs) -> addRow(accumulator, rs, 1), cardId);
+        accumulator.applyTo(analytics, Instant.now());
+        return analytics;
+    }
+
+    private int backfillRange(UUID fromCardId, UUID toCardId) {
+        Instant now = Instant.now();
+        analyticsRepository.insertMissingInRange(fromCardId, toCardId, now);
+        List<CardAnalytics> locked = analyticsRepository.findRangeForUpdate(fromCardId, toCardId);
+
+        Map<UUID, CardAnalyticsAccumulator> accumulators = new HashMap<>();
+        cursorTemplate.query(STREAM_CARD_RANGE, rs -> {
+            UUID cardId = rs.getObject(1, UUID.class);
+            addRow(accumulators.computeIfAbsent(cardId, id -> CardAnalyticsAccumulator.empty()), rs, 2);
+        }, fromCardId, toCardId);
+
+        for (CardAnalytics analytics : locked) {
+            accumulators.getOrDefault(analytics.getCardId(), CardAnalyticsAccumulator.empty())
+                    .applyTo(analytics, now);
+        }
+        return locked.size();
+    }
+
+    private static void addRow(CardAnalyticsAccumulator accumulator, ResultSet rs, int firstColumn)
+            throws SQLException {
+        Timestamp transactionDate = rs.getTimestamp(firstColumn + 2);
+        accumulator.add(
+                rs.getBigDecimal(firstColumn),
+                TransactionStatus.valueOf(rs.getString(firstColumn + 1)),
+                transactionDate != null ? transactionDate.toInstant() : null,
+                rs.getString(firstColumn + 3),
+                rs.getString(firstColumn + 4)
+        );
     }
 
     private CardAnalyticsResponse toResponse(CardAnalytics analytics) {
@@ -127,5 +195,31 @@ public class AnalyticsService {
                 analytics.getLastUpdatedAt()
         );
     }
-}
 
+    private final class BackfillTask extends RecursiveTask<Integer> {
+
+        private final List<UUID> cardIds;
+        private final int from;
+        private final int to;
+
+        private BackfillTask(List<UUID> cardIds, int from, int to) {
+            this.cardIds = cardIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= cardsPerBackfillTask) {
+                Integer rebuilt = transactionTemplate.execute(status ->
+                        backfillRange(cardIds.get(from), cardIds.get(to - 1)));
+                return rebuilt != null ? rebuilt : 0;
+            }
+            int middle = (from + to) >>> 1;
+            BackfillTask left = new BackfillTask(cardIds, from, middle);
+            BackfillTask right = new BackfillTask(cardIds, middle, to);
+            left.fork();
+            return right.compute() + left.join();
+        }
+    }
+}
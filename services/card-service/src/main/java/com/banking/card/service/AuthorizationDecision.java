@@ -0,0 +1,16 @@
+package com.banking.card.service;
+
+import com.banking.card.domain.AuthorizationStatus;
+
+/**
+ * Outcome of evaluating an {@link AuthorizationPolicy}; {@code declineReason} is set only for
+ * declines.
+ */
+public record AuthorizationDecision(AuthorizationStatus status, String declineReason) {
+
+    static final AuthorizationDecision APPROVED = new AuthorizationDecision(AuthorizationStatus.APPROVED, null);
+
+    static AuthorizationDecision declined(String reason) {
+        return new AuthorizationDecision(AuthorizationStatus.DECLINED, reason);
+    }
+}
@@ -0,0 +1,178 @@
+package com.banking.card.service;
+
+import com.banking.card.domain.Card;
+import com.banking.card.domain.CardStatus;
+import com.banking.card.domain.GeographicRestriction;
+import com.banking.card.domain.MerchantRestriction;
+import com.banking.card.domain.RestrictionAction;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of everything an authorization checks for one card, compiled from the card
+ * and its BLOCK restrictions. Blocked merchant categories are a sorted int array (with a sorted
+ * string fallback for non-numeric codes) and blocked countries a bitmap over the 676 two-letter
+ * codes, so evaluation does no allocation and no database access.
+ */
+public final class AuthorizationPolicy {
+
+    private static final int COUNTRY_CODES = 26 * 26;
+    private static final int MAX_PACKED_MCC_DIGITS = 8;
+
+    private final UUID cardId;
+    private final UUID accountId;
+    private final String currency;
+    private final CardStatus status;
+    private final boolean frozen;
+    private final BigDecimal spendingLimit;
+    private final int[] blockedMccs;
+    private final String[] blockedNonNumericMccs;
+    private final long[] blockedCountries;
+
+    private AuthorizationPolicy(UUID cardId, UUID accountId, String currency, CardStatus status, boolean frozen,
+                                BigDecimal spendingLimit, int[] blockedMccs, String[] blockedNonNumericMccs,
+                                long[] blockedCountries) {
+        this.cardId = cardId;
+        this.accountId = accountId;
+        this.currency = currency;
+        this.status = status;
+        this.frozen = frozen;
+        this.spendingLimit = spendingLimit;
+        this.blockedMccs = blockedMccs;
+        this.blockedNonNumericMccs = blockedNonNumericMccs;
+        this.blockedCountries = blockedCountries;
+    }
+
+    static AuthorizationPolicy compile(Card card,
+                                       List<MerchantRestriction> merchantRestrictions,
+                                       List<GeographicRestriction> geographicRestrictions) {
+        int[] mccs = merchantRestrictions.stream()
+                .filter(restriction -> restriction.getAction() == RestrictionAction.BLOCK)
+                .mapToInt(restriction -> packMcc(restriction.getMerchantCategoryCode()))
+                .filter(packed -> packed >= 0)
+                .sorted()
+                .distinct()
+                .toArray();
+        String[] otherMccs = merchantRestrictions.stream()
+                .filter(restriction -> restriction.getAction() == RestrictionAction.BLOCK)
+                .map(MerchantRestriction::getMerchantCategoryCode)
+                .filter(code -> packMcc(code) < 0)
+                .sorted()
+                .distinct()
+                .toArray(String[]::new);
+        long[] countries = new long[(COUNTRY_CODES + 63) / 64];
+        for (GeographicRestriction restriction : geographicRestrictions) {
+            int index = countryIndex(restriction.getCountryCode());
+            if (restriction.getAction() == RestrictionAction.BLOCK && index >= 0) {
+                countries[index >>> 6] |= 1L << index;
+            }
+        }
+        return new AuthorizationPolicy(
+                card.getId(),
+                card.getAccountId(),
+                card.getCurrency(),
+                card.getStatus(),
+                Boolean.TRUE.equals(card.getFrozen()),
+                card.getSpendingLimit(),
+                mccs,
+                otherMccs,
+                countries
+        );
+    }
+
+    public UUID cardId() {
+        return cardId;
+    }
+
+    /**
+     * The linked account funds are held against, or {@code null} for an unlinked card.
+     */
+    public UUID accountId() {
+        return accountId;
+    }
+
+    public String currency() {
+        return currency;
+    }
+
+    /**
+     * Runs every check in one pass, returning the decision together with its reason. Blocked
+     * merchant categories and countries throw {@link CardRestrictionViolationException}.
+     */
+    public AuthorizationDecision evaluate(BigDecimal amount, String merchantCategoryCode, String merchantCountry) {
+        if (status != CardStatus.ACTIVE) {
+            return AuthorizationDecision.declined("Card is not active");
+        }
+        if (frozen) {
+            return AuthorizationDecision.declined("Card is frozen");
+        }
+        if (spendingLimit != null && amount.compareTo(spendingLimit) > 0) {
+            return AuthorizationDecision.declined("Amount exceeds spending limit");
+        }
+        if (merchantCategoryCode != null && isMccBlocked(merchantCategoryCode)) {
+            throw new CardRestrictionViolationException(
+                    "Transaction blocked by merchant category restriction",
+                    "MERCHANT_CATEGORY",
+                    merchantCategoryCode
+            );
+        }
+        if (merchantCountry != null && isCountryBlocked(merchantCountry)) {
+            throw new CardRestrictionViolationException(
+                    "Transaction blocked by geographic restriction",
+                    "GEOGRAPHIC",
+                    merchantCountry
+            );
+        }
+        return AuthorizationDecision.APPROVED;
+    }
+
+    private boolean isMccBlocked(String code) {
+        int packed = packMcc(code);
+        if (packed >= 0) {
+            return blockedMccs.length > 0 && Arrays.binarySearch(blockedMccs, packed) >= 0;
+        }
+        return blockedNonNumericMccs.length > 0 && Arrays.binarySearch(blockedNonNumericMccs, code) >= 0;
+    }
+
+    private boolean isCountryBlocked(String countryCode) {
+        int index = countryIndex(countryCode);
+        return index >= 0 && (blockedCountries[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Packs a code of up to eight digits into a non-negative int, keeping its length so that
+     * "0541" and "541" stay distinct. Returns -1 for anything else.
+     */
+    static int packMcc(String code) {
+        int length = code.length();
+        if (length == 0 || length > MAX_PACKED_MCC_DIGITS) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return (length << 27) | value;
+    }
+
+    /**
+     * Maps a two-letter country code, in either case, to 0..675, or -1 if it is not one.
+     */
+    static int countryIndex(String countryCode) {
+        if (countryCode == null || countryCode.length() != 2) {
+            return -1;
+        }
+        int first = Character.toUpperCase(countryCode.charAt(0)) - 'A';
+        int second = Character.toUpperCase(countryCode.charAt(1)) - 'A';
+        if (first < 0 || first >= 26 || second < 0 || second >= 26) {
+            return -1;
+        }
+        return first * 26 + second;
+    }
+}
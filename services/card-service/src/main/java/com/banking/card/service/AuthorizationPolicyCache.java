@@ -0,0 +1,96 @@
+package com.banking.card.service;
+
+import com.banking.card.cache.BoundedMaps;
+import com.banking.card.domain.Card;
+import com.banking.card.repository.CardRepository;
+import com.banking.card.repository.GeographicRestrictionRepository;
+import com.banking.card.repository.MerchantRestrictionRepository;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded cache of compiled {@link AuthorizationPolicy} objects keyed by card id. Card and
+ * restriction mutations call {@link #invalidate}, which evicts immediately and again once the
+ * mutating transaction completes. A policy loaded while an invalidation was in flight is
+ * returned but not cached, so a stale snapshot cannot outlive the change that replaced it.
+ * Other instances learn of a change through card events (see
+ * {@link com.banking.card.events.AuthorizationPolicyInvalidationListener}); entries also expire
+ * after a TTL, which bounds staleness for writes that bypass this service, such as a direct
+ * database update. When full, expired entries are dropped first, then an arbitrary tenth.
+ */
+@Component
+public class AuthorizationPolicyCache {
+
+    private final CardRepository cardRepository;
+    private final MerchantRestrictionRepository merchantRestrictionRepository;
+    private final GeographicRestrictionRepository geographicRestrictionRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<UUID, CachedPolicy> policies = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AuthorizationPolicyCache(
+            CardRepository cardRepository,
+            MerchantRestrictionRepository merchantRestrictionRepository,
+            GeographicRestrictionRepository geographicRestrictionRepository,
+            @Value("${card.authorization.policy-cache.max-size:100000}") int maxSize,
+            @Value("${card.authorization.policy-cache.ttl-ms:30000}") long ttlMillis) {
+        this.cardRepository = cardRepository;
+        this.merchantRestrictionRepository = merchantRestrictionRepository;
+        this.geographicRestrictionRepository = geographicRestrictionRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public AuthorizationPolicy get(UUID cardId) {
+        CachedPolicy cached = policies.get(cardId);
+        if (cached != null && System.nanoTime() - cached.expiresAt() < 0) {
+            return cached.policy();
+        }
+        long generation = invalidations.get();
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new CardNotFoundException(cardId));
+        AuthorizationPolicy policy = AuthorizationPolicy.compile(
+                card,
+                merchantRestrictionRepository.findByCardId(cardId),
+                geographicRestrictionRepository.findByCardId(cardId)
+        );
+        if (invalidations.get() == generation) {
+            BoundedMaps.makeRoom(policies, maxSize, CachedPolicy::expiresAt);
+            CachedPolicy entry = new CachedPolicy(policy, System.nanoTime() + ttlNanos);
+            policies.put(cardId, entry);
+            if (invalidations.get() != generation) {
+                policies.remove(cardId, entry);
+            }
+        }
+        return policy;
+    }
+
+    public void invalidate(UUID cardId) {
+        invalidations.incrementAndGet();
+        policies.remove(cardId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidations.incrementAndGet();
+                    policies.remove(cardId);
+                }
+            });
+        }
+    }
+
+    int size() {
+        return policies.size();
+    }
+
+    private record CachedPolicy(AuthorizationPolicy policy, long expiresAt) {
+    }
+}
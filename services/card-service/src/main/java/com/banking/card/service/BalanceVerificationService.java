@@ -1,13 +1,12 @@
 package com.banking.card.service;
 
 import com.banking.card.domain.Card;
-import com.banking.card.integration.BalanceServiceClient;
+import com.banking.card.integration.CoalescingBalanceClient;
 import com.banking.card.repository.CardRepository;
 import com.banking.card.web.dto.BalanceVerificationRequest;
 import com.banking.card.web.dto.BalanceVerificationResponse;
 import java.math.BigDecimal;
 import java.util.UUID;
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,16 +15,13 @@ import org.springframework.transaction.annotation.Transactional;
 public class BalanceVerificationService {
 
     private final CardRepository cardRepository;
-    private final BalanceServiceClient balanceServiceClient;
-    private final CircuitBreaker externalHttpCircuitBreaker;
+    private final CoalescingBalanceClient balanceClient;
 
     public BalanceVerificationService(
             CardRepository cardRepository,
-            BalanceServiceClient balanceServiceClient,
-            CircuitBreaker externalHttpCircuitBreaker) {
+            CoalescingBalanceClient balanceClient) {
         this.cardRepository = cardRepository;
-        this.balanceServiceClient = balanceServiceClient;
-        this.externalHttpCircuitBreaker = externalHttpCircuitBreaker;
+        this.balanceClient = balanceClient;
     }
 
     public BalanceVerificationResponse verifyBalance(UUID cardId, BalanceVerificationRequest request) {
@@ -36,15 +32,10 @@ public class BalanceVerificationService {
             throw new IllegalStateException("Card is not linked to an account");
         }
 
-        String currency = card.getCurrency();
-        boolean hasSufficientBalance = externalHttpCircuitBreaker.executeSupplier(() ->
-                balanceServiceClient.hasSufficientBalance(card.getAccountId(), request.amount(), currency));
-
-        BigDecimal availableBalance = externalHttpCircuitBreaker.executeSupplier(() ->
-                balanceServiceClient.getAvailableBalance(card.getAccountId(), currency));
+        BigDecimal availableBalance = balanceClient.getAvailableBalance(card.getAccountId(), card.getCurrency());
 
         return new BalanceVerificationResponse(
-                hasSufficientBalance,
+                availableBalance.compareTo(request.amount()) >= 0,
                 availableBalance,
                 request.amount()
         );
@@ -0,0 +1,82 @@
+package com.banking.card.service;
+
+import com.banking.card.domain.CardAnalytics;
+import com.banking.card.domain.TransactionStatus;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+/**
+ * Running analytics for one card: count, sum, declines, latest transaction date and the two
+ * heavy-hitter sketches. Used both for per-transaction updates, starting from the persisted
+ * state, and for rebuilds, starting empty and fed from a cursor.
+ */
+final class CardAnalyticsAccumulator {
+
+    static final int SKETCH_CAPACITY = 32;
+
+    private long totalTransactions;
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private long declinedTransactions;
+    private Instant lastTransactionDate;
+    private final HeavyHittersSketch merchantCategories;
+    private final HeavyHittersSketch countries;
+
+    private CardAnalyticsAccumulator(HeavyHittersSketch merchantCategories, HeavyHittersSketch countries) {
+        this.merchantCategories = merchantCategories;
+        this.countries = countries;
+    }
+
+    static CardAnalyticsAccumulator empty() {
+        return new CardAnalyticsAccumulator(
+                new HeavyHittersSketch(SKETCH_CAPACITY),
+                new HeavyHittersSketch(SKETCH_CAPACITY)
+        );
+    }
+
+    static CardAnalyticsAccumulator from(CardAnalytics analytics) {
+        CardAnalyticsAccumulator accumulator = new CardAnalyticsAccumulator(
+                HeavyHittersSketch.decode(analytics.getMerchantCategorySketch(), SKETCH_CAPACITY),
+                HeavyHittersSketch.decode(analytics.getCountrySketch(), SKETCH_CAPACITY)
+        );
+        accumulator.totalTransactions = analytics.getTotalTransactions() != null ? analytics.getTotalTransactions() : 0;
+        accumulator.totalAmount = analytics.getTotalAmount() != null ? analytics.getTotalAmount() : BigDecimal.ZERO;
+        accumulator.declinedTransactions = analytics.getDeclinedTransactions() != null
+                ? analytics.getDeclinedTransactions() : 0;
+        accumulator.lastTransactionDate = analytics.getLastTransactionDate();
+        return accumulator;
+    }
+
+    void add(BigDecimal amount, TransactionStatus status, Instant transactionDate,
+             String merchantCategoryCode, String merchantCountry) {
+        totalTransactions++;
+        totalAmount = totalAmount.add(amount);
+        if (status == TransactionStatus.DECLINED) {
+            declinedTransactions++;
+        }
+        if (transactionDate != null && (lastTransactionDate == null || transactionDate.isAfter(lastTransactionDate))) {
+            lastTransactionDate = transactionDate;
+        }
+        if (merchantCategoryCode != null) {
+            merchantCategories.offer(merchantCategoryCode);
+        }
+        if (merchantCountry != null) {
+            countries.offer(merchantCountry);
+        }
+    }
+
+    void applyTo(CardAnalytics analytics, Instant now) {
+        analytics.setTotalTransactions(Math.toIntExact(totalTransactions));
+        analytics.setTotalAmount(totalAmount);
+        analytics.setAverageTransactionAmount(totalTransactions > 0
+                ? totalAmount.divide(BigDecimal.valueOf(totalTransactions), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        analytics.setDeclinedTransactions(Math.toIntExact(declinedTransactions));
+        analytics.setLastTransactionDate(lastTransactionDate);
+        analytics.setTopMerchantCategory(merchantCategories.top());
+        analytics.setMostUsedCountry(countries.top());
+        analytics.setMerchantCategorySketch(merchantCategories.encode());
+        analytics.setCountrySketch(countries.encode());
+        analytics.setLastUpdatedAt(now);
+    }
+}
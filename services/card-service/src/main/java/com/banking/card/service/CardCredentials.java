@@ -0,0 +1,46 @@
+package com.banking.card.service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Card number, mask, expiry and CVV rules shared by single-card operations and the lifecycle
+ * batch engine, so a card renewed in bulk looks exactly like one renewed through the API.
+ */
+public final class CardCredentials {
+
+    public static final int VALIDITY_YEARS = 3;
+    public static final Duration CVV_ROTATION_PERIOD = Duration.ofDays(12 * 30L); // CVV rotates every 12 months
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private CardCredentials() {
+    }
+
+    public static String cardNumber(UUID id) {
+        // Simple deterministic pseudo-card number for now (BIN 400000 + 10 hex chars of UUID)
+        String suffix = id.toString().replace("-", "").substring(0, 10);
+        return "400000" + suffix;
+    }
+
+    public static String mask(String cardNumber) {
+        if (cardNumber.length() <= 4) {
+            return cardNumber;
+        }
+        String last4 = cardNumber.substring(cardNumber.length() - 4);
+        return "**** **** **** " + last4;
+    }
+
+    public static LocalDate expirationDate(LocalDate issuedOn) {
+        return issuedOn.plusYears(VALIDITY_YEARS);
+    }
+
+    /**
+     * A random three-digit CVV, 100-999. Callers store only its hash.
+     */
+    public static String newCvv() {
+        return String.format("%03d", 100 + RANDOM.nextInt(900));
+    }
+}
@@ -18,7 +18,6 @@ import com.banking.card.web.dto.UpdateAtmLimitsRequest;
 import com.banking.card.web.dto.UpdateCardLimitRequest;
 import com.banking.card.web.dto.UpdateTransactionLimitsRequest;
 import java.math.BigDecimal;
-import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
@@ -34,17 +33,18 @@ public class CardService {
 
     private static final int MAX_PIN_ATTEMPTS = 3;
     private static final int PIN_LOCK_DURATION_MINUTES = 30;
-    private static final int DEFAULT_CARD_VALIDITY_YEARS = 3;
-    private static final int CVV_ROTATION_MONTHS = 12; // CVV rotates every 12 months
 
     private final CardRepository cardRepository;
     private final PasswordEncoder passwordEncoder;
     private final CardEventPublisher eventPublisher;
+    private final AuthorizationPolicyCache policyCache;
 
-    public CardService(CardRepository cardRepository, PasswordEncoder passwordEncoder, CardEventPublisher eventPublisher) {
+    public CardService(CardRepository cardRepository, PasswordEncoder passwordEncoder, CardEventPublisher eventPublisher,
+                       AuthorizationPolicyCache policyCache) {
         this.cardRepository = cardRepository;
         this.passwordEncoder = passwordEncoder;
         this.eventPublisher = eventPublisher;
+        this.policyCache = policyCache;
     }
 
     public CardResponse issueCard(CreateCardRequest request) {
@@ -66,7 +66,7 @@ public class CardService {
         card.setCreatedAt(now);
         card.setUpdatedAt(now);
         card.setIssuedAt(now);
-        card.setExpirationDate(LocalDate.now().plusYears(DEFAULT_CARD_VALIDITY_YEARS));
+        card.setExpirationDate(CardCredentials.expirationDate(LocalDate.now()));
         card.setFrozen(false);
         card.setPinAttempts(0);
         card.setIsReplacement(false);
@@ -115,6 +115,7 @@ public class CardService {
         }
         card.setStatus(CardStatus.ACTIVE);
         card.setUpdatedAt(Instant.now());
+        policyCache.invalidate(id);
         Card saved = cardRepository.save(card);
         eventPublisher.publishCardActivated(saved);
         return CardMapper.toResponse(saved);
@@ -128,6 +129,7 @@ public class CardService {
         }
         card.setStatus(CardStatus.BLOCKED);
         card.setUpdatedAt(Instant.now());
+        policyCache.invalidate(id);
         Card saved = cardRepository.save(card);
         eventPublisher.publishCardBlocked(saved);
         return CardMapper.toResponse(saved);
@@ -143,6 +145,7 @@ public class CardService {
         BigDecimal oldLimit = card.getSpendingLimit();
         card.setSpendingLimit(newLimit);
         card.setUpdatedAt(Instant.now());
+        policyCache.invalidate(id);
         Card saved = cardRepository.save(card);
         eventPublisher.publishLimitUpdated(saved, "SPENDING_LIMIT", 
                 oldLimit.toString(), newLimit.toString());
@@ -158,6 +161,7 @@ public class CardService {
         card.setStatus(CardStatus.CANCELLED);
         card.setCancellationReason(request.reason());
         card.setUpdatedAt(Instant.now());
+        policyCache.invalidate(id);
         Card saved = cardRepository.save(card);
         eventPublisher.publishCardCancelled(saved, request.reason());
         return CardMapper.toResponse(saved);
@@ -245,6 +249,7 @@ public class CardService {
         card.setFrozenAt(Instant.now());
         card.setFrozenReason(request.reason());
         card.setUpdatedAt(Instant.now());
+        policyCache.invalidate(id);
         Card saved = cardRepository.save(card);
         eventPublisher.publishCardFrozen(saved, request.reason());
         return CardMapper.toResponse(saved);
@@ -261,6 +266,7 @@ public class CardService {
         card.setFrozenAt(null);
         card.setFrozenReason(null);
         card.setUpdatedAt(Instant.now());
+        policyCache.invalidate(id);
         Card saved = cardRepository.save(card);
         eventPublisher.publishCardUnfrozen(saved);
         return CardMapper.toResponse(saved);
@@ -293,7 +299,7 @@ public class CardService {
         newCard.setCreatedAt(now);
         newCard.setUpdatedAt(now);
         newCard.setIssuedAt(now);
-        newCard.setExpirationDate(LocalDate.now().plusYears(DEFAULT_CARD_VALIDITY_YEARS));
+        newCard.setExpirationDate(CardCredentials.expirationDate(LocalDate.now()));
         newCard.setFrozen(false);
         newCard.setIsReplacement(true);
         newCard.setReplacementReason(request.reason());
@@ -304,6 +310,7 @@ public class CardService {
         oldCard.setCancellationReason("Replaced by new card");
         oldCard.setUpdatedAt(now);
         
+        policyCache.invalidate(id);
         cardRepository.save(oldCard);
         Card saved = cardRepository.save(newCard);
         eventPublisher.publishCardReplaced(oldCard, saved, request.reason());
@@ -316,7 +323,9 @@ public class CardService {
         Card card = cardRepository.findById(id).orElseThrow(() -> new CardNotFoundException(id));
         card.setAccountId(request.accountId());
         card.setUpdatedAt(Instant.now());
-        return CardMapper.toResponse(cardRepository.save(card));
+        CardResponse response = CardMapper.toResponse(cardRepository.save(card));
+        policyCache.invalidate(id);
+        return response;
     }
 
     @org.springframework.cache.annotation.CacheEvict(value = "cards", key = "#id")
@@ -324,7 +333,9 @@ public class CardService {
         Card card = cardRepository.findById(id).orElseThrow(() -> new CardNotFoundException(id));
         card.setAccountId(null);
         card.setUpdatedAt(Instant.now());
-        return CardMapper.toResponse(cardRepository.save(card));
+        CardResponse response = CardMapper.toResponse(cardRepository.save(card));
+        policyCache.invalidate(id);
+        return response;
     }
 
     // CVV Management
@@ -383,7 +394,7 @@ public class CardService {
         newCard.setCreatedAt(now);
         newCard.setUpdatedAt(now);
         newCard.setIssuedAt(now);
-        newCard.setExpirationDate(LocalDate.now().plusYears(DEFAULT_CARD_VALIDITY_YEARS));
+        newCard.setExpirationDate(CardCredentials.expirationDate(LocalDate.now()));
         newCard.setFrozen(false);
         newCard.setPinAttempts(0);
         newCard.setIsReplacement(false);
@@ -399,6 +410,7 @@ public class CardService {
         oldCard.setCancellationReason("Renewed - replaced by new card");
         oldCard.setUpdatedAt(now);
         
+        policyCache.invalidate(id);
         cardRepository.save(oldCard);
         Card saved = cardRepository.save(newCard);
         eventPublisher.publishCardRenewed(oldCard, saved);
@@ -412,17 +424,11 @@ public class CardService {
     }
 
     private String generateCardNumber(UUID id) {
-        // Simple deterministic pseudo-card number for now (BIN 400000 + 10 hex chars of UUID)
-        String suffix = id.toString().replace("-", "").substring(0, 10);
-        return "400000" + suffix;
+        return CardCredentials.cardNumber(id);
     }
 
     private String maskCardNumber(String cardNumber) {
-        if (cardNumber.length() <= 4) {
-            return cardNumber;
-        }
-        String last4 = cardNumber.substring(cardNumber.length() - 4);
-        return "**** **** **** " + last4;
+        return CardCredentials.mask(cardNumber);
     }
 
     private boolean isPinLocked(Card card) {
@@ -440,18 +446,12 @@ public class CardService {
     }
 
     private void generateAndSetCvv(Card card) {
-        // Generate 3-digit CVV
-        SecureRandom random = new SecureRandom();
-        int cvv = 100 + random.nextInt(900); // 100-999
-        String cvvString = String.format("%03d", cvv);
-        
-        // Hash CVV (similar to PIN)
-        String cvvHash = passwordEncoder.encode(cvvString);
-        
+        String cvvHash = passwordEncoder.encode(CardCredentials.newCvv());
+
         Instant now = Instant.now();
         card.setCvvHash(cvvHash);
         card.setCvvGeneratedAt(now);
-        card.setCvvRotationDueDate(now.plusSeconds(CVV_ROTATION_MONTHS * 30L * 24L * 60L * 60L));
+        card.setCvvRotationDueDate(now.plus(CardCredentials.CVV_ROTATION_PERIOD));
     }
 
     // Contactless Payment Controls
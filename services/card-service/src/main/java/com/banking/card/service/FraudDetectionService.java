@@ -8,6 +8,12 @@ import com.banking.card.domain.FraudSeverity;
 import com.banking.card.domain.VelocityTracking;
 import com.banking.card.domain.VelocityWindow;
 import com.banking.card.events.FraudEventPublisher;
+import com.banking.card.fraud.FeatureSource;
+import com.banking.card.fraud.FraudAssessment;
+import com.banking.card.fraud.FraudFeature;
+import com.banking.card.fraud.FraudRuleEngine;
+import com.banking.card.fraud.FraudRulePlan;
+import com.banking.card.fraud.FraudTelemetry;
 import com.banking.card.repository.CardRepository;
 import com.banking.card.repository.CardTransactionRepository;
 import com.banking.card.repository.FraudEventRepository;
@@ -18,10 +24,11 @@ import io.micrometer.core.instrument.MeterRegistry;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,17 +36,16 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class FraudDetectionService {
 
-    private static final int MAX_TRANSACTIONS_PER_HOUR = 10;
-    private static final int MAX_TRANSACTIONS_PER_DAY = 50;
-    private static final BigDecimal MAX_AMOUNT_PER_HOUR = new BigDecimal("5000.00");
-    private static final BigDecimal MAX_AMOUNT_PER_DAY = new BigDecimal("10000.00");
+    private static final int RECENT_TRANSACTION_WINDOW = 10;
+    private static final int RECENT_COUNTRY_WINDOW = 5;
 
     private final CardRepository cardRepository;
     private final CardTransactionRepository transactionRepository;
     private final FraudEventRepository fraudEventRepository;
     private final VelocityTrackingRepository velocityTrackingRepository;
     private final FraudEventPublisher fraudEventPublisher;
-    private final MeterRegistry meterRegistry;
+    private final FraudRuleEngine ruleEngine;
+    private final FraudTelemetry telemetry;
     private final Counter fraudCheckCounter;
 
     public FraudDetectionService(
@@ -48,13 +54,16 @@ public class FraudDetectionService {
             FraudEventRepository fraudEventRepository,
             VelocityTrackingRepository velocityTrackingRepository,
             FraudEventPublisher fraudEventPublisher,
-            MeterRegistry meterRegistry) {
+            MeterRegistry meterRegistry,
+            FraudRuleEngine ruleEngine,
+            FraudTelemetry telemetry) {
         this.cardRepository = cardRepository;
         this.transactionRepository = transactionRepository;
         this.fraudEventRepository = fraudEventRepository;
         this.velocityTrackingRepository = velocityTrackingRepository;
         this.fraudEventPublisher = fraudEventPublisher;
-        this.meterRegistry = meterRegistry;
+        this.ruleEngine = ruleEngine;
+        this.telemetry = telemetry;
         this.fraudCheckCounter = meterRegistry.counter("card.fraud.checks");
     }
 
@@ -62,147 +71,149 @@ public class FraudDetectionService {
         Card card = cardRepository.findById(cardId).orElseThrow(() -> new CardNotFoundException(cardId));
 
         fraudCheckCounter.increment();
-        List<String> riskFactors = new ArrayList<>();
-        BigDecimal fraudScore = BigDecimal.ZERO;
-        FraudSeverity severity = FraudSeverity.LOW;
+        telemetry.recordCheck(cardId);
+        FraudRulePlan plan = ruleEngine.plan();
 
         // Velocity checks
         Instant now = Instant.now();
         Instant oneHourAgo = now.minus(1, ChronoUnit.HOURS);
         Instant oneDayAgo = now.minus(1, ChronoUnit.DAYS);
 
-        // Check hourly velocity
-        VelocityTracking hourTracking = getOrCreateVelocityTracking(cardId, VelocityWindow.HOUR, oneHourAgo);
-        if (hourTracking.getTransactionCount() >= MAX_TRANSACTIONS_PER_HOUR) {
-            riskFactors.add("Hourly transaction limit exceeded");
-            fraudScore = fraudScore.add(new BigDecimal("30"));
-            severity = FraudSeverity.HIGH;
-        }
-        if (hourTracking.getTotalAmount().add(amount).compareTo(MAX_AMOUNT_PER_HOUR) > 0) {
-            riskFactors.add("Hourly amount limit exceeded");
-            fraudScore = fraudScore.add(new BigDecimal("25"));
-            if (severity.ordinal() < FraudSeverity.HIGH.ordinal()) {
-                severity = FraudSeverity.HIGH;
-            }
-        }
-
-        // Check daily velocity
-        VelocityTracking dayTracking = getOrCreateVelocityTracking(cardId, VelocityWindow.DAY, oneDayAgo);
-        if (dayTracking.getTransactionCount() >= MAX_TRANSACTIONS_PER_DAY) {
-            riskFactors.add("Daily transaction limit exceeded");
-            fraudScore = fraudScore.add(new BigDecimal("40"));
-            severity = FraudSeverity.CRITICAL;
-        }
-        if (dayTracking.getTotalAmount().add(amount).compareTo(MAX_AMOUNT_PER_DAY) > 0) {
-            riskFactors.add("Daily amount limit exceeded");
-            fraudScore = fraudScore.add(new BigDecimal("35"));
-            if (severity.ordinal() < FraudSeverity.CRITICAL.ordinal()) {
-                severity = FraudSeverity.CRITICAL;
-            }
-        }
-
-        // Check for unusual amount (if amount is significantly higher than average)
-        BigDecimal averageAmount = calculateAverageTransactionAmount(cardId);
-        if (averageAmount != null && amount.compareTo(averageAmount.multiply(new BigDecimal("3"))) > 0) {
-            riskFactors.add("Unusual transaction amount");
-            fraudScore = fraudScore.add(new BigDecimal("20"));
-            if (severity.ordinal() < FraudSeverity.MEDIUM.ordinal()) {
-                severity = FraudSeverity.MEDIUM;
-            }
-        }
-
-        // Check for unusual location (if card has recent transactions in different countries)
-        if (merchantCountry != null && hasRecentTransactionsInDifferentCountry(cardId, merchantCountry)) {
-            riskFactors.add("Unusual transaction location");
-            fraudScore = fraudScore.add(new BigDecimal("25"));
-            if (severity.ordinal() < FraudSeverity.HIGH.ordinal()) {
-                severity = FraudSeverity.HIGH;
-            }
-        }
-
-        List<FraudEvent> unresolvedEvents = fraudEventRepository.findByCardIdAndResolvedFalse(cardId);
-        if (!unresolvedEvents.isEmpty()) {
-            riskFactors.add("Existing unresolved fraud events");
-            fraudScore = fraudScore.add(new BigDecimal("15"));
-            if (severity.ordinal() < FraudSeverity.HIGH.ordinal()) {
-                severity = FraudSeverity.HIGH;
-            }
-        }
+        FeatureFetch features = fetchFeatures(cardId, oneHourAgo, oneDayAgo, plan.requiredSources());
+        VelocityTracking hourTracking = features.hourTracking() != null
+                ? features.hourTracking()
+                : createVelocityTracking(cardId, VelocityWindow.HOUR, oneHourAgo);
+        VelocityTracking dayTracking = features.dayTracking() != null
+                ? features.dayTracking()
+                : createVelocityTracking(cardId, VelocityWindow.DAY, oneDayAgo);
+
+        double amountValue = amount.doubleValue();
+        double[] values = new double[FraudFeature.values().length];
+        values[FraudFeature.AMOUNT.ordinal()] = amountValue;
+        values[FraudFeature.HOUR_TRANSACTION_COUNT.ordinal()] = hourTracking.getTransactionCount();
+        values[FraudFeature.HOUR_AMOUNT_WITH_CURRENT.ordinal()] = hourTracking.getTotalAmount().doubleValue() + amountValue;
+        values[FraudFeature.DAY_TRANSACTION_COUNT.ordinal()] = dayTracking.getTransactionCount();
+        values[FraudFeature.DAY_AMOUNT_WITH_CURRENT.ordinal()] = dayTracking.getTotalAmount().doubleValue() + amountValue;
+        values[FraudFeature.AMOUNT_TO_RECENT_AVERAGE.ordinal()] = amountToRecentAverage(features.recentTransactions(), amountValue);
+        values[FraudFeature.RECENT_FOREIGN_COUNTRY.ordinal()] =
+                hasRecentTransactionsInDifferentCountry(features.recentTransactions(), merchantCountry) ? 1 : 0;
+        values[FraudFeature.UNRESOLVED_FRAUD_EVENTS.ordinal()] = features.unresolvedFraudEvents();
+
+        FraudAssessment assessment = plan.evaluate(values, features.fetchNanos());
+        BigDecimal fraudScore = BigDecimal.valueOf(assessment.score());
+        FraudSeverity severity = assessment.severity();
+        List<String> riskFactors = assessment.riskFactors();
 
         // Update velocity tracking
-        updateVelocityTracking(hourTracking, amount, card);
-        updateVelocityTracking(dayTracking, amount, card);
+        updateVelocityTracking(hourTracking, amount);
+        updateVelocityTracking(dayTracking, amount);
 
-        boolean isFraudulent = fraudScore.compareTo(new BigDecimal("50")) >= 0;
-
-        if (isFraudulent) {
+        if (assessment.fraudulent()) {
             createFraudEvent(cardId, FraudEventType.VELOCITY_EXCEEDED, severity,
                     "Fraud detected: " + String.join(", ", riskFactors), fraudScore);
-            meterRegistry.counter("card.fraud.detected", "severity", severity.name()).increment();
+            telemetry.recordDetection(severity);
             fraudEventPublisher.publishFraudDetected(cardId, card.getCustomerId(), severity, fraudScore, riskFactors);
         }
 
-        return new FraudCheckResponse(isFraudulent, fraudScore, severity, riskFactors);
+        return new FraudCheckResponse(assessment.fraudulent(), fraudScore, severity, riskFactors);
+    }
+
+    /**
+     * Runs one query per feature source on the calling thread, so every read joins the caller's
+     * transaction and the velocity rows it returns stay managed for the update that follows.
+     * Velocity windows are always read because they are updated after every check; the other
+     * sources only when the active rules need them.
+     */
+    private FeatureFetch fetchFeatures(UUID cardId, Instant hourWindowStart, Instant dayWindowStart,
+                                       Set<FeatureSource> requiredSources) {
+        long[] fetchNanos = new long[FeatureSource.values().length];
+        VelocityTracking hour = timed(FeatureSource.HOUR_VELOCITY, fetchNanos, () ->
+                velocityTrackingRepository.findByCardIdAndWindowTypeAndWindowStart(
+                        cardId, VelocityWindow.HOUR, hourWindowStart)).orElse(null);
+        VelocityTracking day = timed(FeatureSource.DAY_VELOCITY, fetchNanos, () ->
+                velocityTrackingRepository.findByCardIdAndWindowTypeAndWindowStart(
+                        cardId, VelocityWindow.DAY, dayWindowStart)).orElse(null);
+        List<CardTransaction> recent = requiredSources.contains(FeatureSource.RECENT_TRANSACTIONS)
+                ? timed(FeatureSource.RECENT_TRANSACTIONS, fetchNanos, () ->
+                        transactionRepository.findByCardIdOrderByTransactionDateDesc(
+                                cardId, PageRequest.of(0, RECENT_TRANSACTION_WINDOW)).getContent())
+                : List.of();
+        int unresolved = requiredSources.contains(FeatureSource.UNRESOLVED_FRAUD_EVENTS)
+                ? timed(FeatureSource.UNRESOLVED_FRAUD_EVENTS, fetchNanos, () ->
+                        fraudEventRepository.findByCardIdAndResolvedFalse(cardId)).size()
+                : 0;
+        return new FeatureFetch(hour, day, recent, unresolved, fetchNanos);
+    }
+
+    private static <T> T timed(FeatureSource source, long[] fetchNanos, Supplier<T> fetch) {
+        long start = System.nanoTime();
+        try {
+            return fetch.get();
+        } finally {
+            fetchNanos[source.ordinal()] = System.nanoTime() - start;
+        }
+    }
+
+    private record FeatureFetch(
+            VelocityTracking hourTracking,
+            VelocityTracking dayTracking,
+            List<CardTransaction> recentTransactions,
+            int unresolvedFraudEvents,
+            long[] fetchNanos
+    ) {
     }
 
-    private VelocityTracking getOrCreateVelocityTracking(UUID cardId, VelocityWindow windowType, Instant windowStart) {
-        return velocityTrackingRepository
-                .findByCardIdAndWindowTypeAndWindowStart(cardId, windowType, windowStart)
-                .orElseGet(() -> {
-                    Card card = cardRepository.getReferenceById(cardId);
-                    VelocityTracking tracking = new VelocityTracking();
-                    tracking.setId(UUID.randomUUID());
-                    tracking.setCard(card);
-                    tracking.setWindowType(windowType);
-                    tracking.setWindowStart(windowStart);
-                    tracking.setTransactionCount(0);
-                    tracking.setTotalAmount(BigDecimal.ZERO);
-                    tracking.setCreatedAt(Instant.now());
-                    return velocityTrackingRepository.save(tracking);
-                });
+    private VelocityTracking createVelocityTracking(UUID cardId, VelocityWindow windowType, Instant windowStart) {
+        Card card = cardRepository.getReferenceById(cardId);
+        VelocityTracking tracking = new VelocityTracking();
+        tracking.setId(UUID.randomUUID());
+        tracking.setCard(card);
+        tracking.setWindowType(windowType);
+        tracking.setWindowStart(windowStart);
+        tracking.setTransactionCount(0);
+        tracking.setTotalAmount(BigDecimal.ZERO);
+        tracking.setCreatedAt(Instant.now());
+        return velocityTrackingRepository.save(tracking);
     }
 
-    private void updateVelocityTracking(VelocityTracking tracking, BigDecimal amount, Card card) {
+    private void updateVelocityTracking(VelocityTracking tracking, BigDecimal amount) {
         tracking.setTransactionCount(tracking.getTransactionCount() + 1);
         tracking.setTotalAmount(tracking.getTotalAmount().add(amount));
         velocityTrackingRepository.save(tracking);
-        meterRegistry.counter("card.fraud.velocity.updated", "cardId", card.getId().toString(),
-                "window", tracking.getWindowType().name()).increment();
+        telemetry.recordVelocityUpdate(tracking.getWindowType());
     }
 
-    private BigDecimal calculateAverageTransactionAmount(UUID cardId) {
-        List<CardTransaction> recentTransactions = transactionRepository
-                .findByCardIdOrderByTransactionDateDesc(cardId, 
-                        org.springframework.data.domain.PageRequest.of(0, 10))
-                .getContent();
-        
-        BigDecimal total = recentTransactions.stream()
-                .map(CardTransaction::getAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        long count = recentTransactions.stream()
-                .map(CardTransaction::getAmount)
-                .filter(Objects::nonNull)
-                .count();
-
+    /**
+     * Ratio of {@code amount} to the average of the last ten transactions, NaN without history.
+     */
+    private double amountToRecentAverage(List<CardTransaction> recentTransactions, double amount) {
+        double total = 0;
+        int count = 0;
+        for (CardTransaction transaction : recentTransactions) {
+            if (transaction.getAmount() != null) {
+                total += transaction.getAmount().doubleValue();
+                count++;
+            }
+        }
         if (count == 0) {
-            return null;
+            return Double.NaN;
         }
-
-        return total.divide(new BigDecimal(count), 2, 
-                java.math.RoundingMode.HALF_UP);
+        return amount / (total / count);
     }
 
-    private boolean hasRecentTransactionsInDifferentCountry(UUID cardId, String currentCountry) {
-        List<CardTransaction> recentTransactions = transactionRepository
-                .findByCardIdOrderByTransactionDateDesc(cardId,
-                        org.springframework.data.domain.PageRequest.of(0, 5))
-                .getContent();
-        
-        return recentTransactions.stream()
-                .filter(t -> t.getMerchantCountry() != null)
-                .anyMatch(t -> !t.getMerchantCountry().equalsIgnoreCase(currentCountry));
+    private boolean hasRecentTransactionsInDifferentCountry(List<CardTransaction> recentTransactions,
+                                                            String currentCountry) {
+        if (currentCountry == null) {
+            return false;
+        }
+        int limit = Math.min(RECENT_COUNTRY_WINDOW, recentTransactions.size());
+        for (int i = 0; i < limit; i++) {
+            String country = recentTransactions.get(i).getMerchantCountry();
+            if (country != null && !country.equalsIgnoreCase(currentCountry)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void createFraudEvent(UUID cardId, FraudEventType eventType, FraudSeverity severity,
@@ -0,0 +1,257 @@
+package com.banking.card.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitters sketch over string keys. At most {@code capacity} counters are kept;
+ * an unseen key takes over the smallest counter and inherits its count as error, so any key
+ * whose true frequency exceeds {@code total / capacity} is guaranteed to be tracked. Persisted as
+ * {@code key=count:error;...}. Not thread-safe; callers sharing a sketch synchronize on it.
+ * <p>
+ * Counters are kept in the Stream-Summary layout: a list of buckets in ascending count order,
+ * each holding the counters that share its count ordered by key. Incrementing a counter moves it
+ * to the next bucket and the counter evicted is the last of the first one, so {@link #offer} costs
+ * O(log k) in the size of one bucket rather than a scan of every counter. Evicting by key keeps
+ * the sketch independent of arrival order, so a decoded sketch evolves like the original.
+ */
+public final class HeavyHittersSketch {
+
+    private static final Comparator<Counter> HEAVIEST_FIRST = (a, b) -> {
+        int byCount = Long.compare(b.count, a.count);
+        return byCount != 0 ? byCount : a.key.compareTo(b.key);
+    };
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private Bucket smallest;
+    private Bucket largest;
+
+    public HeavyHittersSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    static HeavyHittersSketch decode(String encoded, int capacity) {
+        HeavyHittersSketch sketch = new HeavyHittersSketch(capacity);
+        if (encoded == null || encoded.isEmpty()) {
+            return sketch;
+        }
+        List<Counter> decoded = new ArrayList<>();
+        for (String entry : encoded.split(";")) {
+            int equals = entry.lastIndexOf('=');
+            int colon = entry.lastIndexOf(':');
+            if (equals <= 0 || colon < equals) {
+                continue;
+            }
+            long count = Long.parseLong(entry.substring(equals + 1, colon));
+            long error = Long.parseLong(entry.substring(colon + 1));
+            decoded.add(new Counter(entry.substring(0, equals), count, error));
+        }
+        decoded.sort(HEAVIEST_FIRST);
+        sketch.rebuild(decoded.subList(0, Math.min(capacity, decoded.size())));
+        return sketch;
+    }
+
+    public void offer(String key) {
+        if (key.indexOf(';') >= 0 || key.indexOf('=') >= 0) {
+            // Such keys cannot round-trip through the encoding; real MCCs and ISO codes never contain them.
+            return;
+        }
+        Counter existing = counters.get(key);
+        if (existing != null) {
+            increment(existing);
+            return;
+        }
+        if (counters.size() < capacity) {
+            Counter counter = new Counter(key, 1, 0);
+            counters.put(key, counter);
+            if (smallest == null || smallest.count != 1) {
+                insertAfter(null, new Bucket(1));
+            }
+            smallest.add(counter);
+            return;
+        }
+        Counter evicted = smallest.members.last();
+        counters.remove(evicted.key);
+        Counter counter = new Counter(key, evicted.count, evicted.count);
+        counters.put(key, counter);
+        smallest.members.remove(evicted);
+        smallest.add(counter);
+        increment(counter);
+    }
+
+    /**
+     * The key with the highest estimated count, ties broken by key; {@code null} when empty.
+     */
+    String top() {
+        return largest != null ? largest.members.first().key : null;
+    }
+
+    public long estimate(String key) {
+        Counter counter = counters.get(key);
+        return counter != null ? counter.count : 0;
+    }
+
+    /**
+     * Up to {@code limit} tracked keys, highest estimated count first.
+     */
+    public List<Estimate> heaviest(int limit) {
+        List<Counter> sorted = sortedCounters();
+        List<Estimate> heaviest = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (Counter counter : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            heaviest.add(new Estimate(counter.key, counter.count, counter.error));
+        }
+        return heaviest;
+    }
+
+    /**
+     * Scales every count and error by {@code factor} and drops keys that reach zero, so the
+     * sketch follows recent traffic instead of all-time totals.
+     */
+    public void decay(double factor) {
+        if (factor < 0 || factor > 1) {
+            throw new IllegalArgumentException("decay factor must be between 0 and 1");
+        }
+        List<Counter> kept = new ArrayList<>(counters.size());
+        for (Counter counter : counters.values()) {
+            counter.count = (long) (counter.count * factor);
+            counter.error = Math.min(counter.count, (long) (counter.error * factor));
+            if (counter.count > 0) {
+                kept.add(counter);
+            }
+        }
+        // Scaling merges buckets, so they are laid out again
+        kept.sort(HEAVIEST_FIRST);
+        rebuild(kept);
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    String encode() {
+        StringBuilder encoded = new StringBuilder();
+        for (Counter counter : sortedCounters()) {
+            if (!encoded.isEmpty()) {
+                encoded.append(';');
+            }
+            encoded.append(counter.key).append('=').append(counter.count).append(':').append(counter.error);
+        }
+        return encoded.toString();
+    }
+
+    public record Estimate(String key, long count, long error) {
+    }
+
+    private void increment(Counter counter) {
+        Bucket from = counter.bucket;
+        long count = counter.count + 1;
+        Bucket to = from.next;
+        if (to == null || to.count != count) {
+            to = new Bucket(count);
+            insertAfter(from, to);
+        }
+        from.members.remove(counter);
+        if (from.members.isEmpty()) {
+            unlink(from);
+        }
+        counter.count = count;
+        to.add(counter);
+    }
+
+    /**
+     * Lays out {@code sorted}, heaviest first, as a fresh bucket list.
+     */
+    private void rebuild(List<Counter> sorted) {
+        counters.clear();
+        smallest = null;
+        largest = null;
+        for (int i = sorted.size() - 1; i >= 0; i--) {
+            Counter counter = sorted.get(i);
+            counters.put(counter.key, counter);
+            if (largest == null || largest.count != counter.count) {
+                insertAfter(largest, new Bucket(counter.count));
+            }
+            largest.add(counter);
+        }
+    }
+
+    /**
+     * Links {@code bucket} in after {@code previous}, or first when {@code previous} is null.
+     */
+    private void insertAfter(Bucket previous, Bucket bucket) {
+        bucket.previous = previous;
+        bucket.next = previous != null ? previous.next : smallest;
+        if (bucket.next != null) {
+            bucket.next.previous = bucket;
+        } else {
+            largest = bucket;
+        }
+        if (previous != null) {
+            previous.next = bucket;
+        } else {
+            smallest = bucket;
+        }
+    }
+
+    private void unlink(Bucket bucket) {
+        if (bucket.previous != null) {
+            bucket.previous.next = bucket.next;
+        } else {
+            smallest = bucket.next;
+        }
+        if (bucket.next != null) {
+            bucket.next.previous = bucket.previous;
+        } else {
+            largest = bucket.previous;
+        }
+    }
+
+    private List<Counter> sortedCounters() {
+        List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort(HEAVIEST_FIRST);
+        return sorted;
+    }
+
+    private static final class Counter {
+
+        private final String key;
+        private long count;
+        private long error;
+        private Bucket bucket;
+
+        Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    /**
+     * The counters sharing one count, ordered by key.
+     */
+    private static final class Bucket {
+
+        private final long count;
+        private final TreeSet<Counter> members = new TreeSet<>(Comparator.comparing(counter -> counter.key));
+        private Bucket previous;
+        private Bucket next;
+
+        Bucket(long count) {
+            this.count = count;
+        }
+
+        void add(Counter counter) {
+            members.add(counter);
+            counter.bucket = this;
+        }
+    }
+}
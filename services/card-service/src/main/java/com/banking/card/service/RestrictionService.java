@@ -3,6 +3,7 @@ package com.banking.card.service;
 import com.banking.card.domain.Card;
 import com.banking.card.domain.GeographicRestriction;
 import com.banking.card.domain.MerchantRestriction;
+import com.banking.card.events.CardEventPublisher;
 import com.banking.card.repository.CardRepository;
 import com.banking.card.repository.GeographicRestrictionRepository;
 import com.banking.card.repository.MerchantRestrictionRepository;
@@ -15,6 +16,8 @@ import java.util.List;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @Transactional
@@ -23,14 +26,20 @@ public class RestrictionService {
     private final CardRepository cardRepository;
     private final MerchantRestrictionRepository merchantRestrictionRepository;
     private final GeographicRestrictionRepository geographicRestrictionRepository;
+    private final AuthorizationPolicyCache policyCache;
+    private final CardEventPublisher eventPublisher;
 
     public RestrictionService(
             CardRepository cardRepository,
             MerchantRestrictionRepository merchantRestrictionRepository,
-            GeographicRestrictionRepository geographicRestrictionRepository) {
+            GeographicRestrictionRepository geographicRestrictionRepository,
+            AuthorizationPolicyCache policyCache,
+            CardEventPublisher eventPublisher) {
         this.cardRepository = cardRepository;
         this.merchantRestrictionRepository = merchantRestrictionRepository;
         this.geographicRestrictionRepository = geographicRestrictionRepository;
+        this.policyCache = policyCache;
+        this.eventPublisher = eventPublisher;
     }
 
     // Merchant Restrictions
@@ -46,15 +55,18 @@ public class RestrictionService {
         restriction.setCreatedAt(Instant.now());
 
         MerchantRestriction saved = merchantRestrictionRepository.save(restriction);
+        restrictionsChanged(card);
         return toMerchantResponse(saved);
     }
 
     public void removeMerchantRestriction(UUID cardId, String merchantCategoryCode) {
-        if (!cardRepository.existsById(cardId)) {
-            throw new CardNotFoundException(cardId);
-        }
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new CardNotFoundException(cardId));
         merchantRestrictionRepository.findByCardIdAndMerchantCategoryCode(cardId, merchantCategoryCode)
-                .ifPresent(merchantRestrictionRepository::delete);
+                .ifPresent(restriction -> {
+                    merchantRestrictionRepository.delete(restriction);
+                    restrictionsChanged(card);
+                });
     }
 
     @Transactional(readOnly = true)
@@ -80,15 +92,18 @@ public class RestrictionService {
         restriction.setCreatedAt(Instant.now());
 
         GeographicRestriction saved = geographicRestrictionRepository.save(restriction);
+        restrictionsChanged(card);
         return toGeographicResponse(saved);
     }
 
     public void removeGeographicRestriction(UUID cardId, String countryCode) {
-        if (!cardRepository.existsById(cardId)) {
-            throw new CardNotFoundException(cardId);
-        }
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new CardNotFoundException(cardId));
         geographicRestrictionRepository.findByCardIdAndCountryCode(cardId, countryCode.toUpperCase())
-                .ifPresent(geographicRestrictionRepository::delete);
+                .ifPresent(restriction -> {
+                    geographicRestrictionRepository.delete(restriction);
+                    restrictionsChanged(card);
+                });
     }
 
     @Transactional(readOnly = true)
@@ -101,6 +116,21 @@ public class RestrictionService {
                 .toList();
     }
 
+    // Other instances reload the policy when they see the event, so it must not go out before the commit
+    private void restrictionsChanged(Card card) {
+        policyCache.invalidate(card.getId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishRestrictionsChanged(card);
+                }
+            });
+        } else {
+            eventPublisher.publishRestrictionsChanged(card);
+        }
+    }
+
     private MerchantRestrictionResponse toMerchantResponse(MerchantRestriction restriction) {
         return new MerchantRestrictionResponse(
                 restriction.getId(),
@@ -22,10 +22,13 @@ public class TransactionService {
 
     private final CardRepository cardRepository;
     private final CardTransactionRepository transactionRepository;
+    private final AnalyticsService analyticsService;
 
-    public TransactionService(CardRepository cardRepository, CardTransactionRepository transactionRepository) {
+    public TransactionService(CardRepository cardRepository, CardTransactionRepository transactionRepository,
+                              AnalyticsService analyticsService) {
         this.cardRepository = cardRepository;
         this.transactionRepository = transactionRepository;
+        this.analyticsService = analyticsService;
     }
 
     public CardTransactionResponse createTransaction(UUID cardId, CreateTransactionRequest request) {
@@ -50,6 +53,7 @@ public class TransactionService {
         transaction.setCreatedAt(Instant.now());
 
         CardTransaction saved = transactionRepository.save(transaction);
+        analyticsService.recordTransaction(saved);
         return toResponse(saved);
     }
 
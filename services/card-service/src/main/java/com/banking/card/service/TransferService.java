@@ -4,6 +4,7 @@ import com.banking.card.domain.Card;
 import com.banking.card.domain.CardStatus;
 import com.banking.card.domain.CardTransfer;
 import com.banking.card.domain.TransferStatus;
+import com.banking.card.hold.AuthorizationHoldLedger;
 import com.banking.card.repository.CardRepository;
 import com.banking.card.repository.CardTransferRepository;
 import com.banking.card.web.dto.CardTransferRequest;
@@ -12,6 +13,8 @@ import java.time.Instant;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @Transactional
@@ -19,10 +22,13 @@ public class TransferService {
 
     private final CardRepository cardRepository;
     private final CardTransferRepository transferRepository;
+    private final AuthorizationHoldLedger holdLedger;
 
-    public TransferService(CardRepository cardRepository, CardTransferRepository transferRepository) {
+    public TransferService(CardRepository cardRepository, CardTransferRepository transferRepository,
+                           AuthorizationHoldLedger holdLedger) {
         this.cardRepository = cardRepository;
         this.transferRepository = transferRepository;
+        this.holdLedger = holdLedger;
     }
 
     public CardTransferResponse transferBetweenCards(UUID fromCardId, CardTransferRequest request) {
@@ -56,14 +62,59 @@ public class TransferService {
         transfer.setTransferDate(Instant.now());
         transfer.setCreatedAt(Instant.now());
 
-        // In a real system, this would integrate with the ledger/account service
-        // For now, we'll mark it as completed
-        transfer.setStatus(TransferStatus.COMPLETED);
+        UUID accountId = fromCard.getAccountId();
+        if (accountId == null) {
+            transfer.setStatus(TransferStatus.COMPLETED);
+            return toResponse(transferRepository.save(transfer));
+        }
+
+        // Debit the source account's open-to-buy like an immediately captured authorization;
+        // posting to the account service itself is still out of scope here. The hold is in the
+        // account's currency and nothing here converts, so the transfer must be in it too.
+        if (!fromCard.getCurrency().equals(transfer.getCurrency())) {
+            throw new IllegalArgumentException("Transfer currency " + transfer.getCurrency()
+                    + " must match the source card's currency " + fromCard.getCurrency());
+        }
+        if (holdLedger.reserve(transfer.getId(), fromCardId, accountId,
+                transfer.getAmount(), transfer.getCurrency()) == null) {
+            transfer.setStatus(TransferStatus.FAILED);
+            transfer.setFailureReason("Insufficient available balance");
+            return toResponse(transferRepository.save(transfer));
+        }
 
-        CardTransfer saved = transferRepository.save(transfer);
+        transfer.setStatus(TransferStatus.COMPLETED);
+        CardTransfer saved;
+        try {
+            saved = transferRepository.save(transfer);
+        } catch (RuntimeException e) {
+            holdLedger.release(transfer.getId());
+            throw e;
+        }
+        settleHoldWithTransaction(transfer.getId());
         return toResponse(saved);
     }
 
+    /**
+     * Captures the transfer's hold once the transfer is committed, or releases it if the
+     * transfer rolls back, so the hold never outlives or undercuts the recorded transfer.
+     */
+    private void settleHoldWithTransaction(UUID transferId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            holdLedger.capture(transferId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    holdLedger.capture(transferId);
+                } else {
+                    holdLedger.release(transferId);
+                }
+            }
+        });
+    }
+
     private CardTransferResponse toResponse(CardTransfer transfer) {
         return new CardTransferResponse(
                 transfer.getId(),
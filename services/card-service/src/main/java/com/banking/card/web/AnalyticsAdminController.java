@@ -0,0 +1,42 @@
+package com.banking.card.web;
+
+import com.banking.card.service.AnalyticsService;
+import com.banking.card.web.dto.AnalyticsBackfillResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Instant;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@Tag(name = "Card Analytics Admin", description = "Administrative APIs for card analytics maintenance")
+public class AnalyticsAdminController {
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsAdminController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @PostMapping("/backfill")
+    @Operation(
+            summary = "Backfill card analytics",
+            description = "Rebuilds analytics for every card from its full transaction history."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Analytics rebuilt",
+                    content = @Content(schema = @Schema(implementation = AnalyticsBackfillResponse.class)))
+    })
+    @PreAuthorize("@securityToggle.isDisabled() or hasAuthority('cards.admin')")
+    public AnalyticsBackfillResponse backfill() {
+        int rebuilt = analyticsService.backfillAllAnalytics();
+        return new AnalyticsBackfillResponse(rebuilt, Instant.now());
+    }
+}
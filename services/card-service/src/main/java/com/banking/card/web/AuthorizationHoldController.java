@@ -0,0 +1,96 @@
+package com.banking.card.web;
+
+import com.banking.card.hold.AuthorizationHold;
+import com.banking.card.hold.AuthorizationHoldLedger;
+import com.banking.card.hold.HoldNotFoundException;
+import com.banking.card.web.dto.AuthorizationHoldResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.UUID;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/cards/{cardId}/authorizations/{authorizationId}/hold")
+@Tag(name = "Card Authorization", description = "Real-time transaction authorization operations")
+public class AuthorizationHoldController {
+
+    private final AuthorizationHoldLedger holdLedger;
+
+    public AuthorizationHoldController(AuthorizationHoldLedger holdLedger) {
+        this.holdLedger = holdLedger;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get authorization hold", description = "Returns the active funds hold of an approved authorization.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Active hold"),
+            @ApiResponse(responseCode = "404", description = "No active hold for this authorization")
+    })
+    @PreAuthorize("@securityToggle.isDisabled() or hasAuthority('cards.read')")
+    public AuthorizationHoldResponse get(@PathVariable UUID cardId, @PathVariable UUID authorizationId) {
+        return toResponse(holdFor(cardId, authorizationId));
+    }
+
+    @PostMapping("/capture")
+    @Operation(summary = "Capture authorization hold", description = "Settles the held funds as a debit on the account.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Hold captured"),
+            @ApiResponse(responseCode = "404", description = "No active hold for this authorization")
+    })
+    @PreAuthorize("@securityToggle.isDisabled() or hasAuthority('cards.write')")
+    public AuthorizationHoldResponse capture(@PathVariable UUID cardId, @PathVariable UUID authorizationId) {
+        holdFor(cardId, authorizationId);
+        return toResponse(holdLedger.capture(authorizationId));
+    }
+
+    @PostMapping("/posted")
+    @Operation(summary = "Mark captured hold posted",
+            description = "Records that the account service has booked the captured debit; until then it stays out of the available balance.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Capture marked posted"),
+            @ApiResponse(responseCode = "404", description = "No unposted capture for this authorization")
+    })
+    @PreAuthorize("@securityToggle.isDisabled() or hasAuthority('cards.write')")
+    public AuthorizationHoldResponse posted(@PathVariable UUID cardId, @PathVariable UUID authorizationId) {
+        holdFor(cardId, authorizationId);
+        return toResponse(holdLedger.posted(authorizationId));
+    }
+
+    @PostMapping("/release")
+    @Operation(summary = "Release authorization hold", description = "Returns the held funds to the account's available balance.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Hold released"),
+            @ApiResponse(responseCode = "404", description = "No active hold for this authorization")
+    })
+    @PreAuthorize("@securityToggle.isDisabled() or hasAuthority('cards.write')")
+    public AuthorizationHoldResponse release(@PathVariable UUID cardId, @PathVariable UUID authorizationId) {
+        holdFor(cardId, authorizationId);
+        return toResponse(holdLedger.release(authorizationId));
+    }
+
+    private AuthorizationHold holdFor(UUID cardId, UUID authorizationId) {
+        AuthorizationHold hold = holdLedger.get(authorizationId);
+        if (!hold.cardId().equals(cardId)) {
+            throw new HoldNotFoundException(authorizationId);
+        }
+        return hold;
+    }
+
+    private AuthorizationHoldResponse toResponse(AuthorizationHold hold) {
+        return new AuthorizationHoldResponse(
+                hold.id(),
+                hold.cardId(),
+                hold.amount(),
+                hold.currency(),
+                hold.status(),
+                hold.expiresAt()
+        );
+    }
+}
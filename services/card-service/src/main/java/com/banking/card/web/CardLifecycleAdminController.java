@@ -0,0 +1,71 @@
+package com.banking.card.web;
+
+import com.banking.card.lifecycle.CardRenewalBatchEngine;
+import com.banking.card.lifecycle.CardRenewalRun;
+import com.banking.card.web.dto.CardRenewalRunResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
+import java.util.UUID;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/lifecycle")
+@Tag(name = "Card Lifecycle Admin", description = "Administrative APIs for bulk card renewal")
+public class CardLifecycleAdminController {
+
+    private final CardRenewalBatchEngine renewalEngine;
+
+    public CardLifecycleAdminController(CardRenewalBatchEngine renewalEngine) {
+        this.renewalEngine = renewalEngine;
+    }
+
+    @PostMapping("/renewals")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(
+            summary = "Start a card renewal run",
+            description = "Renews every card expiring on or before the given date in the background. "
+                    + "Defaults to the configured lookahead. An interrupted run is resumed instead."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Run started or resumed",
+                    content = @Content(schema = @Schema(implementation = CardRenewalRunResponse.class))),
+            @ApiResponse(responseCode = "400", description = "A renewal run is already in progress")
+    })
+    @PreAuthorize("@securityToggle.isDisabled() or hasAuthority('cards.admin')")
+    public CardRenewalRunResponse startRenewals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiringOnOrBefore) {
+        return toResponse(renewalEngine.start(expiringOnOrBefore));
+    }
+
+    @GetMapping("/renewals/{runId}")
+    @Operation(summary = "Get a card renewal run", description = "Progress of a renewal run.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Run found",
+                    content = @Content(schema = @Schema(implementation = CardRenewalRunResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Run not found")
+    })
+    @PreAuthorize("@securityToggle.isDisabled() or hasAuthority('cards.admin')")
+    public ResponseEntity<CardRenewalRunResponse> getRenewalRun(@PathVariable UUID runId) {
+        return ResponseEntity.of(renewalEngine.findRun(runId).map(CardLifecycleAdminController::toResponse));
+    }
+
+    private static CardRenewalRunResponse toResponse(CardRenewalRun run) {
+        return new CardRenewalRunResponse(run.id(), run.cutoffDate(), run.status(), run.cardsScanned(),
+                run.cardsRenewed(), run.errorMessage(), run.startedAt(), run.completedAt());
+    }
+}
@@ -1,5 +1,7 @@
 package com.banking.card.web;
 
+import com.banking.card.hold.HoldLedgerUnavailableException;
+import com.banking.card.hold.HoldNotFoundException;
 import com.banking.card.service.CardLimitExceededException;
 import com.banking.card.service.CardNotFoundException;
 import com.banking.card.service.CardOperationException;
@@ -20,6 +22,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(HoldNotFoundException.class)
+    public ResponseEntity<ApiError> handleHoldNotFound(HoldNotFoundException ex) {
+        ApiError error = new ApiError(HttpStatus.NOT_FOUND.value(), "Authorization hold not found", List.of(ex.getMessage()));
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(HoldLedgerUnavailableException.class)
+    public ResponseEntity<ApiError> handleHoldLedgerUnavailable(HoldLedgerUnavailableException ex) {
+        ApiError error = new ApiError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Authorization hold ledger unavailable", List.of(ex.getMessage()));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex) {
         List<String> details = ex.getBindingResult()
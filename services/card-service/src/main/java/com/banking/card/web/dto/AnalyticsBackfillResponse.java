@@ -0,0 +1,9 @@
+package com.banking.card.web.dto;
+
+import java.time.Instant;
+
+public record AnalyticsBackfillResponse(
+        int cardsRebuilt,
+        Instant completedAt
+) {
+}
@@ -0,0 +1,16 @@
+package com.banking.card.web.dto;
+
+import com.banking.card.hold.HoldStatus;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record AuthorizationHoldResponse(
+        UUID authorizationId,
+        UUID cardId,
+        BigDecimal amount,
+        String currency,
+        HoldStatus status,
+        Instant expiresAt
+) {
+}
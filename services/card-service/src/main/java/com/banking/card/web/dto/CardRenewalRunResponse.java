@@ -0,0 +1,17 @@
+package com.banking.card.web.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record CardRenewalRunResponse(
+        UUID runId,
+        LocalDate expiringOnOrBefore,
+        String status,
+        long cardsScanned,
+        long cardsRenewed,
+        String errorMessage,
+        Instant startedAt,
+        Instant completedAt
+) {
+}
@@ -0,0 +1,5 @@
+-- Heavy-hitter sketches backing top merchant category and most used country,
+-- so analytics can be maintained per transaction instead of recomputed from history
+ALTER TABLE card_analytics
+    ADD COLUMN IF NOT EXISTS merchant_category_sketch TEXT,
+    ADD COLUMN IF NOT EXISTS country_sketch TEXT;
@@ -0,0 +1,18 @@
+-- Funds reserved by approved authorizations. Written behind the in-memory hold ledger
+-- and read back on startup to rebuild it.
+CREATE TABLE IF NOT EXISTS authorization_holds (
+    id UUID PRIMARY KEY,
+    card_id UUID NOT NULL,
+    account_id UUID NOT NULL,
+    amount NUMERIC(19, 4) NOT NULL,
+    currency CHAR(3) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL,
+    CONSTRAINT fk_authorization_hold_card FOREIGN KEY (card_id) REFERENCES cards(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_authorization_holds_active
+    ON authorization_holds (expires_at)
+    WHERE status = 'ACTIVE';
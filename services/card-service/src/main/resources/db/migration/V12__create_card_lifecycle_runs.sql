@@ -0,0 +1,28 @@
+-- Checkpoints of bulk card lifecycle runs. The written cursor advances in the same
+-- transaction as each chunk of renewals; the published cursor once its events are sent.
+CREATE TABLE IF NOT EXISTS card_lifecycle_runs (
+    id UUID PRIMARY KEY,
+    run_type VARCHAR(32) NOT NULL,
+    cutoff_date DATE NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    last_expiration_date DATE,
+    last_card_id UUID,
+    published_expiration_date DATE,
+    published_card_id UUID,
+    cards_scanned BIGINT NOT NULL DEFAULT 0,
+    cards_renewed BIGINT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    started_at TIMESTAMPTZ NOT NULL,
+    heartbeat_at TIMESTAMPTZ,
+    completed_at TIMESTAMPTZ
+);
+
+-- At most one run of each type in progress
+CREATE UNIQUE INDEX IF NOT EXISTS idx_card_lifecycle_runs_running
+    ON card_lifecycle_runs (run_type)
+    WHERE status = 'RUNNING';
+
+-- Keyset scan of cards due for renewal
+CREATE INDEX IF NOT EXISTS idx_cards_renewal_scan
+    ON cards (expiration_date, id)
+    WHERE status <> 'CANCELLED';
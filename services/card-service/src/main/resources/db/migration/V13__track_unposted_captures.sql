@@ -0,0 +1,5 @@
+-- Captured holds stay CAPTURED until the account service has posted the debit (then POSTED),
+-- and are read back on startup so their funds stay out of the available amount
+CREATE INDEX IF NOT EXISTS idx_authorization_holds_unposted
+    ON authorization_holds (account_id)
+    WHERE status = 'CAPTURED';
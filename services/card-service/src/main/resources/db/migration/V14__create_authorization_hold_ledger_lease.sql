@@ -0,0 +1,6 @@
+-- Names the one instance that runs the in-memory authorization hold ledger
+CREATE TABLE IF NOT EXISTS authorization_hold_ledger_lease (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    owner VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL
+);
@@ -0,0 +1,43 @@
+package com.banking.card.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class BoundedMapsTest {
+
+    @Test
+    void dropsExpiredEntriesBeforeLiveOnes() {
+        long live = System.nanoTime() + 60_000_000_000L;
+        long expired = System.nanoTime() - 1;
+        Map<String, Long> map = new HashMap<>(Map.of("a", live, "b", expired, "c", live, "d", live));
+
+        BoundedMaps.makeRoom(map, 4, deadline -> deadline);
+
+        assertThat(map).containsOnlyKeys("a", "c", "d");
+    }
+
+    @Test
+    void dropsATenthWhenNothingHasExpired() {
+        long live = System.nanoTime() + 60_000_000_000L;
+        Map<Integer, Long> map = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            map.put(i, live);
+        }
+
+        BoundedMaps.makeRoom(map, 20, deadline -> deadline);
+
+        assertThat(map).hasSize(18);
+    }
+
+    @Test
+    void leavesMapBelowLimitAlone() {
+        Map<String, Long> map = new HashMap<>(Map.of("a", System.nanoTime() - 1));
+
+        BoundedMaps.makeRoom(map, 2, deadline -> deadline);
+
+        assertThat(map).containsOnlyKeys("a");
+    }
+}
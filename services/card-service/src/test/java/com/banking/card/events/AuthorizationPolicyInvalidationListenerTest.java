@@ -0,0 +1,61 @@
+package com.banking.card.events;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.banking.card.service.AuthorizationPolicyCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationPolicyInvalidationListenerTest {
+
+    @Mock
+    private AuthorizationPolicyCache policyCache;
+
+    private AuthorizationPolicyInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new AuthorizationPolicyInvalidationListener(policyCache, new ObjectMapper());
+    }
+
+    @Test
+    void evictsKeyedCard() {
+        UUID cardId = UUID.randomUUID();
+
+        listener.onCardEvent(record(cardId.toString(),
+                "{\"eventType\":\"CardBlocked\",\"cardId\":\"" + cardId + "\"}"));
+
+        verify(policyCache).invalidate(cardId);
+    }
+
+    @Test
+    void evictsSupersededCardOnRenewal() {
+        UUID cardId = UUID.randomUUID();
+        UUID oldCardId = UUID.randomUUID();
+
+        listener.onCardEvent(record(cardId.toString(),
+                "{\"eventType\":\"CardRenewed\",\"cardId\":\"" + cardId + "\",\"oldCardId\":\"" + oldCardId + "\"}"));
+
+        verify(policyCache).invalidate(cardId);
+        verify(policyCache).invalidate(oldCardId);
+    }
+
+    @Test
+    void ignoresUnreadableEvent() {
+        listener.onCardEvent(record(null, "not json"));
+
+        verifyNoInteractions(policyCache);
+    }
+
+    private static ConsumerRecord<String, String> record(String key, String value) {
+        return new ConsumerRecord<>("card-events", 0, 0L, key, value);
+    }
+}
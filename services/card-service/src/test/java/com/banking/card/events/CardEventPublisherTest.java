@@ -133,6 +133,16 @@ class CardEventPublisherTest {
         assert payloadCaptor.getValue().contains("SPENDING_LIMIT");
     }
 
+    @Test
+    void publishRestrictionsChanged() {
+        eventPublisher.publishRestrictionsChanged(testCard);
+
+        ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(eq("card-events"), eq(testCard.getId().toString()), payloadCaptor.capture());
+
+        assert payloadCaptor.getValue().contains("RestrictionsChanged");
+    }
+
     @Test
     void publishCardReplaced() {
         Card oldCard = new Card();
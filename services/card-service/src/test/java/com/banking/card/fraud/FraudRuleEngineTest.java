@@ -0,0 +1,63 @@
+package com.banking.card.fraud;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.card.domain.FraudSeverity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FraudRuleEngineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void defaultRulesScoreLikeTheFormerHardCodedChecks() {
+        FraudRuleEngine engine = new FraudRuleEngine(new FraudRuleProperties(), meterRegistry);
+        double[] values = new double[FraudFeature.values().length];
+        values[FraudFeature.AMOUNT_TO_RECENT_AVERAGE.ordinal()] = Double.NaN;
+        values[FraudFeature.HOUR_TRANSACTION_COUNT.ordinal()] = 10;
+        values[FraudFeature.HOUR_AMOUNT_WITH_CURRENT.ordinal()] = 6200;
+        values[FraudFeature.UNRESOLVED_FRAUD_EVENTS.ordinal()] = 1;
+
+        FraudAssessment assessment = engine.plan().evaluate(values, new long[FeatureSource.values().length]);
+
+        assertThat(assessment.score()).isEqualTo(70.0d);
+        assertThat(assessment.fraudulent()).isTrue();
+        assertThat(assessment.severity()).isEqualTo(FraudSeverity.HIGH);
+        assertThat(assessment.riskFactors()).containsExactly(
+                "Hourly transaction limit exceeded",
+                "Hourly amount limit exceeded",
+                "Existing unresolved fraud events");
+        assertThat(meterRegistry.find("card.fraud.rule.evaluations")
+                .tags("rule", "hourly-count", "outcome", "hit").counter().count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    void reloadsRulesFileWhenItChanges(@TempDir Path dir) throws IOException {
+        Path rulesFile = dir.resolve("fraud-rules.json");
+        Files.writeString(rulesFile, """
+                {"fraudThreshold": 10, "rules": [
+                  {"name": "large-amount", "description": "Large amount", "feature": "AMOUNT",
+                   "operator": "GT", "threshold": 1000, "score": 10, "severity": "MEDIUM"}
+                ]}
+                """);
+        FraudRuleProperties properties = new FraudRuleProperties();
+        properties.setRulesFile(rulesFile.toString());
+        FraudRuleEngine engine = new FraudRuleEngine(properties, meterRegistry);
+
+        assertThat(engine.plan().size()).isEqualTo(1);
+        assertThat(engine.plan().requiredSources()).containsExactly(FeatureSource.REQUEST);
+
+        Files.writeString(rulesFile, "{\"rules\": [{\"name\": \"broken\"}]}");
+        Files.setLastModifiedTime(rulesFile, FileTime.from(Instant.now().plusSeconds(60)));
+        engine.reloadIfChanged();
+
+        assertThat(engine.plan().size()).isEqualTo(1);
+    }
+}
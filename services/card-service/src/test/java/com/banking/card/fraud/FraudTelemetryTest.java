@@ -0,0 +1,52 @@
+package com.banking.card.fraud;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.card.domain.FraudSeverity;
+import com.banking.card.service.HeavyHittersSketch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class FraudTelemetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FraudTelemetry telemetry = new FraudTelemetry(meterRegistry, 8, 0.5);
+
+    @Test
+    void keepsHotCardsWithinAFixedNumberOfCounters() {
+        UUID hot = UUID.randomUUID();
+        for (int i = 0; i < 1_000; i++) {
+            telemetry.recordCheck(hot);
+            telemetry.recordCheck(UUID.randomUUID());
+        }
+
+        List<HeavyHittersSketch.Estimate> hotCards = telemetry.hotCards(3);
+
+        assertThat(hotCards.get(0).key()).isEqualTo(hot.toString());
+        assertThat(hotCards.get(0).count() - hotCards.get(0).error()).isLessThanOrEqualTo(1_000);
+        assertThat(hotCards.get(0).count()).isGreaterThanOrEqualTo(1_000);
+        assertThat(meterRegistry.get("card.fraud.hot_cards.tracked").gauge().value()).isEqualTo(8.0d);
+        assertThat(meterRegistry.getMeters()).hasSizeLessThan(20);
+    }
+
+    @Test
+    void decaysHotCardsAndRates() {
+        UUID card = UUID.randomUUID();
+        IntStream.range(0, 10).forEach(i -> telemetry.recordCheck(card));
+        telemetry.recordDetection(FraudSeverity.HIGH);
+
+        telemetry.tick();
+        telemetry.decayHotCards();
+
+        assertThat(telemetry.checksPerMinute()).isEqualTo(10 * 60.0 / FraudTelemetry.TICK_SECONDS);
+        assertThat(telemetry.hotCards(1).get(0).count()).isEqualTo(5);
+
+        telemetry.tick();
+
+        assertThat(telemetry.checksPerMinute()).isLessThan(10 * 60.0 / FraudTelemetry.TICK_SECONDS);
+        assertThat(meterRegistry.get("card.fraud.detected").tag("severity", "HIGH").counter().count()).isEqualTo(1.0d);
+    }
+}
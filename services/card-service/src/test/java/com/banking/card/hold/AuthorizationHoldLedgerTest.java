@@ -0,0 +1,173 @@
+package com.banking.card.hold;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.card.integration.CoalescingBalanceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuthorizationHoldLedgerTest {
+
+    private final CoalescingBalanceClient balanceClient = mock(CoalescingBalanceClient.class);
+    private final HoldWriteBehind writeBehind = mock(HoldWriteBehind.class);
+    private final HoldLedgerLease lease = mock(HoldLedgerLease.class);
+    private final UUID cardId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+    private AuthorizationHoldLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        when(balanceClient.getAvailableBalance(accountId, "USD")).thenReturn(new BigDecimal("1000.00"));
+        when(lease.tryAcquire()).thenReturn(true);
+        when(lease.isHeld()).thenReturn(true);
+        ledger = newLedger(Duration.ofDays(7));
+    }
+
+    @Test
+    void concurrentReservationsNeverOverspendTheAccount() throws Exception {
+        List<Future<AuthorizationHold>> attempts = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 200; i++) {
+                attempts.add(executor.submit(() ->
+                        ledger.reserve(UUID.randomUUID(), cardId, accountId, new BigDecimal("7.50"), "USD")));
+            }
+        }
+        long approved = 0;
+        for (Future<AuthorizationHold> attempt : attempts) {
+            if (attempt.get() != null) {
+                approved++;
+            }
+        }
+
+        assertThat(approved).isEqualTo(133);
+        assertThat(ledger.available(accountId)).isEqualByComparingTo("2.50");
+    }
+
+    @Test
+    void releaseRestoresAndCaptureKeepsAvailableFunds() {
+        UUID released = UUID.randomUUID();
+        UUID captured = UUID.randomUUID();
+        ledger.reserve(released, cardId, accountId, new BigDecimal("300"), "USD");
+        ledger.reserve(captured, cardId, accountId, new BigDecimal("200"), "USD");
+
+        ledger.release(released);
+        ledger.capture(captured);
+
+        assertThat(ledger.available(accountId)).isEqualByComparingTo("800");
+        assertThatThrownBy(() -> ledger.release(captured))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already CAPTURED");
+        verify(writeBehind).enqueue(any(), eq(HoldStatus.RELEASED));
+        verify(writeBehind).enqueue(any(), eq(HoldStatus.CAPTURED));
+    }
+
+    @Test
+    void expiredHoldsReturnTheirFunds() throws InterruptedException {
+        ledger = newLedger(Duration.ofMillis(20));
+        AuthorizationHold hold = ledger.reserve(UUID.randomUUID(), cardId, accountId, new BigDecimal("999"), "USD");
+        assertThat(ledger.reserve(UUID.randomUUID(), cardId, accountId, new BigDecimal("5"), "USD")).isNull();
+
+        Thread.sleep(50);
+        ledger.expireDue();
+
+        assertThat(hold.status()).isEqualTo(HoldStatus.EXPIRED);
+        assertThat(ledger.available(accountId)).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    void restoresActiveHoldsAndFetchesTheBalanceOnFirstUse() {
+        AuthorizationHold restored = new AuthorizationHold(UUID.randomUUID(), cardId, accountId,
+                AuthorizationHold.toUnits(new BigDecimal("600")), "USD",
+                Instant.now().plus(Duration.ofDays(1)), Instant.now(), HoldStatus.ACTIVE);
+        when(writeBehind.loadOutstanding(any())).thenReturn(List.of(restored));
+
+        ledger = newLedger(Duration.ofDays(7));
+
+        assertThat(ledger.reserve(UUID.randomUUID(), cardId, accountId, new BigDecimal("500"), "USD")).isNull();
+        assertThat(ledger.reserve(UUID.randomUUID(), cardId, accountId, new BigDecimal("400"), "USD")).isNotNull();
+        verify(balanceClient, times(1)).getAvailableBalance(accountId, "USD");
+    }
+
+    @Test
+    void capturedFundsStayUnavailableThroughBalanceRefreshesUntilPosted() {
+        UUID captured = UUID.randomUUID();
+        ledger.reserve(captured, cardId, accountId, new BigDecimal("200"), "USD");
+        ledger.capture(captured);
+
+        // The account service has not booked the debit yet, so its balance is unchanged
+        ledger.refreshBalance(accountId);
+        assertThat(ledger.reserve(UUID.randomUUID(), cardId, accountId, new BigDecimal("900"), "USD")).isNull();
+        assertThat(ledger.available(accountId)).isEqualByComparingTo("800");
+
+        ledger.posted(captured);
+        when(balanceClient.getAvailableBalance(accountId, "USD")).thenReturn(new BigDecimal("800.00"));
+        ledger.refreshBalance(accountId);
+
+        assertThat(ledger.reserve(UUID.randomUUID(), cardId, accountId, new BigDecimal("800"), "USD")).isNotNull();
+        assertThatThrownBy(() -> ledger.posted(captured)).isInstanceOf(HoldNotFoundException.class);
+        verify(writeBehind).enqueue(any(), eq(HoldStatus.POSTED));
+    }
+
+    @Test
+    void restoresUnpostedCapturesWithoutExpiringThem() {
+        AuthorizationHold capturedHold = new AuthorizationHold(UUID.randomUUID(), cardId, accountId,
+                AuthorizationHold.toUnits(new BigDecimal("700")), "USD",
+                Instant.now().minus(Duration.ofDays(1)), Instant.now(), HoldStatus.CAPTURED);
+        when(writeBehind.loadOutstanding(any())).thenReturn(List.of(capturedHold));
+
+        ledger = newLedger(Duration.ofDays(7));
+        ledger.expireDue();
+
+        assertThat(ledger.reserve(UUID.randomUUID(), cardId, accountId, new BigDecimal("301"), "USD")).isNull();
+        assertThat(ledger.posted(capturedHold.id()).status()).isEqualTo(HoldStatus.POSTED);
+        // Posting moves the debit into the balance; the amount available is unchanged
+        assertThat(ledger.available(accountId)).isEqualByComparingTo("300");
+    }
+
+    @Test
+    void rejectsHoldOperationsWithoutTheLeaseAndReloadsOnTakeover() {
+        AuthorizationHold hold = ledger.reserve(UUID.randomUUID(), cardId, accountId, new BigDecimal("600"), "USD");
+        when(lease.tryAcquire()).thenReturn(false);
+        when(lease.isHeld()).thenReturn(false);
+
+        ledger.renewLease();
+
+        assertThatThrownBy(() -> ledger.reserve(UUID.randomUUID(), cardId, accountId, BigDecimal.ONE, "USD"))
+                .isInstanceOf(HoldLedgerUnavailableException.class);
+        assertThatThrownBy(() -> ledger.capture(hold.id())).isInstanceOf(HoldLedgerUnavailableException.class);
+        assertThat(ledger.available(accountId)).isNull();
+
+        // Another instance wrote the hold; this one reads it back when it gets the lease again
+        when(writeBehind.loadOutstanding(any())).thenReturn(List.of(hold));
+        when(lease.tryAcquire()).thenReturn(true);
+        when(lease.isHeld()).thenReturn(true);
+        ledger.renewLease();
+
+        assertThat(ledger.reserve(UUID.randomUUID(), cardId, accountId, new BigDecimal("500"), "USD")).isNull();
+        assertThat(ledger.capture(hold.id()).status()).isEqualTo(HoldStatus.CAPTURED);
+    }
+
+    private AuthorizationHoldLedger newLedger(Duration ttl) {
+        AuthorizationHoldLedger newLedger = new AuthorizationHoldLedger(
+                balanceClient, writeBehind, lease, new SimpleMeterRegistry(), ttl, 10, 64);
+        newLedger.afterSingletonsInstantiated();
+        return newLedger;
+    }
+}
@@ -0,0 +1,42 @@
+package com.banking.card.hold;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class HoldLedgerLeaseTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void heldOnlyWhileTheRowNamesThisInstance() {
+        HoldLedgerLease lease = new HoldLedgerLease(jdbcTemplate, Duration.ofSeconds(15));
+        when(jdbcTemplate.update(anyString(), anyString(), eq(15.0))).thenReturn(1, 0);
+
+        assertThat(lease.tryAcquire()).isTrue();
+        assertThat(lease.isHeld()).isTrue();
+        assertThat(lease.tryAcquire()).isFalse();
+        assertThat(lease.isHeld()).isFalse();
+    }
+
+    @Test
+    void failedRenewalKeepsTheLeaseOnlyUntilItRunsOut() throws InterruptedException {
+        HoldLedgerLease lease = new HoldLedgerLease(jdbcTemplate, Duration.ofMillis(50));
+        when(jdbcTemplate.update(anyString(), anyString(), eq(0.05)))
+                .thenReturn(1)
+                .thenThrow(new QueryTimeoutException("database unavailable"));
+
+        assertThat(lease.tryAcquire()).isTrue();
+        assertThat(lease.tryAcquire()).isTrue();
+
+        Thread.sleep(80);
+        assertThat(lease.isHeld()).isFalse();
+    }
+}
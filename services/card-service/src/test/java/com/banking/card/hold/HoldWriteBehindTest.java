@@ -0,0 +1,82 @@
+package com.banking.card.hold;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+class HoldWriteBehindTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final HoldWriteBehind writeBehind = new HoldWriteBehind(jdbcTemplate, 500);
+    private final AuthorizationHold hold = new AuthorizationHold(UUID.randomUUID(), UUID.randomUUID(),
+            UUID.randomUUID(), 10_000, "USD", Instant.now().plus(Duration.ofDays(7)), Instant.now(), HoldStatus.ACTIVE);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedActiveWriteDoesNotOverrideCaptureQueuedMeanwhile() {
+        List<String> written = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    writeBehind.enqueue(hold, HoldStatus.CAPTURED);
+                    throw new QueryTimeoutException("database unavailable");
+                })
+                .thenAnswer(invocation -> {
+                    written.addAll(statuses(invocation.getArgument(1), invocation.getArgument(3)));
+                    return new int[0][];
+                });
+
+        writeBehind.enqueue(hold, HoldStatus.ACTIVE);
+        writeBehind.flush();
+        writeBehind.flush();
+
+        assertThat(written).containsExactly("CAPTURED");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void postingWinsOverTheCaptureItFollows() {
+        List<String> written = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    written.addAll(statuses(invocation.getArgument(1), invocation.getArgument(3)));
+                    return new int[0][];
+                });
+
+        writeBehind.enqueue(hold, HoldStatus.POSTED);
+        writeBehind.enqueue(hold, HoldStatus.CAPTURED);
+        writeBehind.flush();
+
+        assertThat(written).containsExactly("POSTED");
+    }
+
+    private static List<String> statuses(Collection<Object> changes, ParameterizedPreparedStatementSetter<Object> setter)
+            throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        for (Object change : changes) {
+            setter.setValues(ps, change);
+        }
+        ArgumentCaptor<String> status = ArgumentCaptor.forClass(String.class);
+        verify(ps, atLeastOnce()).setString(eq(6), status.capture());
+        return status.getAllValues();
+    }
+}
@@ -0,0 +1,127 @@
+package com.banking.card.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CoalescingBalanceClientTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID accountId = UUID.randomUUID();
+    private CoalescingBalanceClient client;
+
+    @AfterEach
+    void tearDown() {
+        client.destroy();
+    }
+
+    @Test
+    void concurrentLookupsShareOneRemoteCallAndAreCached() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountingClient remote = new CountingClient(() -> {
+            release.await(5, TimeUnit.SECONDS);
+            return BigDecimal.valueOf(700);
+        });
+        client = newClient(remote, 60_000, 5_000);
+
+        List<Future<BigDecimal>> lookups = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 16; i++) {
+                lookups.add(callers.submit(() -> client.getAvailableBalance(accountId, "USD")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<BigDecimal> lookup : lookups) {
+                assertThat(lookup.get()).isEqualByComparingTo("700");
+            }
+        }
+
+        assertThat(client.getAvailableBalance(accountId, "USD")).isEqualByComparingTo("700");
+        assertThat(remote.calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("card.balance.lookups").tag("outcome", "remote").counter().count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    void invalidationForcesAFreshCall() {
+        AtomicInteger balance = new AtomicInteger(100);
+        CountingClient remote = new CountingClient(() -> BigDecimal.valueOf(balance.get()));
+        client = newClient(remote, 60_000, 5_000);
+
+        assertThat(client.getAvailableBalance(accountId, "USD")).isEqualByComparingTo("100");
+        balance.set(40);
+        assertThat(client.getAvailableBalance(accountId, "USD")).isEqualByComparingTo("100");
+
+        client.invalidate(accountId);
+
+        assertThat(client.getAvailableBalance(accountId, "USD")).isEqualByComparingTo("40");
+        assertThat(remote.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void slowCallIsHedgedAndFirstAnswerWins() {
+        AtomicInteger attempt = new AtomicInteger();
+        CountingClient remote = new CountingClient(() -> {
+            if (attempt.incrementAndGet() == 1) {
+                Thread.sleep(2_000);
+                return BigDecimal.ONE;
+            }
+            return BigDecimal.TEN;
+        });
+        client = newClient(remote, 0, 50);
+
+        long start = System.nanoTime();
+        BigDecimal balance = client.getAvailableBalance(accountId, "USD");
+
+        assertThat(balance).isEqualByComparingTo("10");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_500);
+        assertThat(meterRegistry.get("card.balance.hedged.requests").counter().count()).isEqualTo(1.0d);
+    }
+
+    private CoalescingBalanceClient newClient(BalanceServiceClient remote, long ttlMillis, long hedgeDelayMillis) {
+        return new CoalescingBalanceClient(remote, CircuitBreaker.ofDefaults("balance-test"), meterRegistry,
+                ttlMillis, 100, hedgeDelayMillis, 10);
+    }
+
+    private interface BalanceCall {
+        BigDecimal call() throws InterruptedException;
+    }
+
+    private static final class CountingClient implements BalanceServiceClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final BalanceCall call;
+
+        private CountingClient(BalanceCall call) {
+            this.call = call;
+        }
+
+        @Override
+        public boolean hasSufficientBalance(UUID accountId, BigDecimal amount, String currency) {
+            throw new UnsupportedOperationException("balance checks use getAvailableBalance only");
+        }
+
+        @Override
+        public BigDecimal getAvailableBalance(UUID accountId, String currency) {
+            calls.incrementAndGet();
+            try {
+                return call.call();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.banking.card.lifecycle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.card.domain.Card;
+import com.banking.card.domain.CardStatus;
+import com.banking.card.domain.CardType;
+import com.banking.card.events.CardEventPublisher;
+import com.banking.card.service.AuthorizationPolicyCache;
+import com.banking.card.service.CardCredentials;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class CardRenewalBatchEngineTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private CardEventPublisher eventPublisher;
+
+    @Mock
+    private AuthorizationPolicyCache policyCache;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    private static final LocalDate CUTOFF = LocalDate.of(2030, 1, 31);
+
+    private CardRenewalBatchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new CardRenewalBatchEngine(jdbcTemplate, transactionManager, passwordEncoder,
+                eventPublisher, policyCache, cacheManager, 1000, 2, 45, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.destroy();
+    }
+
+    @Test
+    void renewalCarriesOverLimitsAndIssuesFreshCredentials() {
+        when(passwordEncoder.encode(anyString())).thenReturn("cvv-hash");
+        UUID oldCardId = UUID.randomUUID();
+        RenewalCandidate candidate = new RenewalCandidate(oldCardId, UUID.randomUUID(), UUID.randomUUID(),
+                "CREDIT", "EUR", new BigDecimal("5000.00"), new BigDecimal("1000.00"), new BigDecimal("8000.00"),
+                new BigDecimal("300.00"), new BigDecimal("2000.00"), "JANE DOE", 2, LocalDate.now().plusDays(10));
+        Instant now = Instant.now();
+
+        Card renewal = engine.renewalOf(candidate, now);
+
+        assertThat(renewal.getId()).isNotEqualTo(oldCardId);
+        assertThat(renewal.getCardNumber()).isEqualTo(CardCredentials.cardNumber(renewal.getId()));
+        assertThat(renewal.getMaskedNumber()).endsWith(renewal.getCardNumber().substring(12));
+        assertThat(renewal.getStatus()).isEqualTo(CardStatus.PENDING_ACTIVATION);
+        assertThat(renewal.getType()).isEqualTo(CardType.CREDIT);
+        assertThat(renewal.getCustomerId()).isEqualTo(candidate.customerId());
+        assertThat(renewal.getAccountId()).isEqualTo(candidate.accountId());
+        assertThat(renewal.getSpendingLimit()).isEqualByComparingTo("5000.00");
+        assertThat(renewal.getDailyAtmLimit()).isEqualByComparingTo("300.00");
+        assertThat(renewal.getCardholderName()).isEqualTo("JANE DOE");
+        assertThat(renewal.getRenewalCount()).isEqualTo(3);
+        assertThat(renewal.getRenewedFromCardId()).isEqualTo(oldCardId);
+        assertThat(renewal.getExpirationDate()).isEqualTo(LocalDate.now().plusYears(CardCredentials.VALIDITY_YEARS));
+        assertThat(renewal.getCvvHash()).isEqualTo("cvv-hash");
+        assertThat(renewal.getCvvRotationDueDate()).isEqualTo(now.plus(CardCredentials.CVV_ROTATION_PERIOD));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void freshRunWritesRenewalsForCancelledCardsAndCheckpoints() {
+        RenewalCandidate renewed = candidate(LocalDate.of(2030, 1, 10));
+        RenewalCandidate cancelledMeanwhile = candidate(LocalDate.of(2030, 1, 20));
+        when(passwordEncoder.encode(anyString())).thenReturn("cvv-hash");
+        when(jdbcTemplate.query(contains("ORDER BY expiration_date, id"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(renewed, cancelledMeanwhile));
+        // The second card was cancelled through the API, so only the first one is cancelled here
+        when(jdbcTemplate.query(contains("SET status = 'CANCELLED'"), any(PreparedStatementSetter.class),
+                any(RowMapper.class))).thenReturn(List.of(renewed.id()));
+        ArgumentCaptor<BatchPreparedStatementSetter> inserts = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        UUID runId = UUID.randomUUID();
+
+        engine.execute(run(runId, null, null));
+
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO cards"), inserts.capture());
+        assertThat(inserts.getValue().getBatchSize()).isEqualTo(1);
+        verify(jdbcTemplate).update(contains("cards_scanned = cards_scanned + ?"),
+                eq(Date.valueOf(cancelledMeanwhile.expirationDate())), eq(cancelledMeanwhile.id()),
+                eq(2), eq(1), any(Timestamp.class), eq(runId));
+        ArgumentCaptor<List<Card>> events = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishCardsRenewed(events.capture());
+        assertThat(events.getValue()).extracting(Card::getRenewedFromCardId).containsExactly(renewed.id());
+        verify(jdbcTemplate).update(contains("SET published_expiration_date = ?"),
+                eq(Date.valueOf(cancelledMeanwhile.expirationDate())), eq(cancelledMeanwhile.id()),
+                any(Timestamp.class), eq(runId));
+        verify(policyCache).invalidate(renewed.id());
+        verify(jdbcTemplate).update(contains("SET status = 'COMPLETED'"), any(), any(), eq(runId));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void chunkHittingATakenCardNumberIsWrittenAgainWithANewNumber() {
+        RenewalCandidate candidate = candidate(LocalDate.of(2030, 1, 10));
+        when(passwordEncoder.encode(anyString())).thenReturn("cvv-hash");
+        when(jdbcTemplate.query(contains("ORDER BY expiration_date, id"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(candidate));
+        when(jdbcTemplate.query(contains("SET status = 'CANCELLED'"), any(PreparedStatementSetter.class),
+                any(RowMapper.class))).thenReturn(List.of(candidate.id()));
+        List<String> inserted = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO cards"), any(BatchPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    inserted.add(cardNumberOf(invocation.getArgument(1)));
+                    throw new DuplicateKeyException("duplicate key value violates unique constraint on card_number");
+                })
+                .thenAnswer(invocation -> {
+                    inserted.add(cardNumberOf(invocation.getArgument(1)));
+                    return new int[]{1};
+                });
+        when(jdbcTemplate.query(contains("WHERE card_number = ANY(?)"), any(PreparedStatementSetter.class),
+                any(RowMapper.class))).thenAnswer(invocation -> List.of(inserted.get(0)));
+        UUID runId = UUID.randomUUID();
+
+        engine.execute(run(runId, null, null));
+
+        assertThat(inserted).hasSize(2).doesNotHaveDuplicates();
+        ArgumentCaptor<List<Card>> events = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishCardsRenewed(events.capture());
+        assertThat(events.getValue()).extracting(Card::getCardNumber).containsExactly(inserted.get(1));
+        Card renewal = events.getValue().get(0);
+        assertThat(renewal.getCardNumber()).isEqualTo(CardCredentials.cardNumber(renewal.getId()));
+        verify(jdbcTemplate).update(contains("SET status = 'COMPLETED'"), any(), any(), eq(runId));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resumedRunContinuesAfterItsCheckpoint() {
+        UUID lastCardId = UUID.randomUUID();
+        LocalDate lastExpiration = LocalDate.of(2030, 1, 15);
+        CardRenewalRun run = new CardRenewalRun(UUID.randomUUID(), CUTOFF, "RUNNING", lastExpiration, lastCardId,
+                lastExpiration, lastCardId, 1000, 990, null, Instant.now(), Instant.now(), null);
+        when(jdbcTemplate.query(contains("(expiration_date, id) > (?, ?)"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of());
+
+        engine.execute(run);
+
+        verify(jdbcTemplate).query(contains("(expiration_date, id) > (?, ?)"), any(RowMapper.class),
+                eq(Date.valueOf(CUTOFF)), eq(Date.valueOf(lastExpiration)), eq(lastCardId), eq(1000));
+        verify(eventPublisher, never()).publishCardsRenewed(any());
+        verify(jdbcTemplate).update(contains("SET status = 'COMPLETED'"), any(), any(), eq(run.id()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resumedRunRepublishesTheChunkCommittedButNotPublished() {
+        UUID publishedCardId = UUID.randomUUID();
+        UUID lastCardId = UUID.randomUUID();
+        LocalDate lastExpiration = LocalDate.of(2030, 1, 15);
+        CardRenewalRun run = new CardRenewalRun(UUID.randomUUID(), CUTOFF, "RUNNING", lastExpiration, lastCardId,
+                LocalDate.of(2030, 1, 5), publishedCardId, 2000, 2000, null, Instant.now(), Instant.now(), null);
+        Card renewal = new Card();
+        renewal.setId(UUID.randomUUID());
+        renewal.setRenewedFromCardId(lastCardId);
+        when(jdbcTemplate.query(contains("JOIN cards n"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(renewal));
+        when(jdbcTemplate.query(contains("WHERE status <> 'CANCELLED'"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of());
+
+        engine.execute(run);
+
+        verify(jdbcTemplate).query(contains("AND (o.expiration_date, o.id) > (?, ?)"), any(RowMapper.class),
+                eq(Date.valueOf(CUTOFF)), eq(Date.valueOf(lastExpiration)), eq(lastCardId), any(Timestamp.class),
+                eq(Date.valueOf(LocalDate.of(2030, 1, 5))), eq(publishedCardId));
+        verify(eventPublisher).publishCardsRenewed(List.of(renewal));
+        verify(jdbcTemplate).update(contains("SET published_expiration_date = ?"), eq(Date.valueOf(lastExpiration)),
+                eq(lastCardId), any(Timestamp.class), eq(run.id()));
+        verify(policyCache).invalidate(lastCardId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scheduledRunExecutesOffTheSchedulerThread() throws Exception {
+        CardRenewalRun run = run(UUID.randomUUID(), null, null);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.query(contains("status = 'RUNNING'"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.query(contains("WHERE id = ?"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(run));
+        when(jdbcTemplate.query(contains("ORDER BY expiration_date, id"), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of();
+                });
+
+        engine.renewExpiringCards();
+
+        verify(jdbcTemplate, never()).update(contains("SET status = 'COMPLETED'"), any(), any(), any());
+        release.countDown();
+        verify(jdbcTemplate, timeout(5000)).update(contains("SET status = 'COMPLETED'"), any(), any(), eq(run.id()));
+    }
+
+    private static String cardNumberOf(BatchPreparedStatementSetter setter) throws SQLException {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.setValues(ps, 0);
+        ArgumentCaptor<String> number = ArgumentCaptor.forClass(String.class);
+        verify(ps).setString(eq(4), number.capture());
+        return number.getValue();
+    }
+
+    private static CardRenewalRun run(UUID id, LocalDate lastExpiration, UUID lastCardId) {
+        return new CardRenewalRun(id, CUTOFF, "RUNNING", lastExpiration, lastCardId, null, null, 0, 0, null,
+                Instant.now(), Instant.now(), null);
+    }
+
+    private static RenewalCandidate candidate(LocalDate expirationDate) {
+        return new RenewalCandidate(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), "DEBIT", "USD",
+                new BigDecimal("1000.00"), null, null, null, null, "JOHN DOE", 0, expirationDate);
+    }
+}
@@ -0,0 +1,86 @@
+package com.banking.card.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import com.banking.card.security.RefreshTokenService.RefreshTokenInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.HexFormat;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenRevocationBroadcasterTest {
+
+    private static final String TOPIC = "card-token-revocations";
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RefreshTokenCache cache;
+    private RefreshTokenRevocationBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RefreshTokenCache(100, 60_000, 1_000);
+        broadcaster = new RefreshTokenRevocationBroadcaster(cache, kafkaTemplate, objectMapper, TOPIC);
+    }
+
+    @Test
+    void revocationFromAnotherInstanceEvictsCachedToken() throws Exception {
+        byte[] digest = cached("token-1", "subject-1");
+
+        broadcaster.onNotice(notice(new RefreshTokenRevocationBroadcaster.Notice(
+                "other-instance", HexFormat.of().formatHex(digest), null)));
+
+        assertThat(cache.get("token-1", digest)).isNull();
+    }
+
+    @Test
+    void subjectRevocationFromAnotherInstanceDropsCachedTokens() throws Exception {
+        byte[] digest = cached("token-2", "subject-2");
+
+        broadcaster.onNotice(notice(new RefreshTokenRevocationBroadcaster.Notice("other-instance", null, "subject-2")));
+
+        assertThat(cache.get("token-2", digest)).isNull();
+    }
+
+    @Test
+    void ownNoticesAndUnreadableRecordsAreIgnored() {
+        byte[] digest = cached("token-3", "subject-3");
+        String key = HexFormat.of().formatHex(digest);
+        broadcaster.tokenRevoked(digest);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(eq(TOPIC), eq(key), payload.capture());
+
+        broadcaster.onNotice(new ConsumerRecord<>(TOPIC, 0, 0L, key, payload.getValue()));
+        broadcaster.onNotice(new ConsumerRecord<>(TOPIC, 0, 1L, key, "not json"));
+        assertThat(cache.get("token-3", digest)).isNotNull();
+
+        new RefreshTokenRevocationBroadcaster(cache, kafkaTemplate, objectMapper, TOPIC)
+                .onNotice(new ConsumerRecord<>(TOPIC, 0, 0L, key, payload.getValue()));
+        assertThat(cache.get("token-3", digest)).isNull();
+    }
+
+    private byte[] cached(String token, String subject) {
+        byte[] digest = RefreshTokenCache.digest(token);
+        Instant now = Instant.now();
+        cache.put(digest, new RefreshTokenInfo(token, subject, "scope", now, now.plusSeconds(3600), false, null,
+                "device", "JUnit", null), cache.epoch());
+        assertThat(cache.get(token, digest)).isNotNull();
+        return digest;
+    }
+
+    private ConsumerRecord<String, String> notice(RefreshTokenRevocationBroadcaster.Notice notice) throws Exception {
+        return new ConsumerRecord<>(TOPIC, 0, 0L, null, objectMapper.writeValueAsString(notice));
+    }
+}
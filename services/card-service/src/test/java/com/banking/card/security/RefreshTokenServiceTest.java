@@ -1,6 +1,10 @@
 package com.banking.card.security;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import com.banking.card.domain.RefreshToken;
 import com.banking.card.repository.RefreshTokenRepository;
@@ -8,11 +12,12 @@ import java.time.Instant;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.TestPropertySource;
 
 @DataJpaTest
-@Import(RefreshTokenService.class)
+@Import({RefreshTokenService.class, RefreshTokenCache.class, RefreshTokenUsageWriter.class})
 @TestPropertySource(properties = {
         "card.security.refresh-token.ttl-seconds=3600",
         "spring.flyway.enabled=false",
@@ -26,6 +31,9 @@ class RefreshTokenServiceTest {
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
+    @MockBean
+    private RefreshTokenRevocationBroadcaster broadcaster;
+
     @Test
     void issuePersistsAndValidates() {
         RefreshTokenService.RefreshTokenInfo info = refreshTokenService.issue("subject-1", "scope-a scope-b", "device-1", "JUnit");
@@ -104,5 +112,70 @@ class RefreshTokenServiceTest {
         assertThat(refreshTokenRepository.findById(t1.token())).get().extracting(RefreshToken::isRevoked).isEqualTo(true);
         assertThat(refreshTokenRepository.findById(t2.token())).get().extracting(RefreshToken::isRevoked).isEqualTo(true);
     }
-}
 
+    @Test
+    void validatedTokenIsServedFromCache() {
+        RefreshTokenService.RefreshTokenInfo info = refreshTokenService.issue("subject-7", "scope-a", "device-7", "JUnit");
+        assertThat(refreshTokenService.validate(info.token(), "device-7", "JUnit")).isPresent();
+
+        refreshTokenRepository.deleteById(info.token());
+        refreshTokenRepository.flush();
+
+        assertThat(refreshTokenService.validate(info.token(), "device-7", "JUnit"))
+                .get()
+                .extracting(RefreshTokenService.RefreshTokenInfo::subject)
+                .isEqualTo("subject-7");
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceRevoked() {
+        RefreshTokenService.RefreshTokenInfo info = refreshTokenService.issue("subject-8", "scope-a", "device-8", "JUnit");
+        assertThat(refreshTokenService.validate(info.token())).isPresent();
+
+        refreshTokenService.revoke(info.token());
+
+        assertThat(refreshTokenService.validate(info.token())).isEmpty();
+    }
+
+    @Test
+    void tokenCanOnlyBeRotatedOnce() {
+        RefreshTokenService.RefreshTokenInfo issued = refreshTokenService.issue("subject-9", "scope-a", "device-9", "JUnit");
+        assertThat(refreshTokenService.validate(issued.token(), "device-9", "JUnit")).isPresent();
+
+        assertThat(refreshTokenService.rotate(issued.token(), "device-9", "JUnit")).isPresent();
+        assertThat(refreshTokenService.rotate(issued.token(), "device-9", "JUnit")).isEmpty();
+    }
+
+    @Test
+    void rotatingCachedTokenRevokedElsewhereRevokesAllForSubject() {
+        RefreshTokenService.RefreshTokenInfo issued = refreshTokenService.issue("subject-10", "scope-a", "device-10", "JUnit");
+        RefreshTokenService.RefreshTokenInfo other = refreshTokenService.issue("subject-10", "scope-a", "device-10", "JUnit");
+        assertThat(refreshTokenService.validate(issued.token(), "device-10", "JUnit")).isPresent();
+
+        // Rotated on another instance: the row is revoked but this instance's cache still holds it
+        refreshTokenRepository.revoke(issued.token(), "rotated");
+
+        assertThat(refreshTokenService.rotate(issued.token(), "device-10", "JUnit")).isEmpty();
+        assertThat(refreshTokenRepository.findById(other.token())).get().extracting(RefreshToken::isRevoked).isEqualTo(true);
+    }
+
+    @Test
+    void revocationsAreBroadcastToOtherInstances() {
+        RefreshTokenService.RefreshTokenInfo info = refreshTokenService.issue("subject-11", "scope-a", "device-11", "JUnit");
+        refreshTokenService.issue("subject-11", "scope-a", "device-11", "JUnit");
+
+        refreshTokenService.revoke(info.token());
+        refreshTokenService.revoke(info.token());
+        verify(broadcaster).tokenRevoked(aryEq(RefreshTokenCache.digest(info.token())));
+
+        assertThat(refreshTokenService.validate(info.token(), "device-11", "JUnit")).isEmpty();
+        verify(broadcaster).subjectRevoked("subject-11");
+    }
+
+    @Test
+    void unknownTokenRevocationIsNotBroadcast() {
+        refreshTokenService.revoke("no-such-token");
+
+        verify(broadcaster, never()).tokenRevoked(any());
+    }
+}
@@ -0,0 +1,115 @@
+package com.banking.card.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.card.domain.AuthorizationStatus;
+import com.banking.card.domain.Card;
+import com.banking.card.domain.CardStatus;
+import com.banking.card.domain.MerchantRestriction;
+import com.banking.card.domain.RestrictionAction;
+import com.banking.card.repository.CardRepository;
+import com.banking.card.repository.GeographicRestrictionRepository;
+import com.banking.card.repository.MerchantRestrictionRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationPolicyCacheTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private MerchantRestrictionRepository merchantRestrictionRepository;
+
+    @Mock
+    private GeographicRestrictionRepository geographicRestrictionRepository;
+
+    private AuthorizationPolicyCache policyCache;
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        policyCache = new AuthorizationPolicyCache(
+                cardRepository, merchantRestrictionRepository, geographicRestrictionRepository, 2, 30_000);
+        card = new Card();
+        card.setId(UUID.randomUUID());
+        card.setStatus(CardStatus.ACTIVE);
+        card.setCurrency("USD");
+        card.setSpendingLimit(BigDecimal.valueOf(500));
+    }
+
+    @Test
+    void reusesCompiledPolicyUntilInvalidated() {
+        when(cardRepository.findById(card.getId())).thenReturn(Optional.of(card));
+
+        AuthorizationPolicy first = policyCache.get(card.getId());
+        assertThat(policyCache.get(card.getId())).isSameAs(first);
+        verify(cardRepository, times(1)).findById(card.getId());
+
+        card.setFrozen(true);
+        policyCache.invalidate(card.getId());
+
+        AuthorizationDecision decision = policyCache.get(card.getId()).evaluate(BigDecimal.TEN, null, null);
+        assertThat(decision.status()).isEqualTo(AuthorizationStatus.DECLINED);
+        assertThat(decision.declineReason()).isEqualTo("Card is frozen");
+        verify(cardRepository, times(2)).findById(card.getId());
+    }
+
+    @Test
+    void reloadsPolicyOnceTtlElapses() {
+        policyCache = new AuthorizationPolicyCache(
+                cardRepository, merchantRestrictionRepository, geographicRestrictionRepository, 2, 0);
+        when(cardRepository.findById(card.getId())).thenReturn(Optional.of(card));
+
+        policyCache.get(card.getId());
+        card.setFrozen(true);
+
+        assertThat(policyCache.get(card.getId()).evaluate(BigDecimal.TEN, null, null).declineReason())
+                .isEqualTo("Card is frozen");
+        verify(cardRepository, times(2)).findById(card.getId());
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        for (int i = 0; i < 5; i++) {
+            Card other = new Card();
+            other.setId(UUID.randomUUID());
+            other.setStatus(CardStatus.ACTIVE);
+            when(cardRepository.findById(other.getId())).thenReturn(Optional.of(other));
+            policyCache.get(other.getId());
+        }
+
+        assertThat(policyCache.size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void policyMatchesOnlyExactBlockedCodes() {
+        MerchantRestriction blocked = new MerchantRestriction();
+        blocked.setMerchantCategoryCode("0742");
+        blocked.setAction(RestrictionAction.BLOCK);
+        MerchantRestriction allowed = new MerchantRestriction();
+        allowed.setMerchantCategoryCode("5411");
+        allowed.setAction(RestrictionAction.ALLOW);
+
+        AuthorizationPolicy policy = AuthorizationPolicy.compile(card, List.of(blocked, allowed), List.of());
+
+        assertThat(policy.evaluate(BigDecimal.TEN, "742", "us").status()).isEqualTo(AuthorizationStatus.APPROVED);
+        assertThat(policy.evaluate(BigDecimal.TEN, "5411", "US").status()).isEqualTo(AuthorizationStatus.APPROVED);
+        assertThat(policy.evaluate(BigDecimal.valueOf(501), "5411", "US").declineReason())
+                .isEqualTo("Amount exceeds spending limit");
+        assertThatThrownBy(() -> policy.evaluate(BigDecimal.TEN, "0742", null))
+                .isInstanceOf(CardRestrictionViolationException.class);
+    }
+}
@@ -9,6 +9,7 @@ import com.banking.card.domain.CardType;
 import com.banking.card.domain.RestrictionAction;
 import com.banking.card.domain.GeographicRestriction;
 import com.banking.card.domain.MerchantRestriction;
+import com.banking.card.hold.AuthorizationHoldLedger;
 import com.banking.card.repository.AuthorizationRequestRepository;
 import com.banking.card.repository.CardRepository;
 import com.banking.card.repository.GeographicRestrictionRepository;
@@ -22,7 +23,6 @@ import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -44,7 +44,9 @@ class AuthorizationServiceExceptionTest {
     @Mock
     private GeographicRestrictionRepository geographicRestrictionRepository;
 
-    @InjectMocks
+    @Mock
+    private AuthorizationHoldLedger holdLedger;
+
     private AuthorizationService authorizationService;
 
     private Card testCard;
@@ -52,6 +54,11 @@ class AuthorizationServiceExceptionTest {
 
     @BeforeEach
     void setUp() {
+        AuthorizationPolicyCache policyCache = new AuthorizationPolicyCache(
+                cardRepository, merchantRestrictionRepository, geographicRestrictionRepository, 100, 30_000);
+        authorizationService = new AuthorizationService(
+                cardRepository, authorizationRequestRepository, policyCache, holdLedger);
+
         cardId = UUID.randomUUID();
         testCard = new Card();
         testCard.setId(cardId);
@@ -4,26 +4,28 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.banking.card.domain.Card;
 import com.banking.card.domain.CardStatus;
 import com.banking.card.domain.CardType;
 import com.banking.card.integration.BalanceServiceClient;
+import com.banking.card.integration.CoalescingBalanceClient;
 import com.banking.card.repository.CardRepository;
 import com.banking.card.web.dto.BalanceVerificationRequest;
 import com.banking.card.web.dto.BalanceVerificationResponse;
 import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class BalanceVerificationServiceIntegrationTest {
@@ -34,10 +36,6 @@ class BalanceVerificationServiceIntegrationTest {
     @Mock
     private BalanceServiceClient balanceServiceClient;
 
-    @Mock
-    private CircuitBreaker externalHttpCircuitBreaker;
-
-    @InjectMocks
     private BalanceVerificationService balanceVerificationService;
 
     private Card testCard;
@@ -56,18 +54,19 @@ class BalanceVerificationServiceIntegrationTest {
         testCard.setStatus(CardStatus.ACTIVE);
         testCard.setType(CardType.DEBIT);
         testCard.setCurrency("USD");
+
+        CoalescingBalanceClient balanceClient = new CoalescingBalanceClient(
+                balanceServiceClient, CircuitBreaker.ofDefaults("test"), new SimpleMeterRegistry(),
+                2000, 100, 250, 20);
+        balanceVerificationService = new BalanceVerificationService(cardRepository, balanceClient);
     }
 
     @Test
     void verifyBalanceUsesBalanceServiceClient() {
         // Given
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(testCard));
-        when(balanceServiceClient.hasSufficientBalance(eq(accountId), any(BigDecimal.class), eq("USD")))
-                .thenReturn(true);
         when(balanceServiceClient.getAvailableBalance(eq(accountId), eq("USD")))
                 .thenReturn(BigDecimal.valueOf(5000));
-        when(externalHttpCircuitBreaker.executeSupplier(any()))
-                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
 
         BalanceVerificationRequest request = new BalanceVerificationRequest(BigDecimal.valueOf(1000));
 
@@ -78,6 +77,19 @@ class BalanceVerificationServiceIntegrationTest {
         assertThat(response.sufficient()).isTrue();
         assertThat(response.availableBalance()).isEqualByComparingTo(BigDecimal.valueOf(5000));
         assertThat(response.requestedAmount()).isEqualByComparingTo(BigDecimal.valueOf(1000));
+        verify(balanceServiceClient, never()).hasSufficientBalance(any(), any(), any());
+    }
+
+    @Test
+    void verifyBalanceReportsInsufficientWhenAvailableBalanceIsBelowAmount() {
+        when(cardRepository.findById(cardId)).thenReturn(Optional.of(testCard));
+        when(balanceServiceClient.getAvailableBalance(eq(accountId), eq("USD")))
+                .thenReturn(BigDecimal.valueOf(500));
+
+        BalanceVerificationResponse response = balanceVerificationService.verifyBalance(
+                cardId, new BalanceVerificationRequest(BigDecimal.valueOf(1000)));
+
+        assertThat(response.sufficient()).isFalse();
     }
 
     @Test
@@ -0,0 +1,82 @@
+package com.banking.card.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.card.domain.CardAnalytics;
+import com.banking.card.domain.TransactionStatus;
+import java.math.BigDecimal;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class CardAnalyticsAccumulatorTest {
+
+    @Test
+    void incrementalUpdatesMatchRebuildFromScratch() {
+        Instant now = Instant.parse("2024-05-01T12:00:00Z");
+        CardAnalytics incremental = new CardAnalytics();
+        CardAnalyticsAccumulator.empty().applyTo(incremental, now);
+        CardAnalyticsAccumulator rebuilt = CardAnalyticsAccumulator.empty();
+
+        for (int i = 0; i < 200; i++) {
+            String mcc = i % 3 == 0 ? "5411" : "58" + (i % 50);
+            String country = i % 4 == 0 ? "DE" : "US";
+            TransactionStatus status = i % 10 == 0 ? TransactionStatus.DECLINED : TransactionStatus.PENDING;
+            Instant date = now.minusSeconds(1000 - i);
+
+            CardAnalyticsAccumulator step = CardAnalyticsAccumulator.from(incremental);
+            step.add(BigDecimal.valueOf(10), status, date, mcc, country);
+            step.applyTo(incremental, now);
+            rebuilt.add(BigDecimal.valueOf(10), status, date, mcc, country);
+        }
+        CardAnalytics fromScratch = new CardAnalytics();
+        rebuilt.applyTo(fromScratch, now);
+
+        assertThat(incremental.getTotalTransactions()).isEqualTo(200);
+        assertThat(incremental.getTotalAmount()).isEqualByComparingTo("2000");
+        assertThat(incremental.getAverageTransactionAmount()).isEqualByComparingTo("10.00");
+        assertThat(incremental.getDeclinedTransactions()).isEqualTo(20);
+        assertThat(incremental.getLastTransactionDate()).isEqualTo(now.minusSeconds(801));
+        assertThat(incremental.getTopMerchantCategory()).isEqualTo("5411");
+        assertThat(incremental.getMostUsedCountry()).isEqualTo("US");
+        assertThat(incremental.getMerchantCategorySketch()).isEqualTo(fromScratch.getMerchantCategorySketch());
+        assertThat(incremental.getCountrySketch()).isEqualTo(fromScratch.getCountrySketch());
+    }
+
+    @Test
+    void sketchKeepsHeavyHitterWithinCapacity() {
+        HeavyHittersSketch sketch = new HeavyHittersSketch(4);
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer(i % 2 == 0 ? "HOT" : "K" + i);
+        }
+
+        HeavyHittersSketch decoded = HeavyHittersSketch.decode(sketch.encode(), 4);
+
+        assertThat(decoded.top()).isEqualTo("HOT");
+        assertThat(decoded.estimate("HOT")).isGreaterThanOrEqualTo(500);
+        assertThat(decoded.encode().split(";")).hasSize(4);
+    }
+
+    @Test
+    void sketchEvictsSmallestCounterAndDecaysInOrder() {
+        HeavyHittersSketch sketch = new HeavyHittersSketch(3);
+        for (String key : new String[]{"A", "A", "A", "A", "B", "B", "C", "D", "D"}) {
+            sketch.offer(key);
+        }
+
+        // D took over C, the only counter of 1, and holds its count as error
+        assertThat(sketch.heaviest(3)).containsExactly(
+                new HeavyHittersSketch.Estimate("A", 4, 0),
+                new HeavyHittersSketch.Estimate("D", 3, 1),
+                new HeavyHittersSketch.Estimate("B", 2, 0));
+
+        sketch.decay(0.5);
+        sketch.offer("E");
+
+        // B and D both decayed to 1; ties are evicted by key, so E takes over D
+        assertThat(sketch.estimate("D")).isZero();
+        assertThat(sketch.heaviest(3)).containsExactly(
+                new HeavyHittersSketch.Estimate("A", 2, 0),
+                new HeavyHittersSketch.Estimate("E", 2, 1),
+                new HeavyHittersSketch.Estimate("B", 1, 0));
+    }
+}
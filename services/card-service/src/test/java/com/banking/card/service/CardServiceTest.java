@@ -44,6 +44,9 @@ class CardServiceTest {
     @Mock
     private CardEventPublisher eventPublisher;
 
+    @Mock
+    private AuthorizationPolicyCache policyCache;
+
     @InjectMocks
     private CardService cardService;
 
@@ -13,6 +13,9 @@ import com.banking.card.domain.FraudSeverity;
 import com.banking.card.domain.VelocityTracking;
 import com.banking.card.domain.VelocityWindow;
 import com.banking.card.events.FraudEventPublisher;
+import com.banking.card.fraud.FraudRuleEngine;
+import com.banking.card.fraud.FraudRuleProperties;
+import com.banking.card.fraud.FraudTelemetry;
 import com.banking.card.repository.CardRepository;
 import com.banking.card.repository.CardTransactionRepository;
 import com.banking.card.repository.FraudEventRepository;
@@ -63,7 +66,9 @@ class FraudDetectionServiceTest {
                 fraudEventRepository,
                 velocityTrackingRepository,
                 fraudEventPublisher,
-                meterRegistry);
+                meterRegistry,
+                new FraudRuleEngine(new FraudRuleProperties(), meterRegistry),
+                new FraudTelemetry(meterRegistry, 100, 0.5));
     }
 
     @Test
@@ -113,7 +118,8 @@ class FraudDetectionServiceTest {
 
         assertThat(meterRegistry.counter("card.fraud.checks").count()).isEqualTo(1.0d);
         assertThat(meterRegistry.find("card.fraud.detected").tags("severity", "HIGH").counter()).isNotNull();
-        assertThat(meterRegistry.find("card.fraud.velocity.updated").tags("cardId", cardId.toString()).counter()).isNotNull();
+        assertThat(meterRegistry.find("card.fraud.velocity.updated").tags("window", "HOUR").counter().count()).isEqualTo(1.0d);
+        assertThat(meterRegistry.find("card.fraud.velocity.updated").tagKeys("cardId").counter()).isNull();
     }
 }
 
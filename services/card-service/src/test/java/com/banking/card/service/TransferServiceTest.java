@@ -0,0 +1,119 @@
+package com.banking.card.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.banking.card.domain.Card;
+import com.banking.card.domain.CardStatus;
+import com.banking.card.domain.CardTransfer;
+import com.banking.card.domain.TransferStatus;
+import com.banking.card.hold.AuthorizationHoldLedger;
+import com.banking.card.hold.HoldLedgerLease;
+import com.banking.card.hold.HoldStatus;
+import com.banking.card.hold.HoldWriteBehind;
+import com.banking.card.integration.CoalescingBalanceClient;
+import com.banking.card.repository.CardRepository;
+import com.banking.card.repository.CardTransferRepository;
+import com.banking.card.web.dto.CardTransferRequest;
+import com.banking.card.web.dto.CardTransferResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@ExtendWith(MockitoExtension.class)
+class TransferServiceTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardTransferRepository transferRepository;
+
+    @Mock
+    private CoalescingBalanceClient balanceClient;
+
+    @Mock
+    private HoldWriteBehind writeBehind;
+
+    @Mock
+    private HoldLedgerLease lease;
+
+    private final UUID accountId = UUID.randomUUID();
+    private AuthorizationHoldLedger holdLedger;
+    private TransferService transferService;
+    private Card fromCard;
+    private Card toCard;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(balanceClient.getAvailableBalance(accountId, "USD")).thenReturn(new BigDecimal("100.00"));
+        when(lease.tryAcquire()).thenReturn(true);
+        lenient().when(lease.isHeld()).thenReturn(true);
+        holdLedger = new AuthorizationHoldLedger(balanceClient, writeBehind, lease, new SimpleMeterRegistry(),
+                Duration.ofDays(7), 1000, 64);
+        holdLedger.afterSingletonsInstantiated();
+        transferService = new TransferService(cardRepository, transferRepository, holdLedger);
+        fromCard = card("USD");
+        fromCard.setAccountId(accountId);
+        toCard = card("USD");
+        when(cardRepository.findById(fromCard.getId())).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(toCard.getId())).thenReturn(Optional.of(toCard));
+    }
+
+    @Test
+    void transfer_CapturesHoldOnceTheTransferIsSaved() {
+        when(transferRepository.save(any(CardTransfer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CardTransferResponse response = transferService.transferBetweenCards(fromCard.getId(),
+                new CardTransferRequest(toCard.getId(), new BigDecimal("25.00"), "USD"));
+
+        assertThat(response.status()).isEqualTo(TransferStatus.COMPLETED);
+        assertThat(holdLedger.get(response.id()).status()).isEqualTo(HoldStatus.CAPTURED);
+        assertThat(holdLedger.available(accountId)).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    void transfer_SaveFails_ReleasesHold() {
+        when(transferRepository.save(any(CardTransfer.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThatThrownBy(() -> transferService.transferBetweenCards(fromCard.getId(),
+                new CardTransferRequest(toCard.getId(), new BigDecimal("25.00"), "USD")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(holdLedger.available(accountId)).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void transfer_InAnotherCurrencyThanTheSourceAccount_IsRejected() {
+        toCard.setCurrency("EUR");
+
+        assertThatThrownBy(() -> transferService.transferBetweenCards(fromCard.getId(),
+                new CardTransferRequest(toCard.getId(), new BigDecimal("25.00"), "EUR")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("must match the source card's currency USD");
+
+        assertThat(holdLedger.available(accountId)).isNull();
+        verifyNoInteractions(transferRepository);
+    }
+
+    private Card card(String currency) {
+        Card card = new Card();
+        card.setId(UUID.randomUUID());
+        card.setStatus(CardStatus.ACTIVE);
+        card.setCurrency(currency);
+        return card;
+    }
+}
@@ -0,0 +1,50 @@
+package com.banking.compliance.aml;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sliding windows and thresholds of the multi-transaction AML rules.
+ *
+ * @param shortWindow                window for rapid movement
+ * @param longWindow                 window for structuring and counterparty fan-out; also how far
+ *                                   back the windows are rebuilt on startup
+ * @param reportingThreshold         amount at which a transaction must be reported on its own
+ * @param structuringLegMinimum      smallest sub-threshold amount counted towards structuring
+ * @param structuringMinTransactions sub-threshold transactions in the long window that, summing to
+ *                                   the reporting threshold, count as structuring
+ * @param rapidMovementTransactions  transactions in the short window above which movement is rapid
+ * @param fanOutCounterparties       distinct counterparties in the long window that count as fan-out
+ * @param maxCustomers               customers tracked at once
+ */
+@ConfigurationProperties(prefix = "compliance.aml.windows")
+public record AmlWindowProperties(
+        Duration shortWindow,
+        Duration longWindow,
+        BigDecimal reportingThreshold,
+        BigDecimal structuringLegMinimum,
+        int structuringMinTransactions,
+        int rapidMovementTransactions,
+        int fanOutCounterparties,
+        int maxCustomers
+) {
+
+    public AmlWindowProperties {
+        shortWindow = shortWindow != null ? shortWindow : Duration.ofHours(1);
+        longWindow = longWindow != null ? longWindow : Duration.ofHours(24);
+        reportingThreshold = reportingThreshold != null ? reportingThreshold : new BigDecimal("10000");
+        structuringLegMinimum = structuringLegMinimum != null ? structuringLegMinimum : new BigDecimal("1000");
+        structuringMinTransactions = structuringMinTransactions > 0 ? structuringMinTransactions : 3;
+        rapidMovementTransactions = rapidMovementTransactions > 0 ? rapidMovementTransactions : 5;
+        fanOutCounterparties = fanOutCounterparties > 0 ? fanOutCounterparties : 5;
+        maxCustomers = maxCustomers > 0 ? maxCustomers : 500_000;
+        if (shortWindow.compareTo(longWindow) > 0) {
+            throw new IllegalArgumentException("compliance.aml.windows.short-window must not exceed long-window");
+        }
+    }
+
+    public static AmlWindowProperties defaults() {
+        return new AmlWindowProperties(null, null, null, null, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.banking.compliance.aml;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory per-customer activity windows behind the multi-transaction AML rules, so each event
+ * is evaluated without querying its customer's history.
+ *
+ * Windows run on event time: each transaction is placed by when it happened, not when it was
+ * consumed, so a backlog drained after an outage is not squeezed into one short window.
+ *
+ * Every analysed transaction is already persisted as a compliance record, so that table serves as
+ * the changelog: on startup, before the Kafka listeners start, the windows are rebuilt from the
+ * records that occurred within the last long window.
+ */
+@Component
+public class AmlWindowStore implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AmlWindowStore.class);
+
+    private static final String RECENT_ACTIVITY = """
+            SELECT customer_id, transaction_id, amount, counterparty, occurred_at
+              FROM compliance_records
+             WHERE occurred_at >= ? AND amount IS NOT NULL
+               AND record_type IN ('TRANSACTION_MONITORING', 'LARGE_CASH_TRANSACTION')
+             ORDER BY occurred_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AmlWindowProperties properties;
+    private final Clock clock;
+    private final Map<UUID, CustomerActivityWindow> windows = new ConcurrentHashMap<>();
+
+    public AmlWindowStore(JdbcTemplate jdbcTemplate, AmlWindowProperties properties, Clock clock,
+                          MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        Gauge.builder("compliance.aml.windows.customers", windows, Map::size)
+                .description("Customers with activity in the AML windows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a transaction that occurred at {@code occurredAt} (now when null) in its customer's
+     * windows and returns their state including it.
+     */
+    public WindowSnapshot record(UUID customerId, UUID transactionId, BigDecimal amount, String counterparty,
+                                 Instant occurredAt) {
+        return recordAt(customerId, transactionId, amount, counterparty,
+                occurredAt != null ? occurredAt : Instant.now(clock));
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Instant now = Instant.now(clock);
+        long[] restored = {0};
+        try {
+            jdbcTemplate.query(RECENT_ACTIVITY, rs -> {
+                recordAt(rs.getObject("customer_id", UUID.class), rs.getObject("transaction_id", UUID.class),
+                        rs.getBigDecimal("amount"), rs.getString("counterparty"),
+                        rs.getTimestamp("occurred_at").toInstant());
+                restored[0]++;
+            }, Timestamp.from(now.minus(properties.longWindow())));
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild AML windows; multi-transaction rules start from empty windows", e);
+            return;
+        }
+        purgeExpired();
+        log.info("Rebuilt AML windows for {} customers from {} compliance records", windows.size(), restored[0]);
+    }
+
+    @Scheduled(fixedDelayString = "${compliance.aml.windows.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant now = Instant.now(clock);
+        for (UUID customerId : windows.keySet()) {
+            windows.computeIfPresent(customerId, (id, window) -> window.idle(now, properties) ? null : window);
+        }
+    }
+
+    int size() {
+        return windows.size();
+    }
+
+    private WindowSnapshot recordAt(UUID customerId, UUID transactionId, BigDecimal amount, String counterparty,
+                                    Instant at) {
+        if (windows.size() >= properties.maxCustomers() && !windows.containsKey(customerId)) {
+            makeRoom();
+        }
+        boolean structuringLeg = amount.compareTo(properties.reportingThreshold()) < 0
+                && amount.compareTo(properties.structuringLegMinimum()) >= 0;
+        CustomerActivityWindow.Activity activity =
+                new CustomerActivityWindow.Activity(transactionId, amount, counterparty, at, structuringLeg);
+        WindowSnapshot[] snapshot = new WindowSnapshot[1];
+        windows.compute(customerId, (id, window) -> {
+            CustomerActivityWindow updated = window != null ? window : new CustomerActivityWindow();
+            snapshot[0] = updated.record(activity, properties);
+            return updated;
+        });
+        return snapshot[0];
+    }
+
+    private void makeRoom() {
+        purgeExpired();
+        int toRemove = windows.size() >= properties.maxCustomers() ? Math.max(1, properties.maxCustomers() / 10) : 0;
+        Iterator<UUID> customers = windows.keySet().iterator();
+        while (toRemove-- > 0 && customers.hasNext()) {
+            customers.next();
+            customers.remove();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.banking.compliance.aml;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One customer's transactions within the long window, with running aggregates for both windows
+ * so recording a transaction costs only the evictions it causes. A transaction id seen twice
+ * within the window is counted once, which makes redelivered events harmless. Time is the latest
+ * event time seen, so an event arriving out of order never moves the windows back; it is kept
+ * until the transactions queued ahead of it expire, and left out of a window it is already older
+ * than. Not thread-safe; {@link AmlWindowStore} only touches a window inside its map's
+ * per-key compute.
+ */
+final class CustomerActivityWindow {
+
+    private final ArrayDeque<Activity> longWindow = new ArrayDeque<>();
+    private final ArrayDeque<Activity> shortWindow = new ArrayDeque<>();
+    private final Set<UUID> transactionIds = new HashSet<>();
+    private final Map<String, Integer> counterparties = new HashMap<>();
+    private BigDecimal longTotal = BigDecimal.ZERO;
+    private BigDecimal shortTotal = BigDecimal.ZERO;
+    private BigDecimal structuringTotal = BigDecimal.ZERO;
+    private int structuringCount;
+    private Instant latest;
+
+    WindowSnapshot record(Activity activity, AmlWindowProperties properties) {
+        if (latest == null || activity.at().isAfter(latest)) {
+            latest = activity.at();
+        }
+        evict(latest, properties);
+        boolean withinLongWindow = !activity.at().isBefore(latest.minus(properties.longWindow()));
+        if (withinLongWindow && (activity.transactionId() == null || transactionIds.add(activity.transactionId()))) {
+            longWindow.addLast(activity);
+            longTotal = longTotal.add(activity.amount());
+            if (!activity.at().isBefore(latest.minus(properties.shortWindow()))) {
+                shortWindow.addLast(activity);
+                shortTotal = shortTotal.add(activity.amount());
+            }
+            if (activity.structuringLeg()) {
+                structuringCount++;
+                structuringTotal = structuringTotal.add(activity.amount());
+            }
+            if (activity.counterparty() != null) {
+                counterparties.merge(activity.counterparty(), 1, Integer::sum);
+            }
+        }
+        return new WindowSnapshot(shortWindow.size(), shortTotal, longWindow.size(), longTotal,
+                structuringCount, structuringTotal, counterparties.size());
+    }
+
+    /**
+     * True when the latest transaction is older than the long window by the wall clock, so the
+     * whole window can go. Individual transactions are only evicted on event time.
+     */
+    boolean idle(Instant now, AmlWindowProperties properties) {
+        return latest == null || latest.isBefore(now.minus(properties.longWindow()));
+    }
+
+    /**
+     * Drops transactions that have left their windows as of {@code now}.
+     */
+    private void evict(Instant now, AmlWindowProperties properties) {
+        Instant shortStart = now.minus(properties.shortWindow());
+        while (!shortWindow.isEmpty() && shortWindow.peekFirst().at().isBefore(shortStart)) {
+            shortTotal = shortTotal.subtract(shortWindow.removeFirst().amount());
+        }
+        Instant longStart = now.minus(properties.longWindow());
+        while (!longWindow.isEmpty() && longWindow.peekFirst().at().isBefore(longStart)) {
+            Activity expired = longWindow.removeFirst();
+            longTotal = longTotal.subtract(expired.amount());
+            if (expired.transactionId() != null) {
+                transactionIds.remove(expired.transactionId());
+            }
+            if (expired.structuringLeg()) {
+                structuringCount--;
+                structuringTotal = structuringTotal.subtract(expired.amount());
+            }
+            if (expired.counterparty() != null) {
+                counterparties.computeIfPresent(expired.counterparty(), (key, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+
+    record Activity(UUID transactionId, BigDecimal amount, String counterparty, Instant at, boolean structuringLeg) {
+    }
+}
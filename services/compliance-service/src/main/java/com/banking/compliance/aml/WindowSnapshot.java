@@ -0,0 +1,17 @@
+package com.banking.compliance.aml;
+
+import java.math.BigDecimal;
+
+/**
+ * A customer's activity in both windows, including the transaction just recorded.
+ */
+public record WindowSnapshot(
+        int shortWindowTransactions,
+        BigDecimal shortWindowTotal,
+        int longWindowTransactions,
+        BigDecimal longWindowTotal,
+        int structuringTransactions,
+        BigDecimal structuringTotal,
+        int distinctCounterparties
+) {
+}
@@ -0,0 +1,67 @@
+package com.banking.compliance.config;
+
+import java.util.Map;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Batch listener container for the monitored event topics. Offsets are committed only when the
+ * listener acknowledges a persisted batch. Failures are handled by what they blame:
+ * <ul>
+ *   <li>a {@link org.springframework.kafka.listener.BatchListenerFailedException} names one
+ *       record; the records before it are committed, and the named one is retried with backoff
+ *       for {@code retry-max-elapsed-ms} and then routed to {@code <topic>.DLT},</li>
+ *   <li>any other exception is taken to be infrastructure, such as the database being down. The
+ *       whole batch is retried, with the consumer paused between attempts, until it succeeds, so
+ *       an outage never dead-letters healthy events.</li>
+ * </ul>
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    public static final String BATCH_LISTENER_FACTORY = "complianceBatchListenerContainerFactory";
+    public static final String DEAD_LETTER_SUFFIX = ".DLT";
+
+    @Bean
+    public DeadLetterPublishingRecoverer complianceDeadLetterRecoverer(KafkaTemplate<String, String> kafkaTemplate) {
+        // Partition -1 lets the producer pick one, so the DLT needs no matching partition count
+        return new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(record.topic() + DEAD_LETTER_SUFFIX, -1));
+    }
+
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> complianceBatchListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory,
+            DeadLetterPublishingRecoverer complianceDeadLetterRecoverer,
+            @Value("${compliance.kafka.consumer.concurrency:3}") int concurrency,
+            @Value("${compliance.kafka.consumer.retry-max-elapsed-ms:900000}") long retryMaxElapsedMillis) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        // Record failures get a bounded retry before the dead-letter topic
+        ExponentialBackOff recordBackOff = new ExponentialBackOff(1000, 2.0);
+        recordBackOff.setMaxInterval(60_000);
+        recordBackOff.setMaxElapsedTime(retryMaxElapsedMillis);
+        // Batch failures are retried until they succeed
+        ExponentialBackOff batchBackOff = new ExponentialBackOff(1000, 2.0);
+        batchBackOff.setMaxInterval(60_000);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(complianceDeadLetterRecoverer, batchBackOff);
+        errorHandler.setBackOffFunction((record, exception) -> recordBackOff);
+        // Clear the default not-retryable types too, so no exception dead-letters a whole batch
+        errorHandler.setClassifications(Map.of(), true);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+}
@@ -57,6 +57,12 @@ public class ComplianceRecord {
     @Column(name = "source_topic", length = 255)
     private String sourceTopic;
 
+    @Column(name = "counterparty", length = 255)
+    private String counterparty;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -71,6 +77,9 @@ public class ComplianceRecord {
         Instant now = Instant.now();
         createdAt = now;
         updatedAt = now;
+        if (occurredAt == null) {
+            occurredAt = now;
+        }
         if (status == null) {
             status = ComplianceStatus.PENDING;
         }
@@ -185,6 +194,22 @@ public class ComplianceRecord {
         this.sourceTopic = sourceTopic;
     }
 
+    public String getCounterparty() {
+        return counterparty;
+    }
+
+    public void setCounterparty(String counterparty) {
+        this.counterparty = counterparty;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,16 @@
+package com.banking.compliance.messaging;
+
+/**
+ * A consumed record that can never be processed, such as one that is not valid JSON or carries a
+ * value too wide for its column.
+ */
+public class MalformedEventException extends RuntimeException {
+
+    public MalformedEventException(String message) {
+        super(message);
+    }
+
+    public MalformedEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,91 +1,98 @@
 package com.banking.compliance.messaging;
 
-import com.banking.compliance.service.AMLService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.math.BigDecimal;
-import java.util.UUID;
+import com.banking.compliance.config.KafkaConsumerConfig;
+import com.banking.compliance.service.AmlBatchAnalyzer;
+import com.banking.compliance.service.RequestAnalysisException;
+import com.banking.compliance.service.TransactionAnalysisRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+/**
+ * Consumes monitored events a poll at a time. The batch is acknowledged only after its compliance
+ * records are persisted; if persisting fails the exception reaches the container, which retries
+ * the batch. Records that cannot be decoded or stored go to the dead-letter topic instead of being
+ * dropped. When analysing one record fails, the records before it are persisted and the failure
+ * is reported as a {@link BatchListenerFailedException} naming that record, so the container
+ * commits up to it and retries or dead-letters it alone.
+ */
 @Component
 public class TransactionEventConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(TransactionEventConsumer.class);
 
-    private final AMLService amlService;
-    private final ObjectMapper objectMapper;
+    private final TransactionEventParser parser;
+    private final AmlBatchAnalyzer batchAnalyzer;
+    private final DeadLetterPublishingRecoverer deadLetters;
 
-    public TransactionEventConsumer(AMLService amlService, ObjectMapper objectMapper) {
-        this.amlService = amlService;
-        this.objectMapper = objectMapper;
+    public TransactionEventConsumer(TransactionEventParser parser, AmlBatchAnalyzer batchAnalyzer,
+                                    DeadLetterPublishingRecoverer deadLetters) {
+        this.parser = parser;
+        this.batchAnalyzer = batchAnalyzer;
+        this.deadLetters = deadLetters;
     }
 
-    @KafkaListener(topics = {"transaction-events", "payment-events", "card-events"}, groupId = "compliance-service")
-    public void consumeTransactionEvent(
-            @Payload String message,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key,
-            Acknowledgment acknowledgment
-    ) {
-        try {
-            log.debug("Received event from topic {} with key {}", topic, key);
-            JsonNode event = objectMapper.readTree(message);
-
-            String eventType = event.has("eventType") ? event.get("eventType").asText() : "UNKNOWN";
-            UUID customerId = extractUUID(event, "customerId");
-            UUID accountId = extractUUID(event, "accountId");
-            UUID transactionId = extractUUID(event, "transactionId") != null
-                    ? extractUUID(event, "transactionId")
-                    : extractUUID(event, "id");
-
-            BigDecimal amount = null;
-            if (event.has("amount")) {
-                amount = new BigDecimal(event.get("amount").asText());
+    @KafkaListener(
+            topics = {"transaction-events", "payment-events", "card-events"},
+            groupId = "compliance-service",
+            containerFactory = KafkaConsumerConfig.BATCH_LISTENER_FACTORY
+    )
+    public void consumeTransactionEvents(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        List<TransactionAnalysisRequest> requests = new ArrayList<>(records.size());
+        // Index in records of each request, for naming the record behind a failed request
+        List<Integer> requestRecords = new ArrayList<>(records.size());
+        List<PoisonRecord> poisonRecords = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, String> record = records.get(i);
+            try {
+                Optional<TransactionAnalysisRequest> request =
+                        parser.parse(record.value(), record.topic(), record.timestamp());
+                if (request.isPresent()) {
+                    requests.add(request.get());
+                    requestRecords.add(i);
+                }
+            } catch (MalformedEventException e) {
+                poisonRecords.add(new PoisonRecord(i, record, e));
             }
+        }
 
-            String currency = event.has("currency") ? event.get("currency").asText() : null;
+        try {
+            batchAnalyzer.analyze(requests);
+        } catch (RequestAnalysisException e) {
+            int failedRecord = requestRecords.get(e.getIndex());
+            // The container commits the records before the failed one, so they must be stored first
+            batchAnalyzer.analyze(requests.subList(0, e.getIndex()));
+            deadLetter(poisonRecords, failedRecord);
+            throw new BatchListenerFailedException(e.getMessage(), e.getCause(), failedRecord);
+        }
+        deadLetter(poisonRecords, records.size());
+        acknowledgment.acknowledge();
+        log.debug("Processed compliance checks for {} of {} events", requests.size(), records.size());
+    }
 
-            if (customerId != null && amount != null) {
-                amlService.analyzeTransaction(
-                        customerId,
-                        accountId,
-                        transactionId,
-                        amount,
-                        currency,
-                        eventType,
-                        topic
-                );
-                log.debug("Processed compliance check for transaction {}", transactionId);
-            } else {
-                log.warn("Skipping event - missing required fields: customerId={}, amount={}", customerId, amount);
+    /**
+     * Routes the poison records positioned before {@code end} to the dead-letter topic.
+     */
+    private void deadLetter(List<PoisonRecord> poisonRecords, int end) {
+        for (PoisonRecord poison : poisonRecords) {
+            if (poison.index() >= end) {
+                break;
             }
-
-            acknowledgment.acknowledge();
-        } catch (Exception e) {
-            log.error("Error processing transaction event from topic {}: {}", topic, e.getMessage(), e);
-            // In production, you might want to send to DLQ or retry
-            acknowledgment.acknowledge(); // Acknowledge to prevent infinite retries
+            log.error("Routing unprocessable event from {}-{}@{} to the dead-letter topic: {}",
+                    poison.record().topic(), poison.record().partition(), poison.record().offset(),
+                    poison.error().getMessage());
+            deadLetters.accept(poison.record(), poison.error());
         }
     }
 
-    private UUID extractUUID(JsonNode node, String fieldName) {
-        if (!node.has(fieldName)) {
-            return null;
-        }
-        try {
-            String value = node.get(fieldName).asText();
-            return value != null && !value.isEmpty() ? UUID.fromString(value) : null;
-        } catch (IllegalArgumentException e) {
-            log.warn("Invalid UUID format for field {}: {}", fieldName, node.get(fieldName).asText());
-            return null;
-        }
+    private record PoisonRecord(int index, ConsumerRecord<String, String> record, MalformedEventException error) {
     }
 }
-
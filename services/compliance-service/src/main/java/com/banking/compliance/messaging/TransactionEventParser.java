@@ -0,0 +1,146 @@
+package com.banking.compliance.messaging;
+
+import com.banking.compliance.service.TransactionAnalysisRequest;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decodes transaction, payment and card events straight into a typed payload with one shared
+ * {@link ObjectReader}, instead of building a JSON tree per record.
+ */
+@Component
+public class TransactionEventParser {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionEventParser.class);
+    // Widths of the compliance_records columns these fields are stored in
+    private static final Pattern CURRENCY = Pattern.compile("[A-Z]{3}");
+    private static final int MAX_EVENT_TYPE_LENGTH = 128;
+    private static final int MAX_COUNTERPARTY_LENGTH = 255;
+    private static final int MAX_AMOUNT_INTEGER_DIGITS = 15;
+
+    private final ObjectReader reader;
+
+    public TransactionEventParser(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(EventPayload.class);
+    }
+
+    /**
+     * Returns the analysis request carried by {@code message}, or empty when it lacks a customer
+     * or an amount. Throws {@link MalformedEventException} when the message cannot be decoded, or
+     * carries an amount, currency, event type or counterparty that could never be stored.
+     * The request is timed by the payload's timestamp, else by {@code recordTimestamp} (epoch
+     * millis, negative when the record has none).
+     */
+    public Optional<TransactionAnalysisRequest> parse(String message, String topic, long recordTimestamp) {
+        EventPayload event;
+        try {
+            event = reader.readValue(message);
+        } catch (JsonProcessingException e) {
+            throw new MalformedEventException("Undecodable event from " + topic + ": " + e.getOriginalMessage(), e);
+        }
+        UUID customerId = toUuid("customerId", event.customerId());
+        if (customerId == null || event.amount() == null) {
+            log.warn("Skipping event - missing required fields: customerId={}, amount={}", customerId, event.amount());
+            return Optional.empty();
+        }
+        if (event.amount().precision() - event.amount().scale() > MAX_AMOUNT_INTEGER_DIGITS) {
+            throw new MalformedEventException("Event from " + topic + " has an amount of more than "
+                    + MAX_AMOUNT_INTEGER_DIGITS + " integer digits");
+        }
+        if (event.currency() != null && !CURRENCY.matcher(event.currency()).matches()) {
+            throw new MalformedEventException("Event from " + topic + " has currency " + event.currency()
+                    + ", not an ISO 4217 code");
+        }
+        if (event.eventType() != null && event.eventType().length() > MAX_EVENT_TYPE_LENGTH) {
+            throw new MalformedEventException("Event from " + topic + " has an event type longer than "
+                    + MAX_EVENT_TYPE_LENGTH + " characters");
+        }
+        String counterparty = firstPresent(event.toAccountId(), event.counterpartyId(), event.merchantId(),
+                event.merchantName());
+        if (counterparty != null && counterparty.length() > MAX_COUNTERPARTY_LENGTH) {
+            throw new MalformedEventException("Event from " + topic + " has a counterparty longer than "
+                    + MAX_COUNTERPARTY_LENGTH + " characters");
+        }
+        UUID transactionId = toUuid("transactionId", event.transactionId());
+        return Optional.of(new TransactionAnalysisRequest(
+                customerId,
+                toUuid("accountId", event.accountId()),
+                transactionId != null ? transactionId : toUuid("id", event.id()),
+                event.amount(),
+                event.currency(),
+                event.eventType() != null ? event.eventType() : "UNKNOWN",
+                topic,
+                counterparty,
+                occurredAt(event, recordTimestamp)
+        ));
+    }
+
+    private static Instant occurredAt(EventPayload event, long recordTimestamp) {
+        String value = firstPresent(event.timestamp(), event.occurredAt());
+        if (value != null) {
+            try {
+                return value.indexOf('T') < 0 ? epochSeconds(value) : Instant.parse(value);
+            } catch (DateTimeParseException | ArithmeticException | NumberFormatException e) {
+                log.warn("Unreadable event timestamp {}; using the record timestamp", value);
+            }
+        }
+        return recordTimestamp >= 0 ? Instant.ofEpochMilli(recordTimestamp) : null;
+    }
+
+    // Producers serializing with Jackson's defaults write an Instant as decimal epoch seconds
+    private static Instant epochSeconds(String value) {
+        BigDecimal seconds = new BigDecimal(value);
+        return Instant.ofEpochSecond(seconds.longValue(),
+                seconds.remainder(BigDecimal.ONE).movePointRight(9).intValueExact());
+    }
+
+    private static UUID toUuid(String fieldName, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid UUID format for field {}: {}", fieldName, value);
+            return null;
+        }
+    }
+
+    private static String firstPresent(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record EventPayload(
+            String eventType,
+            String customerId,
+            String accountId,
+            String transactionId,
+            String id,
+            BigDecimal amount,
+            String currency,
+            String toAccountId,
+            String counterpartyId,
+            String merchantId,
+            String merchantName,
+            String timestamp,
+            String occurredAt
+    ) {
+    }
+}
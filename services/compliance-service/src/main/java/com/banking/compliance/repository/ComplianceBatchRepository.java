@@ -0,0 +1,85 @@
+package com.banking.compliance.repository;
+
+import com.banking.compliance.domain.ComplianceRecord;
+import com.banking.compliance.domain.SuspiciousActivity;
+import java.sql.Timestamp;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch inserts for records produced in bulk. Callers assign ids and timestamps, since
+ * entity lifecycle callbacks do not run here. Both inserts skip a transaction that is already
+ * stored, and an activity is only inserted together with its own record, so writing a
+ * redelivered batch again changes nothing.
+ */
+@Repository
+public class ComplianceBatchRepository {
+
+    private static final String INSERT_RECORD = """
+            INSERT INTO compliance_records
+                (id, customer_id, account_id, transaction_id, record_type, status, amount, currency, description,
+                 risk_score, flags, source_event_type, source_topic, counterparty, occurred_at, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (transaction_id) WHERE transaction_id IS NOT NULL DO NOTHING
+            """;
+
+    private static final String INSERT_ACTIVITY = """
+            INSERT INTO suspicious_activities
+                (id, customer_id, account_id, transaction_id, activity_type, severity, status, amount, currency,
+                 description, risk_score, compliance_record_id, created_at, updated_at)
+            SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?
+            WHERE EXISTS (SELECT 1 FROM compliance_records WHERE id = ?)
+            ON CONFLICT (transaction_id) WHERE transaction_id IS NOT NULL DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ComplianceBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = 500;
+    }
+
+    public void insertRecords(List<ComplianceRecord> records) {
+        jdbcTemplate.batchUpdate(INSERT_RECORD, records, batchSize, (ps, record) -> {
+            ps.setObject(1, record.getId());
+            ps.setObject(2, record.getCustomerId());
+            ps.setObject(3, record.getAccountId());
+            ps.setObject(4, record.getTransactionId());
+            ps.setString(5, record.getRecordType().name());
+            ps.setString(6, record.getStatus().name());
+            ps.setBigDecimal(7, record.getAmount());
+            ps.setString(8, record.getCurrency());
+            ps.setString(9, record.getDescription());
+            ps.setObject(10, record.getRiskScore());
+            ps.setString(11, record.getFlags());
+            ps.setString(12, record.getSourceEventType());
+            ps.setString(13, record.getSourceTopic());
+            ps.setString(14, record.getCounterparty());
+            ps.setTimestamp(15, Timestamp.from(record.getOccurredAt()));
+            ps.setTimestamp(16, Timestamp.from(record.getCreatedAt()));
+            ps.setTimestamp(17, Timestamp.from(record.getUpdatedAt()));
+        });
+    }
+
+    public void insertSuspiciousActivities(List<SuspiciousActivity> activities) {
+        jdbcTemplate.batchUpdate(INSERT_ACTIVITY, activities, batchSize, (ps, activity) -> {
+            ps.setObject(1, activity.getId());
+            ps.setObject(2, activity.getCustomerId());
+            ps.setObject(3, activity.getAccountId());
+            ps.setObject(4, activity.getTransactionId());
+            ps.setString(5, activity.getActivityType().name());
+            ps.setString(6, activity.getSeverity().name());
+            ps.setString(7, activity.getStatus().name());
+            ps.setBigDecimal(8, activity.getAmount());
+            ps.setString(9, activity.getCurrency());
+            ps.setString(10, activity.getDescription());
+            ps.setInt(11, activity.getRiskScore());
+            ps.setObject(12, activity.getComplianceRecordId());
+            ps.setTimestamp(13, Timestamp.from(activity.getCreatedAt()));
+            ps.setTimestamp(14, Timestamp.from(activity.getUpdatedAt()));
+            ps.setObject(15, activity.getComplianceRecordId());
+        });
+    }
+}
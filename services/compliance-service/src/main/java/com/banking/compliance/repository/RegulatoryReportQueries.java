@@ -0,0 +1,93 @@
+package com.banking.compliance.repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Report queries over a {@code created_at} range. Totals are aggregated in the database, and
+ * entries are streamed row by row with a bounded fetch size, so neither holds the period in
+ * memory. The PostgreSQL driver only honours the fetch size inside a transaction.
+ */
+@Repository
+public class RegulatoryReportQueries {
+
+    private static final String LARGE_TRANSACTION_TOTALS = """
+            SELECT COUNT(*), COALESCE(SUM(amount), 0)
+            FROM compliance_records
+            WHERE created_at >= ? AND created_at < ? AND amount >= ?
+            """;
+
+    private static final String LARGE_TRANSACTIONS = """
+            SELECT id, customer_id, account_id, transaction_id, record_type, amount, currency, risk_score, created_at
+            FROM compliance_records
+            WHERE created_at >= ? AND created_at < ? AND amount >= ?
+            ORDER BY created_at, id
+            """;
+
+    private static final String SUSPICIOUS_ACTIVITY_TOTALS = """
+            SELECT COUNT(*), COALESCE(SUM(amount), 0)
+            FROM suspicious_activities
+            WHERE created_at >= ? AND created_at < ?
+            """;
+
+    private static final String SUSPICIOUS_ACTIVITIES = """
+            SELECT id, customer_id, account_id, transaction_id, activity_type, amount, currency, risk_score, created_at
+            FROM suspicious_activities
+            WHERE created_at >= ? AND created_at < ?
+            ORDER BY created_at, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RegulatoryReportQueries(
+            JdbcTemplate jdbcTemplate,
+            @Value("${compliance.reports.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public ReportTotals largeTransactionTotals(Instant from, Instant to, BigDecimal threshold) {
+        return jdbcTemplate.queryForObject(LARGE_TRANSACTION_TOTALS, RegulatoryReportQueries::totals,
+                Timestamp.from(from), Timestamp.from(to), threshold);
+    }
+
+    public void streamLargeTransactions(Instant from, Instant to, BigDecimal threshold, Consumer<ReportEntry> sink) {
+        jdbcTemplate.query(LARGE_TRANSACTIONS, streaming(sink), Timestamp.from(from), Timestamp.from(to), threshold);
+    }
+
+    public ReportTotals suspiciousActivityTotals(Instant from, Instant to) {
+        return jdbcTemplate.queryForObject(SUSPICIOUS_ACTIVITY_TOTALS, RegulatoryReportQueries::totals,
+                Timestamp.from(from), Timestamp.from(to));
+    }
+
+    public void streamSuspiciousActivities(Instant from, Instant to, Consumer<ReportEntry> sink) {
+        jdbcTemplate.query(SUSPICIOUS_ACTIVITIES, streaming(sink), Timestamp.from(from), Timestamp.from(to));
+    }
+
+    private static ReportTotals totals(ResultSet rs, int rowNum) throws SQLException {
+        return new ReportTotals(rs.getLong(1), rs.getBigDecimal(2));
+    }
+
+    private static RowCallbackHandler streaming(Consumer<ReportEntry> sink) {
+        return rs -> sink.accept(new ReportEntry(
+                rs.getObject(1, UUID.class),
+                rs.getObject(2, UUID.class),
+                rs.getObject(3, UUID.class),
+                rs.getObject(4, UUID.class),
+                rs.getString(5),
+                rs.getBigDecimal(6),
+                rs.getString(7),
+                (Integer) rs.getObject(8),
+                rs.getTimestamp(9).toInstant()
+        ));
+    }
+}
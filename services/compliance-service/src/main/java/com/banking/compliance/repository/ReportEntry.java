@@ -0,0 +1,22 @@
+package com.banking.compliance.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One line of a regulatory report body: a large transaction for CTR/LCTR, a suspicious activity
+ * for SAR. {@code category} is the record or activity type.
+ */
+public record ReportEntry(
+        UUID id,
+        UUID customerId,
+        UUID accountId,
+        UUID transactionId,
+        String category,
+        BigDecimal amount,
+        String currency,
+        Integer riskScore,
+        Instant occurredAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.banking.compliance.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Count and amount total of the entries in a regulatory report.
+ */
+public record ReportTotals(long recordCount, BigDecimal totalAmount) {
+}
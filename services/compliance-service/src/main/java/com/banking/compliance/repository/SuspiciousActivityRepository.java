@@ -4,7 +4,6 @@ import com.banking.compliance.domain.Severity;
 import com.banking.compliance.domain.SuspiciousActivity;
 import com.banking.compliance.domain.SuspiciousActivityStatus;
 import com.banking.compliance.domain.SuspiciousActivityType;
-import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
@@ -38,12 +37,5 @@ public interface SuspiciousActivityRepository extends JpaRepository<SuspiciousAc
     @Query("SELECT COUNT(sa) FROM SuspiciousActivity sa WHERE sa.customerId = :customerId " +
            "AND sa.status = :status")
     long countByCustomerIdAndStatus(@Param("customerId") UUID customerId, @Param("status") SuspiciousActivityStatus status);
-
-    @Query("SELECT sa FROM SuspiciousActivity sa WHERE sa.createdAt >= :startDate " +
-           "AND sa.createdAt <= :endDate")
-    List<SuspiciousActivity> findByDateRange(
-            @Param("startDate") Instant startDate,
-            @Param("endDate") Instant endDate
-    );
 }
 
@@ -1,5 +1,8 @@
 package com.banking.compliance.service;
 
+import com.banking.compliance.aml.AmlWindowProperties;
+import com.banking.compliance.aml.AmlWindowStore;
+import com.banking.compliance.aml.WindowSnapshot;
 import com.banking.compliance.domain.ComplianceRecord;
 import com.banking.compliance.domain.ComplianceRecordType;
 import com.banking.compliance.domain.ComplianceStatus;
@@ -30,13 +33,19 @@ public class AMLService {
 
     private final ComplianceRecordRepository complianceRecordRepository;
     private final SuspiciousActivityRepository suspiciousActivityRepository;
+    private final AmlWindowStore windowStore;
+    private final AmlWindowProperties windowProperties;
 
     public AMLService(
             ComplianceRecordRepository complianceRecordRepository,
-            SuspiciousActivityRepository suspiciousActivityRepository
+            SuspiciousActivityRepository suspiciousActivityRepository,
+            AmlWindowStore windowStore,
+            AmlWindowProperties windowProperties
     ) {
         this.complianceRecordRepository = complianceRecordRepository;
         this.suspiciousActivityRepository = suspiciousActivityRepository;
+        this.windowStore = windowStore;
+        this.windowProperties = windowProperties;
     }
 
     @Transactional
@@ -49,17 +58,56 @@ public class AMLService {
             String eventType,
             String sourceTopic
     ) {
-        log.debug("Analyzing transaction {} for customer {} with amount {}", transactionId, customerId, amount);
+        return analyzeTransaction(customerId, accountId, transactionId, amount, currency, eventType, sourceTopic, null);
+    }
+
+    /**
+     * Analyzes a transaction on its own and against the customer's recent activity. The
+     * counterparty, when known, feeds the fan-out rule.
+     */
+    @Transactional
+    public ComplianceRecord analyzeTransaction(
+            UUID customerId,
+            UUID accountId,
+            UUID transactionId,
+            BigDecimal amount,
+            String currency,
+            String eventType,
+            String sourceTopic,
+            String counterparty
+    ) {
+        ComplianceRecord record = assess(new TransactionAnalysisRequest(
+                customerId, accountId, transactionId, amount, currency, eventType, sourceTopic, counterparty, null));
+        ComplianceRecord savedRecord = complianceRecordRepository.save(record);
+
+        Severity severity = severityFor(savedRecord.getRiskScore());
+        if (severity != null) {
+            createSuspiciousActivity(savedRecord, severity);
+        }
+
+        return savedRecord;
+    }
+
+    /**
+     * Runs the AML rules for one transaction and returns the unsaved compliance record. Records
+     * the transaction in its customer's activity windows.
+     */
+    ComplianceRecord assess(TransactionAnalysisRequest request) {
+        log.debug("Analyzing transaction {} for customer {} with amount {}",
+                request.transactionId(), request.customerId(), request.amount());
+        BigDecimal amount = request.amount();
 
         ComplianceRecord record = new ComplianceRecord();
-        record.setCustomerId(customerId);
-        record.setAccountId(accountId);
-        record.setTransactionId(transactionId);
+        record.setCustomerId(request.customerId());
+        record.setAccountId(request.accountId());
+        record.setTransactionId(request.transactionId());
         record.setRecordType(ComplianceRecordType.TRANSACTION_MONITORING);
         record.setAmount(amount);
-        record.setCurrency(currency);
-        record.setSourceEventType(eventType);
-        record.setSourceTopic(sourceTopic);
+        record.setCurrency(request.currency());
+        record.setSourceEventType(request.eventType());
+        record.setSourceTopic(request.sourceTopic());
+        record.setCounterparty(request.counterparty());
+        record.setOccurredAt(request.occurredAt());
 
         List<String> flags = new ArrayList<>();
         int riskScore = 0;
@@ -83,14 +131,28 @@ public class AMLService {
             riskScore += 10;
         }
 
-        // Check transaction frequency (simplified - would need historical data)
-        long recentTransactions = complianceRecordRepository
-                .countByCustomerIdAndStatus(customerId, ComplianceStatus.PENDING);
-        if (recentTransactions > 5) {
+        WindowSnapshot window = windowStore.record(
+                request.customerId(), request.transactionId(), amount, request.counterparty(), request.occurredAt());
+
+        // Check transaction frequency within the short window
+        if (window.shortWindowTransactions() > windowProperties.rapidMovementTransactions()) {
             flags.add("RAPID_MOVEMENT");
             riskScore += 20;
         }
 
+        // Check for structuring across transactions (several sub-threshold amounts adding up to the threshold)
+        if (window.structuringTransactions() >= windowProperties.structuringMinTransactions()
+                && window.structuringTotal().compareTo(windowProperties.reportingThreshold()) >= 0) {
+            flags.add("STRUCTURING_PATTERN");
+            riskScore += 40;
+        }
+
+        // Check for funds spread over many counterparties
+        if (window.distinctCounterparties() >= windowProperties.fanOutCounterparties()) {
+            flags.add("COUNTERPARTY_FAN_OUT");
+            riskScore += 20;
+        }
+
         record.setFlags(String.join(",", flags));
         record.setRiskScore(riskScore);
 
@@ -105,19 +167,28 @@ public class AMLService {
         }
 
         record.setDescription(buildDescription(flags, riskScore));
-        ComplianceRecord savedRecord = complianceRecordRepository.save(record);
+        return record;
+    }
 
+    /**
+     * Severity of the suspicious activity a record with this score opens, or null when it opens none.
+     */
+    static Severity severityFor(int riskScore) {
         if (riskScore >= HIGH_RISK_SCORE) {
-            createSuspiciousActivity(savedRecord, Severity.HIGH);
-        } else if (riskScore >= MEDIUM_RISK_SCORE) {
-            createSuspiciousActivity(savedRecord, Severity.MEDIUM);
+            return Severity.HIGH;
         }
-
-        return savedRecord;
+        if (riskScore >= MEDIUM_RISK_SCORE) {
+            return Severity.MEDIUM;
+        }
+        return null;
     }
 
     @Transactional
     public SuspiciousActivity createSuspiciousActivity(ComplianceRecord record, Severity severity) {
+        return suspiciousActivityRepository.save(buildSuspiciousActivity(record, severity));
+    }
+
+    SuspiciousActivity buildSuspiciousActivity(ComplianceRecord record, Severity severity) {
         SuspiciousActivity activity = new SuspiciousActivity();
         activity.setCustomerId(record.getCustomerId());
         activity.setAccountId(record.getAccountId());
@@ -148,7 +219,7 @@ public class AMLService {
         }
 
         activity.setDescription(record.getDescription());
-        return suspiciousActivityRepository.save(activity);
+        return activity;
     }
 
     private boolean isRoundNumber(BigDecimal amount) {
@@ -0,0 +1,140 @@
+package com.banking.compliance.service;
+
+import com.banking.compliance.domain.ComplianceRecord;
+import com.banking.compliance.domain.Severity;
+import com.banking.compliance.domain.SuspiciousActivity;
+import com.banking.compliance.repository.ComplianceBatchRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs AML analysis for a batch of consumed events and persists the outcome in one transaction.
+ * The batch is split by customer into partitions analysed in parallel, so each customer's
+ * transactions still reach their activity windows in order, and the resulting records and
+ * suspicious activities are written with JDBC batch inserts.
+ */
+@Service
+public class AmlBatchAnalyzer implements DisposableBean {
+
+    private static final int MIN_TRANSACTIONS_PER_PARTITION = 32;
+
+    private final AMLService amlService;
+    private final ComplianceBatchRepository batchRepository;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public AmlBatchAnalyzer(
+            AMLService amlService,
+            ComplianceBatchRepository batchRepository,
+            @Value("${compliance.aml.batch.parallelism:0}") int parallelism) {
+        this.amlService = amlService;
+        this.batchRepository = batchRepository;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(this.parallelism);
+    }
+
+    /**
+     * Analyses and stores every request; returns the records built, in request order. A request
+     * whose transaction already has a record is skipped by the insert, so a redelivered batch
+     * writes nothing twice. Nothing is written if any request fails; a failure in analysing one
+     * request is raised as a {@link RequestAnalysisException} naming the earliest failed one.
+     */
+    @Transactional
+    public List<ComplianceRecord> analyze(List<TransactionAnalysisRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        int partitionCount = Math.max(1, Math.min(parallelism, requests.size() / MIN_TRANSACTIONS_PER_PARTITION));
+        List<List<Integer>> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            partitions.get(Math.floorMod(requests.get(i).customerId().hashCode(), partitionCount)).add(i);
+        }
+
+        Instant now = Instant.now();
+        ComplianceRecord[] records = new ComplianceRecord[requests.size()];
+        List<SuspiciousActivity> activities = new ArrayList<>();
+        if (partitionCount == 1) {
+            activities.addAll(analyzePartition(requests, partitions.get(0), records, now));
+        } else {
+            List<CompletableFuture<List<SuspiciousActivity>>> futures = partitions.stream()
+                    .map(partition -> CompletableFuture.supplyAsync(
+                            () -> analyzePartition(requests, partition, records, now), executor))
+                    .toList();
+            RequestAnalysisException failure = null;
+            for (CompletableFuture<List<SuspiciousActivity>> future : futures) {
+                try {
+                    activities.addAll(future.join());
+                } catch (CompletionException e) {
+                    if (!(e.getCause() instanceof RequestAnalysisException failed)) {
+                        throw e;
+                    }
+                    if (failure == null || failed.getIndex() < failure.getIndex()) {
+                        failure = failed;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        List<ComplianceRecord> written = List.of(records);
+        batchRepository.insertRecords(written);
+        if (!activities.isEmpty()) {
+            batchRepository.insertSuspiciousActivities(activities);
+        }
+        return written;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Assesses the requests at {@code indexes} in order, storing each record at its request's
+     * index, and returns the suspicious activities they open.
+     */
+    private List<SuspiciousActivity> analyzePartition(List<TransactionAnalysisRequest> requests, List<Integer> indexes,
+                                                      ComplianceRecord[] records, Instant now) {
+        List<SuspiciousActivity> activities = new ArrayList<>();
+        for (int index : indexes) {
+            ComplianceRecord record;
+            try {
+                record = amlService.assess(requests.get(index));
+            } catch (RuntimeException e) {
+                throw new RequestAnalysisException(index, e);
+            }
+            record.setId(UUID.randomUUID());
+            record.setCreatedAt(now);
+            record.setUpdatedAt(now);
+            if (record.getOccurredAt() == null) {
+                record.setOccurredAt(now);
+            }
+            records[index] = record;
+
+            Severity severity = AMLService.severityFor(record.getRiskScore());
+            if (severity != null) {
+                SuspiciousActivity activity = amlService.buildSuspiciousActivity(record, severity);
+                activity.setId(UUID.randomUUID());
+                activity.setCreatedAt(now);
+                activity.setUpdatedAt(now);
+                activities.add(activity);
+            }
+        }
+        return activities;
+    }
+}
@@ -0,0 +1,186 @@
+package com.banking.compliance.service;
+
+import com.banking.compliance.domain.RegulatoryReport;
+import com.banking.compliance.repository.ReportEntry;
+import com.banking.compliance.repository.ReportTotals;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes regulatory report files as XML with StAX, one entry at a time, so the size of a report
+ * does not affect memory use. The summary comes first, which is why totals are computed before
+ * the body is streamed. Each file is named after its report id and written under a {@code .part}
+ * name first, then moved into place atomically once complete, so a reader never sees a partial
+ * file and two reports never share one.
+ */
+@Component
+public class RegulatoryReportExporter {
+
+    private final Path exportDirectory;
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
+
+    public RegulatoryReportExporter(
+            @Value("${compliance.reports.export-dir:${java.io.tmpdir}/compliance-reports}") String exportDirectory) {
+        this.exportDirectory = Path.of(exportDirectory);
+    }
+
+    /**
+     * Creates the report's temporary file and writes everything up to the first entry. The report
+     * must already have its id.
+     */
+    public Export open(RegulatoryReport report, ReportTotals totals) {
+        Path file = exportDirectory.resolve(report.getReportType() + "_" + report.getReportPeriodStart()
+                + "_" + report.getReportPeriodEnd() + "_" + report.getId() + ".xml");
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        try {
+            Files.createDirectories(exportDirectory);
+            BufferedWriter out = Files.newBufferedWriter(partial, StandardCharsets.UTF_8);
+            Export export = new Export(file, partial, out, outputFactory.createXMLStreamWriter(out));
+            export.start(report, totals);
+            return export;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create report file " + file, e);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to write report file " + file, e);
+        }
+    }
+
+    public void discard(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete report file " + file, e);
+        }
+    }
+
+    /**
+     * An open report file. {@link #finish()} completes the document and moves it to
+     * {@link #path()}; closing without finishing deletes the partial file.
+     */
+    public static final class Export implements AutoCloseable {
+
+        private final Path file;
+        private final Path partial;
+        private final BufferedWriter out;
+        private final XMLStreamWriter xml;
+        private long entries;
+        private boolean closed;
+
+        private Export(Path file, Path partial, BufferedWriter out, XMLStreamWriter xml) {
+            this.file = file;
+            this.partial = partial;
+            this.out = out;
+            this.xml = xml;
+        }
+
+        /**
+         * Where the finished file ends up.
+         */
+        public Path path() {
+            return file;
+        }
+
+        public long entries() {
+            return entries;
+        }
+
+        public void write(ReportEntry entry) {
+            try {
+                xml.writeStartElement("Entry");
+                xml.writeAttribute("sequence", Long.toString(++entries));
+                xml.writeAttribute("id", entry.id().toString());
+                xml.writeAttribute("category", entry.category());
+                element("CustomerId", entry.customerId());
+                element("AccountId", entry.accountId());
+                element("TransactionId", entry.transactionId());
+                if (entry.amount() != null) {
+                    xml.writeStartElement("Amount");
+                    if (entry.currency() != null) {
+                        xml.writeAttribute("currency", entry.currency());
+                    }
+                    xml.writeCharacters(entry.amount().toPlainString());
+                    xml.writeEndElement();
+                }
+                element("RiskScore", entry.riskScore());
+                element("OccurredAt", entry.occurredAt());
+                xml.writeEndElement();
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException("Failed to write report file " + file, e);
+            }
+        }
+
+        public void finish() {
+            try {
+                xml.writeEndElement();
+                xml.writeEndElement();
+                xml.writeEndDocument();
+                xml.flush();
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException("Failed to write report file " + file, e);
+            }
+            closeStreams();
+            try {
+                Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to move report file into place at " + file, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            closeStreams();
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete partial report file " + partial, e);
+            }
+        }
+
+        private void closeStreams() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                xml.close();
+                out.close();
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException("Failed to close report file " + file, e);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close report file " + file, e);
+            }
+        }
+
+        private void start(RegulatoryReport report, ReportTotals totals) throws XMLStreamException {
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xml.writeStartElement("RegulatoryReport");
+            xml.writeAttribute("type", report.getReportType().name());
+            xml.writeAttribute("periodStart", report.getReportPeriodStart().toString());
+            xml.writeAttribute("periodEnd", report.getReportPeriodEnd().toString());
+            xml.writeAttribute("generatedAt", Instant.now().toString());
+            xml.writeEmptyElement("Summary");
+            xml.writeAttribute("recordCount", Long.toString(totals.recordCount()));
+            xml.writeAttribute("totalAmount", totals.totalAmount().toPlainString());
+            xml.writeStartElement("Entries");
+        }
+
+        private void element(String name, Object value) throws XMLStreamException {
+            if (value != null) {
+                xml.writeStartElement(name);
+                xml.writeCharacters(value.toString());
+                xml.writeEndElement();
+            }
+        }
+    }
+}
@@ -3,35 +3,43 @@ package com.banking.compliance.service;
 import com.banking.compliance.domain.ReportStatus;
 import com.banking.compliance.domain.ReportType;
 import com.banking.compliance.domain.RegulatoryReport;
-import com.banking.compliance.repository.ComplianceRecordRepository;
+import com.banking.compliance.repository.RegulatoryReportQueries;
 import com.banking.compliance.repository.RegulatoryReportRepository;
-import com.banking.compliance.repository.SuspiciousActivityRepository;
+import com.banking.compliance.repository.ReportTotals;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.util.List;
+import java.time.ZoneOffset;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class ReportService {
 
+    private static final BigDecimal CTR_THRESHOLD = new BigDecimal("10000");
+
     private final RegulatoryReportRepository regulatoryReportRepository;
-    private final ComplianceRecordRepository complianceRecordRepository;
-    private final SuspiciousActivityRepository suspiciousActivityRepository;
+    private final RegulatoryReportQueries reportQueries;
+    private final RegulatoryReportExporter exporter;
 
     public ReportService(
             RegulatoryReportRepository regulatoryReportRepository,
-            ComplianceRecordRepository complianceRecordRepository,
-            SuspiciousActivityRepository suspiciousActivityRepository
+            RegulatoryReportQueries reportQueries,
+            RegulatoryReportExporter exporter
     ) {
         this.regulatoryReportRepository = regulatoryReportRepository;
-        this.complianceRecordRepository = complianceRecordRepository;
-        this.suspiciousActivityRepository = suspiciousActivityRepository;
+        this.reportQueries = reportQueries;
+        this.exporter = exporter;
     }
 
     public Page<RegulatoryReport> getReports(Pageable pageable) {
@@ -51,7 +59,12 @@ public class ReportService {
                 .orElseThrow(() -> new IllegalArgumentException("Regulatory report not found: " + id));
     }
 
-    @Transactional
+    /**
+     * Runs under repeatable read so the totals and the streamed body see the same snapshot. The
+     * report row is inserted before the body is written, so the unique index on type and period
+     * turns a concurrent duplicate away before it writes anything.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
     public RegulatoryReport generateReport(
             ReportType reportType,
             LocalDate periodStart,
@@ -62,9 +75,7 @@ public class ReportService {
                 .findByReportTypeAndReportPeriodStartAndReportPeriodEnd(reportType, periodStart, periodEnd);
 
         if (existing.isPresent()) {
-            throw new IllegalArgumentException(
-                    "Report already exists for type " + reportType + " and period " + periodStart + " to " + periodEnd
-            );
+            throw duplicate(reportType, periodStart, periodEnd);
         }
 
         RegulatoryReport report = new RegulatoryReport();
@@ -72,12 +83,19 @@ public class ReportService {
         report.setReportPeriodStart(periodStart);
         report.setReportPeriodEnd(periodEnd);
         report.setStatus(ReportStatus.DRAFT);
+        try {
+            report = regulatoryReportRepository.saveAndFlush(report);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicate(reportType, periodStart, periodEnd);
+        }
 
-        // Calculate report statistics based on type
+        // Aggregate the period and write the report body based on type
+        Instant from = periodStart.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant to = periodEnd.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
         switch (reportType) {
-            case SAR -> generateSARStatistics(report, periodStart, periodEnd);
-            case CTR -> generateCTRStatistics(report, periodStart, periodEnd);
-            case LCTR -> generateLCTRStatistics(report, periodStart, periodEnd);
+            case SAR -> generateSARReport(report, from, to);
+            case CTR -> generateCTRReport(report, from, to);
+            case LCTR -> generateLCTRReport(report, from, to);
             default -> {
                 // Default statistics
                 report.setRecordCount(0);
@@ -88,6 +106,12 @@ public class ReportService {
         return regulatoryReportRepository.save(report);
     }
 
+    private static IllegalArgumentException duplicate(ReportType reportType, LocalDate periodStart, LocalDate periodEnd) {
+        return new IllegalArgumentException(
+                "Report already exists for type " + reportType + " and period " + periodStart + " to " + periodEnd
+        );
+    }
+
     @Transactional
     public RegulatoryReport submitReport(UUID id, UUID submittedBy, String regulatoryReference) {
         RegulatoryReport report = getReport(id);
@@ -103,39 +127,61 @@ public class ReportService {
         return regulatoryReportRepository.save(report);
     }
 
-    private void generateSARStatistics(RegulatoryReport report, LocalDate start, LocalDate end) {
-        Instant startInstant = start.atStartOfDay().toInstant(java.time.ZoneOffset.UTC);
-        Instant endInstant = end.atTime(23, 59, 59).toInstant(java.time.ZoneOffset.UTC);
-
-        List<com.banking.compliance.domain.SuspiciousActivity> activities =
-                suspiciousActivityRepository.findByDateRange(startInstant, endInstant);
-
-        report.setRecordCount(activities.size());
-        report.setTotalAmount(activities.stream()
-                .filter(a -> a.getAmount() != null)
-                .map(com.banking.compliance.domain.SuspiciousActivity::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
+    /**
+     * SAR body: every suspicious activity opened in the period.
+     */
+    private void generateSARReport(RegulatoryReport report, Instant from, Instant to) {
+        ReportTotals totals = reportQueries.suspiciousActivityTotals(from, to);
+        export(report, totals, export -> reportQueries.streamSuspiciousActivities(from, to, export::write));
     }
 
-    private void generateCTRStatistics(RegulatoryReport report, LocalDate start, LocalDate end) {
-        Instant startInstant = start.atStartOfDay().toInstant(java.time.ZoneOffset.UTC);
-        Instant endInstant = end.atTime(23, 59, 59).toInstant(java.time.ZoneOffset.UTC);
-
-        List<com.banking.compliance.domain.ComplianceRecord> records =
-                complianceRecordRepository.findAll().stream()
-                        .filter(r -> r.getCreatedAt().isAfter(startInstant) && r.getCreatedAt().isBefore(endInstant))
-                        .filter(r -> r.getAmount() != null && r.getAmount().compareTo(new BigDecimal("10000")) >= 0)
-                        .toList();
-
-        report.setRecordCount(records.size());
-        report.setTotalAmount(records.stream()
-                .map(com.banking.compliance.domain.ComplianceRecord::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
+    /**
+     * CTR body: every monitored transaction in the period at or above the reporting threshold.
+     */
+    private void generateCTRReport(RegulatoryReport report, Instant from, Instant to) {
+        ReportTotals totals = reportQueries.largeTransactionTotals(from, to, CTR_THRESHOLD);
+        export(report, totals, export -> reportQueries.streamLargeTransactions(from, to, CTR_THRESHOLD, export::write));
     }
 
-    private void generateLCTRStatistics(RegulatoryReport report, LocalDate start, LocalDate end) {
+    private void generateLCTRReport(RegulatoryReport report, Instant from, Instant to) {
         // Similar to CTR but for large cash transactions specifically
-        generateCTRStatistics(report, start, end);
+        generateCTRReport(report, from, to);
     }
-}
 
+    /**
+     * Streams the report body into its export file. The file is removed again if writing fails or
+     * the surrounding transaction rolls back, so a stored report always points at a complete file.
+     */
+    private void export(RegulatoryReport report, ReportTotals totals,
+                        Consumer<RegulatoryReportExporter.Export> body) {
+        Path file;
+        try (RegulatoryReportExporter.Export export = exporter.open(report, totals)) {
+            file = export.path();
+            try {
+                body.accept(export);
+                if (export.entries() != totals.recordCount()) {
+                    throw new IllegalStateException("Report " + file + " has " + export.entries()
+                            + " entries but totals count " + totals.recordCount());
+                }
+                export.finish();
+            } catch (RuntimeException e) {
+                exporter.discard(file);
+                throw e;
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        exporter.discard(file);
+                    }
+                }
+            });
+        }
+
+        report.setRecordCount(Math.toIntExact(totals.recordCount()));
+        report.setTotalAmount(totals.totalAmount());
+        report.setFilePath(file.toString());
+    }
+}
@@ -0,0 +1,21 @@
+package com.banking.compliance.service;
+
+/**
+ * One request of a batch could not be analysed; nothing of the batch was written.
+ */
+public class RequestAnalysisException extends RuntimeException {
+
+    private final int index;
+
+    public RequestAnalysisException(int index, Throwable cause) {
+        super("Analysis failed for request " + index + " of the batch: " + cause.getMessage(), cause);
+        this.index = index;
+    }
+
+    /**
+     * Position of the failed request in the list passed to {@link AmlBatchAnalyzer#analyze}.
+     */
+    public int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,22 @@
+package com.banking.compliance.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A monitored transaction as decoded from a transaction, payment or card event. {@code occurredAt}
+ * is the event's own time, or null when neither the payload nor the Kafka record carries one.
+ */
+public record TransactionAnalysisRequest(
+        UUID customerId,
+        UUID accountId,
+        UUID transactionId,
+        BigDecimal amount,
+        String currency,
+        String eventType,
+        String sourceTopic,
+        String counterparty,
+        Instant occurredAt
+) {
+}
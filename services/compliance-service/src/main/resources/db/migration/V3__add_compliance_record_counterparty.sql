@@ -0,0 +1,2 @@
+-- Counterparty of the monitored transaction, so AML windows can be rebuilt from these records
+ALTER TABLE compliance_records ADD COLUMN IF NOT EXISTS counterparty VARCHAR(255);
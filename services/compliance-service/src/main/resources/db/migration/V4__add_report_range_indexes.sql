@@ -0,0 +1,9 @@
+-- Regulatory reports filter on a created_at range and aggregate amount; including amount in the
+-- range index lets the totals come from an index-only scan.
+CREATE INDEX IF NOT EXISTS idx_compliance_records_created_at_amount
+    ON compliance_records (created_at) INCLUDE (amount);
+DROP INDEX IF EXISTS idx_compliance_records_created_at;
+
+CREATE INDEX IF NOT EXISTS idx_suspicious_activities_created_at_amount
+    ON suspicious_activities (created_at) INCLUDE (amount);
+DROP INDEX IF EXISTS idx_suspicious_activities_created_at;
@@ -0,0 +1,7 @@
+-- Event time of the monitored transaction; AML windows are placed and rebuilt by it rather than
+-- by when the event happened to be consumed
+ALTER TABLE compliance_records ADD COLUMN IF NOT EXISTS occurred_at TIMESTAMPTZ;
+UPDATE compliance_records SET occurred_at = created_at WHERE occurred_at IS NULL;
+ALTER TABLE compliance_records ALTER COLUMN occurred_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_compliance_records_occurred_at ON compliance_records (occurred_at);
@@ -0,0 +1,4 @@
+-- One report per type and period; a concurrent duplicate generation fails on insert instead of
+-- racing the first one for the same export file
+CREATE UNIQUE INDEX IF NOT EXISTS uq_regulatory_reports_type_period
+    ON regulatory_reports (report_type, report_period_start, report_period_end);
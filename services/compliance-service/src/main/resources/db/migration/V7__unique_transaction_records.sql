@@ -0,0 +1,31 @@
+-- One compliance record and at most one suspicious activity per monitored transaction, so a
+-- redelivered event batch cannot store the same transaction twice. Earlier redeliveries may have
+-- left duplicates: the first record is kept, with activities repointed at it, and of the
+-- activities the one under investigation, else the first.
+CREATE TEMPORARY TABLE duplicate_compliance_records AS
+SELECT id, first_value(id) OVER (PARTITION BY transaction_id ORDER BY created_at, id) AS kept_id
+FROM compliance_records
+WHERE transaction_id IS NOT NULL;
+
+UPDATE suspicious_activities a
+SET compliance_record_id = d.kept_id
+FROM duplicate_compliance_records d
+WHERE a.compliance_record_id = d.id
+  AND d.id <> d.kept_id;
+
+DELETE FROM compliance_records r
+USING duplicate_compliance_records d
+WHERE r.id = d.id
+  AND d.id <> d.kept_id;
+
+DROP TABLE duplicate_compliance_records;
+
+DELETE FROM suspicious_activities a
+USING suspicious_activities kept
+WHERE a.transaction_id = kept.transaction_id
+  AND (a.investigator_id IS NULL, a.created_at, a.id) > (kept.investigator_id IS NULL, kept.created_at, kept.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_compliance_records_transaction_id
+    ON compliance_records (transaction_id) WHERE transaction_id IS NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_suspicious_activities_transaction_id
+    ON suspicious_activities (transaction_id) WHERE transaction_id IS NOT NULL;
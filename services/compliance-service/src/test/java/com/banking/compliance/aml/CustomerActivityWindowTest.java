@@ -0,0 +1,44 @@
+package com.banking.compliance.aml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class CustomerActivityWindowTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    private final AmlWindowProperties properties = AmlWindowProperties.defaults();
+    private final CustomerActivityWindow window = new CustomerActivityWindow();
+
+    @Test
+    void lateEventOlderThanShortWindowCountsOnlyTowardsLongWindow() {
+        window.record(activity("500", NOW), properties);
+
+        WindowSnapshot snapshot = window.record(activity("700", NOW.minus(properties.shortWindow()).minusSeconds(60)),
+                properties);
+
+        assertThat(snapshot.shortWindowTransactions()).isEqualTo(1);
+        assertThat(snapshot.shortWindowTotal()).isEqualByComparingTo("500");
+        assertThat(snapshot.longWindowTransactions()).isEqualTo(2);
+        assertThat(snapshot.longWindowTotal()).isEqualByComparingTo("1200");
+    }
+
+    @Test
+    void lateEventWithinShortWindowCountsTowardsBoth() {
+        window.record(activity("500", NOW), properties);
+
+        WindowSnapshot snapshot = window.record(activity("700", NOW.minusSeconds(60)), properties);
+
+        assertThat(snapshot.shortWindowTransactions()).isEqualTo(2);
+        assertThat(snapshot.shortWindowTotal()).isEqualByComparingTo("1200");
+        assertThat(snapshot.longWindowTransactions()).isEqualTo(2);
+    }
+
+    private static CustomerActivityWindow.Activity activity(String amount, Instant at) {
+        return new CustomerActivityWindow.Activity(UUID.randomUUID(), new BigDecimal(amount), null, at, false);
+    }
+}
@@ -1,198 +1,263 @@
 package com.banking.compliance.messaging;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.banking.compliance.domain.ComplianceRecord;
-import com.banking.compliance.service.AMLService;
+import com.banking.compliance.service.AmlBatchAnalyzer;
+import com.banking.compliance.service.RequestAnalysisException;
+import com.banking.compliance.service.TransactionAnalysisRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.Acknowledgment;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionEventConsumerTest {
 
     @Mock
-    private AMLService amlService;
+    private AmlBatchAnalyzer batchAnalyzer;
+
+    @Mock
+    private DeadLetterPublishingRecoverer deadLetters;
 
     @Mock
     private Acknowledgment acknowledgment;
 
-    private ObjectMapper objectMapper;
     private TransactionEventConsumer consumer;
 
     @BeforeEach
     void setUp() {
-        objectMapper = new ObjectMapper();
-        consumer = new TransactionEventConsumer(amlService, objectMapper);
+        consumer = new TransactionEventConsumer(new TransactionEventParser(new ObjectMapper()), batchAnalyzer, deadLetters);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TransactionAnalysisRequest> analyzedRequests() {
+        ArgumentCaptor<List<TransactionAnalysisRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchAnalyzer).analyze(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, long offset, String value) {
+        return new ConsumerRecord<>(topic, 0, offset, "key-" + offset, value);
     }
 
     @Test
-    void consumeTransactionEvent_WithValidEvent_ProcessesTransaction() throws Exception {
+    void consumeTransactionEvents_WithValidEvent_ProcessesTransaction() {
         // Given
         UUID customerId = UUID.randomUUID();
         UUID accountId = UUID.randomUUID();
         UUID transactionId = UUID.randomUUID();
+        UUID toAccountId = UUID.randomUUID();
         BigDecimal amount = new BigDecimal("15000.00");
 
         String eventJson = String.format(
-                "{\"eventType\":\"TRANSACTION_COMPLETED\",\"customerId\":\"%s\",\"accountId\":\"%s\",\"transactionId\":\"%s\",\"amount\":\"%s\",\"currency\":\"USD\"}",
-                customerId, accountId, transactionId, amount
+                "{\"eventType\":\"TRANSACTION_COMPLETED\",\"customerId\":\"%s\",\"accountId\":\"%s\",\"transactionId\":\"%s\",\"toAccountId\":\"%s\",\"amount\":\"%s\",\"currency\":\"USD\",\"status\":\"COMPLETED\"}",
+                customerId, accountId, transactionId, toAccountId, amount
         );
 
-        ComplianceRecord record = new ComplianceRecord();
-        record.setId(UUID.randomUUID());
-        when(amlService.analyzeTransaction(any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn(record);
-
         // When
-        consumer.consumeTransactionEvent(eventJson, "transaction-events", transactionId.toString(), acknowledgment);
+        consumer.consumeTransactionEvents(List.of(record("transaction-events", 1, eventJson)), acknowledgment);
 
         // Then
-        ArgumentCaptor<UUID> customerIdCaptor = ArgumentCaptor.forClass(UUID.class);
-        ArgumentCaptor<UUID> accountIdCaptor = ArgumentCaptor.forClass(UUID.class);
-        ArgumentCaptor<UUID> transactionIdCaptor = ArgumentCaptor.forClass(UUID.class);
-        ArgumentCaptor<BigDecimal> amountCaptor = ArgumentCaptor.forClass(BigDecimal.class);
-        ArgumentCaptor<String> currencyCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> eventTypeCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> topicCaptor = ArgumentCaptor.forClass(String.class);
-
-        verify(amlService).analyzeTransaction(
-                customerIdCaptor.capture(),
-                accountIdCaptor.capture(),
-                transactionIdCaptor.capture(),
-                amountCaptor.capture(),
-                currencyCaptor.capture(),
-                eventTypeCaptor.capture(),
-                topicCaptor.capture()
-        );
-
-        assertThat(customerIdCaptor.getValue()).isEqualTo(customerId);
-        assertThat(accountIdCaptor.getValue()).isEqualTo(accountId);
-        assertThat(transactionIdCaptor.getValue()).isEqualTo(transactionId);
-        assertThat(amountCaptor.getValue()).isEqualByComparingTo(amount);
-        assertThat(currencyCaptor.getValue()).isEqualTo("USD");
-        assertThat(eventTypeCaptor.getValue()).isEqualTo("TRANSACTION_COMPLETED");
-        assertThat(topicCaptor.getValue()).isEqualTo("transaction-events");
-
+        assertThat(analyzedRequests()).containsExactly(new TransactionAnalysisRequest(
+                customerId, accountId, transactionId, amount, "USD", "TRANSACTION_COMPLETED", "transaction-events",
+                toAccountId.toString(), null));
         verify(acknowledgment).acknowledge();
     }
 
     @Test
-    void consumeTransactionEvent_WithMissingCustomerId_SkipsProcessing() throws Exception {
+    void consumeTransactionEvents_WithMissingCustomerIdOrAmount_SkipsThoseEvents() {
         // Given
-        String eventJson = "{\"eventType\":\"TRANSACTION_COMPLETED\",\"amount\":\"1000.00\",\"currency\":\"USD\"}";
+        UUID customerId = UUID.randomUUID();
+        String missingCustomer = "{\"eventType\":\"TRANSACTION_COMPLETED\",\"amount\":\"1000.00\",\"currency\":\"USD\"}";
+        String missingAmount = String.format(
+                "{\"eventType\":\"TRANSACTION_COMPLETED\",\"customerId\":\"%s\",\"currency\":\"USD\"}", customerId);
+        String invalidCustomer = "{\"eventType\":\"TRANSACTION_COMPLETED\",\"customerId\":\"nope\",\"amount\":\"10\"}";
 
         // When
-        consumer.consumeTransactionEvent(eventJson, "transaction-events", "key", acknowledgment);
+        consumer.consumeTransactionEvents(List.of(
+                record("transaction-events", 1, missingCustomer),
+                record("transaction-events", 2, missingAmount),
+                record("transaction-events", 3, invalidCustomer)
+        ), acknowledgment);
 
         // Then
-        verify(amlService, never()).analyzeTransaction(any(), any(), any(), any(), any(), any(), any());
+        assertThat(analyzedRequests()).isEmpty();
+        verify(deadLetters, never()).accept(any(), any());
         verify(acknowledgment).acknowledge();
     }
 
     @Test
-    void consumeTransactionEvent_WithMissingAmount_SkipsProcessing() throws Exception {
+    void consumeTransactionEvents_WithInvalidJson_RoutesRecordToDeadLetterTopic() {
         // Given
         UUID customerId = UUID.randomUUID();
-        String eventJson = String.format(
-                "{\"eventType\":\"TRANSACTION_COMPLETED\",\"customerId\":\"%s\",\"currency\":\"USD\"}",
-                customerId
-        );
+        ConsumerRecord<String, String> poison = record("payment-events", 7, "{invalid json}");
+        ConsumerRecord<String, String> valid = record("payment-events", 8, String.format(
+                "{\"eventType\":\"PAYMENT_PROCESSED\",\"customerId\":\"%s\",\"amount\":5000.00,\"currency\":\"EUR\"}",
+                customerId));
 
         // When
-        consumer.consumeTransactionEvent(eventJson, "transaction-events", "key", acknowledgment);
+        consumer.consumeTransactionEvents(List.of(poison, valid), acknowledgment);
 
         // Then
-        verify(amlService, never()).analyzeTransaction(any(), any(), any(), any(), any(), any(), any());
+        assertThat(analyzedRequests()).singleElement().satisfies(request -> {
+            assertThat(request.customerId()).isEqualTo(customerId);
+            assertThat(request.amount()).isEqualByComparingTo("5000.00");
+            assertThat(request.sourceTopic()).isEqualTo("payment-events");
+        });
+        verify(deadLetters).accept(eq(poison), any(MalformedEventException.class));
         verify(acknowledgment).acknowledge();
     }
 
     @Test
-    void consumeTransactionEvent_WithInvalidJson_AcknowledgesAndContinues() {
+    void consumeTransactionEvents_WithCardEvent_UsesIdAndMerchantAsFallbacks() {
         // Given
-        String invalidJson = "{invalid json}";
+        UUID customerId = UUID.randomUUID();
+        UUID eventId = UUID.randomUUID();
+        String eventJson = String.format(
+                "{\"eventType\":\"CARD_TRANSACTION\",\"id\":\"%s\",\"customerId\":\"%s\",\"cardId\":\"%s\",\"merchantName\":\"ACME\",\"amount\":\"2000.00\",\"currency\":\"USD\"}",
+                eventId, customerId, UUID.randomUUID()
+        );
 
         // When
-        consumer.consumeTransactionEvent(invalidJson, "transaction-events", "key", acknowledgment);
+        consumer.consumeTransactionEvents(List.of(record("card-events", 3, eventJson)), acknowledgment);
 
         // Then
-        verify(amlService, never()).analyzeTransaction(any(), any(), any(), any(), any(), any(), any());
+        assertThat(analyzedRequests()).singleElement().satisfies(request -> {
+            assertThat(request.transactionId()).isEqualTo(eventId);
+            assertThat(request.counterparty()).isEqualTo("ACME");
+            assertThat(request.eventType()).isEqualTo("CARD_TRANSACTION");
+        });
         verify(acknowledgment).acknowledge();
     }
 
     @Test
-    void consumeTransactionEvent_WithPaymentEvent_ProcessesCorrectly() throws Exception {
+    void consumeTransactionEvents_WhenPersistenceFails_DoesNotAcknowledge() {
         // Given
-        UUID customerId = UUID.randomUUID();
-        BigDecimal amount = new BigDecimal("5000.00");
-
         String eventJson = String.format(
-                "{\"eventType\":\"PAYMENT_PROCESSED\",\"customerId\":\"%s\",\"amount\":\"%s\",\"currency\":\"EUR\"}",
-                customerId, amount
-        );
+                "{\"eventType\":\"TRANSACTION_COMPLETED\",\"customerId\":\"%s\",\"amount\":\"10.00\"}", UUID.randomUUID());
+        when(batchAnalyzer.analyze(any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        // When / Then
+        assertThatThrownBy(() -> consumer.consumeTransactionEvents(
+                List.of(record("transaction-events", 1, eventJson)), acknowledgment))
+                .isInstanceOf(IllegalStateException.class);
+        verify(acknowledgment, never()).acknowledge();
+    }
 
-        ComplianceRecord record = new ComplianceRecord();
-        when(amlService.analyzeTransaction(any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn(record);
+    @Test
+    void consumeTransactionEvents_TimesRequestsByEventTime() {
+        // Given
+        String stamped = String.format(
+                "{\"eventType\":\"TRANSACTION_COMPLETED\",\"customerId\":\"%s\",\"amount\":\"10.00\",\"timestamp\":\"2024-03-01T10:00:00Z\"}",
+                UUID.randomUUID());
+        String epochStamped = String.format(
+                "{\"eventType\":\"PAYMENT_PROCESSED\",\"customerId\":\"%s\",\"amount\":\"10.00\",\"timestamp\":1709287200.5}",
+                UUID.randomUUID());
+        String unstamped = String.format(
+                "{\"eventType\":\"TRANSACTION_COMPLETED\",\"customerId\":\"%s\",\"amount\":\"10.00\"}", UUID.randomUUID());
+        long recordTime = Instant.parse("2024-03-01T11:00:00Z").toEpochMilli();
 
         // When
-        consumer.consumeTransactionEvent(eventJson, "payment-events", "key", acknowledgment);
+        consumer.consumeTransactionEvents(List.of(
+                timestamped("transaction-events", 1, recordTime, stamped),
+                timestamped("payment-events", 2, recordTime, epochStamped),
+                timestamped("transaction-events", 3, recordTime, unstamped)
+        ), acknowledgment);
 
         // Then
-        verify(amlService).analyzeTransaction(
-                eq(customerId),
-                any(),
-                any(),
-                eq(amount),
-                eq("EUR"),
-                eq("PAYMENT_PROCESSED"),
-                eq("payment-events")
-        );
-        verify(acknowledgment).acknowledge();
+        assertThat(analyzedRequests()).extracting(TransactionAnalysisRequest::occurredAt).containsExactly(
+                Instant.parse("2024-03-01T10:00:00Z"),
+                Instant.parse("2024-03-01T10:00:00.5Z"),
+                Instant.parse("2024-03-01T11:00:00Z"));
+    }
+
+    private static ConsumerRecord<String, String> timestamped(String topic, long offset, long timestamp, String value) {
+        return new ConsumerRecord<>(topic, 0, offset, timestamp, TimestampType.CREATE_TIME, -1, -1,
+                "key-" + offset, value, new RecordHeaders(), Optional.empty());
     }
 
     @Test
-    void consumeTransactionEvent_WithCardEvent_ProcessesCorrectly() throws Exception {
+    void consumeTransactionEvents_WithUnstorableFields_RoutesRecordsToDeadLetterTopic() {
         // Given
         UUID customerId = UUID.randomUUID();
-        UUID cardId = UUID.randomUUID();
-        BigDecimal amount = new BigDecimal("2000.00");
-
-        String eventJson = String.format(
-                "{\"eventType\":\"CARD_TRANSACTION\",\"customerId\":\"%s\",\"cardId\":\"%s\",\"amount\":\"%s\",\"currency\":\"USD\"}",
-                customerId, cardId, amount
-        );
-
-        ComplianceRecord record = new ComplianceRecord();
-        when(amlService.analyzeTransaction(any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn(record);
+        ConsumerRecord<String, String> wideCurrency = record("payment-events", 1, String.format(
+                "{\"eventType\":\"PAYMENT_PROCESSED\",\"customerId\":\"%s\",\"amount\":10,\"currency\":\"USDC\"}",
+                customerId));
+        ConsumerRecord<String, String> longEventType = record("payment-events", 2, String.format(
+                "{\"eventType\":\"%s\",\"customerId\":\"%s\",\"amount\":10,\"currency\":\"USD\"}",
+                "X".repeat(129), customerId));
+        ConsumerRecord<String, String> longCounterparty = record("card-events", 3, String.format(
+                "{\"eventType\":\"CARD_TRANSACTION\",\"customerId\":\"%s\",\"amount\":10,\"merchantName\":\"%s\"}",
+                customerId, "M".repeat(256)));
+        ConsumerRecord<String, String> hugeAmount = record("payment-events", 4, String.format(
+                "{\"eventType\":\"PAYMENT_PROCESSED\",\"customerId\":\"%s\",\"amount\":1e16,\"currency\":\"USD\"}",
+                customerId));
 
         // When
-        consumer.consumeTransactionEvent(eventJson, "card-events", cardId.toString(), acknowledgment);
+        consumer.consumeTransactionEvents(List.of(wideCurrency, longEventType, longCounterparty, hugeAmount),
+                acknowledgment);
 
         // Then
-        verify(amlService).analyzeTransaction(
-                eq(customerId),
-                any(),
-                any(),
-                eq(amount),
-                eq("USD"),
-                eq("CARD_TRANSACTION"),
-                eq("card-events")
-        );
+        assertThat(analyzedRequests()).isEmpty();
+        verify(deadLetters).accept(eq(wideCurrency), any(MalformedEventException.class));
+        verify(deadLetters).accept(eq(longEventType), any(MalformedEventException.class));
+        verify(deadLetters).accept(eq(longCounterparty), any(MalformedEventException.class));
+        verify(deadLetters).accept(eq(hugeAmount), any(MalformedEventException.class));
         verify(acknowledgment).acknowledge();
     }
-}
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void consumeTransactionEvents_WhenOneRecordFails_StoresThoseBeforeItAndNamesIt() {
+        // Given
+        String first = String.format(
+                "{\"eventType\":\"TRANSACTION_COMPLETED\",\"customerId\":\"%s\",\"amount\":\"10.00\"}", UUID.randomUUID());
+        String failing = String.format(
+                "{\"eventType\":\"TRANSACTION_COMPLETED\",\"customerId\":\"%s\",\"amount\":\"20.00\"}", UUID.randomUUID());
+        ConsumerRecord<String, String> poison = record("transaction-events", 2, "{invalid json}");
+        ConsumerRecord<String, String> laterPoison = record("transaction-events", 5, "{invalid json}");
+        when(batchAnalyzer.analyze(any()))
+                .thenThrow(new RequestAnalysisException(1, new IllegalStateException("unexpected")))
+                .thenReturn(List.of());
+
+        // When / Then
+        assertThatThrownBy(() -> consumer.consumeTransactionEvents(List.of(
+                record("transaction-events", 1, first),
+                poison,
+                record("transaction-events", 3, "{\"eventType\":\"TRANSACTION_COMPLETED\"}"),
+                record("transaction-events", 4, failing),
+                laterPoison), acknowledgment))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(3));
+
+        ArgumentCaptor<List<TransactionAnalysisRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchAnalyzer, times(2)).analyze(captor.capture());
+        assertThat(captor.getAllValues().get(1)).singleElement()
+                .extracting(TransactionAnalysisRequest::amount)
+                .isEqualTo(new BigDecimal("10.00"));
+        verify(deadLetters).accept(eq(poison), any(MalformedEventException.class));
+        verify(deadLetters, never()).accept(eq(laterPoison), any());
+        verify(acknowledgment, never()).acknowledge();
+    }
+}
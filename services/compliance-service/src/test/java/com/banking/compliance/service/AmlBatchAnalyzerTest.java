@@ -0,0 +1,134 @@
+package com.banking.compliance.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.banking.compliance.aml.AmlWindowProperties;
+import com.banking.compliance.aml.AmlWindowStore;
+import com.banking.compliance.domain.ComplianceRecord;
+import com.banking.compliance.domain.ComplianceStatus;
+import com.banking.compliance.domain.Severity;
+import com.banking.compliance.domain.SuspiciousActivity;
+import com.banking.compliance.repository.ComplianceBatchRepository;
+import com.banking.compliance.repository.ComplianceRecordRepository;
+import com.banking.compliance.repository.SuspiciousActivityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class AmlBatchAnalyzerTest {
+
+    @Mock
+    private ComplianceRecordRepository complianceRecordRepository;
+
+    @Mock
+    private SuspiciousActivityRepository suspiciousActivityRepository;
+
+    @Mock
+    private ComplianceBatchRepository batchRepository;
+
+    private AmlBatchAnalyzer batchAnalyzer;
+
+    @BeforeEach
+    void setUp() {
+        AmlWindowProperties windowProperties = AmlWindowProperties.defaults();
+        AmlWindowStore windowStore =
+                new AmlWindowStore(new JdbcTemplate(), windowProperties, Clock.systemUTC(), new SimpleMeterRegistry());
+        AMLService amlService =
+                new AMLService(complianceRecordRepository, suspiciousActivityRepository, windowStore, windowProperties);
+        batchAnalyzer = new AmlBatchAnalyzer(amlService, batchRepository, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchAnalyzer.destroy();
+    }
+
+    private static TransactionAnalysisRequest request(UUID customerId, String amount) {
+        return new TransactionAnalysisRequest(customerId, null, UUID.randomUUID(), new BigDecimal(amount), "USD",
+                "TRANSACTION_COMPLETED", "transaction-events", null, null);
+    }
+
+    @Test
+    void analyze_WritesOneRecordPerRequestInBulk() {
+        // Given
+        List<TransactionAnalysisRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requests.add(request(UUID.randomUUID(), "125.37"));
+        }
+
+        // When
+        List<ComplianceRecord> records = batchAnalyzer.analyze(requests);
+
+        // Then
+        assertThat(records).hasSize(200);
+        assertThat(records).allSatisfy(record -> {
+            assertThat(record.getId()).isNotNull();
+            assertThat(record.getCreatedAt()).isNotNull();
+            assertThat(record.getStatus()).isEqualTo(ComplianceStatus.CLEARED);
+        });
+        verify(batchRepository).insertRecords(records);
+        verify(batchRepository, never()).insertSuspiciousActivities(org.mockito.ArgumentMatchers.any());
+    }
+
+    @Test
+    void analyze_KeepsCustomerWindowsAcrossPartitionsAndOpensSuspiciousActivities() {
+        // Given
+        UUID structuringCustomer = UUID.randomUUID();
+        List<TransactionAnalysisRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            requests.add(request(UUID.randomUUID(), "42.10"));
+        }
+        requests.add(request(structuringCustomer, "9400.55"));
+        requests.add(request(structuringCustomer, "9300.45"));
+        requests.add(request(structuringCustomer, "9200.35"));
+
+        // When
+        List<ComplianceRecord> records = batchAnalyzer.analyze(requests);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SuspiciousActivity>> activities = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository).insertSuspiciousActivities(activities.capture());
+        assertThat(activities.getValue()).singleElement().satisfies(activity -> {
+            assertThat(activity.getCustomerId()).isEqualTo(structuringCustomer);
+            assertThat(activity.getComplianceRecordId()).isNotNull();
+            assertThat(activity.getId()).isNotNull();
+            assertThat(activity.getSeverity()).isEqualTo(Severity.HIGH);
+        });
+        assertThat(records.get(records.size() - 1).getFlags()).contains("STRUCTURING_PATTERN");
+    }
+
+    @Test
+    void analyze_WhenOneRequestFails_NamesItAndWritesNothing() {
+        // Given
+        List<TransactionAnalysisRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requests.add(request(UUID.randomUUID(), "125.37"));
+        }
+        TransactionAnalysisRequest failing = requests.get(150);
+        requests.set(150, new TransactionAnalysisRequest(failing.customerId(), null, failing.transactionId(), null,
+                "USD", "TRANSACTION_COMPLETED", "transaction-events", null, null));
+
+        // When / Then
+        assertThatThrownBy(() -> batchAnalyzer.analyze(requests))
+                .isInstanceOfSatisfying(RequestAnalysisException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(150));
+        verifyNoInteractions(batchRepository);
+    }
+}
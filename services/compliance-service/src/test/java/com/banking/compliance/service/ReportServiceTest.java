@@ -3,31 +3,40 @@ package com.banking.compliance.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
-import com.banking.compliance.domain.ComplianceRecord;
-import com.banking.compliance.domain.ComplianceRecordType;
-import com.banking.compliance.domain.ComplianceStatus;
 import com.banking.compliance.domain.ReportStatus;
 import com.banking.compliance.domain.ReportType;
 import com.banking.compliance.domain.RegulatoryReport;
-import com.banking.compliance.domain.SuspiciousActivity;
-import com.banking.compliance.domain.SuspiciousActivityStatus;
-import com.banking.compliance.repository.ComplianceRecordRepository;
+import com.banking.compliance.repository.RegulatoryReportQueries;
 import com.banking.compliance.repository.RegulatoryReportRepository;
-import com.banking.compliance.repository.SuspiciousActivityRepository;
+import com.banking.compliance.repository.ReportEntry;
+import com.banking.compliance.repository.ReportTotals;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -40,10 +49,10 @@ class ReportServiceTest {
     private RegulatoryReportRepository regulatoryReportRepository;
 
     @Mock
-    private ComplianceRecordRepository complianceRecordRepository;
+    private RegulatoryReportQueries reportQueries;
 
-    @Mock
-    private SuspiciousActivityRepository suspiciousActivityRepository;
+    @TempDir
+    private Path exportDirectory;
 
     private ReportService reportService;
 
@@ -51,13 +60,13 @@ class ReportServiceTest {
     void setUp() {
         reportService = new ReportService(
                 regulatoryReportRepository,
-                complianceRecordRepository,
-                suspiciousActivityRepository
+                reportQueries,
+                new RegulatoryReportExporter(exportDirectory.toString())
         );
     }
 
     @Test
-    void generateReport_ForSAR_GeneratesReportWithStatistics() {
+    void generateReport_ForSAR_GeneratesReportWithStatistics() throws IOException {
         // Given
         ReportType reportType = ReportType.SAR;
         LocalDate start = LocalDate.of(2024, 1, 1);
@@ -66,14 +75,18 @@ class ReportServiceTest {
         when(regulatoryReportRepository.findByReportTypeAndReportPeriodStartAndReportPeriodEnd(
                 reportType, start, end)).thenReturn(Optional.empty());
 
-        SuspiciousActivity activity = createSuspiciousActivity();
-        activity.setAmount(new BigDecimal("5000.00"));
-        Instant startInstant = start.atStartOfDay().toInstant(java.time.ZoneOffset.UTC);
-        Instant endInstant = end.atTime(23, 59, 59).toInstant(java.time.ZoneOffset.UTC);
+        Instant from = start.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant to = LocalDate.of(2024, 2, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        ReportEntry activity = createEntry("UNUSUAL_PATTERN", new BigDecimal("5000.00"));
 
-        when(suspiciousActivityRepository.findByDateRange(startInstant, endInstant))
-                .thenReturn(List.of(activity));
+        when(reportQueries.suspiciousActivityTotals(from, to))
+                .thenReturn(new ReportTotals(1, new BigDecimal("5000.00")));
+        doAnswer(invocation -> {
+            invocation.<Consumer<ReportEntry>>getArgument(2).accept(activity);
+            return null;
+        }).when(reportQueries).streamSuspiciousActivities(eq(from), eq(to), any());
 
+        when(regulatoryReportRepository.saveAndFlush(any(RegulatoryReport.class))).thenAnswer(ReportServiceTest::persist);
         when(regulatoryReportRepository.save(any(RegulatoryReport.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -88,29 +101,40 @@ class ReportServiceTest {
         assertThat(report.getStatus()).isEqualTo(ReportStatus.DRAFT);
         assertThat(report.getRecordCount()).isEqualTo(1);
         assertThat(report.getTotalAmount()).isEqualByComparingTo(new BigDecimal("5000.00"));
+        assertThat(Files.readString(Path.of(report.getFilePath())))
+                .contains("<Summary recordCount=\"1\" totalAmount=\"5000.00\"")
+                .contains("id=\"" + activity.id() + "\" category=\"UNUSUAL_PATTERN\"")
+                .contains("<Amount currency=\"USD\">5000.00</Amount>")
+                .endsWith("</Entries></RegulatoryReport>");
         verify(regulatoryReportRepository).save(report);
     }
 
     @Test
-    void generateReport_ForCTR_GeneratesReportWithLargeTransactions() {
+    void generateReport_ForCTR_GeneratesReportWithLargeTransactions() throws IOException {
         // Given
         ReportType reportType = ReportType.CTR;
         LocalDate start = LocalDate.of(2024, 1, 1);
-        LocalDate end = LocalDate.of(2024, 1, 31);
+        LocalDate end = LocalDate.of(2024, 3, 31);
 
         when(regulatoryReportRepository.findByReportTypeAndReportPeriodStartAndReportPeriodEnd(
                 reportType, start, end)).thenReturn(Optional.empty());
 
-        ComplianceRecord record1 = createComplianceRecord();
-        record1.setAmount(new BigDecimal("15000.00"));
-        record1.setCreatedAt(start.atStartOfDay().toInstant(java.time.ZoneOffset.UTC).plusSeconds(3600));
-
-        ComplianceRecord record2 = createComplianceRecord();
-        record2.setAmount(new BigDecimal("20000.00"));
-        record2.setCreatedAt(start.atStartOfDay().toInstant(java.time.ZoneOffset.UTC).plusSeconds(7200));
-
-        when(complianceRecordRepository.findAll()).thenReturn(List.of(record1, record2));
-
+        Instant from = start.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant to = LocalDate.of(2024, 4, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        BigDecimal threshold = new BigDecimal("10000");
+        ReportEntry record1 = createEntry("LARGE_CASH_TRANSACTION", new BigDecimal("15000.00"));
+        ReportEntry record2 = createEntry("LARGE_CASH_TRANSACTION", new BigDecimal("20000.00"));
+
+        when(reportQueries.largeTransactionTotals(from, to, threshold))
+                .thenReturn(new ReportTotals(2, new BigDecimal("35000.00")));
+        doAnswer(invocation -> {
+            Consumer<ReportEntry> sink = invocation.getArgument(3);
+            sink.accept(record1);
+            sink.accept(record2);
+            return null;
+        }).when(reportQueries).streamLargeTransactions(eq(from), eq(to), eq(threshold), any());
+
+        when(regulatoryReportRepository.saveAndFlush(any(RegulatoryReport.class))).thenAnswer(ReportServiceTest::persist);
         when(regulatoryReportRepository.save(any(RegulatoryReport.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -120,7 +144,65 @@ class ReportServiceTest {
         // Then
         assertThat(report).isNotNull();
         assertThat(report.getReportType()).isEqualTo(ReportType.CTR);
-        assertThat(report.getRecordCount()).isGreaterThanOrEqualTo(0);
+        assertThat(report.getRecordCount()).isEqualTo(2);
+        assertThat(report.getTotalAmount()).isEqualByComparingTo(new BigDecimal("35000.00"));
+        assertThat(Path.of(report.getFilePath()))
+                .hasFileName("CTR_2024-01-01_2024-03-31_" + report.getId() + ".xml");
+        try (Stream<Path> files = Files.list(exportDirectory)) {
+            assertThat(files).containsExactly(Path.of(report.getFilePath()));
+        }
+        assertThat(Files.readString(Path.of(report.getFilePath())))
+                .contains("sequence=\"1\" id=\"" + record1.id() + "\"")
+                .contains("sequence=\"2\" id=\"" + record2.id() + "\"");
+    }
+
+    @Test
+    void generateReport_WhenStreamingFails_RemovesPartialFile() throws IOException {
+        // Given
+        ReportType reportType = ReportType.SAR;
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 1, 31);
+
+        when(regulatoryReportRepository.findByReportTypeAndReportPeriodStartAndReportPeriodEnd(
+                reportType, start, end)).thenReturn(Optional.empty());
+        when(regulatoryReportRepository.saveAndFlush(any(RegulatoryReport.class))).thenAnswer(ReportServiceTest::persist);
+        when(reportQueries.suspiciousActivityTotals(any(), any()))
+                .thenReturn(new ReportTotals(2, new BigDecimal("100.00")));
+        doAnswer(invocation -> {
+            invocation.<Consumer<ReportEntry>>getArgument(2).accept(createEntry("UNUSUAL_PATTERN", BigDecimal.TEN));
+            throw new IllegalStateException("connection reset");
+        }).when(reportQueries).streamSuspiciousActivities(any(), any(), any());
+
+        // When/Then
+        assertThatThrownBy(() -> reportService.generateReport(reportType, start, end))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("connection reset");
+        try (Stream<Path> files = Files.list(exportDirectory)) {
+            assertThat(files).isEmpty();
+        }
+        verify(regulatoryReportRepository, never()).save(any());
+    }
+
+    @Test
+    void generateReport_WhenCreatedConcurrently_ThrowsExceptionWithoutWriting() throws IOException {
+        // Given
+        ReportType reportType = ReportType.CTR;
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 3, 31);
+
+        when(regulatoryReportRepository.findByReportTypeAndReportPeriodStartAndReportPeriodEnd(
+                reportType, start, end)).thenReturn(Optional.empty());
+        when(regulatoryReportRepository.saveAndFlush(any(RegulatoryReport.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_regulatory_reports_type_period"));
+
+        // When/Then
+        assertThatThrownBy(() -> reportService.generateReport(reportType, start, end))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already exists");
+        try (Stream<Path> files = Files.list(exportDirectory)) {
+            assertThat(files).isEmpty();
+        }
+        verifyNoInteractions(reportQueries);
     }
 
     @Test
@@ -269,29 +351,9 @@ class ReportServiceTest {
                 .hasMessageContaining("not found");
     }
 
-    private ComplianceRecord createComplianceRecord() {
-        ComplianceRecord record = new ComplianceRecord();
-        record.setId(UUID.randomUUID());
-        record.setCustomerId(UUID.randomUUID());
-        record.setRecordType(ComplianceRecordType.TRANSACTION_MONITORING);
-        record.setStatus(ComplianceStatus.PENDING);
-        record.setAmount(new BigDecimal("10000.00"));
-        record.setCurrency("USD");
-        record.setCreatedAt(Instant.now());
-        return record;
-    }
-
-    private SuspiciousActivity createSuspiciousActivity() {
-        SuspiciousActivity activity = new SuspiciousActivity();
-        activity.setId(UUID.randomUUID());
-        activity.setCustomerId(UUID.randomUUID());
-        activity.setActivityType(com.banking.compliance.domain.SuspiciousActivityType.UNUSUAL_PATTERN);
-        activity.setSeverity(com.banking.compliance.domain.Severity.MEDIUM);
-        activity.setStatus(SuspiciousActivityStatus.OPEN);
-        activity.setRiskScore(60);
-        activity.setDescription("Test activity");
-        activity.setCreatedAt(Instant.now());
-        return activity;
+    private ReportEntry createEntry(String category, BigDecimal amount) {
+        return new ReportEntry(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                category, amount, "USD", 60, Instant.parse("2024-01-15T10:00:00Z"));
     }
 
     private RegulatoryReport createRegulatoryReport() {
@@ -304,5 +366,10 @@ class ReportServiceTest {
         report.setCreatedAt(Instant.now());
         return report;
     }
-}
 
+    private static RegulatoryReport persist(InvocationOnMock invocation) {
+        RegulatoryReport report = invocation.getArgument(0);
+        report.setId(UUID.randomUUID());
+        return report;
+    }
+}
@@ -0,0 +1,15 @@
+package com.banking.customer.repository;
+
+import java.util.UUID;
+
+/**
+ * Just the names of a customer, for bulk export without loading the rest of the PII.
+ */
+public interface CustomerName {
+
+    UUID getId();
+
+    String getFirstName();
+
+    String getLastName();
+}
@@ -3,6 +3,7 @@ package com.banking.customer.repository;
 import com.banking.customer.domain.Customer;
 import com.banking.customer.domain.CustomerStatus;
 import com.banking.customer.domain.CustomerType;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
@@ -30,6 +31,15 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     @Query("SELECT COUNT(c) FROM Customer c WHERE c.status = :status AND c.deletedAt IS NULL")
     long countByStatus(@Param("status") CustomerStatus status);
 
+    @Query("SELECT COUNT(c) FROM Customer c WHERE c.deletedAt IS NULL")
+    long countActive();
+
+    @Query("SELECT c.id AS id, c.firstName AS firstName, c.lastName AS lastName FROM Customer c WHERE c.deletedAt IS NULL ORDER BY c.id")
+    List<CustomerName> findActiveNames(Pageable pageable);
+
+    @Query("SELECT c.id AS id, c.firstName AS firstName, c.lastName AS lastName FROM Customer c WHERE c.deletedAt IS NULL AND c.id > :after ORDER BY c.id")
+    List<CustomerName> findActiveNamesAfter(@Param("after") UUID after, Pageable pageable);
+
     boolean existsByCustomerNumber(String customerNumber);
 }
 
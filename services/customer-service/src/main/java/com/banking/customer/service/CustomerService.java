@@ -8,6 +8,7 @@ import com.banking.customer.domain.CustomerStatus;
 import com.banking.customer.domain.CustomerType;
 import com.banking.customer.messaging.CustomerEventPublisher;
 import com.banking.customer.repository.ContactInfoRepository;
+import com.banking.customer.repository.CustomerName;
 import com.banking.customer.repository.CustomerPreferencesRepository;
 import com.banking.customer.repository.CustomerRepository;
 import com.banking.customer.web.dto.CreateCustomerRequest;
@@ -29,6 +30,7 @@ import org.springframework.stereotype.Service;
 public class CustomerService {
 
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_EXPORT_SIZE = 5000;
 
     private final CustomerRepository customerRepository;
     private final ContactInfoRepository contactInfoRepository;
@@ -126,6 +128,22 @@ public class CustomerService {
         return customerRepository.findAllActive(validPageable);
     }
 
+    /**
+     * Names of active customers in id order, starting after {@code after} (from the first when
+     * null). Keyset paging, so a walk over the whole book stays cheap and skips nobody while
+     * customers are added.
+     */
+    public List<CustomerName> exportNames(UUID after, int limit) {
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_EXPORT_SIZE)));
+        return after == null
+                ? customerRepository.findActiveNames(page)
+                : customerRepository.findActiveNamesAfter(after, page);
+    }
+
+    public long countActiveCustomers() {
+        return customerRepository.countActive();
+    }
+
     public Page<Customer> listCustomersByStatus(CustomerStatus status, Pageable pageable) {
         int pageSize = Math.min(pageable.getPageSize(), MAX_PAGE_SIZE);
         Pageable validPageable = PageRequest.of(pageable.getPageNumber(), pageSize);
@@ -2,8 +2,10 @@ package com.banking.customer.web;
 
 import com.banking.customer.domain.Customer;
 import com.banking.customer.domain.CustomerStatus;
+import com.banking.customer.repository.CustomerName;
 import com.banking.customer.service.CustomerService;
 import com.banking.customer.web.dto.CreateCustomerRequest;
+import com.banking.customer.web.dto.CustomerNamesResponse;
 import com.banking.customer.web.dto.CustomerResponse;
 import com.banking.customer.web.dto.PageResponse;
 import com.banking.customer.web.dto.UpdateCustomerRequest;
@@ -13,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -114,6 +117,30 @@ public class CustomerController {
         return ResponseEntity.ok(mapper.toPageResponse(customers.map(mapper::toResponse)));
     }
 
+    @GetMapping("/names")
+    @Operation(
+            summary = "Export customer names",
+            description = "Pages through the names of all active customers in id order, for services that screen or index "
+                    + "the whole book. Pass nextAfter from one page as after for the next; an empty page ends the walk."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Customer names retrieved successfully")
+    })
+    public ResponseEntity<CustomerNamesResponse> exportCustomerNames(
+            @Parameter(description = "Id of the last customer of the previous page (optional)")
+            @RequestParam(required = false) UUID after,
+            @Parameter(description = "Page size (max 5000)", example = "1000")
+            @RequestParam(defaultValue = "1000") int limit
+    ) {
+        List<CustomerName> names = customerService.exportNames(after, limit);
+        UUID nextAfter = names.isEmpty() ? null : names.get(names.size() - 1).getId();
+        Long total = after == null ? customerService.countActiveCustomers() : null;
+        return ResponseEntity.ok(new CustomerNamesResponse(names.stream()
+                .map(name -> new CustomerNamesResponse.CustomerNameResponse(
+                        name.getId(), name.getFirstName(), name.getLastName()))
+                .toList(), nextAfter, total));
+    }
+
     @PutMapping("/{id}")
     @Operation(
             summary = "Update customer",
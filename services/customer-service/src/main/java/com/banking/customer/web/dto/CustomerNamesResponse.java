@@ -0,0 +1,17 @@
+package com.banking.customer.web.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One keyset page of customer names. {@code totalCustomers} is only counted for the first page.
+ */
+public record CustomerNamesResponse(
+        List<CustomerNameResponse> customers,
+        UUID nextAfter,
+        Long totalCustomers
+) {
+
+    public record CustomerNameResponse(UUID id, String firstName, String lastName) {
+    }
+}
@@ -15,6 +15,7 @@ import com.banking.customer.domain.Customer;
 import com.banking.customer.domain.CustomerStatus;
 import com.banking.customer.domain.CustomerType;
 import com.banking.customer.domain.Gender;
+import com.banking.customer.repository.CustomerName;
 import com.banking.customer.service.CustomerService;
 import com.banking.customer.web.dto.CustomerResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -148,6 +149,44 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$.content").isArray());
     }
 
+    @Test
+    void exportCustomerNames_ReturnsKeysetPageWithTotalOnFirstPage() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        CustomerName name = new CustomerName() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getFirstName() {
+                return "Jane";
+            }
+
+            @Override
+            public String getLastName() {
+                return "Roe";
+            }
+        };
+        when(customerService.exportNames(null, 1000)).thenReturn(List.of(name));
+        when(customerService.countActiveCustomers()).thenReturn(42L);
+        when(customerService.exportNames(id, 1000)).thenReturn(List.of());
+
+        // When/Then
+        mockMvc.perform(get("/api/customers/names"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.customers[0].lastName").value("Roe"))
+                .andExpect(jsonPath("$.nextAfter").value(id.toString()))
+                .andExpect(jsonPath("$.totalCustomers").value(42));
+        mockMvc.perform(get("/api/customers/names").param("after", id.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers").isEmpty())
+                .andExpect(jsonPath("$.nextAfter").doesNotExist())
+                .andExpect(jsonPath("$.totalCustomers").doesNotExist());
+    }
+
     @Test
     void updateCustomer_UpdatesCustomer() throws Exception {
         // Given
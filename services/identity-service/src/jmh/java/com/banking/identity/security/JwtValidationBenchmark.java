@@ -0,0 +1,70 @@
+package com.banking.identity.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validation of one access token checked repeatedly, as on every request of a session: the
+ * parser built per call as {@link JwtTokenService} used to, against {@link JwtTokenValidator}
+ * with its shared parser and claims cache. Run with {@code mvn -Pbenchmarks verify}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private SecretKey secretKey;
+    private JwtTokenValidator validator;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor("benchmark-secret-key-with-at-least-256-bits".getBytes(StandardCharsets.UTF_8));
+        validator = new JwtTokenValidator(secretKey, Clock.systemUTC(), 100_000);
+        Instant now = Instant.now();
+        token = Jwts.builder()
+                .subject(UUID.randomUUID().toString())
+                .claim("type", "access")
+                .claim("roles", "USER")
+                .issuer("identity-service")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(3600)))
+                .signWith(secretKey)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return Jwts.parser()
+                .verifyWith(secretKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims cachedValidator() {
+        return validator.validate(token);
+    }
+}
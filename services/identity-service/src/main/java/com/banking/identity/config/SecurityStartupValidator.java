@@ -7,7 +7,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 /**
- * Fail fast when security is enabled without a strong JWT signing key.
+ * Fail fast when security is enabled without a strong JWT signing key or API key digest secret.
  */
 @Component
 public class SecurityStartupValidator {
@@ -15,13 +15,16 @@ public class SecurityStartupValidator {
     private final Environment environment;
     private final boolean securityEnabled;
     private final String jwtSecret;
+    private final String apiKeyDigestSecret;
 
     public SecurityStartupValidator(Environment environment,
                                     @Value("${identity.security.enabled:false}") boolean securityEnabled,
-                                    @Value("${identity.jwt.secret-key:}") String jwtSecret) {
+                                    @Value("${identity.jwt.secret-key:}") String jwtSecret,
+                                    @Value("${identity.api-keys.digest-secret:}") String apiKeyDigestSecret) {
         this.environment = environment;
         this.securityEnabled = securityEnabled;
         this.jwtSecret = jwtSecret;
+        this.apiKeyDigestSecret = apiKeyDigestSecret;
     }
 
     @PostConstruct
@@ -42,6 +45,13 @@ public class SecurityStartupValidator {
                     identity.jwt.secret-key is using a default/weak value. Provide a unique 256-bit secret.
                     """);
         }
+
+        if (!StringUtils.hasText(apiKeyDigestSecret) || apiKeyDigestSecret.length() < 32
+                || apiKeyDigestSecret.toLowerCase().contains("change-in-production")) {
+            throw new IllegalStateException("""
+                    identity.api-keys.digest-secret is missing or using a default/weak value. Provide a unique 256-bit secret.
+                    """);
+        }
     }
 
     private boolean isDefaultOrWeak(String secret) {
@@ -15,9 +15,13 @@ public class ApiKey {
     @Column(name = "name", nullable = false, length = 100)
     private String name;
 
-    @Column(name = "key_hash", nullable = false, unique = true, length = 255)
+    // BCrypt hash of keys issued before key_digest; cleared once the key is next verified
+    @Column(name = "key_hash", unique = true, length = 255)
     private String keyHash;
 
+    @Column(name = "key_digest", unique = true, length = 64)
+    private String keyDigest;
+
     @Column(name = "key_prefix", nullable = false, length = 10)
     private String keyPrefix;
 
@@ -70,6 +74,9 @@ public class ApiKey {
     public String getKeyHash() { return keyHash; }
     public void setKeyHash(String keyHash) { this.keyHash = keyHash; }
 
+    public String getKeyDigest() { return keyDigest; }
+    public void setKeyDigest(String keyDigest) { this.keyDigest = keyDigest; }
+
     public String getKeyPrefix() { return keyPrefix; }
     public void setKeyPrefix(String keyPrefix) { this.keyPrefix = keyPrefix; }
 
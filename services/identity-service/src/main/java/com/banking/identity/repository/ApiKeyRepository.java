@@ -17,6 +17,15 @@ public interface ApiKeyRepository extends JpaRepository<ApiKey, UUID> {
     @Query("SELECT k FROM ApiKey k WHERE k.keyPrefix = :prefix AND k.status = 'ACTIVE'")
     List<ApiKey> findActiveByPrefix(@Param("prefix") String prefix);
 
+    @Query("SELECT k FROM ApiKey k WHERE k.keyDigest = :digest AND k.status = 'ACTIVE'")
+    Optional<ApiKey> findActiveByDigest(@Param("digest") String digest);
+
+    /**
+     * Active keys with this prefix still stored as a BCrypt hash only.
+     */
+    @Query("SELECT k FROM ApiKey k WHERE k.keyPrefix = :prefix AND k.status = 'ACTIVE' AND k.keyDigest IS NULL")
+    List<ApiKey> findActiveLegacyByPrefix(@Param("prefix") String prefix);
+
     Optional<ApiKey> findByKeyHash(String keyHash);
 
     List<ApiKey> findByServiceName(String serviceName);
@@ -0,0 +1,49 @@
+package com.banking.identity.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keyed HMAC-SHA-256 digest of raw API keys. Keys carry 256 random bits, so a fast keyed digest
+ * is as hard to reverse as a slow password hash, and it can be indexed for a direct lookup.
+ * Without the secret, a leaked digest cannot be checked against guessed keys.
+ */
+@Component
+public class ApiKeyDigester {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec secretKey;
+    private final ThreadLocal<Mac> macs;
+
+    public ApiKeyDigester(
+            @Value("${identity.api-keys.digest-secret:default-api-key-digest-secret-change-in-production}") String secret
+    ) {
+        this.secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        // Fail at startup rather than on the first request
+        newMac();
+    }
+
+    /**
+     * Lower-case hex digest of {@code rawKey}, 64 characters.
+     */
+    public String digest(String rawKey) {
+        return HexFormat.of().formatHex(macs.get().doFinal(rawKey.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA-256 is not available", e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Service;
 public class JwtTokenService {
 
     private final SecretKey secretKey;
+    private final JwtTokenValidator tokenValidator;
     private final long accessTokenValiditySeconds;
     private final long refreshTokenValiditySeconds;
     private final String issuer;
@@ -25,9 +27,11 @@ public class JwtTokenService {
             @Value("${identity.jwt.secret-key:default-secret-key-change-in-production-min-256-bits}") String secretKey,
             @Value("${identity.jwt.access-token-validity-seconds:3600}") long accessTokenValiditySeconds,
             @Value("${identity.jwt.refresh-token-validity-seconds:86400}") long refreshTokenValiditySeconds,
-            @Value("${identity.jwt.issuer:identity-service}") String issuer
+            @Value("${identity.jwt.issuer:identity-service}") String issuer,
+            @Value("${identity.jwt.claims-cache-max-size:100000}") int claimsCacheMaxSize
     ) {
         this.secretKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.tokenValidator = new JwtTokenValidator(this.secretKey, Clock.systemUTC(), claimsCacheMaxSize);
         this.accessTokenValiditySeconds = accessTokenValiditySeconds;
         this.refreshTokenValiditySeconds = refreshTokenValiditySeconds;
         this.issuer = issuer;
@@ -71,16 +75,12 @@ public class JwtTokenService {
                 .compact();
     }
 
+    /**
+     * The claims of a valid token; a token is verified once and its claims reused until it
+     * expires, so the checks below do not verify it again.
+     */
     public Claims validateToken(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid token: " + e.getMessage());
-        }
+        return tokenValidator.validate(token);
     }
 
     public UUID getUserIdFromToken(String token) {
@@ -0,0 +1,106 @@
+package com.banking.identity.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.SecretKey;
+
+/**
+ * Verifies signed tokens with one shared parser and remembers the claims of tokens that
+ * verified, keyed by a SHA-256 digest of the token, until the token expires. A token is
+ * therefore parsed and its signature checked once, however many checks read its claims. Tokens
+ * without an expiry are verified every time. When full, expired entries and then an arbitrary
+ * tenth of the rest are dropped.
+ */
+final class JwtTokenValidator {
+
+    private final JwtParser parser;
+    private final Clock clock;
+    private final int maxSize;
+    private final Map<String, VerifiedClaims> verified = new ConcurrentHashMap<>();
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(JwtTokenValidator::sha256);
+
+    JwtTokenValidator(SecretKey secretKey, Clock clock, int maxSize) {
+        this.parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+        this.clock = clock;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The token's claims; throws {@link IllegalArgumentException} when it is malformed, wrongly
+     * signed or expired.
+     */
+    Claims validate(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Invalid token: token is empty");
+        }
+        Instant now = clock.instant();
+        String digest = digest(token);
+        VerifiedClaims cached = verified.get(digest);
+        if (cached != null) {
+            if (now.isBefore(cached.expiresAt())) {
+                return cached.claims();
+            }
+            verified.remove(digest, cached);
+            throw new IllegalArgumentException("Invalid token: JWT expired at " + cached.expiresAt());
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid token: " + e.getMessage());
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            if (verified.size() >= maxSize) {
+                evictSome(now);
+            }
+            verified.put(digest, new VerifiedClaims(claims, expiration.toInstant()));
+        }
+        return claims;
+    }
+
+    int size() {
+        return verified.size();
+    }
+
+    private String digest(String token) {
+        byte[] hash = digests.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private void evictSome(Instant now) {
+        verified.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+        int toRemove = verified.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<String> keys = verified.keySet().iterator();
+        while (toRemove-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record VerifiedClaims(Claims claims, Instant expiresAt) {
+    }
+}
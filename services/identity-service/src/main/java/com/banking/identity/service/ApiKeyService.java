@@ -3,6 +3,7 @@ package com.banking.identity.service;
 import com.banking.identity.domain.ApiKey;
 import com.banking.identity.domain.ApiKey.ApiKeyStatus;
 import com.banking.identity.repository.ApiKeyRepository;
+import com.banking.identity.security.ApiKeyDigester;
 import com.banking.identity.security.PasswordEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,8 +14,16 @@ import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Issues and verifies API keys for service-to-service calls. Keys are stored as a keyed
+ * HMAC-SHA-256 digest and verified with one indexed lookup, then cached by
+ * {@link ApiKeyVerificationCache}; last use is written behind by {@link ApiKeyUsageRecorder}.
+ * Keys issued before digests existed are matched against their BCrypt hash once and then
+ * switched to a digest.
+ */
 @Service
 public class ApiKeyService {
 
@@ -24,10 +33,18 @@ public class ApiKeyService {
 
     private final ApiKeyRepository apiKeyRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApiKeyDigester keyDigester;
+    private final ApiKeyVerificationCache verificationCache;
+    private final ApiKeyUsageRecorder usageRecorder;
 
-    public ApiKeyService(ApiKeyRepository apiKeyRepository, PasswordEncoder passwordEncoder) {
+    public ApiKeyService(ApiKeyRepository apiKeyRepository, PasswordEncoder passwordEncoder,
+                         ApiKeyDigester keyDigester, ApiKeyVerificationCache verificationCache,
+                         ApiKeyUsageRecorder usageRecorder) {
         this.apiKeyRepository = apiKeyRepository;
         this.passwordEncoder = passwordEncoder;
+        this.keyDigester = keyDigester;
+        this.verificationCache = verificationCache;
+        this.usageRecorder = usageRecorder;
     }
 
     @Transactional
@@ -38,12 +55,9 @@ public class ApiKeyService {
         String rawKey = KEY_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(keyBytes);
         String keyPrefix = rawKey.substring(0, 10);
 
-        // Hash the key for storage
-        String keyHash = passwordEncoder.encode(rawKey);
-
         ApiKey apiKey = new ApiKey();
         apiKey.setName(name);
-        apiKey.setKeyHash(keyHash);
+        apiKey.setKeyDigest(keyDigester.digest(rawKey));
         apiKey.setKeyPrefix(keyPrefix);
         apiKey.setServiceName(serviceName);
         apiKey.setScopes(scopes);
@@ -59,23 +73,39 @@ public class ApiKeyService {
         return new ApiKeyCreationResult(apiKey.getId(), rawKey, keyPrefix);
     }
 
-    public ApiKey validateApiKey(String rawKey) {
+    /**
+     * The key's service, scopes and rate limit, or null when the key is unknown, revoked or expired.
+     */
+    public VerifiedApiKey validateApiKey(String rawKey) {
         if (rawKey == null || !rawKey.startsWith(KEY_PREFIX)) {
             return null;
         }
 
+        String digest = keyDigester.digest(rawKey);
+        VerifiedApiKey verified = verificationCache.get(digest, () -> loadVerifiedKey(rawKey, digest));
+        Instant now = Instant.now();
+        if (verified == null || !verified.isValidAt(now)) {
+            return null;
+        }
+        usageRecorder.recordUse(verified.id(), now);
+        return verified;
+    }
+
+    private VerifiedApiKey loadVerifiedKey(String rawKey, String digest) {
+        Optional<ApiKey> apiKey = apiKeyRepository.findActiveByDigest(digest);
+        if (apiKey.isPresent()) {
+            return VerifiedApiKey.of(apiKey.get());
+        }
+
         String prefix = rawKey.substring(0, Math.min(10, rawKey.length()));
-        List<ApiKey> candidates = apiKeyRepository.findActiveByPrefix(prefix);
-
-        for (ApiKey apiKey : candidates) {
-            if (passwordEncoder.matches(rawKey, apiKey.getKeyHash())) {
-                if (!apiKey.isValid()) {
-                    return null;
-                }
-                // Update last used
-                apiKey.setLastUsedAt(Instant.now());
-                apiKeyRepository.save(apiKey);
-                return apiKey;
+        for (ApiKey legacy : apiKeyRepository.findActiveLegacyByPrefix(prefix)) {
+            if (passwordEncoder.matches(rawKey, legacy.getKeyHash())) {
+                // Switch the key to its digest so BCrypt is never run for it again
+                legacy.setKeyDigest(digest);
+                legacy.setKeyHash(null);
+                apiKeyRepository.save(legacy);
+                log.info("Migrated API key {} from BCrypt to a keyed digest", legacy.getId());
+                return VerifiedApiKey.of(legacy);
             }
         }
         return null;
@@ -89,6 +119,9 @@ public class ApiKeyService {
         apiKey.setStatus(ApiKeyStatus.REVOKED);
         apiKey.setRevokedAt(Instant.now());
         apiKeyRepository.save(apiKey);
+        if (apiKey.getKeyDigest() != null) {
+            verificationCache.invalidate(apiKey.getKeyDigest());
+        }
 
         log.info("Revoked API key {}", keyId);
     }
@@ -102,4 +135,16 @@ public class ApiKeyService {
     }
 
     public record ApiKeyCreationResult(UUID keyId, String rawKey, String keyPrefix) {}
+
+    public record VerifiedApiKey(UUID id, String serviceName, String scopes, Integer rateLimit, Instant expiresAt) {
+
+        static VerifiedApiKey of(ApiKey apiKey) {
+            return new VerifiedApiKey(apiKey.getId(), apiKey.getServiceName(), apiKey.getScopes(),
+                    apiKey.getRateLimit(), apiKey.getExpiresAt());
+        }
+
+        boolean isValidAt(Instant now) {
+            return expiresAt == null || expiresAt.isAfter(now);
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package com.banking.identity.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces {@code last_used_at} updates of API keys. Each use only records the time in memory;
+ * the latest time per key is written in one JDBC batch every
+ * {@code identity.api-keys.last-used-flush-interval-ms} and on shutdown. A write never moves
+ * {@code last_used_at} backwards, so instances flushing in any order agree.
+ */
+@Component
+public class ApiKeyUsageRecorder implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyUsageRecorder.class);
+
+    private static final String UPDATE_LAST_USED = """
+            UPDATE api_keys SET last_used_at = ?
+             WHERE id = ? AND (last_used_at IS NULL OR last_used_at < ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, Instant> lastUsed = new ConcurrentHashMap<>();
+
+    public ApiKeyUsageRecorder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void recordUse(UUID keyId, Instant usedAt) {
+        lastUsed.merge(keyId, usedAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Scheduled(fixedDelayString = "${identity.api-keys.last-used-flush-interval-ms:30000}")
+    public synchronized void flush() {
+        if (lastUsed.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<UUID, Instant>> batch = new ArrayList<>(lastUsed.entrySet().size());
+        for (Map.Entry<UUID, Instant> entry : lastUsed.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_USED, batch, batch.size(), (ps, entry) -> {
+                Timestamp usedAt = Timestamp.from(entry.getValue());
+                ps.setTimestamp(1, usedAt);
+                ps.setObject(2, entry.getKey());
+                ps.setTimestamp(3, usedAt);
+            });
+        } catch (DataAccessException e) {
+            log.warn("Failed to write last use of {} API keys; retrying with the next flush", batch.size(), e);
+            return;
+        }
+        // Keep uses recorded while the batch was written
+        for (Map.Entry<UUID, Instant> entry : batch) {
+            lastUsed.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    int pending() {
+        return lastUsed.size();
+    }
+}
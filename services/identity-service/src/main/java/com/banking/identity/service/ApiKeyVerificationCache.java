@@ -0,0 +1,101 @@
+package com.banking.identity.service;
+
+import com.banking.identity.service.ApiKeyService.VerifiedApiKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded cache of successful API key verifications keyed by key digest. Only keys that verified
+ * are cached; unknown keys always reach the database. Revoking a key calls {@link #invalidate},
+ * which evicts immediately and again once the revoking transaction completes. A verification
+ * loaded while an invalidation was in flight is returned but not cached. Entries live for at
+ * most {@code identity.api-keys.cache-ttl}, which bounds how long a key revoked through another
+ * instance keeps working here. When full, an arbitrary tenth of the entries is dropped.
+ */
+@Component
+public class ApiKeyVerificationCache {
+
+    private final Clock clock;
+    private final Duration ttl;
+    private final int maxSize;
+    private final Map<String, Entry> verified = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ApiKeyVerificationCache(
+            Clock clock,
+            @Value("${identity.api-keys.cache-ttl:60s}") Duration ttl,
+            @Value("${identity.api-keys.cache-max-size:10000}") int maxSize) {
+        this.clock = clock;
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The cached verification of {@code digest}, or the one {@code loader} returns; null when the
+     * key does not verify.
+     */
+    public VerifiedApiKey get(String digest, Supplier<VerifiedApiKey> loader) {
+        Instant now = clock.instant();
+        Entry cached = verified.get(digest);
+        if (cached != null && now.isBefore(cached.cachedUntil())) {
+            return cached.key();
+        }
+        long generation = invalidations.get();
+        VerifiedApiKey key = loader.get();
+        if (key == null) {
+            verified.remove(digest);
+            return null;
+        }
+        if (invalidations.get() == generation) {
+            if (verified.size() >= maxSize) {
+                evictSome();
+            }
+            Entry entry = new Entry(key, now.plus(ttl));
+            verified.put(digest, entry);
+            if (invalidations.get() != generation) {
+                verified.remove(digest, entry);
+            }
+        }
+        return key;
+    }
+
+    public void invalidate(String digest) {
+        invalidations.incrementAndGet();
+        verified.remove(digest);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidations.incrementAndGet();
+                    verified.remove(digest);
+                }
+            });
+        }
+    }
+
+    int size() {
+        return verified.size();
+    }
+
+    private void evictSome() {
+        int toRemove = Math.max(1, maxSize / 10);
+        Iterator<String> keys = verified.keySet().iterator();
+        while (toRemove-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry(VerifiedApiKey key, Instant cachedUntil) {
+    }
+}
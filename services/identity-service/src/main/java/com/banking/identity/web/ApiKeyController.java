@@ -3,6 +3,7 @@ package com.banking.identity.web;
 import com.banking.identity.domain.ApiKey;
 import com.banking.identity.service.ApiKeyService;
 import com.banking.identity.service.ApiKeyService.ApiKeyCreationResult;
+import com.banking.identity.service.ApiKeyService.VerifiedApiKey;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -68,12 +69,12 @@ public class ApiKeyController {
     @PostMapping("/validate")
     @Operation(summary = "Validate an API key")
     public ResponseEntity<ApiKeyValidationResponse> validateApiKey(@RequestBody ValidateApiKeyRequest request) {
-        ApiKey apiKey = apiKeyService.validateApiKey(request.apiKey());
+        VerifiedApiKey apiKey = apiKeyService.validateApiKey(request.apiKey());
         if (apiKey == null) {
             return ResponseEntity.ok(new ApiKeyValidationResponse(false, null, null, null));
         }
         return ResponseEntity.ok(new ApiKeyValidationResponse(
-                true, apiKey.getServiceName(), apiKey.getScopes(), apiKey.getRateLimit()));
+                true, apiKey.serviceName(), apiKey.scopes(), apiKey.rateLimit()));
     }
 
     private ApiKeyInfo toApiKeyInfo(ApiKey apiKey) {
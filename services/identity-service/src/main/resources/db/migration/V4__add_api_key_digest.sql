@@ -0,0 +1,6 @@
+-- New API keys are looked up by a keyed HMAC-SHA-256 digest instead of being matched with BCrypt.
+-- Existing keys keep their BCrypt hash until first used, when the digest replaces it.
+ALTER TABLE api_keys ADD COLUMN IF NOT EXISTS key_digest VARCHAR(64);
+ALTER TABLE api_keys ALTER COLUMN key_hash DROP NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_api_keys_digest ON api_keys(key_digest) WHERE key_digest IS NOT NULL;
@@ -0,0 +1,105 @@
+package com.banking.identity.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.crypto.SecretKey;
+import org.junit.jupiter.api.Test;
+
+class JwtTokenValidatorTest {
+
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(
+            "test-secret-key-with-at-least-256-bits-of-entropy".getBytes(StandardCharsets.UTF_8));
+    private static final SecretKey OTHER_KEY = Keys.hmacShaKeyFor(
+            "another-secret-key-with-at-least-256-bits-entropy".getBytes(StandardCharsets.UTF_8));
+
+    private final Instant now = Instant.now();
+
+    @Test
+    void validate_ReusesClaimsOfAVerifiedToken() {
+        JwtTokenValidator validator = new JwtTokenValidator(KEY, Clock.systemUTC(), 10);
+        String token = token(KEY, "user-1", now.plusSeconds(60));
+
+        Claims first = validator.validate(token);
+        Claims second = validator.validate(token);
+
+        assertThat(first.getSubject()).isEqualTo("user-1");
+        assertThat(second).isSameAs(first);
+        assertThat(validator.size()).isEqualTo(1);
+    }
+
+    @Test
+    void validate_RejectsCachedTokenOnceItExpires() {
+        AtomicReference<Instant> time = new AtomicReference<>(now);
+        JwtTokenValidator validator = new JwtTokenValidator(KEY, movableClock(time), 10);
+        String token = token(KEY, "user-1", now.plusSeconds(60));
+        validator.validate(token);
+
+        time.set(now.plusSeconds(120));
+
+        assertThatThrownBy(() -> validator.validate(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("expired");
+        assertThat(validator.size()).isZero();
+    }
+
+    @Test
+    void validate_RejectsWrongSignatureWithoutCachingIt() {
+        JwtTokenValidator validator = new JwtTokenValidator(KEY, Clock.systemUTC(), 10);
+        String forged = token(OTHER_KEY, "user-1", now.plusSeconds(60));
+
+        assertThatThrownBy(() -> validator.validate(forged))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid token:");
+        assertThat(validator.size()).isZero();
+    }
+
+    @Test
+    void validate_StaysWithinMaxSize() {
+        JwtTokenValidator validator = new JwtTokenValidator(KEY, Clock.systemUTC(), 10);
+        for (int i = 0; i < 25; i++) {
+            validator.validate(token(KEY, "user-" + i, now.plusSeconds(60)));
+        }
+
+        assertThat(validator.size()).isLessThanOrEqualTo(10);
+    }
+
+    private static Clock movableClock(AtomicReference<Instant> time) {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return time.get();
+            }
+        };
+    }
+
+    private static String token(SecretKey key, String subject, Instant expiresAt) {
+        return Jwts.builder()
+                .subject(subject)
+                .claim("type", "access")
+                .issuedAt(Date.from(expiresAt.minusSeconds(3600)))
+                .expiration(Date.from(expiresAt))
+                .signWith(key)
+                .compact();
+    }
+}
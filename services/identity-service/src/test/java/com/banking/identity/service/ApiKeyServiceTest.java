@@ -0,0 +1,148 @@
+package com.banking.identity.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.identity.domain.ApiKey;
+import com.banking.identity.domain.ApiKey.ApiKeyStatus;
+import com.banking.identity.repository.ApiKeyRepository;
+import com.banking.identity.security.ApiKeyDigester;
+import com.banking.identity.security.PasswordEncoder;
+import com.banking.identity.service.ApiKeyService.ApiKeyCreationResult;
+import com.banking.identity.service.ApiKeyService.VerifiedApiKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyServiceTest {
+
+    @Mock
+    private ApiKeyRepository apiKeyRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private ApiKeyUsageRecorder usageRecorder;
+
+    private ApiKeyDigester keyDigester;
+    private ApiKeyVerificationCache verificationCache;
+    private ApiKeyService apiKeyService;
+
+    @BeforeEach
+    void setUp() {
+        keyDigester = new ApiKeyDigester("test-digest-secret-0123456789abcdef");
+        verificationCache = new ApiKeyVerificationCache(Clock.systemUTC(), Duration.ofMinutes(1), 100);
+        apiKeyService = new ApiKeyService(apiKeyRepository, passwordEncoder, keyDigester, verificationCache,
+                usageRecorder);
+    }
+
+    @Test
+    void createApiKey_StoresDigestInsteadOfBCryptHash() {
+        when(apiKeyRepository.save(any(ApiKey.class))).thenAnswer(invocation -> {
+            ApiKey apiKey = invocation.getArgument(0);
+            apiKey.setId(UUID.randomUUID());
+            return apiKey;
+        });
+
+        ApiKeyCreationResult result = apiKeyService.createApiKey("ledger", "ledger-service", "read", 100, null, null);
+
+        ArgumentCaptor<ApiKey> saved = ArgumentCaptor.forClass(ApiKey.class);
+        verify(apiKeyRepository).save(saved.capture());
+        assertThat(saved.getValue().getKeyDigest()).isEqualTo(keyDigester.digest(result.rawKey())).hasSize(64);
+        assertThat(saved.getValue().getKeyHash()).isNull();
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    @Test
+    void validateApiKey_VerifiedKey_IsCachedAndUsageRecorded() {
+        String rawKey = "bk_abcdefghijklmnopqrstuvwxyz0123456789ABCDEFG";
+        ApiKey apiKey = activeKey();
+        apiKey.setKeyDigest(keyDigester.digest(rawKey));
+        when(apiKeyRepository.findActiveByDigest(apiKey.getKeyDigest())).thenReturn(Optional.of(apiKey));
+
+        VerifiedApiKey first = apiKeyService.validateApiKey(rawKey);
+        VerifiedApiKey second = apiKeyService.validateApiKey(rawKey);
+
+        assertThat(first).isNotNull();
+        assertThat(first.serviceName()).isEqualTo("ledger-service");
+        assertThat(second).isEqualTo(first);
+        verify(apiKeyRepository, times(1)).findActiveByDigest(anyString());
+        verify(usageRecorder, times(2)).recordUse(any(UUID.class), any(Instant.class));
+        verify(apiKeyRepository, never()).save(any(ApiKey.class));
+    }
+
+    @Test
+    void revokeApiKey_InvalidatesCachedVerification() {
+        String rawKey = "bk_abcdefghijklmnopqrstuvwxyz0123456789ABCDEFG";
+        ApiKey apiKey = activeKey();
+        apiKey.setKeyDigest(keyDigester.digest(rawKey));
+        when(apiKeyRepository.findActiveByDigest(apiKey.getKeyDigest()))
+                .thenReturn(Optional.of(apiKey))
+                .thenReturn(Optional.empty());
+        when(apiKeyRepository.findById(apiKey.getId())).thenReturn(Optional.of(apiKey));
+        when(apiKeyRepository.findActiveLegacyByPrefix(anyString())).thenReturn(List.of());
+
+        assertThat(apiKeyService.validateApiKey(rawKey)).isNotNull();
+        apiKeyService.revokeApiKey(apiKey.getId());
+
+        assertThat(apiKey.getStatus()).isEqualTo(ApiKeyStatus.REVOKED);
+        assertThat(apiKeyService.validateApiKey(rawKey)).isNull();
+    }
+
+    @Test
+    void validateApiKey_LegacyBCryptKey_IsMigratedToDigest() {
+        String rawKey = "bk_legacyKeyValue0123456789abcdefghijklmnopq";
+        ApiKey legacy = activeKey();
+        legacy.setKeyHash("$2a$12$legacyhash");
+        when(apiKeyRepository.findActiveByDigest(anyString())).thenReturn(Optional.empty());
+        when(apiKeyRepository.findActiveLegacyByPrefix(rawKey.substring(0, 10))).thenReturn(List.of(legacy));
+        when(passwordEncoder.matches(rawKey, "$2a$12$legacyhash")).thenReturn(true);
+
+        VerifiedApiKey verified = apiKeyService.validateApiKey(rawKey);
+
+        assertThat(verified).isNotNull();
+        assertThat(verified.id()).isEqualTo(legacy.getId());
+        verify(apiKeyRepository).save(legacy);
+        assertThat(legacy.getKeyDigest()).isEqualTo(keyDigester.digest(rawKey));
+        assertThat(legacy.getKeyHash()).isNull();
+    }
+
+    @Test
+    void validateApiKey_ExpiredKey_ReturnsNull() {
+        String rawKey = "bk_abcdefghijklmnopqrstuvwxyz0123456789ABCDEFG";
+        ApiKey apiKey = activeKey();
+        apiKey.setKeyDigest(keyDigester.digest(rawKey));
+        apiKey.setExpiresAt(Instant.now().minusSeconds(60));
+        when(apiKeyRepository.findActiveByDigest(apiKey.getKeyDigest())).thenReturn(Optional.of(apiKey));
+
+        assertThat(apiKeyService.validateApiKey(rawKey)).isNull();
+        verify(usageRecorder, never()).recordUse(any(UUID.class), any(Instant.class));
+    }
+
+    private static ApiKey activeKey() {
+        ApiKey apiKey = new ApiKey();
+        apiKey.setId(UUID.randomUUID());
+        apiKey.setName("ledger");
+        apiKey.setServiceName("ledger-service");
+        apiKey.setScopes("read");
+        apiKey.setRateLimit(100);
+        apiKey.setStatus(ApiKeyStatus.ACTIVE);
+        return apiKey;
+    }
+}
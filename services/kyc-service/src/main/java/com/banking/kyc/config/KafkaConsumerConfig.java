@@ -0,0 +1,64 @@
+package com.banking.kyc.config;
+
+import com.banking.kyc.messaging.InvalidCustomerEventException;
+import java.util.Map;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Batch listener container for {@code customer-events}. Offsets are committed only when the
+ * listener acknowledges an applied batch. The listener only names a record when the event can
+ * never be stored, so that record goes straight to {@code customer-events.DLT} with no retry, after
+ * the records before it are committed. Anything else, such as the database being down, leaves the
+ * customer changes unapplied; the whole batch is redelivered with the consumer paused between
+ * attempts until it goes through, as dropping a change would leave a customer unscreened.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    public static final String BATCH_LISTENER_FACTORY = "kycBatchListenerContainerFactory";
+    public static final String DEAD_LETTER_SUFFIX = ".DLT";
+
+    @Bean
+    public DeadLetterPublishingRecoverer kycDeadLetterRecoverer(ProducerFactory<String, Object> producerFactory) {
+        // The shared producer writes JSON; dead letters keep the consumed text as it was
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory.copyWithConfigurationOverride(
+                Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class)));
+        // Partition -1 lets the producer pick one, so the DLT needs no matching partition count
+        return new DeadLetterPublishingRecoverer(template,
+                (record, exception) -> new TopicPartition(record.topic() + DEAD_LETTER_SUFFIX, -1));
+    }
+
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> kycBatchListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory,
+            DeadLetterPublishingRecoverer kycDeadLetterRecoverer,
+            @Value("${kyc.kafka.consumer.concurrency:3}") int concurrency) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        ExponentialBackOff backOff = new ExponentialBackOff(1000, 2.0);
+        backOff.setMaxInterval(60_000);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(kycDeadLetterRecoverer, backOff);
+        // Classification follows the cause, so a named invalid event is recovered at once while the
+        // default not-retryable types are cleared and no other failure dead-letters the batch
+        errorHandler.setClassifications(Map.of(InvalidCustomerEventException.class, false), true);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+}
@@ -18,7 +18,7 @@ public class ScreeningResult {
     @Id
     private UUID id;
 
-    @Column(name = "kyc_case_id", nullable = false)
+    @Column(name = "kyc_case_id")
     private UUID kycCaseId;
 
     @Column(name = "customer_id", nullable = false)
@@ -0,0 +1,41 @@
+package com.banking.kyc.health;
+
+import com.banking.kyc.domain.ScreeningType;
+import com.banking.kyc.screening.WatchlistIndex;
+import com.banking.kyc.screening.WatchlistScreener;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * DOWN while a required watchlist category has no entries in service, since every name screened
+ * against it then goes to manual review.
+ */
+@Component
+public class WatchlistHealthIndicator implements HealthIndicator {
+
+    private final WatchlistScreener watchlistScreener;
+    private final Set<ScreeningType> requiredCategories;
+
+    public WatchlistHealthIndicator(WatchlistScreener watchlistScreener,
+                                    @Value("${kyc.screening.required-categories:SANCTIONS,PEP}")
+                                    Set<ScreeningType> requiredCategories) {
+        this.watchlistScreener = watchlistScreener;
+        this.requiredCategories = requiredCategories;
+    }
+
+    @Override
+    public Health health() {
+        WatchlistIndex index = watchlistScreener.index();
+        Set<ScreeningType> missing = watchlistScreener.missingCategories(requiredCategories);
+        Health.Builder builder = missing.isEmpty() ? Health.up() : Health.down().withDetail("missingCategories", missing);
+        builder.withDetail("entries", index.entryCount());
+        String failure = watchlistScreener.lastLoadFailure();
+        if (failure != null) {
+            builder.withDetail("lastLoadFailure", failure);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.banking.kyc.integration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Reads the customer book from customer-service's name export, which pages through active
+ * customers in id order.
+ */
+@Component
+public class CustomerServiceClient {
+
+    private final RestClient restClient;
+
+    public CustomerServiceClient(
+            RestClient.Builder builder,
+            @Value("${kyc.customer-service.url:http://localhost:8081}") String baseUrl,
+            @Value("${kyc.customer-service.connect-timeout:3s}") Duration connectTimeout,
+            @Value("${kyc.customer-service.read-timeout:30s}") Duration readTimeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restClient = builder.baseUrl(baseUrl).requestFactory(requestFactory).build();
+    }
+
+    /**
+     * Up to {@code limit} active customers with ids after {@code after}, from the first when null.
+     */
+    public NamesPage names(UUID after, int limit) {
+        NamesPage page = restClient.get()
+                .uri(uri -> uri.path("/api/customers/names")
+                        .queryParamIfPresent("after", Optional.ofNullable(after))
+                        .queryParam("limit", limit)
+                        .build())
+                .retrieve()
+                .body(NamesPage.class);
+        if (page == null || page.customers() == null) {
+            throw new IllegalStateException("customer-service returned no customer names page");
+        }
+        return page;
+    }
+
+    /**
+     * Number of active customers in the book.
+     */
+    public long countCustomers() {
+        Long total = names(null, 1).totalCustomers();
+        if (total == null) {
+            throw new IllegalStateException("customer-service did not report the number of customers");
+        }
+        return total;
+    }
+
+    public record NamesPage(List<CustomerName> customers, UUID nextAfter, Long totalCustomers) {
+    }
+
+    public record CustomerName(UUID id, String firstName, String lastName) {
+    }
+}
@@ -1,66 +1,153 @@
 package com.banking.kyc.messaging;
 
-import com.banking.kyc.domain.KYCCase;
-import com.banking.kyc.domain.KYCStatus;
-import com.banking.kyc.domain.RiskLevel;
-import com.banking.kyc.repository.KYCCaseRepository;
+import com.banking.kyc.config.KafkaConsumerConfig;
+import com.banking.kyc.repository.ScreeningSubjectRepository;
+import com.banking.kyc.service.CustomerEventBatchService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+/**
+ * Consumes customer events a poll at a time. Events are reduced to one change per customer and
+ * applied in one transaction; the batch is acknowledged only after that commits, and a failure
+ * reaches the container, which retries the batch. Records that cannot be decoded go to the
+ * dead-letter topic. An event that decodes but can never be stored, such as a name wider than
+ * {@code screening_subjects.full_name}, stops the batch: the events before it are applied and it
+ * is reported as a {@link BatchListenerFailedException} naming its index, so the container commits
+ * up to it and dead-letters it alone. The age of each event when it is consumed is recorded as
+ * {@code kyc.customer-events.age}; offset lag is {@link CustomerEventLag}'s.
+ */
 @Component
 public class CustomerEventConsumer {
 
+    public static final String LISTENER_ID = "kyc-customer-events";
+
     private static final Logger log = LoggerFactory.getLogger(CustomerEventConsumer.class);
 
-    private final KYCCaseRepository kycCaseRepository;
+    private final CustomerEventBatchService batchService;
     private final ObjectMapper objectMapper;
+    private final DeadLetterPublishingRecoverer deadLetters;
+    private final Timer age;
+    private final Counter casesOpened;
+    private final Counter deadLettered;
 
-    public CustomerEventConsumer(KYCCaseRepository kycCaseRepository, ObjectMapper objectMapper) {
-        this.kycCaseRepository = kycCaseRepository;
+    public CustomerEventConsumer(CustomerEventBatchService batchService, ObjectMapper objectMapper,
+                                 DeadLetterPublishingRecoverer deadLetters, MeterRegistry meterRegistry) {
+        this.batchService = batchService;
         this.objectMapper = objectMapper;
+        this.deadLetters = deadLetters;
+        this.age = Timer.builder("kyc.customer-events.age")
+                .description("Time from a customer event being produced to it being consumed")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.casesOpened = Counter.builder("kyc.customer-events.cases-opened")
+                .description("Onboarding KYC cases opened from customer events")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("kyc.customer-events.dead-lettered")
+                .description("Customer events routed to the dead-letter topic")
+                .register(meterRegistry);
     }
 
-    @KafkaListener(topics = "customer-events", groupId = "kyc-service")
-    public void handleCustomerEvent(String message) {
-        try {
-            JsonNode event = objectMapper.readTree(message);
-            String eventType = event.path("eventType").asText();
-            UUID customerId = UUID.fromString(event.path("customerId").asText());
+    @KafkaListener(
+            id = LISTENER_ID,
+            idIsGroup = false,
+            topics = "customer-events",
+            groupId = "kyc-service",
+            containerFactory = KafkaConsumerConfig.BATCH_LISTENER_FACTORY
+    )
+    public void handleCustomerEvents(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        long now = System.currentTimeMillis();
+        Set<UUID> created = new LinkedHashSet<>();
+        Map<UUID, String> subjectNames = new LinkedHashMap<>();
+        Set<UUID> deleted = new LinkedHashSet<>();
+        List<PoisonRecord> poisonRecords = new ArrayList<>();
+        int failedRecord = -1;
+        InvalidCustomerEventException failure = null;
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, String> record = records.get(i);
+            if (record.timestamp() > 0) {
+                age.record(Duration.ofMillis(Math.max(0, now - record.timestamp())));
+            }
+            JsonNode event;
+            UUID customerId;
+            try {
+                event = objectMapper.readTree(record.value());
+                customerId = UUID.fromString(event.path("customerId").asText());
+            } catch (Exception e) {
+                poisonRecords.add(new PoisonRecord(record, e));
+                continue;
+            }
 
-            if ("CUSTOMER_CREATED".equals(eventType)) {
-                createOnboardingKYCCase(customerId);
+            // Records of one customer share a partition, so the last one in the batch is the latest
+            String eventType = event.path("eventType").asText();
+            switch (eventType) {
+                case "CUSTOMER_CREATED", "CUSTOMER_UPDATED" -> {
+                    String fullName = ScreeningSubjectRepository.fullName(
+                            event.path("firstName").asText(""), event.path("lastName").asText(""));
+                    if (fullName.length() > ScreeningSubjectRepository.MAX_FULL_NAME_LENGTH) {
+                        failedRecord = i;
+                        failure = new InvalidCustomerEventException("Name of customer " + customerId + " is "
+                                + fullName.length() + " characters, over the "
+                                + ScreeningSubjectRepository.MAX_FULL_NAME_LENGTH + " that can be screened");
+                    } else {
+                        if ("CUSTOMER_CREATED".equals(eventType)) {
+                            created.add(customerId);
+                        }
+                        if (!fullName.isEmpty()) {
+                            subjectNames.put(customerId, fullName);
+                            deleted.remove(customerId);
+                        }
+                    }
+                }
+                case "CUSTOMER_DELETED" -> {
+                    subjectNames.remove(customerId);
+                    deleted.add(customerId);
+                }
+                default -> {
+                    // Other customer events do not concern KYC
+                }
+            }
+            if (failure != null) {
+                break;
             }
-        } catch (Exception e) {
-            log.error("Error processing customer event: {}", message, e);
         }
-    }
 
-    private void createOnboardingKYCCase(UUID customerId) {
-        try {
-            // Check if KYC case already exists
-            List<KYCStatus> excludedStatuses = List.of(KYCStatus.APPROVED, KYCStatus.REJECTED);
-            kycCaseRepository.findByCustomerIdAndStatusNotIn(customerId, excludedStatuses)
-                    .ifPresentOrElse(
-                            existing -> log.debug("KYC case already exists for customer: {}", customerId),
-                            () -> {
-                                KYCCase kycCase = new KYCCase();
-                                kycCase.setCustomerId(customerId);
-                                kycCase.setCaseType("ONBOARDING");
-                                kycCase.setStatus(KYCStatus.PENDING);
-                                kycCase.setRiskLevel(RiskLevel.LOW);
-                                kycCaseRepository.save(kycCase);
-                                log.info("Created onboarding KYC case for customer: {}", customerId);
-                            }
-                    );
-        } catch (Exception e) {
-            log.error("Error creating onboarding KYC case for customer: {}", customerId, e);
+        // Only the events before a failed one were reduced, since the container commits up to it
+        int opened = batchService.apply(created, subjectNames, deleted);
+        casesOpened.increment(opened);
+        for (PoisonRecord poison : poisonRecords) {
+            log.error("Routing undecodable customer event from {}-{}@{} to the dead-letter topic: {}",
+                    poison.record().topic(), poison.record().partition(), poison.record().offset(),
+                    poison.error().getMessage());
+            deadLetters.accept(poison.record(), poison.error());
+            deadLettered.increment();
+        }
+        if (failure != null) {
+            deadLettered.increment();
+            throw new BatchListenerFailedException(failure.getMessage(), failure, failedRecord);
         }
+        acknowledgment.acknowledge();
+        log.debug("Processed {} customer events; opened {} onboarding KYC cases", records.size(), opened);
     }
-}
 
+    private record PoisonRecord(ConsumerRecord<String, String> record, Exception error) {
+    }
+}
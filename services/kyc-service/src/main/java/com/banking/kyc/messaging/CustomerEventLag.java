@@ -0,0 +1,54 @@
+package com.banking.kyc.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes how many records the customer event listener is behind as
+ * {@code kyc.customer-events.lag}. The value is the consumer's own {@code records-lag-max}, the
+ * fetch metric {@code KafkaClientMetrics} binds as {@code kafka.consumer.fetch.manager.records.lag.max},
+ * taken as the maximum over the listener's consumers so it reads as one number per instance.
+ */
+@Component
+public class CustomerEventLag {
+
+    private static final String FETCH_MANAGER_GROUP = "consumer-fetch-manager-metrics";
+    private static final String RECORDS_LAG_MAX = "records-lag-max";
+
+    public CustomerEventLag(KafkaListenerEndpointRegistry listenerRegistry, MeterRegistry meterRegistry) {
+        Gauge.builder("kyc.customer-events.lag", listenerRegistry,
+                        registry -> recordsLagMax(registry.getListenerContainer(CustomerEventConsumer.LISTENER_ID)))
+                .description("Most records any customer-events partition assigned here is behind its log end")
+                .baseUnit("records")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The largest client-level {@code records-lag-max} of the container's consumers, or NaN before
+     * any of them has fetched.
+     */
+    static double recordsLagMax(MessageListenerContainer container) {
+        double lag = Double.NaN;
+        if (container == null) {
+            return lag;
+        }
+        for (Map<MetricName, ? extends Metric> metrics : container.metrics().values()) {
+            for (Map.Entry<MetricName, ? extends Metric> metric : metrics.entrySet()) {
+                MetricName name = metric.getKey();
+                // The per-partition variant carries a partition tag; the client-level one covers them all
+                if (FETCH_MANAGER_GROUP.equals(name.group()) && RECORDS_LAG_MAX.equals(name.name())
+                        && !name.tags().containsKey("partition")
+                        && metric.getValue().metricValue() instanceof Double value && !value.isNaN()) {
+                    lag = Double.isNaN(lag) ? value : Math.max(lag, value);
+                }
+            }
+        }
+        return lag;
+    }
+}
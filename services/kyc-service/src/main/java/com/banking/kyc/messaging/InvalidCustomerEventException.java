@@ -0,0 +1,12 @@
+package com.banking.kyc.messaging;
+
+/**
+ * A decoded customer event that can never be stored, such as one whose name is wider than the
+ * screening subject column. Retrying it cannot help, so the container dead-letters it at once.
+ */
+public class InvalidCustomerEventException extends RuntimeException {
+
+    public InvalidCustomerEventException(String message) {
+        super(message);
+    }
+}
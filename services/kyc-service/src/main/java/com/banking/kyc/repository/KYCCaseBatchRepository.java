@@ -0,0 +1,60 @@
+package com.banking.kyc.repository;
+
+import com.banking.kyc.domain.KYCStatus;
+import com.banking.kyc.domain.RiskLevel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bulk writes of KYC cases opened from customer events. Entity lifecycle callbacks do not run
+ * here, so ids, defaults and timestamps are set in the statement.
+ */
+@Repository
+public class KYCCaseBatchRepository {
+
+    // One statement for the whole batch; a case that already exists is left untouched
+    private static final String INSERT_ONBOARDING_CASES = """
+            INSERT INTO kyc_cases
+                (id, customer_id, status, risk_level, case_type, screening_completed, document_verification_completed,
+                 created_at, updated_at, version)
+            SELECT c.id, c.customer_id, ?, ?, 'ONBOARDING', false, false, ?, ?, 0
+              FROM unnest(?::uuid[], ?::uuid[]) AS c(id, customer_id)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public KYCCaseBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Opens a PENDING onboarding case for each customer and returns how many were created. A
+     * customer's onboarding case id is derived from the customer id, so a replayed event finds its
+     * case already present instead of opening a second one.
+     */
+    public int insertOnboardingCases(Collection<UUID> customerIds, Instant now) {
+        if (customerIds.isEmpty()) {
+            return 0;
+        }
+        UUID[] ids = customerIds.stream().map(KYCCaseBatchRepository::onboardingCaseId).toArray(UUID[]::new);
+        UUID[] customers = customerIds.toArray(UUID[]::new);
+        return jdbcTemplate.update(INSERT_ONBOARDING_CASES, ps -> {
+            ps.setString(1, KYCStatus.PENDING.name());
+            ps.setString(2, RiskLevel.LOW.name());
+            ps.setTimestamp(3, Timestamp.from(now));
+            ps.setTimestamp(4, Timestamp.from(now));
+            ps.setArray(5, ps.getConnection().createArrayOf("uuid", ids));
+            ps.setArray(6, ps.getConnection().createArrayOf("uuid", customers));
+        });
+    }
+
+    public static UUID onboardingCaseId(UUID customerId) {
+        return UUID.nameUUIDFromBytes(("ONBOARDING:" + customerId).getBytes(StandardCharsets.UTF_8));
+    }
+}
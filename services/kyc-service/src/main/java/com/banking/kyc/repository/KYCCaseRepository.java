@@ -2,6 +2,7 @@ package com.banking.kyc.repository;
 
 import com.banking.kyc.domain.KYCStatus;
 import com.banking.kyc.domain.KYCCase;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +18,10 @@ public interface KYCCaseRepository extends JpaRepository<KYCCase, UUID> {
 
     Optional<KYCCase> findByCustomerIdAndStatusNotIn(UUID customerId, List<KYCStatus> excludedStatuses);
 
+    @Query("SELECT DISTINCT k.customerId FROM KYCCase k WHERE k.customerId IN :customerIds AND k.status NOT IN :excludedStatuses")
+    List<UUID> findCustomerIdsWithCaseNotIn(@Param("customerIds") Collection<UUID> customerIds,
+                                            @Param("excludedStatuses") List<KYCStatus> excludedStatuses);
+
     Page<KYCCase> findByCustomerId(UUID customerId, Pageable pageable);
 
     Page<KYCCase> findByStatus(KYCStatus status, Pageable pageable);
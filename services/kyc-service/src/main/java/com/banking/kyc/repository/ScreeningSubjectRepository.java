@@ -0,0 +1,80 @@
+package com.banking.kyc.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Names customers are screened under. Rescreening walks this table, since customer names live in
+ * customer-service.
+ */
+@Repository
+public class ScreeningSubjectRepository {
+
+    /** Width of {@code screening_subjects.full_name}. */
+    public static final int MAX_FULL_NAME_LENGTH = 255;
+
+    private static final String UPSERT = """
+            INSERT INTO screening_subjects (customer_id, full_name, updated_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT (customer_id) DO UPDATE SET full_name = EXCLUDED.full_name, updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String INSERT_MISSING = """
+            INSERT INTO screening_subjects (customer_id, full_name, updated_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT (customer_id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ScreeningSubjectRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void upsert(UUID customerId, String fullName) {
+        jdbcTemplate.update(UPSERT, customerId, fullName, Timestamp.from(Instant.now()));
+    }
+
+    public void upsertAll(Map<UUID, String> fullNames) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(UPSERT, fullNames.entrySet(), fullNames.size(), (ps, subject) -> {
+            ps.setObject(1, subject.getKey());
+            ps.setString(2, subject.getValue());
+            ps.setTimestamp(3, now);
+        });
+    }
+
+    /**
+     * Adds the subjects not yet known, leaving names already kept current by events untouched.
+     */
+    public void insertMissing(Map<UUID, String> fullNames) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_MISSING, fullNames.entrySet(), fullNames.size(), (ps, subject) -> {
+            ps.setObject(1, subject.getKey());
+            ps.setString(2, subject.getValue());
+            ps.setTimestamp(3, now);
+        });
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM screening_subjects", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * The name a customer is screened under, or empty when it has none.
+     */
+    public static String fullName(String firstName, String lastName) {
+        return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+    }
+
+    public void deleteAll(Collection<UUID> customerIds) {
+        jdbcTemplate.update("DELETE FROM screening_subjects WHERE customer_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", customerIds.toArray())));
+    }
+}
@@ -0,0 +1,87 @@
+package com.banking.kyc.screening;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reduces a person or entity name to lowercase ASCII letters and digits separated by single
+ * spaces. Cyrillic and Greek are transliterated, diacritics are stripped, and Latin letters that
+ * do not decompose (ß, æ, ø, ł, ...) are spelled out, so "Łukasz Müller", "Lukasz Muller" and
+ * "ЛУКАШ МЮЛЛЕР" end up comparable.
+ */
+public final class NameNormalizer {
+
+    private static final Map<Character, String> TRANSLITERATIONS = Map.ofEntries(
+            // Latin letters without a canonical decomposition
+            Map.entry('ß', "ss"), Map.entry('æ', "ae"), Map.entry('œ', "oe"), Map.entry('ø', "o"),
+            Map.entry('ł', "l"), Map.entry('đ', "d"), Map.entry('ð', "d"), Map.entry('þ', "th"),
+            Map.entry('ı', "i"),
+            // Cyrillic, roughly BGN/PCGN
+            Map.entry('а', "a"), Map.entry('б', "b"), Map.entry('в', "v"), Map.entry('г', "g"),
+            Map.entry('д', "d"), Map.entry('е', "e"), Map.entry('ё', "e"), Map.entry('ж', "zh"),
+            Map.entry('з', "z"), Map.entry('и', "i"), Map.entry('й', "y"), Map.entry('к', "k"),
+            Map.entry('л', "l"), Map.entry('м', "m"), Map.entry('н', "n"), Map.entry('о', "o"),
+            Map.entry('п', "p"), Map.entry('р', "r"), Map.entry('с', "s"), Map.entry('т', "t"),
+            Map.entry('у', "u"), Map.entry('ф', "f"), Map.entry('х', "kh"), Map.entry('ц', "ts"),
+            Map.entry('ч', "ch"), Map.entry('ш', "sh"), Map.entry('щ', "shch"), Map.entry('ъ', ""),
+            Map.entry('ы', "y"), Map.entry('ь', ""), Map.entry('э', "e"), Map.entry('ю', "yu"),
+            Map.entry('я', "ya"), Map.entry('і', "i"), Map.entry('ї', "yi"), Map.entry('є', "ye"),
+            Map.entry('ґ', "g"),
+            // Greek
+            Map.entry('α', "a"), Map.entry('β', "v"), Map.entry('γ', "g"), Map.entry('δ', "d"),
+            Map.entry('ε', "e"), Map.entry('ζ', "z"), Map.entry('η', "i"), Map.entry('θ', "th"),
+            Map.entry('ι', "i"), Map.entry('κ', "k"), Map.entry('λ', "l"), Map.entry('μ', "m"),
+            Map.entry('ν', "n"), Map.entry('ξ', "x"), Map.entry('ο', "o"), Map.entry('π', "p"),
+            Map.entry('ρ', "r"), Map.entry('σ', "s"), Map.entry('ς', "s"), Map.entry('τ', "t"),
+            Map.entry('υ', "y"), Map.entry('φ', "f"), Map.entry('χ', "ch"), Map.entry('ψ', "ps"),
+            Map.entry('ω', "o")
+    );
+
+    private NameNormalizer() {
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name.toLowerCase(Locale.ROOT), Normalizer.Form.NFKD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            String mapped = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') ? null : TRANSLITERATIONS.get(c);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || (mapped != null && !mapped.isEmpty())) {
+                if (pendingSpace && !out.isEmpty()) {
+                    out.append(' ');
+                }
+                pendingSpace = false;
+                if (mapped != null) {
+                    out.append(mapped);
+                } else {
+                    out.append(c);
+                }
+            } else if (mapped == null) {
+                pendingSpace = true;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * The normalized name with its tokens in alphabetical order, so "ali mohammed" and
+     * "mohammed ali" compare equal.
+     */
+    public static String sortTokens(String normalized) {
+        if (normalized.indexOf(' ') < 0) {
+            return normalized;
+        }
+        String[] tokens = normalized.split(" ");
+        Arrays.sort(tokens);
+        return String.join(" ", tokens);
+    }
+}
@@ -0,0 +1,118 @@
+package com.banking.kyc.screening;
+
+import java.util.Arrays;
+
+/**
+ * String similarity and phonetic keys used to rank watchlist candidates. Inputs are names already
+ * passed through {@link NameNormalizer}.
+ */
+public final class NameSimilarity {
+
+    private static final double WINKLER_SCALING = 0.1;
+    private static final int WINKLER_MAX_PREFIX = 4;
+    private static final String SOUNDEX_CODES = "01230120022455012623010202";
+
+    private NameSimilarity() {
+    }
+
+    /**
+     * Best Jaro-Winkler similarity of the two names as written and with their tokens sorted.
+     */
+    public static double score(String normalized, String sortedTokens, String otherNormalized, String otherSortedTokens) {
+        double direct = jaroWinkler(normalized, otherNormalized);
+        if (direct == 1.0 || sortedTokens.equals(normalized) && otherSortedTokens.equals(otherNormalized)) {
+            return direct;
+        }
+        return Math.max(direct, jaroWinkler(sortedTokens, otherSortedTokens));
+    }
+
+    public static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        int aLength = a.length();
+        int bLength = b.length();
+        if (aLength == 0 || bLength == 0) {
+            return 0.0;
+        }
+        int window = Math.max(0, Math.max(aLength, bLength) / 2 - 1);
+        boolean[] aMatched = new boolean[aLength];
+        boolean[] bMatched = new boolean[bLength];
+        int matches = 0;
+        for (int i = 0; i < aLength; i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(bLength - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+                    aMatched[i] = true;
+                    bMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        int j = 0;
+        for (int i = 0; i < aLength; i++) {
+            if (aMatched[i]) {
+                while (!bMatched[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / aLength + m / bLength + (m - transpositions / 2.0) / m) / 3.0;
+        int prefix = 0;
+        int maxPrefix = Math.min(WINKLER_MAX_PREFIX, Math.min(aLength, bLength));
+        while (prefix < maxPrefix && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * WINKLER_SCALING * (1.0 - jaro);
+    }
+
+    /**
+     * Soundex codes of the name's tokens in alphabetical order, so spellings such as
+     * "Mohammed Ali" and "Muhammad Aly" share a key.
+     */
+    public static String phoneticKey(String normalized) {
+        String[] tokens = normalized.split(" ");
+        String[] codes = new String[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            codes[i] = soundex(tokens[i]);
+        }
+        Arrays.sort(codes);
+        return String.join(" ", codes);
+    }
+
+    static String soundex(String token) {
+        if (token.isEmpty()) {
+            return "";
+        }
+        char[] code = {token.charAt(0), '0', '0', '0'};
+        char previous = codeOf(token.charAt(0));
+        int length = 1;
+        for (int i = 1; i < token.length() && length < code.length; i++) {
+            char c = token.charAt(i);
+            char digit = codeOf(c);
+            if (digit != '0' && digit != previous) {
+                code[length++] = digit;
+            }
+            // h and w do not separate letters with the same code; vowels do
+            if (c != 'h' && c != 'w') {
+                previous = digit;
+            }
+        }
+        return new String(code);
+    }
+
+    private static char codeOf(char c) {
+        return c >= 'a' && c <= 'z' ? SOUNDEX_CODES.charAt(c - 'a') : c;
+    }
+}
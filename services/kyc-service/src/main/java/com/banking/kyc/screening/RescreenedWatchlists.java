@@ -0,0 +1,86 @@
+package com.banking.kyc.screening;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The lists the book was last rescreened against: their fingerprint and a digest of every entry.
+ * It is replaced in the transaction that queues a rescreening run, so after a restart the lists
+ * then in service can be compared with what was actually rescreened rather than with nothing.
+ */
+@Component
+public class RescreenedWatchlists {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RescreenedWatchlists(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<Baseline> load() {
+        List<String> fingerprint = jdbcTemplate.queryForList(
+                "SELECT list_fingerprint FROM rescreened_watchlists WHERE id = 1", String.class);
+        if (fingerprint.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<String> digests = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT entry_digest FROM rescreened_watchlist_entries", String.class));
+        return Optional.of(new Baseline(fingerprint.get(0), digests));
+    }
+
+    /**
+     * Replaces the stored lists. The upsert locks the single state row first, so concurrent
+     * replacements from several instances take turns.
+     */
+    @Transactional
+    public void replace(String fingerprint, List<WatchlistEntry> entries) {
+        jdbcTemplate.update("""
+                INSERT INTO rescreened_watchlists (id, list_fingerprint, entry_count, updated_at)
+                VALUES (1, ?, ?, ?)
+                ON CONFLICT (id) DO UPDATE
+                   SET list_fingerprint = EXCLUDED.list_fingerprint, entry_count = EXCLUDED.entry_count,
+                       updated_at = EXCLUDED.updated_at
+                """, fingerprint, entries.size(), Timestamp.from(Instant.now()));
+        jdbcTemplate.update("DELETE FROM rescreened_watchlist_entries");
+        List<Object[]> digests = entries.stream()
+                .map(RescreenedWatchlists::digest)
+                .distinct()
+                .map(digest -> new Object[] {digest})
+                .toList();
+        if (!digests.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO rescreened_watchlist_entries (entry_digest) VALUES (?)", digests);
+        }
+    }
+
+    static String digest(WatchlistEntry entry) {
+        String fields = String.join("\u001f", entry.id(), entry.listName(), String.valueOf(entry.category()),
+                entry.name(), String.join("\u001e", entry.aliases()), String.valueOf(entry.country()));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(fields.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record Baseline(String fingerprint, Set<String> digests) {
+
+        /**
+         * Entries not present, field for field, in these lists.
+         */
+        List<WatchlistEntry> changed(List<WatchlistEntry> entries) {
+            return entries.stream().filter(entry -> !digests.contains(digest(entry))).toList();
+        }
+    }
+}
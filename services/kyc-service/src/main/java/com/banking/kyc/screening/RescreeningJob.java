@@ -0,0 +1,372 @@
+package com.banking.kyc.screening;
+
+import com.banking.kyc.domain.ScreeningResultStatus;
+import com.banking.kyc.domain.ScreeningType;
+import com.banking.kyc.integration.CustomerServiceClient;
+import com.banking.kyc.repository.ScreeningSubjectRepository;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rescreens every known customer after a watchlist update.
+ * <ul>
+ *   <li>a list update starts a DELTA run that screens against only the added and changed
+ *       entries; a FULL run screens against everything and can be started by hand,</li>
+ *   <li>subjects are read in keyset chunks of {@code customer_id}, and each chunk is matched on a
+ *       fork-join pool while the previous chunk's results are written,</li>
+ *   <li>each chunk's screening results, KYC case updates and the run's checkpoint are written in
+ *       one transaction with JDBC batches; hits on a customer without a KYC case are written
+ *       without one and counted on the run,</li>
+ *   <li>queuing a run stores its lists as the {@link RescreenedWatchlists}, which the next
+ *       startup compares with,</li>
+ *   <li>a run's {@code subjects_total} is the size of the customer book in customer-service, so
+ *       customers missing from {@code screening_subjects} show up as a shortfall in
+ *       {@code subjects_screened}; the local subject count is used only if customer-service
+ *       cannot be reached.</li>
+ * </ul>
+ * Runs execute one after another. A run whose instance died stays RUNNING; once its heartbeat is
+ * older than {@code kyc.rescreening.stale-after} another instance resumes it from its checkpoint.
+ * The delta of the interrupted run was only held in memory, so the rest of the book is then
+ * screened against the full lists.
+ */
+@Service
+public class RescreeningJob implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RescreeningJob.class);
+
+    static final String SCOPE_DELTA = "DELTA";
+    static final String SCOPE_FULL = "FULL";
+    static final String PROVIDER = "INTERNAL";
+    private static final Set<ScreeningType> LIST_CATEGORIES =
+            Set.of(ScreeningType.SANCTIONS, ScreeningType.PEP, ScreeningType.WATCHLIST);
+
+    private static final String FIRST_CHUNK = """
+            SELECT customer_id, full_name FROM screening_subjects ORDER BY customer_id LIMIT ?
+            """;
+
+    private static final String NEXT_CHUNK = """
+            SELECT customer_id, full_name FROM screening_subjects WHERE customer_id > ? ORDER BY customer_id LIMIT ?
+            """;
+
+    // Latest case of each customer
+    private static final String CASES_OF_CUSTOMERS = """
+            SELECT DISTINCT ON (customer_id) id, customer_id
+              FROM kyc_cases
+             WHERE customer_id = ANY(?)
+             ORDER BY customer_id, created_at DESC
+            """;
+
+    private static final String INSERT_RESULT = """
+            INSERT INTO screening_results
+                (id, kyc_case_id, customer_id, screening_type, result, match_score, matched_name, matched_list,
+                 match_details, screening_provider, screening_reference, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // A hit puts the case back under review and raises, never lowers, its risk level
+    private static final String FLAG_CASE = """
+            UPDATE kyc_cases
+               SET status = 'UNDER_REVIEW',
+                   risk_level = CASE WHEN risk_level IN ('HIGH', 'CRITICAL') THEN risk_level ELSE ? END,
+                   updated_at = ?, version = version + 1
+             WHERE id = ? AND status <> 'REJECTED'
+            """;
+
+    private static final String CHECKPOINT = """
+            UPDATE rescreening_runs
+               SET last_customer_id = ?, subjects_screened = subjects_screened + ?,
+                   results_written = results_written + ?, cases_flagged = cases_flagged + ?,
+                   subjects_without_case = subjects_without_case + ?, heartbeat_at = ?
+             WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WatchlistScreener screener;
+    private final RescreenedWatchlists rescreened;
+    private final CustomerServiceClient customerService;
+    private final ScreeningSubjectRepository subjects;
+    private final double matchThreshold;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Duration staleAfter;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "kyc-rescreening-run");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RescreeningJob(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            WatchlistScreener screener,
+            RescreenedWatchlists rescreened,
+            CustomerServiceClient customerService,
+            ScreeningSubjectRepository subjects,
+            @Value("${kyc.screening.match-threshold:0.97}") double matchThreshold,
+            @Value("${kyc.rescreening.chunk-size:2000}") int chunkSize,
+            @Value("${kyc.rescreening.parallelism:0}") int parallelism,
+            @Value("${kyc.rescreening.stale-after:5m}") Duration staleAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.screener = screener;
+        this.rescreened = rescreened;
+        this.customerService = customerService;
+        this.subjects = subjects;
+        this.matchThreshold = matchThreshold;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.staleAfter = staleAfter;
+    }
+
+    @EventListener
+    public void onWatchlistsUpdated(WatchlistsUpdatedEvent event) {
+        UUID runId = UUID.randomUUID();
+        try {
+            insertRun(runId, SCOPE_DELTA, event.fingerprint(), event.changes().entryCount(), event.lists());
+        } catch (DuplicateKeyException e) {
+            log.info("Rescreening for this list update was already started by another instance");
+            return;
+        }
+        submit(runId, event.changes());
+    }
+
+    /**
+     * Queues a rescreening of every subject against the full lists currently in service.
+     */
+    public RescreeningRun startFullRescreening() {
+        UUID runId = UUID.randomUUID();
+        WatchlistScreener.LoadedLists lists = screener.lists();
+        insertRun(runId, SCOPE_FULL, lists.fingerprint(), lists.index().entryCount(), lists.index());
+        submit(runId, lists.index());
+        return findRun(runId).orElseThrow();
+    }
+
+    public Optional<RescreeningRun> findRun(UUID runId) {
+        return jdbcTemplate.query("SELECT " + RescreeningRun.COLUMNS + " FROM rescreening_runs WHERE id = ?",
+                RescreeningRun::map, runId).stream().findFirst();
+    }
+
+    /**
+     * Resumes runs left RUNNING by an instance that stopped heartbeating.
+     */
+    @Scheduled(fixedDelayString = "${kyc.rescreening.resume-interval-ms:60000}",
+            initialDelayString = "${kyc.rescreening.resume-interval-ms:60000}")
+    public void resumeStaleRuns() {
+        Instant now = Instant.now();
+        List<UUID> stale = jdbcTemplate.queryForList("""
+                SELECT id FROM rescreening_runs
+                 WHERE status = 'RUNNING' AND (heartbeat_at IS NULL OR heartbeat_at < ?)
+                 ORDER BY started_at
+                """, UUID.class, Timestamp.from(now.minus(staleAfter)));
+        for (UUID runId : stale) {
+            int claimed = jdbcTemplate.update("""
+                    UPDATE rescreening_runs SET heartbeat_at = ?, error_message = NULL
+                     WHERE id = ? AND status = 'RUNNING' AND (heartbeat_at IS NULL OR heartbeat_at < ?)
+                    """, Timestamp.from(now), runId, Timestamp.from(now.minus(staleAfter)));
+            if (claimed == 1) {
+                log.info("Resuming rescreening run {} against the full lists", runId);
+                submit(runId, screener.index());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        runner.shutdownNow();
+    }
+
+    private void insertRun(UUID runId, String scope, String fingerprint, int entries, WatchlistIndex lists) {
+        Instant now = Instant.now();
+        long total = subjectsTotal();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("""
+                    INSERT INTO rescreening_runs
+                        (id, scope, list_fingerprint, changed_entries, status, subjects_total, started_at, heartbeat_at)
+                    VALUES (?, ?, ?, ?, 'RUNNING', ?, ?, ?)
+                    """, runId, scope, fingerprint, entries, total,
+                    Timestamp.from(now), Timestamp.from(now));
+            rescreened.replace(fingerprint, lists.entries());
+        });
+        log.info("Queued {} rescreening run {} against {} list entries", scope, runId, entries);
+    }
+
+    private long subjectsTotal() {
+        try {
+            return customerService.countCustomers();
+        } catch (RuntimeException e) {
+            log.warn("Could not count customers in customer-service; reporting the subjects known here", e);
+            return subjects.count();
+        }
+    }
+
+    private void submit(UUID runId, WatchlistIndex lists) {
+        runner.execute(() -> {
+            try {
+                findRun(runId).ifPresent(run -> execute(run, lists));
+            } catch (RuntimeException e) {
+                // Already recorded on the run
+            }
+        });
+    }
+
+    void execute(RescreeningRun run, WatchlistIndex lists) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            heartbeat(run.id());
+            List<Subject> chunk = fetchChunk(run.lastCustomerId());
+            CompletableFuture<List<SubjectHits>> hits = chunk.isEmpty() ? null : match(chunk, lists, pool);
+            while (hits != null) {
+                List<Subject> current = chunk;
+                List<SubjectHits> matched = hits.join();
+                UUID last = current.get(current.size() - 1).customerId();
+
+                // Match the next chunk while this one is written
+                chunk = current.size() < chunkSize ? List.of() : fetchChunk(last);
+                hits = chunk.isEmpty() ? null : match(chunk, lists, pool);
+
+                transactionTemplate.executeWithoutResult(status -> write(run.id(), current.size(), matched, last));
+            }
+            jdbcTemplate.update("""
+                    UPDATE rescreening_runs SET status = 'COMPLETED', completed_at = ?, heartbeat_at = ?
+                     WHERE id = ?
+                    """, Timestamp.from(Instant.now()), Timestamp.from(Instant.now()), run.id());
+            log.info("Completed rescreening run {}", run.id());
+        } catch (RuntimeException e) {
+            log.error("Rescreening run {} failed; it will resume from its last checkpoint", run.id(), e);
+            jdbcTemplate.update(
+                    "UPDATE rescreening_runs SET error_message = ?, heartbeat_at = NULL WHERE id = ?",
+                    String.valueOf(e.getMessage()), run.id());
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void heartbeat(UUID runId) {
+        jdbcTemplate.update("UPDATE rescreening_runs SET heartbeat_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now()), runId);
+    }
+
+    private List<Subject> fetchChunk(UUID afterCustomerId) {
+        if (afterCustomerId == null) {
+            return jdbcTemplate.query(FIRST_CHUNK, Subject::map, chunkSize);
+        }
+        return jdbcTemplate.query(NEXT_CHUNK, Subject::map, afterCustomerId, chunkSize);
+    }
+
+    private CompletableFuture<List<SubjectHits>> match(List<Subject> chunk, WatchlistIndex lists, ForkJoinPool pool) {
+        return CompletableFuture.supplyAsync(() -> chunk.parallelStream()
+                .map(subject -> hitsFor(subject, lists))
+                .filter(hits -> !hits.bestByCategory().isEmpty())
+                .toList(), pool);
+    }
+
+    /**
+     * Best match per list category for one subject; empty when nothing reaches the review threshold.
+     */
+    SubjectHits hitsFor(Subject subject, WatchlistIndex lists) {
+        Map<ScreeningType, WatchlistMatch> best = new LinkedHashMap<>();
+        for (WatchlistMatch match : lists.search(subject.fullName(), LIST_CATEGORIES, screener.minScore(),
+                screener.maxMatches())) {
+            best.putIfAbsent(match.entry().category(), match);
+        }
+        return new SubjectHits(subject, best);
+    }
+
+    private void write(UUID runId, int screened, List<SubjectHits> matched, UUID lastCustomerId) {
+        Instant now = Instant.now();
+        Map<UUID, UUID> caseOf = casesOf(matched);
+        List<Object[]> results = new ArrayList<>();
+        List<Object[]> flags = new ArrayList<>();
+        int withoutCase = 0;
+        String reference = "RESCREEN-" + runId;
+        for (SubjectHits hits : matched) {
+            // Without a case the results are still kept, for review once the customer has one
+            UUID caseId = caseOf.get(hits.subject().customerId());
+            boolean confirmed = false;
+            for (WatchlistMatch match : hits.bestByCategory().values()) {
+                ScreeningResultStatus status = match.score() >= matchThreshold
+                        ? ScreeningResultStatus.MATCH
+                        : ScreeningResultStatus.REQUIRES_REVIEW;
+                confirmed |= status == ScreeningResultStatus.MATCH;
+                results.add(new Object[] {
+                        UUID.randomUUID(), caseId, hits.subject().customerId(), match.entry().category().name(),
+                        status.name(), (int) Math.round(match.score() * 100), match.matchedName(),
+                        match.entry().listName(), String.format(Locale.ROOT, "%s/%s \"%s\" (%s) %.3f",
+                                match.entry().listName(), match.entry().id(), match.matchedName(),
+                                match.entry().category(), match.score()),
+                        PROVIDER, reference, Timestamp.from(now), Timestamp.from(now)
+                });
+            }
+            if (caseId != null) {
+                flags.add(new Object[] {confirmed ? "HIGH" : "MEDIUM", Timestamp.from(now), caseId});
+            } else {
+                withoutCase++;
+            }
+        }
+        if (!results.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_RESULT, results);
+        }
+        int flagged = 0;
+        if (!flags.isEmpty()) {
+            for (int count : jdbcTemplate.batchUpdate(FLAG_CASE, flags)) {
+                flagged += Math.max(count, 0);
+            }
+        }
+        jdbcTemplate.update(CHECKPOINT, lastCustomerId, screened, results.size(), flagged, withoutCase,
+                Timestamp.from(now), runId);
+    }
+
+    private Map<UUID, UUID> casesOf(List<SubjectHits> matched) {
+        if (matched.isEmpty()) {
+            return Map.of();
+        }
+        UUID[] customerIds = matched.stream().map(hits -> hits.subject().customerId()).toArray(UUID[]::new);
+        Map<UUID, UUID> caseOf = new HashMap<>();
+        jdbcTemplate.query(CASES_OF_CUSTOMERS, ps -> {
+            Array array = ps.getConnection().createArrayOf("uuid", customerIds);
+            ps.setArray(1, array);
+        }, (RowCallbackHandler) rs -> caseOf.put(rs.getObject("customer_id", UUID.class), rs.getObject("id", UUID.class)));
+        return caseOf;
+    }
+
+    record Subject(UUID customerId, String fullName) {
+
+        static Subject map(ResultSet rs, int rowNum) throws SQLException {
+            return new Subject(rs.getObject("customer_id", UUID.class), rs.getString("full_name"));
+        }
+    }
+
+    record SubjectHits(Subject subject, Map<ScreeningType, WatchlistMatch> bestByCategory) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.banking.kyc.screening;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A row of {@code rescreening_runs}. {@code lastCustomerId} is the keyset position of the last
+ * committed chunk, and {@code subjectsWithoutCase} counts subjects with hits but no KYC case to
+ * flag. A DELTA run screens against the entries that changed in one list update, a
+ * FULL run against every entry.
+ */
+public record RescreeningRun(
+        UUID id,
+        String scope,
+        String listFingerprint,
+        int changedEntries,
+        String status,
+        UUID lastCustomerId,
+        long subjectsTotal,
+        long subjectsScreened,
+        long resultsWritten,
+        long casesFlagged,
+        long subjectsWithoutCase,
+        String errorMessage,
+        Instant startedAt,
+        Instant heartbeatAt,
+        Instant completedAt
+) {
+
+    static final String COLUMNS = """
+            id, scope, list_fingerprint, changed_entries, status, last_customer_id, subjects_total,
+            subjects_screened, results_written, cases_flagged, subjects_without_case, error_message, started_at, heartbeat_at,
+            completed_at""";
+
+    static RescreeningRun map(ResultSet rs, int rowNum) throws SQLException {
+        return new RescreeningRun(
+                rs.getObject("id", UUID.class),
+                rs.getString("scope"),
+                rs.getString("list_fingerprint"),
+                rs.getInt("changed_entries"),
+                rs.getString("status"),
+                rs.getObject("last_customer_id", UUID.class),
+                rs.getLong("subjects_total"),
+                rs.getLong("subjects_screened"),
+                rs.getLong("results_written"),
+                rs.getLong("cases_flagged"),
+                rs.getLong("subjects_without_case"),
+                rs.getString("error_message"),
+                toInstant(rs.getTimestamp("started_at")),
+                toInstant(rs.getTimestamp("heartbeat_at")),
+                toInstant(rs.getTimestamp("completed_at"))
+        );
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
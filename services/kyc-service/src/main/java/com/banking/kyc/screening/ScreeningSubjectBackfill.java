@@ -0,0 +1,153 @@
+package com.banking.kyc.screening;
+
+import com.banking.kyc.integration.CustomerServiceClient;
+import com.banking.kyc.repository.ScreeningSubjectRepository;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Loads every existing customer into {@code screening_subjects} from customer-service.
+ * <p>
+ * Screening requests and customer events only add the customers they mention, so without this the
+ * book onboarded before them would never be rescreened. The export is walked in keyset pages;
+ * each page is written together with its position in {@code screening_subject_backfill}, under a
+ * row lock, so one instance at a time makes progress and a restart resumes where it stopped.
+ * Subjects already present keep their names. Once the walk completes, a FULL rescreening screens
+ * the backfilled customers against the lists in service.
+ */
+@Component
+public class ScreeningSubjectBackfill implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreeningSubjectBackfill.class);
+
+    private static final String LOCK_PROGRESS = """
+            SELECT last_customer_id, completed_at FROM screening_subject_backfill WHERE id = 1 FOR UPDATE SKIP LOCKED
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerServiceClient customerService;
+    private final ScreeningSubjectRepository subjects;
+    private final RescreeningJob rescreeningJob;
+    private final boolean enabled;
+    private final int pageSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "kyc-subject-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ScreeningSubjectBackfill(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            CustomerServiceClient customerService,
+            ScreeningSubjectRepository subjects,
+            RescreeningJob rescreeningJob,
+            @Value("${kyc.screening.subjects.backfill.enabled:true}") boolean enabled,
+            @Value("${kyc.screening.subjects.backfill.page-size:1000}") int pageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.customerService = customerService;
+        this.subjects = subjects;
+        this.rescreeningJob = rescreeningJob;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Starts or resumes the backfill unless it is complete or already running here. Retried on
+     * every interval, so customer-service being down only delays it.
+     */
+    @Scheduled(fixedDelayString = "${kyc.screening.subjects.backfill.retry-interval-ms:60000}")
+    public void resume() {
+        if (enabled && running.compareAndSet(false, true)) {
+            runner.execute(() -> {
+                try {
+                    run();
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        runner.shutdownNow();
+    }
+
+    void run() {
+        try {
+            Progress progress;
+            do {
+                progress = transactionTemplate.execute(status -> backfillPage());
+            } while (progress == Progress.MORE);
+            if (progress == Progress.COMPLETED) {
+                log.info("Screening subjects backfilled from customer-service; rescreening the whole book");
+                rescreeningJob.startFullRescreening();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Backfilling screening subjects from customer-service failed; resuming later", e);
+        }
+    }
+
+    /**
+     * Writes the next page of customers and moves the position past it.
+     */
+    Progress backfillPage() {
+        List<Map<String, Object>> locked = jdbcTemplate.queryForList(LOCK_PROGRESS);
+        if (locked.isEmpty() || locked.get(0).get("completed_at") != null) {
+            // Finished, or another instance holds the lock and is making progress
+            return Progress.IDLE;
+        }
+        UUID after = (UUID) locked.get(0).get("last_customer_id");
+        CustomerServiceClient.NamesPage page = customerService.names(after, pageSize);
+        Timestamp now = Timestamp.from(Instant.now());
+        if (page.totalCustomers() != null) {
+            jdbcTemplate.update("UPDATE screening_subject_backfill SET customers_total = ? WHERE id = 1",
+                    page.totalCustomers());
+        }
+        if (page.customers().isEmpty()) {
+            jdbcTemplate.update("UPDATE screening_subject_backfill SET completed_at = ?, updated_at = ? WHERE id = 1",
+                    now, now);
+            return Progress.COMPLETED;
+        }
+        Map<UUID, String> fullNames = new LinkedHashMap<>();
+        for (CustomerServiceClient.CustomerName customer : page.customers()) {
+            String fullName = ScreeningSubjectRepository.fullName(customer.firstName(), customer.lastName());
+            if (fullName.length() > ScreeningSubjectRepository.MAX_FULL_NAME_LENGTH) {
+                log.warn("Not backfilling customer {}: name of {} characters is too long to screen",
+                        customer.id(), fullName.length());
+            } else if (!fullName.isEmpty()) {
+                fullNames.put(customer.id(), fullName);
+            }
+        }
+        subjects.insertMissing(fullNames);
+        jdbcTemplate.update("UPDATE screening_subject_backfill SET last_customer_id = ?, updated_at = ? WHERE id = 1",
+                page.nextAfter(), now);
+        return Progress.MORE;
+    }
+
+    enum Progress {
+        MORE,
+        COMPLETED,
+        IDLE
+    }
+}
@@ -0,0 +1,18 @@
+package com.banking.kyc.screening;
+
+import com.banking.kyc.domain.ScreeningType;
+import java.util.List;
+
+/**
+ * One listed person or entity. {@code listName} is the source list (for example OFAC_SDN) and
+ * {@code category} the kind of screening it answers.
+ */
+public record WatchlistEntry(
+        String id,
+        String listName,
+        ScreeningType category,
+        String name,
+        List<String> aliases,
+        String country
+) {
+}
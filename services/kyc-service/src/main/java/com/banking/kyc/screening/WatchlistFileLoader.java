@@ -0,0 +1,91 @@
+package com.banking.kyc.screening;
+
+import com.banking.kyc.domain.ScreeningType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads watchlist CSV files with the header
+ * {@code entry_id,list,category,name,aliases,country}. Aliases are separated by {@code ;},
+ * fields may be double-quoted, and {@code category} is a {@link ScreeningType} such as SANCTIONS
+ * or PEP.
+ */
+public final class WatchlistFileLoader {
+
+    private static final int COLUMNS = 6;
+
+    private WatchlistFileLoader() {
+    }
+
+    public static List<WatchlistEntry> load(Path file) throws IOException {
+        List<WatchlistEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            int lineNumber = 1;
+            if (line != null && line.startsWith("﻿")) {
+                line = line.substring(1);
+            }
+            if (line != null && !line.toLowerCase(Locale.ROOT).startsWith("entry_id")) {
+                throw new IOException(file + ": expected header entry_id,list,category,name,aliases,country");
+            }
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = split(line);
+                if (fields.size() != COLUMNS) {
+                    throw new IOException(file + ":" + lineNumber + ": expected " + COLUMNS + " fields but found "
+                            + fields.size());
+                }
+                ScreeningType category;
+                try {
+                    category = ScreeningType.valueOf(fields.get(2).trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file + ":" + lineNumber + ": unknown category " + fields.get(2), e);
+                }
+                List<String> aliases = fields.get(4).isBlank()
+                        ? List.of()
+                        : Arrays.stream(fields.get(4).split(";")).map(String::trim).filter(a -> !a.isEmpty()).toList();
+                entries.add(new WatchlistEntry(fields.get(0).trim(), fields.get(1).trim(), category,
+                        fields.get(3).trim(), aliases, fields.get(5).isBlank() ? null : fields.get(5).trim()));
+            }
+        }
+        return entries;
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
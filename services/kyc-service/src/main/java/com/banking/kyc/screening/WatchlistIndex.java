@@ -0,0 +1,274 @@
+package com.banking.kyc.screening;
+
+import com.banking.kyc.domain.ScreeningType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory index over watchlist names and aliases.
+ * <p>
+ * Candidates come from two postings: character trigrams of the normalized name, and the
+ * name's phonetic key. Trigrams are over a 37-symbol alphabet (space, a-z, 0-9), so postings are
+ * a flat array indexed by trigram code. Trigrams carried by more than a small share of all names
+ * say little about a query and are skipped while other trigrams remain. Candidates sharing
+ * enough trigrams, or the phonetic key, are ranked with Jaro-Winkler.
+ */
+public final class WatchlistIndex {
+
+    public static final WatchlistIndex EMPTY = new WatchlistIndex(List.of());
+
+    private static final int ALPHABET = 37;
+    private static final double MIN_TRIGRAM_OVERLAP = 0.5;
+    private static final double MAX_LENGTH_RATIO = 1.6;
+    private static final int FREQUENT_TRIGRAM_DIVISOR = 20;
+    private static final int MIN_FREQUENT_POSTING = 1000;
+
+    private final List<WatchlistEntry> entries;
+    private final Set<ScreeningType> categories;
+    private final String[] names;
+    private final String[] sortedNames;
+    private final String[] displayNames;
+    private final int[] entryOf;
+    private final int[][] trigramPostings;
+    private final Map<String, int[]> phoneticPostings;
+
+    private WatchlistIndex(List<WatchlistEntry> entries) {
+        this.entries = List.copyOf(entries);
+        EnumSet<ScreeningType> present = EnumSet.noneOf(ScreeningType.class);
+        this.entries.forEach(entry -> present.add(entry.category()));
+        this.categories = Collections.unmodifiableSet(present);
+        List<String> normalizedNames = new ArrayList<>();
+        List<String> originalNames = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int i = 0; i < this.entries.size(); i++) {
+            WatchlistEntry entry = this.entries.get(i);
+            addName(entry.name(), i, normalizedNames, originalNames, owners);
+            for (String alias : entry.aliases()) {
+                addName(alias, i, normalizedNames, originalNames, owners);
+            }
+        }
+        int count = normalizedNames.size();
+        this.names = normalizedNames.toArray(String[]::new);
+        this.displayNames = originalNames.toArray(String[]::new);
+        this.entryOf = owners.stream().mapToInt(Integer::intValue).toArray();
+        this.sortedNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            sortedNames[i] = NameNormalizer.sortTokens(names[i]);
+        }
+        this.trigramPostings = buildTrigramPostings(names);
+        this.phoneticPostings = buildPhoneticPostings(names);
+    }
+
+    public static WatchlistIndex of(List<WatchlistEntry> entries) {
+        return entries.isEmpty() ? EMPTY : new WatchlistIndex(entries);
+    }
+
+    public List<WatchlistEntry> entries() {
+        return entries;
+    }
+
+    /**
+     * Categories with at least one entry.
+     */
+    public Set<ScreeningType> categories() {
+        return categories;
+    }
+
+    public int entryCount() {
+        return entries.size();
+    }
+
+    public int nameCount() {
+        return names.length;
+    }
+
+    /**
+     * Entries in {@code categories} whose name or an alias scores at least {@code minScore},
+     * best first, one match per entry, at most {@code limit}.
+     */
+    public List<WatchlistMatch> search(String name, Set<ScreeningType> categories, double minScore, int limit) {
+        String query = NameNormalizer.normalize(name);
+        if (query.isEmpty() || names.length == 0) {
+            return List.of();
+        }
+        String sortedQuery = NameNormalizer.sortTokens(query);
+        double[] bestScore = new double[0];
+        int[] bestName = new int[0];
+        Map<Integer, Integer> slotOfEntry = new HashMap<>();
+
+        int[] candidates = candidates(query);
+        for (int nameId : candidates) {
+            int entryId = entryOf[nameId];
+            if (!categories.contains(entries.get(entryId).category())) {
+                continue;
+            }
+            int length = names[nameId].length();
+            if (length > query.length() * MAX_LENGTH_RATIO || query.length() > length * MAX_LENGTH_RATIO) {
+                continue;
+            }
+            double score = NameSimilarity.score(query, sortedQuery, names[nameId], sortedNames[nameId]);
+            if (score < minScore) {
+                continue;
+            }
+            Integer slot = slotOfEntry.get(entryId);
+            if (slot == null) {
+                slot = slotOfEntry.size();
+                slotOfEntry.put(entryId, slot);
+                if (slot == bestScore.length) {
+                    bestScore = Arrays.copyOf(bestScore, Math.max(8, slot * 2));
+                    bestName = Arrays.copyOf(bestName, bestScore.length);
+                }
+                bestScore[slot] = -1;
+            }
+            if (score > bestScore[slot]) {
+                bestScore[slot] = score;
+                bestName[slot] = nameId;
+            }
+        }
+
+        List<WatchlistMatch> matches = new ArrayList<>(slotOfEntry.size());
+        for (Map.Entry<Integer, Integer> hit : slotOfEntry.entrySet()) {
+            int slot = hit.getValue();
+            matches.add(new WatchlistMatch(entries.get(hit.getKey()), displayNames[bestName[slot]], bestScore[slot]));
+        }
+        matches.sort(Comparator.comparingDouble(WatchlistMatch::score).reversed());
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Name ids sharing at least half of the query's informative trigrams, plus those with the
+     * same phonetic key unless that key is itself too common to narrow anything down.
+     */
+    private int[] candidates(String query) {
+        int[] codes = trigrams(query);
+        int frequentLimit = Math.max(MIN_FREQUENT_POSTING, names.length / FREQUENT_TRIGRAM_DIVISOR);
+        int informative = 0;
+        for (int code : codes) {
+            int[] posting = trigramPostings[code];
+            if (posting != null && posting.length <= frequentLimit) {
+                informative++;
+            }
+        }
+        boolean useAll = informative == 0;
+        int required = Math.min(Byte.MAX_VALUE,
+                Math.max(1, (int) Math.ceil((useAll ? codes.length : informative) * MIN_TRIGRAM_OVERLAP)));
+
+        byte[] shared = new byte[names.length];
+        int[] hits = new int[64];
+        int hitCount = 0;
+        for (int code : codes) {
+            int[] posting = trigramPostings[code];
+            if (posting == null || (!useAll && posting.length > frequentLimit)) {
+                continue;
+            }
+            for (int nameId : posting) {
+                byte seen = shared[nameId];
+                if (seen == Byte.MAX_VALUE) {
+                    continue;
+                }
+                shared[nameId] = (byte) (seen + 1);
+                if (seen + 1 == required) {
+                    if (hitCount == hits.length) {
+                        hits = Arrays.copyOf(hits, hitCount * 2);
+                    }
+                    hits[hitCount++] = nameId;
+                }
+            }
+        }
+
+        int[] phonetic = phoneticPostings.getOrDefault(NameSimilarity.phoneticKey(query), new int[0]);
+        if (phonetic.length > frequentLimit) {
+            phonetic = new int[0];
+        }
+        int total = hitCount;
+        int[] result = Arrays.copyOf(hits, hitCount + phonetic.length);
+        for (int nameId : phonetic) {
+            if (shared[nameId] < required) {
+                result[total++] = nameId;
+            }
+        }
+        return total == result.length ? result : Arrays.copyOf(result, total);
+    }
+
+    private static void addName(String name, int entryId, List<String> normalizedNames, List<String> originalNames,
+                                List<Integer> owners) {
+        String normalized = NameNormalizer.normalize(name);
+        if (!normalized.isEmpty()) {
+            normalizedNames.add(normalized);
+            originalNames.add(name);
+            owners.add(entryId);
+        }
+    }
+
+    private static int[][] buildTrigramPostings(String[] names) {
+        int[][] nameTrigrams = new int[names.length][];
+        int[] sizes = new int[ALPHABET * ALPHABET * ALPHABET];
+        for (int i = 0; i < names.length; i++) {
+            nameTrigrams[i] = trigrams(names[i]);
+            for (int code : nameTrigrams[i]) {
+                sizes[code]++;
+            }
+        }
+        int[][] postings = new int[sizes.length][];
+        int[] filled = new int[sizes.length];
+        for (int i = 0; i < names.length; i++) {
+            for (int code : nameTrigrams[i]) {
+                if (postings[code] == null) {
+                    postings[code] = new int[sizes[code]];
+                }
+                postings[code][filled[code]++] = i;
+            }
+        }
+        return postings;
+    }
+
+    private static Map<String, int[]> buildPhoneticPostings(String[] names) {
+        String[] keys = new String[names.length];
+        Map<String, int[]> sizes = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            keys[i] = NameSimilarity.phoneticKey(names[i]);
+            sizes.computeIfAbsent(keys[i], key -> new int[1])[0]++;
+        }
+        Map<String, int[]> postings = new HashMap<>(sizes.size() * 2);
+        Map<String, int[]> filled = new HashMap<>(sizes.size() * 2);
+        for (int i = 0; i < names.length; i++) {
+            int[] posting = postings.computeIfAbsent(keys[i], key -> new int[sizes.get(key)[0]]);
+            posting[filled.computeIfAbsent(keys[i], key -> new int[1])[0]++] = i;
+        }
+        return postings;
+    }
+
+    /**
+     * Distinct trigram codes of the name padded with a space on each side.
+     */
+    static int[] trigrams(String normalized) {
+        int length = normalized.length() + 2;
+        int[] codes = new int[Math.max(0, length - 2)];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = (symbol(normalized, i - 1) * ALPHABET + symbol(normalized, i)) * ALPHABET
+                    + symbol(normalized, i + 1);
+        }
+        return Arrays.stream(codes).distinct().toArray();
+    }
+
+    private static int symbol(String normalized, int index) {
+        if (index < 0 || index >= normalized.length()) {
+            return 0;
+        }
+        char c = normalized.charAt(index);
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.banking.kyc.screening;
+
+/**
+ * A candidate hit: the entry, the name or alias that matched, and its similarity in [0, 1].
+ */
+public record WatchlistMatch(WatchlistEntry entry, String matchedName, double score) {
+}
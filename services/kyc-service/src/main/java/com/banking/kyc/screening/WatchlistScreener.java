@@ -0,0 +1,247 @@
+package com.banking.kyc.screening;
+
+import com.banking.kyc.domain.ScreeningType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Screens names against the sanctions and PEP lists in {@code kyc.screening.lists-dir}.
+ * <p>
+ * Every {@code *.csv} file in the directory goes into one {@link WatchlistIndex}. The directory
+ * is polled, and when a file is added, removed or its contents change a new index is built
+ * alongside the current one and swapped in with a single volatile write. Searches in progress
+ * keep using the index they started with. If a file fails to load, the previous index stays in
+ * service. List files should be replaced by an atomic rename so a half-written file is never
+ * picked up. A category with no entries in service, because its list is missing, empty or never
+ * loaded, is reported by {@link #missingCategories}, so screening against it fails closed.
+ * <p>
+ * Replacing lists that were already in service publishes a {@link WatchlistsUpdatedEvent} with
+ * the added and modified entries, so existing customers can be rescreened against just those. On
+ * startup the lists are compared with the {@link RescreenedWatchlists} instead, so a change made
+ * while the service was down is rescreened too. With nothing stored yet, the first lists loaded
+ * become the baseline.
+ */
+@Component
+public class WatchlistScreener implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchlistScreener.class);
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final RescreenedWatchlists rescreened;
+    private final Path listsDirectory;
+    private final double minScore;
+    private final int maxMatches;
+    private volatile LoadedLists current = new LoadedLists(WatchlistIndex.EMPTY, "");
+    private volatile String lastLoadFailure;
+    // Only touched under the reload lock
+    private Map<Path, FileDigest> fileDigests = Map.of();
+
+    public WatchlistScreener(
+            ApplicationEventPublisher eventPublisher,
+            RescreenedWatchlists rescreened,
+            @Value("${kyc.screening.lists-dir:watchlists}") String listsDirectory,
+            @Value("${kyc.screening.review-threshold:0.88}") double minScore,
+            @Value("${kyc.screening.max-matches:10}") int maxMatches) {
+        this.eventPublisher = eventPublisher;
+        this.rescreened = rescreened;
+        this.listsDirectory = Path.of(listsDirectory);
+        this.minScore = minScore;
+        this.maxMatches = maxMatches;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reloadIfChanged();
+    }
+
+    /**
+     * Matches scoring at least the review threshold, best first.
+     */
+    public List<WatchlistMatch> screen(String name, Set<ScreeningType> categories) {
+        return current.index().search(name, categories, minScore, maxMatches);
+    }
+
+    /**
+     * Those of {@code categories} that have no entries in service.
+     */
+    public Set<ScreeningType> missingCategories(Set<ScreeningType> categories) {
+        EnumSet<ScreeningType> missing = EnumSet.noneOf(ScreeningType.class);
+        missing.addAll(categories);
+        missing.removeAll(current.index().categories());
+        return missing;
+    }
+
+    /**
+     * Why the last attempt to load changed lists failed, or null when it succeeded.
+     */
+    public String lastLoadFailure() {
+        return lastLoadFailure;
+    }
+
+    public WatchlistIndex index() {
+        return current.index();
+    }
+
+    public String fingerprint() {
+        return current.fingerprint();
+    }
+
+    /**
+     * The index in service together with its fingerprint, read at once.
+     */
+    public LoadedLists lists() {
+        return current;
+    }
+
+    public double minScore() {
+        return minScore;
+    }
+
+    public int maxMatches() {
+        return maxMatches;
+    }
+
+    @Scheduled(fixedDelayString = "${kyc.screening.lists.poll-interval-ms:30000}",
+            initialDelayString = "${kyc.screening.lists.poll-interval-ms:30000}")
+    public synchronized void reloadIfChanged() {
+        try {
+            List<Path> files = listFiles();
+            String fingerprint = fingerprint(files);
+            if (fingerprint.equals(current.fingerprint())) {
+                lastLoadFailure = null;
+                return;
+            }
+            long start = System.nanoTime();
+            List<WatchlistEntry> entries = new ArrayList<>();
+            for (Path file : files) {
+                entries.addAll(WatchlistFileLoader.load(file));
+            }
+            WatchlistIndex index = WatchlistIndex.of(entries);
+            LoadedLists previous = current;
+            current = new LoadedLists(index, fingerprint);
+            lastLoadFailure = null;
+            log.info("Loaded {} watchlist entries ({} names) from {} files in {} ms",
+                    index.entryCount(), index.nameCount(), files.size(), (System.nanoTime() - start) / 1_000_000);
+            List<WatchlistEntry> changed = previous.fingerprint().isEmpty()
+                    ? changedSinceRescreening(fingerprint, entries)
+                    : changedEntries(previous.index(), entries);
+            if (!changed.isEmpty()) {
+                log.info("{} watchlist entries were added or changed", changed.size());
+                eventPublisher.publishEvent(new WatchlistsUpdatedEvent(WatchlistIndex.of(changed), index, fingerprint));
+            }
+        } catch (IOException | RuntimeException e) {
+            lastLoadFailure = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            log.error("Failed to load watchlists from {}; keeping the current lists", listsDirectory, e);
+        }
+    }
+
+    /**
+     * Entries not present, field for field, in the previous lists. Removed entries are not
+     * returned: they cannot produce new matches.
+     */
+    private static List<WatchlistEntry> changedEntries(WatchlistIndex previous, List<WatchlistEntry> entries) {
+        Set<WatchlistEntry> known = new HashSet<>(previous.entries());
+        return entries.stream().filter(entry -> !known.contains(entry)).toList();
+    }
+
+    /**
+     * Entries added or changed since the lists last rescreened against. Without stored lists the
+     * ones just loaded are stored as the baseline and nothing counts as changed.
+     */
+    private List<WatchlistEntry> changedSinceRescreening(String fingerprint, List<WatchlistEntry> entries) {
+        try {
+            Optional<RescreenedWatchlists.Baseline> baseline = rescreened.load();
+            if (baseline.isEmpty()) {
+                rescreened.replace(fingerprint, entries);
+                return List.of();
+            }
+            if (baseline.get().fingerprint().equals(fingerprint)) {
+                return List.of();
+            }
+            return baseline.get().changed(entries);
+        } catch (RuntimeException e) {
+            log.error("Failed to compare watchlists with the lists last rescreened against", e);
+            return List.of();
+        }
+    }
+
+    private List<Path> listFiles() throws IOException {
+        if (!Files.isDirectory(listsDirectory)) {
+            return List.of();
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(listsDirectory, "*.csv")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * File names with a SHA-256 of their contents, so every instance reading the same lists gets
+     * the same fingerprint whatever the files' timestamps. A file is only hashed again when its
+     * size or modification time changed since it was last hashed.
+     */
+    private String fingerprint(List<Path> files) throws IOException {
+        TreeMap<String, String> parts = new TreeMap<>();
+        Map<Path, FileDigest> digests = new HashMap<>();
+        for (Path file : files) {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            FileDigest digest = fileDigests.get(file);
+            if (digest == null || digest.size() != attributes.size()
+                    || !digest.modified().equals(attributes.lastModifiedTime())) {
+                digest = new FileDigest(attributes.size(), attributes.lastModifiedTime(), sha256(file));
+            }
+            digests.put(file, digest);
+            parts.put(file.getFileName().toString(), digest.sha256());
+        }
+        fileDigests = digests;
+        return parts.toString();
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private record FileDigest(long size, FileTime modified, String sha256) {
+    }
+
+    public record LoadedLists(WatchlistIndex index, String fingerprint) {
+    }
+}
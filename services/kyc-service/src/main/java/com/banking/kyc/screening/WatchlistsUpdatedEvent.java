@@ -0,0 +1,9 @@
+package com.banking.kyc.screening;
+
+/**
+ * Published after new lists replaced ones already in service, or replaced the lists last
+ * rescreened against when they changed while no instance was running. {@code changes} indexes
+ * only the entries that were added or modified, {@code lists} every entry now in service.
+ */
+public record WatchlistsUpdatedEvent(WatchlistIndex changes, WatchlistIndex lists, String fingerprint) {
+}
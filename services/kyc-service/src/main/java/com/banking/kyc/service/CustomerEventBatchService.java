@@ -0,0 +1,58 @@
+package com.banking.kyc.service;
+
+import com.banking.kyc.domain.KYCStatus;
+import com.banking.kyc.repository.KYCCaseBatchRepository;
+import com.banking.kyc.repository.KYCCaseRepository;
+import com.banking.kyc.repository.ScreeningSubjectRepository;
+import jakarta.transaction.Transactional;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies a deduplicated batch of customer events in one transaction. Every write is keyed by
+ * customer, so applying the same batch again changes nothing.
+ */
+@Service
+@Transactional
+public class CustomerEventBatchService {
+
+    private static final List<KYCStatus> CLOSED_STATUSES = List.of(KYCStatus.APPROVED, KYCStatus.REJECTED);
+
+    private final KYCCaseRepository kycCaseRepository;
+    private final KYCCaseBatchRepository kycCaseBatchRepository;
+    private final ScreeningSubjectRepository screeningSubjectRepository;
+
+    public CustomerEventBatchService(KYCCaseRepository kycCaseRepository,
+                                     KYCCaseBatchRepository kycCaseBatchRepository,
+                                     ScreeningSubjectRepository screeningSubjectRepository) {
+        this.kycCaseRepository = kycCaseRepository;
+        this.kycCaseBatchRepository = kycCaseBatchRepository;
+        this.screeningSubjectRepository = screeningSubjectRepository;
+    }
+
+    /**
+     * Opens an onboarding case for each created customer without an active case, records the
+     * names customers are screened under and forgets deleted customers. Returns the number of
+     * cases opened.
+     */
+    public int apply(Set<UUID> createdCustomers, Map<UUID, String> subjectNames, Set<UUID> deletedCustomers) {
+        int opened = 0;
+        if (!createdCustomers.isEmpty()) {
+            Set<UUID> missing = new HashSet<>(createdCustomers);
+            missing.removeAll(kycCaseRepository.findCustomerIdsWithCaseNotIn(createdCustomers, CLOSED_STATUSES));
+            opened = kycCaseBatchRepository.insertOnboardingCases(missing, Instant.now());
+        }
+        if (!subjectNames.isEmpty()) {
+            screeningSubjectRepository.upsertAll(subjectNames);
+        }
+        if (!deletedCustomers.isEmpty()) {
+            screeningSubjectRepository.deleteAll(deletedCustomers);
+        }
+        return opened;
+    }
+}
@@ -5,28 +5,55 @@ import com.banking.kyc.domain.ScreeningResultStatus;
 import com.banking.kyc.domain.ScreeningType;
 import com.banking.kyc.repository.KYCCaseRepository;
 import com.banking.kyc.repository.ScreeningResultRepository;
+import com.banking.kyc.repository.ScreeningSubjectRepository;
+import com.banking.kyc.screening.WatchlistMatch;
+import com.banking.kyc.screening.WatchlistScreener;
 import com.banking.kyc.web.dto.CreateScreeningRequest;
 import jakarta.transaction.Transactional;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 @Transactional
 public class ScreeningService {
 
+    private static final String INTERNAL_PROVIDER = "INTERNAL";
+
+    // Watchlist categories searched for each screening type the internal index can answer
+    private static final Map<ScreeningType, Set<ScreeningType>> LIST_CATEGORIES = Map.of(
+            ScreeningType.SANCTIONS, Set.of(ScreeningType.SANCTIONS),
+            ScreeningType.PEP, Set.of(ScreeningType.PEP),
+            ScreeningType.WATCHLIST, Set.of(ScreeningType.WATCHLIST),
+            ScreeningType.COMPREHENSIVE, Set.of(ScreeningType.SANCTIONS, ScreeningType.PEP, ScreeningType.WATCHLIST)
+    );
+
     private final ScreeningResultRepository screeningResultRepository;
     private final KYCCaseRepository kycCaseRepository;
     private final KYCService kycService;
+    private final WatchlistScreener watchlistScreener;
+    private final ScreeningSubjectRepository screeningSubjectRepository;
+    private final double matchThreshold;
 
     public ScreeningService(
             ScreeningResultRepository screeningResultRepository,
             KYCCaseRepository kycCaseRepository,
-            KYCService kycService
+            KYCService kycService,
+            WatchlistScreener watchlistScreener,
+            ScreeningSubjectRepository screeningSubjectRepository,
+            @Value("${kyc.screening.match-threshold:0.97}") double matchThreshold
     ) {
         this.screeningResultRepository = screeningResultRepository;
         this.kycCaseRepository = kycCaseRepository;
         this.kycService = kycService;
+        this.watchlistScreener = watchlistScreener;
+        this.screeningSubjectRepository = screeningSubjectRepository;
+        this.matchThreshold = matchThreshold;
     }
 
     public ScreeningResult performScreening(CreateScreeningRequest request) {
@@ -34,26 +61,31 @@ public class ScreeningService {
         var kycCase = kycCaseRepository.findById(request.kycCaseId())
                 .orElseThrow(() -> new IllegalArgumentException("KYC case not found: " + request.kycCaseId()));
 
-        // In real implementation, this would call an external screening provider
-        // For now, simulate screening result
         ScreeningResult result = new ScreeningResult();
         result.setKycCaseId(request.kycCaseId());
         result.setCustomerId(request.customerId());
         result.setScreeningType(request.screeningType());
-        result.setScreeningProvider(request.screeningProvider() != null ? request.screeningProvider() : "INTERNAL");
+        result.setScreeningProvider(request.screeningProvider() != null ? request.screeningProvider() : INTERNAL_PROVIDER);
         result.setScreeningReference(request.screeningReference());
 
-        // Simulate screening logic
-        ScreeningResultStatus screeningResult = determineScreeningResult(request);
-        result.setResult(screeningResult);
-
-        if (screeningResult == ScreeningResultStatus.MATCH) {
-            result.setMatchScore(request.matchScore() != null ? request.matchScore() : 85);
-            result.setMatchedName(request.matchedName());
-            result.setMatchedList(request.matchedList());
-            result.setMatchDetails(request.matchDetails());
+        if (screensAgainstWatchlists(request)) {
+            screeningSubjectRepository.upsert(request.customerId(), request.subjectName().trim());
+            Set<ScreeningType> categories = LIST_CATEGORIES.get(request.screeningType());
+            applyWatchlistMatches(result, watchlistScreener.screen(request.subjectName(), categories),
+                    watchlistScreener.missingCategories(categories));
         } else {
-            result.setMatchScore(0);
+            // Outcome reported by an external provider (or no name to screen)
+            ScreeningResultStatus screeningResult = determineScreeningResult(request);
+            result.setResult(screeningResult);
+
+            if (screeningResult == ScreeningResultStatus.MATCH) {
+                result.setMatchScore(request.matchScore() != null ? request.matchScore() : 85);
+                result.setMatchedName(request.matchedName());
+                result.setMatchedList(request.matchedList());
+                result.setMatchDetails(request.matchDetails());
+            } else {
+                result.setMatchScore(0);
+            }
         }
 
         ScreeningResult saved = screeningResultRepository.save(result);
@@ -82,9 +114,42 @@ public class ScreeningService {
         return screeningResultRepository.save(result);
     }
 
+    private boolean screensAgainstWatchlists(CreateScreeningRequest request) {
+        return request.subjectName() != null && !request.subjectName().isBlank()
+                && LIST_CATEGORIES.containsKey(request.screeningType())
+                && (request.screeningProvider() == null || INTERNAL_PROVIDER.equalsIgnoreCase(request.screeningProvider()));
+    }
+
+    /**
+     * The best candidate decides the outcome: a MATCH at or above the match threshold, otherwise
+     * REQUIRES_REVIEW. Every candidate is listed in the match details for the reviewer. A name
+     * is never cleared against a category with no list in service; it goes to review instead.
+     */
+    private void applyWatchlistMatches(ScreeningResult result, List<WatchlistMatch> matches,
+                                       Set<ScreeningType> missingCategories) {
+        if (matches.isEmpty()) {
+            if (missingCategories.isEmpty()) {
+                result.setResult(ScreeningResultStatus.CLEAR);
+            } else {
+                result.setResult(ScreeningResultStatus.REQUIRES_REVIEW);
+                result.setMatchDetails("No " + missingCategories + " watchlist in service; screen manually");
+            }
+            result.setMatchScore(0);
+            return;
+        }
+        WatchlistMatch best = matches.get(0);
+        result.setResult(best.score() >= matchThreshold ? ScreeningResultStatus.MATCH : ScreeningResultStatus.REQUIRES_REVIEW);
+        result.setMatchScore((int) Math.round(best.score() * 100));
+        result.setMatchedName(best.matchedName());
+        result.setMatchedList(best.entry().listName());
+        result.setMatchDetails(matches.stream()
+                .map(match -> String.format(Locale.ROOT, "%s/%s \"%s\" (%s) %.3f", match.entry().listName(),
+                        match.entry().id(), match.matchedName(), match.entry().category(), match.score()))
+                .collect(Collectors.joining("; ")));
+    }
+
     private ScreeningResultStatus determineScreeningResult(CreateScreeningRequest request) {
-        // In real implementation, this would call external screening API
-        // For now, return CLEAR by default (can be overridden in request)
+        // Provider outcome from the request, CLEAR when none was given
         return request.result() != null ? request.result() : ScreeningResultStatus.CLEAR;
     }
 
@@ -0,0 +1,73 @@
+package com.banking.kyc.web;
+
+import com.banking.kyc.screening.RescreeningJob;
+import com.banking.kyc.screening.RescreeningRun;
+import com.banking.kyc.web.dto.RescreeningRunResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/kyc/rescreening")
+@Tag(name = "Rescreening", description = "Rescreening of all customers against the watchlists")
+public class RescreeningController {
+
+    private final RescreeningJob rescreeningJob;
+
+    public RescreeningController(RescreeningJob rescreeningJob) {
+        this.rescreeningJob = rescreeningJob;
+    }
+
+    @PostMapping
+    @Operation(
+            summary = "Start a full rescreening",
+            description = "Queues a rescreening of every customer against the full watchlists. List updates start a rescreening against the changed entries on their own."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Rescreening run queued")
+    })
+    public ResponseEntity<RescreeningRunResponse> startRescreening() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toResponse(rescreeningJob.startFullRescreening()));
+    }
+
+    @GetMapping("/{runId}")
+    @Operation(summary = "Get rescreening progress", description = "Retrieves the progress of a rescreening run")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rescreening run found"),
+            @ApiResponse(responseCode = "404", description = "Rescreening run not found")
+    })
+    public ResponseEntity<RescreeningRunResponse> getRescreeningRun(
+            @Parameter(description = "Rescreening run identifier", required = true)
+            @PathVariable UUID runId
+    ) {
+        return ResponseEntity.of(rescreeningJob.findRun(runId).map(this::toResponse));
+    }
+
+    private RescreeningRunResponse toResponse(RescreeningRun run) {
+        return new RescreeningRunResponse(
+                run.id(),
+                run.scope(),
+                run.changedEntries(),
+                run.status(),
+                run.subjectsTotal(),
+                run.subjectsScreened(),
+                run.resultsWritten(),
+                run.casesFlagged(),
+                run.subjectsWithoutCase(),
+                run.errorMessage(),
+                run.startedAt(),
+                run.heartbeatAt(),
+                run.completedAt()
+        );
+    }
+}
@@ -15,7 +15,8 @@ public record CreateScreeningRequest(
         String matchedList,
         String matchDetails,
         String screeningProvider,
-        String screeningReference
+        String screeningReference,
+        String subjectName
 ) {
 }
 
@@ -0,0 +1,21 @@
+package com.banking.kyc.web.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record RescreeningRunResponse(
+        UUID id,
+        String scope,
+        int listEntries,
+        String status,
+        long subjectsTotal,
+        long subjectsScreened,
+        long resultsWritten,
+        long casesFlagged,
+        long subjectsWithoutCase,
+        String errorMessage,
+        Instant startedAt,
+        Instant heartbeatAt,
+        Instant completedAt
+) {
+}
@@ -0,0 +1,28 @@
+-- Name each customer is screened under, kept from screening requests and customer events
+CREATE TABLE IF NOT EXISTS screening_subjects (
+    customer_id UUID PRIMARY KEY,
+    full_name VARCHAR(255) NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS rescreening_runs (
+    id UUID PRIMARY KEY,
+    scope VARCHAR(16) NOT NULL,
+    list_fingerprint TEXT NOT NULL,
+    changed_entries INTEGER NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    last_customer_id UUID,
+    subjects_total BIGINT NOT NULL DEFAULT 0,
+    subjects_screened BIGINT NOT NULL DEFAULT 0,
+    results_written BIGINT NOT NULL DEFAULT 0,
+    cases_flagged BIGINT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    started_at TIMESTAMPTZ NOT NULL,
+    heartbeat_at TIMESTAMPTZ,
+    completed_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_rescreening_runs_status ON rescreening_runs (status);
+-- Every instance sees the same list change; only one of them rescreens it
+CREATE UNIQUE INDEX IF NOT EXISTS uq_rescreening_runs_delta
+    ON rescreening_runs (md5(list_fingerprint)) WHERE scope = 'DELTA';
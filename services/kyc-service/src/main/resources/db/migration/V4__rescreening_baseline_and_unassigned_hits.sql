@@ -0,0 +1,19 @@
+-- Rescreening hits on customers without a KYC case are kept rather than dropped
+ALTER TABLE screening_results ALTER COLUMN kyc_case_id DROP NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_screening_results_without_case
+    ON screening_results (customer_id) WHERE kyc_case_id IS NULL;
+
+ALTER TABLE rescreening_runs ADD COLUMN IF NOT EXISTS subjects_without_case BIGINT NOT NULL DEFAULT 0;
+
+-- Lists the book was last rescreened against, so a restart can work out what changed meanwhile
+CREATE TABLE IF NOT EXISTS rescreened_watchlists (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    list_fingerprint TEXT NOT NULL,
+    entry_count INTEGER NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL
+);
+
+-- SHA-256 of every field of each entry in those lists
+CREATE TABLE IF NOT EXISTS rescreened_watchlist_entries (
+    entry_digest CHAR(64) PRIMARY KEY
+);
@@ -0,0 +1,11 @@
+-- Progress of loading every existing customer into screening_subjects from customer-service;
+-- customers known only from before the subjects table existed would otherwise never be rescreened
+CREATE TABLE IF NOT EXISTS screening_subject_backfill (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    last_customer_id UUID,
+    customers_total BIGINT,
+    completed_at TIMESTAMPTZ,
+    updated_at TIMESTAMPTZ NOT NULL
+);
+
+INSERT INTO screening_subject_backfill (id, updated_at) VALUES (1, now()) ON CONFLICT (id) DO NOTHING;
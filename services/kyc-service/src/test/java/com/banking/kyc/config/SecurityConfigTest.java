@@ -19,6 +19,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc(addFilters = false)
 @TestPropertySource(properties = {
         "kyc.security.enabled=false",
+        "kyc.screening.required-categories=",
+        "kyc.screening.subjects.backfill.enabled=false",
         "spring.flyway.enabled=false",
         "spring.datasource.url=jdbc:h2:mem:testdb",
         "spring.datasource.driver-class-name=org.h2.Driver",
@@ -0,0 +1,49 @@
+package com.banking.kyc.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.banking.kyc.domain.ScreeningType;
+import com.banking.kyc.screening.WatchlistIndex;
+import com.banking.kyc.screening.WatchlistScreener;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+@ExtendWith(MockitoExtension.class)
+class WatchlistHealthIndicatorTest {
+
+    private static final Set<ScreeningType> REQUIRED = Set.of(ScreeningType.SANCTIONS, ScreeningType.PEP);
+
+    @Mock
+    private WatchlistScreener watchlistScreener;
+
+    @Test
+    void health_IsDownWhileARequiredCategoryHasNoEntries() {
+        when(watchlistScreener.index()).thenReturn(WatchlistIndex.EMPTY);
+        when(watchlistScreener.missingCategories(REQUIRED)).thenReturn(Set.of(ScreeningType.PEP));
+        when(watchlistScreener.lastLoadFailure()).thenReturn("pep.csv:1: expected header");
+
+        Health health = new WatchlistHealthIndicator(watchlistScreener, REQUIRED).health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails())
+                .containsEntry("missingCategories", Set.of(ScreeningType.PEP))
+                .containsEntry("lastLoadFailure", "pep.csv:1: expected header");
+    }
+
+    @Test
+    void health_IsUpWhenEveryRequiredCategoryIsLoaded() {
+        when(watchlistScreener.index()).thenReturn(WatchlistIndex.EMPTY);
+        when(watchlistScreener.missingCategories(REQUIRED)).thenReturn(Set.of());
+
+        Health health = new WatchlistHealthIndicator(watchlistScreener, REQUIRED).health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).doesNotContainKey("missingCategories");
+    }
+}
@@ -1,106 +1,138 @@
 package com.banking.kyc.messaging;
 
-import com.banking.kyc.domain.KYCCase;
-import com.banking.kyc.domain.KYCStatus;
-import com.banking.kyc.domain.RiskLevel;
-import com.banking.kyc.repository.KYCCaseRepository;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.kyc.service.CustomerEventBatchService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
-import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
 
 @ExtendWith(MockitoExtension.class)
 class CustomerEventConsumerTest {
 
     @Mock
-    private KYCCaseRepository kycCaseRepository;
+    private CustomerEventBatchService batchService;
+
+    @Mock
+    private DeadLetterPublishingRecoverer deadLetters;
 
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private SimpleMeterRegistry meterRegistry;
     private CustomerEventConsumer consumer;
-    private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
-        objectMapper = new ObjectMapper();
-        consumer = new CustomerEventConsumer(kycCaseRepository, objectMapper);
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new CustomerEventConsumer(batchService, new ObjectMapper(), deadLetters, meterRegistry);
     }
 
     @Test
-    void handleCustomerEvent_WithCustomerCreated_CreatesKYCCase() throws Exception {
-        UUID customerId = UUID.randomUUID();
-        String eventJson = String.format(
-                "{\"eventType\":\"CUSTOMER_CREATED\",\"customerId\":\"%s\"}",
-                customerId
-        );
-
-        when(kycCaseRepository.findByCustomerIdAndStatusNotIn(eq(customerId), any()))
-                .thenReturn(Optional.empty());
-
-        consumer.handleCustomerEvent(eventJson);
-
-        ArgumentCaptor<KYCCase> caseCaptor = ArgumentCaptor.forClass(KYCCase.class);
-        verify(kycCaseRepository).save(caseCaptor.capture());
-
-        KYCCase savedCase = caseCaptor.getValue();
-        assertThat(savedCase.getCustomerId()).isEqualTo(customerId);
-        assertThat(savedCase.getCaseType()).isEqualTo("ONBOARDING");
-        assertThat(savedCase.getStatus()).isEqualTo(KYCStatus.PENDING);
-        assertThat(savedCase.getRiskLevel()).isEqualTo(RiskLevel.LOW);
+    void handleCustomerEvents_AppliesOneChangePerCustomer() {
+        UUID created = UUID.randomUUID();
+        UUID updated = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        when(batchService.apply(any(), any(), any())).thenReturn(1);
+
+        consumer.handleCustomerEvents(List.of(
+                record(0, event("CUSTOMER_CREATED", created, "Jane", "Roe")),
+                record(1, event("CUSTOMER_CREATED", created, "Jane", "Roe")),
+                record(2, event("CUSTOMER_UPDATED", created, "Jane", "Doe")),
+                record(3, event("CUSTOMER_UPDATED", updated, "John", "Smith")),
+                record(4, event("CUSTOMER_CREATED", deleted, "Max", "Mustermann")),
+                record(5, event("CUSTOMER_DELETED", deleted, "Max", "Mustermann"))
+        ), acknowledgment);
+
+        verify(batchService).apply(
+                Set.of(created, deleted),
+                Map.of(created, "Jane Doe", updated, "John Smith"),
+                Set.of(deleted));
+        verify(acknowledgment).acknowledge();
+        assertThat(meterRegistry.counter("kyc.customer-events.cases-opened").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("kyc.customer-events.age").count()).isEqualTo(6);
     }
 
     @Test
-    void handleCustomerEvent_WithExistingKYCCase_DoesNotCreateDuplicate() throws Exception {
+    void handleCustomerEvents_RoutesUndecodableRecordsToDeadLetterTopic() {
         UUID customerId = UUID.randomUUID();
-        String eventJson = String.format(
-                "{\"eventType\":\"CUSTOMER_CREATED\",\"customerId\":\"%s\"}",
-                customerId
-        );
-
-        KYCCase existingCase = new KYCCase();
-        existingCase.setId(UUID.randomUUID());
-        existingCase.setCustomerId(customerId);
-        existingCase.setStatus(KYCStatus.PENDING);
-
-        when(kycCaseRepository.findByCustomerIdAndStatusNotIn(eq(customerId), any()))
-                .thenReturn(Optional.of(existingCase));
-
-        consumer.handleCustomerEvent(eventJson);
+        ConsumerRecord<String, String> invalidJson = record(0, "{invalid json}");
+        ConsumerRecord<String, String> missingCustomer = record(1, "{\"eventType\":\"CUSTOMER_CREATED\"}");
+
+        consumer.handleCustomerEvents(List.of(
+                invalidJson, missingCustomer, record(2, event("CUSTOMER_CREATED", customerId, "Jane", "Roe"))
+        ), acknowledgment);
+
+        verify(batchService).apply(Set.of(customerId), Map.of(customerId, "Jane Roe"), Set.of());
+        verify(deadLetters).accept(eq(invalidJson), any());
+        verify(deadLetters).accept(eq(missingCustomer), any());
+        verify(acknowledgment).acknowledge();
+        assertThat(meterRegistry.counter("kyc.customer-events.dead-lettered").count()).isEqualTo(2);
+    }
 
-        verify(kycCaseRepository, never()).save(any());
+    @Test
+    void handleCustomerEvents_AppliesEventsBeforeAnUnstorableNameAndNamesItsRecord() {
+        UUID before = UUID.randomUUID();
+        UUID tooLong = UUID.randomUUID();
+        UUID after = UUID.randomUUID();
+        ConsumerRecord<String, String> invalidJson = record(0, "{invalid json}");
+
+        assertThatThrownBy(() -> consumer.handleCustomerEvents(List.of(
+                invalidJson,
+                record(1, event("CUSTOMER_CREATED", before, "Jane", "Roe")),
+                record(2, event("CUSTOMER_CREATED", tooLong, "J".repeat(256), "Roe")),
+                record(3, event("CUSTOMER_CREATED", after, "John", "Smith"))
+        ), acknowledgment))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> {
+                    assertThat(e.getIndex()).isEqualTo(2);
+                    assertThat(e.getCause()).isInstanceOf(InvalidCustomerEventException.class);
+                });
+
+        verify(batchService).apply(Set.of(before), Map.of(before, "Jane Roe"), Set.of());
+        verify(deadLetters).accept(eq(invalidJson), any());
+        verify(acknowledgment, never()).acknowledge();
+        assertThat(meterRegistry.counter("kyc.customer-events.dead-lettered").count()).isEqualTo(2);
     }
 
     @Test
-    void handleCustomerEvent_WithNonCustomerCreatedEvent_DoesNothing() throws Exception {
-        UUID customerId = UUID.randomUUID();
-        String eventJson = String.format(
-                "{\"eventType\":\"CUSTOMER_UPDATED\",\"customerId\":\"%s\"}",
-                customerId
-        );
+    void handleCustomerEvents_WhenApplyingFails_DoesNotAcknowledge() {
+        when(batchService.apply(any(), any(), any())).thenThrow(new IllegalStateException("database unavailable"));
 
-        consumer.handleCustomerEvent(eventJson);
+        assertThatThrownBy(() -> consumer.handleCustomerEvents(
+                List.of(record(0, event("CUSTOMER_CREATED", UUID.randomUUID(), "Jane", "Roe"))), acknowledgment))
+                .isInstanceOf(IllegalStateException.class);
 
-        verify(kycCaseRepository, never()).findByCustomerIdAndStatusNotIn(any(), any());
-        verify(kycCaseRepository, never()).save(any());
+        verify(acknowledgment, never()).acknowledge();
     }
 
-    @Test
-    void handleCustomerEvent_WithInvalidJson_HandlesGracefully() {
-        String invalidJson = "{invalid json}";
-
-        consumer.handleCustomerEvent(invalidJson);
+    private static ConsumerRecord<String, String> record(long offset, String value) {
+        return new ConsumerRecord<>("customer-events", 0, offset, System.currentTimeMillis(), TimestampType.CREATE_TIME,
+                0, value.length(), null, value, new RecordHeaders(), Optional.empty());
+    }
 
-        verify(kycCaseRepository, never()).save(any());
+    private static String event(String eventType, UUID customerId, String firstName, String lastName) {
+        return String.format("{\"eventType\":\"%s\",\"customerId\":\"%s\",\"firstName\":\"%s\",\"lastName\":\"%s\"}",
+                eventType, customerId, firstName, lastName);
     }
 }
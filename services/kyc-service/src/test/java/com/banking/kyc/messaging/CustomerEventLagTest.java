@@ -0,0 +1,56 @@
+package com.banking.kyc.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+class CustomerEventLagTest {
+
+    @Test
+    void gauge_ReportsTheLargestClientLevelRecordsLagMax() {
+        Map<String, Map<MetricName, ? extends Metric>> metrics = Map.of(
+                "consumer-kyc-service-1", Map.of(
+                        lagMax("consumer-kyc-service-1", Map.of()), metric(12.0),
+                        lagMax("consumer-kyc-service-1", Map.of("topic", "customer-events", "partition", "0")),
+                        metric(900.0)),
+                "consumer-kyc-service-2", Map.of(
+                        lagMax("consumer-kyc-service-2", Map.of()), metric(40.0)),
+                "consumer-kyc-service-3", Map.of(
+                        lagMax("consumer-kyc-service-3", Map.of()), metric(Double.NaN)));
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.metrics()).thenReturn(metrics);
+        KafkaListenerEndpointRegistry listenerRegistry = mock(KafkaListenerEndpointRegistry.class);
+        when(listenerRegistry.getListenerContainer(CustomerEventConsumer.LISTENER_ID)).thenReturn(container);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        new CustomerEventLag(listenerRegistry, meterRegistry);
+
+        assertThat(meterRegistry.get("kyc.customer-events.lag").gauge().value()).isEqualTo(40.0);
+    }
+
+    @Test
+    void recordsLagMax_IsUnknownBeforeTheListenerStarts() {
+        assertThat(CustomerEventLag.recordsLagMax(null)).isNaN();
+    }
+
+    private static MetricName lagMax(String clientId, Map<String, String> tags) {
+        Map<String, String> allTags = new HashMap<>(tags);
+        allTags.put("client-id", clientId);
+        return new MetricName("records-lag-max", "consumer-fetch-manager-metrics", "", allTags);
+    }
+
+    private static Metric metric(double value) {
+        Metric metric = mock(Metric.class);
+        when(metric.metricValue()).thenReturn(value);
+        return metric;
+    }
+}
@@ -0,0 +1,173 @@
+package com.banking.kyc.screening;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.kyc.domain.ScreeningType;
+import com.banking.kyc.integration.CustomerServiceClient;
+import com.banking.kyc.repository.ScreeningSubjectRepository;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class RescreeningJobTest {
+
+    private static final UUID VIKTOR = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID JANE = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID VIKTOR_CASE = UUID.randomUUID();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private WatchlistScreener screener;
+
+    @Mock
+    private RescreenedWatchlists rescreened;
+
+    @Mock
+    private CustomerServiceClient customerService;
+
+    @Mock
+    private ScreeningSubjectRepository subjects;
+
+    private RescreeningJob job;
+
+    @BeforeEach
+    void setUp() {
+        // Only runs that match anything read these
+        lenient().when(screener.minScore()).thenReturn(0.88);
+        lenient().when(screener.maxMatches()).thenReturn(10);
+        job = new RescreeningJob(jdbcTemplate, transactionManager, screener, rescreened, customerService, subjects,
+                0.97, 2, 2, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute_WritesResultsAndFlagsCasesOfMatchedSubjects() {
+        WatchlistIndex changes = WatchlistIndex.of(List.of(new WatchlistEntry(
+                "SDN-1", "OFAC_SDN", ScreeningType.SANCTIONS, "BOUT, Viktor", List.of("Victor Bout"), "RU")));
+        RescreeningRun run = new RescreeningRun(UUID.randomUUID(), RescreeningJob.SCOPE_DELTA, "f", 1, "RUNNING",
+                null, 2, 0, 0, 0, 0, null, null, null, null);
+
+        when(jdbcTemplate.query(contains("ORDER BY customer_id LIMIT"), any(RowMapper.class), eq(2)))
+                .thenReturn(List.of(new RescreeningJob.Subject(VIKTOR, "Viktor Bout"),
+                        new RescreeningJob.Subject(JANE, "Jane Roe")));
+        when(jdbcTemplate.query(contains("WHERE customer_id > ?"), any(RowMapper.class), eq(JANE), eq(2)))
+                .thenReturn(List.of());
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getObject("customer_id", UUID.class)).thenReturn(VIKTOR);
+            when(rs.getObject("id", UUID.class)).thenReturn(VIKTOR_CASE);
+            invocation.<RowCallbackHandler>getArgument(2).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("DISTINCT ON"), any(PreparedStatementSetter.class),
+                any(RowCallbackHandler.class));
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class))).thenReturn(new int[] {1});
+
+        job.execute(run, changes);
+
+        ArgumentCaptor<List<Object[]>> results = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO screening_results"), results.capture());
+        assertThat(results.getValue()).singleElement().satisfies(row -> {
+            assertThat(row[1]).isEqualTo(VIKTOR_CASE);
+            assertThat(row[2]).isEqualTo(VIKTOR);
+            assertThat(row[4]).isEqualTo("MATCH");
+            assertThat(row[10]).isEqualTo("RESCREEN-" + run.id());
+        });
+        ArgumentCaptor<List<Object[]>> flags = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("UPDATE kyc_cases"), flags.capture());
+        assertThat(flags.getValue()).singleElement().satisfies(row -> {
+            assertThat(row[0]).isEqualTo("HIGH");
+            assertThat(row[2]).isEqualTo(VIKTOR_CASE);
+        });
+        verify(jdbcTemplate).update(contains("subjects_screened = subjects_screened + ?"),
+                eq(JANE), eq(2), eq(1), eq(1), eq(0), any(), eq(run.id()));
+        verify(jdbcTemplate).update(contains("status = 'COMPLETED'"), any(), any(), eq(run.id()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute_KeepsHitsOfSubjectsWithoutACaseAndCountsThem() {
+        WatchlistIndex changes = WatchlistIndex.of(List.of(new WatchlistEntry(
+                "SDN-1", "OFAC_SDN", ScreeningType.SANCTIONS, "BOUT, Viktor", List.of("Victor Bout"), "RU")));
+        RescreeningRun run = new RescreeningRun(UUID.randomUUID(), RescreeningJob.SCOPE_DELTA, "f", 1, "RUNNING",
+                null, 1, 0, 0, 0, 0, null, null, null, null);
+
+        when(jdbcTemplate.query(contains("ORDER BY customer_id LIMIT"), any(RowMapper.class), eq(2)))
+                .thenReturn(List.of(new RescreeningJob.Subject(VIKTOR, "Viktor Bout")));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class))).thenReturn(new int[] {1});
+
+        job.execute(run, changes);
+
+        ArgumentCaptor<List<Object[]>> results = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO screening_results"), results.capture());
+        assertThat(results.getValue()).singleElement().satisfies(row -> {
+            assertThat(row[1]).isNull();
+            assertThat(row[2]).isEqualTo(VIKTOR);
+            assertThat(row[4]).isEqualTo("MATCH");
+        });
+        verify(jdbcTemplate, never()).batchUpdate(contains("UPDATE kyc_cases"), any(List.class));
+        verify(jdbcTemplate).update(contains("subjects_screened = subjects_screened + ?"),
+                eq(VIKTOR), eq(1), eq(1), eq(0), eq(1), any(), eq(run.id()));
+    }
+
+    @Test
+    void onWatchlistsUpdated_StoresTheListsWithTheQueuedRun() {
+        WatchlistEntry entry = new WatchlistEntry(
+                "SDN-1", "OFAC_SDN", ScreeningType.SANCTIONS, "BOUT, Viktor", List.of("Victor Bout"), "RU");
+        WatchlistIndex lists = WatchlistIndex.of(List.of(entry));
+        when(customerService.countCustomers()).thenReturn(120_000L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        job.onWatchlistsUpdated(new WatchlistsUpdatedEvent(lists, lists, "f2"));
+
+        verify(jdbcTemplate).update(contains("INSERT INTO rescreening_runs"), any(), eq(RescreeningJob.SCOPE_DELTA),
+                eq("f2"), eq(1), eq(120_000L), any(), any());
+        verify(rescreened).replace("f2", List.of(entry));
+        job.destroy();
+    }
+
+    @Test
+    void onWatchlistsUpdated_CountsLocalSubjectsWhenCustomerServiceIsDown() {
+        WatchlistIndex lists = WatchlistIndex.of(List.of(new WatchlistEntry(
+                "SDN-1", "OFAC_SDN", ScreeningType.SANCTIONS, "BOUT, Viktor", List.of(), "RU")));
+        when(customerService.countCustomers()).thenThrow(new IllegalStateException("connection refused"));
+        when(subjects.count()).thenReturn(7L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        job.onWatchlistsUpdated(new WatchlistsUpdatedEvent(lists, lists, "f3"));
+
+        verify(jdbcTemplate).update(contains("INSERT INTO rescreening_runs"), any(), eq(RescreeningJob.SCOPE_DELTA),
+                eq("f3"), eq(1), eq(7L), any(), any());
+        job.destroy();
+    }
+}
@@ -0,0 +1,105 @@
+package com.banking.kyc.screening;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.banking.kyc.integration.CustomerServiceClient;
+import com.banking.kyc.integration.CustomerServiceClient.CustomerName;
+import com.banking.kyc.integration.CustomerServiceClient.NamesPage;
+import com.banking.kyc.repository.ScreeningSubjectRepository;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class ScreeningSubjectBackfillTest {
+
+    private static final UUID JANE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID JOHN = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CustomerServiceClient customerService;
+
+    @Mock
+    private ScreeningSubjectRepository subjects;
+
+    @Mock
+    private RescreeningJob rescreeningJob;
+
+    private ScreeningSubjectBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new ScreeningSubjectBackfill(jdbcTemplate, transactionManager, customerService, subjects,
+                rescreeningJob, true, 2);
+    }
+
+    @Test
+    void run_WalksTheBookPageByPageThenRescreensIt() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE SKIP LOCKED")))
+                .thenReturn(List.of(progress(null, null)), List.of(progress(JOHN, null)));
+        when(customerService.names(null, 2)).thenReturn(new NamesPage(List.of(
+                new CustomerName(JANE, "Jane", "Roe"), new CustomerName(JOHN, "John", "Smith")), JOHN, 2L));
+        when(customerService.names(JOHN, 2)).thenReturn(new NamesPage(List.of(), null, null));
+
+        backfill.run();
+
+        verify(subjects).insertMissing(Map.of(JANE, "Jane Roe", JOHN, "John Smith"));
+        verify(jdbcTemplate).update(contains("SET customers_total = ?"), eq(2L));
+        verify(jdbcTemplate).update(contains("SET last_customer_id = ?"), eq(JOHN), any(Timestamp.class));
+        verify(jdbcTemplate).update(contains("SET completed_at = ?"), any(Timestamp.class), any(Timestamp.class));
+        verify(rescreeningJob).startFullRescreening();
+    }
+
+    @Test
+    void backfillPage_DoesNothingOnceCompleteOrWhileAnotherInstanceHoldsTheLock() {
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE SKIP LOCKED")))
+                .thenReturn(List.of(progress(JOHN, Instant.now())), List.of());
+
+        assertThat(backfill.backfillPage()).isEqualTo(ScreeningSubjectBackfill.Progress.IDLE);
+        assertThat(backfill.backfillPage()).isEqualTo(ScreeningSubjectBackfill.Progress.IDLE);
+        verifyNoInteractions(customerService, subjects);
+    }
+
+    @Test
+    void run_LeavesTheRescreeningForLaterWhenCustomerServiceFails() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE SKIP LOCKED"))).thenReturn(List.of(progress(null, null)));
+        when(customerService.names(null, 2)).thenThrow(new IllegalStateException("connection refused"));
+
+        backfill.run();
+
+        verify(rescreeningJob, never()).startFullRescreening();
+    }
+
+    private static Map<String, Object> progress(UUID lastCustomerId, Instant completedAt) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("last_customer_id", lastCustomerId);
+        row.put("completed_at", completedAt);
+        return row;
+    }
+}
@@ -0,0 +1,66 @@
+package com.banking.kyc.screening;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.kyc.domain.ScreeningType;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class WatchlistIndexTest {
+
+    private static final Set<ScreeningType> ALL = Set.of(ScreeningType.SANCTIONS, ScreeningType.PEP);
+
+    private final WatchlistIndex index = WatchlistIndex.of(List.of(
+            new WatchlistEntry("1", "OFAC_SDN", ScreeningType.SANCTIONS, "BOUT, Viktor Anatolyevich",
+                    List.of("Viktor But", "Виктор Бут"), "RU"),
+            new WatchlistEntry("2", "UN_CONSOLIDATED", ScreeningType.SANCTIONS, "Mohammed Ali Hassan", List.of(), "YE"),
+            new WatchlistEntry("3", "PEP_DB", ScreeningType.PEP, "Łukasz Müller", List.of(), "PL"),
+            new WatchlistEntry("4", "PEP_DB", ScreeningType.PEP, "Jane Doe", List.of(), "US")
+    ));
+
+    @Test
+    void normalize_StripsDiacriticsPunctuationAndTransliterates() {
+        assertThat(NameNormalizer.normalize("  BOUT, Viktor-Anatolyevich ")).isEqualTo("bout viktor anatolyevich");
+        assertThat(NameNormalizer.normalize("Łukasz Müller")).isEqualTo("lukasz muller");
+        assertThat(NameNormalizer.normalize("Виктор Бут")).isEqualTo("viktor but");
+        assertThat(NameNormalizer.sortTokens("viktor but")).isEqualTo("but viktor");
+    }
+
+    @Test
+    void jaroWinkler_ScoresKnownPairs() {
+        assertThat(NameSimilarity.jaroWinkler("martha", "marhta")).isCloseTo(0.961, org.assertj.core.data.Offset.offset(0.001));
+        assertThat(NameSimilarity.jaroWinkler("dixon", "dicksonx")).isCloseTo(0.813, org.assertj.core.data.Offset.offset(0.001));
+        assertThat(NameSimilarity.jaroWinkler("abc", "xyz")).isZero();
+        assertThat(NameSimilarity.soundex("robert")).isEqualTo("r163");
+        assertThat(NameSimilarity.soundex("ashcraft")).isEqualTo("a261");
+    }
+
+    @Test
+    void search_FindsAliasTransliterationAndReorderedName() {
+        assertThat(index.search("Viktor But", ALL, 0.88, 10))
+                .first().satisfies(match -> {
+                    assertThat(match.entry().id()).isEqualTo("1");
+                    assertThat(match.score()).isEqualTo(1.0);
+                });
+        assertThat(index.search("Бут Виктор", ALL, 0.88, 10)).extracting(match -> match.entry().id()).containsExactly("1");
+        assertThat(index.search("Lukasz Mueller", ALL, 0.88, 10)).extracting(match -> match.entry().id()).containsExactly("3");
+    }
+
+    @Test
+    void search_FindsPhoneticSpellingVariant() {
+        List<WatchlistMatch> matches = index.search("Muhammad Aly Hasan", ALL, 0.85, 10);
+
+        assertThat(matches).extracting(match -> match.entry().id()).containsExactly("2");
+        assertThat(matches.get(0).matchedName()).isEqualTo("Mohammed Ali Hassan");
+    }
+
+    @Test
+    void search_RespectsCategoriesThresholdAndUnrelatedNames() {
+        assertThat(index.search("Jane Doe", Set.of(ScreeningType.SANCTIONS), 0.88, 10)).isEmpty();
+        assertThat(index.search("Jane Doe", Set.of(ScreeningType.PEP), 0.88, 10)).hasSize(1);
+        assertThat(index.search("Alexander Hamilton", ALL, 0.88, 10)).isEmpty();
+        assertThat(index.search("", ALL, 0.88, 10)).isEmpty();
+        assertThat(WatchlistIndex.EMPTY.search("Jane Doe", ALL, 0.88, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,173 @@
+package com.banking.kyc.screening;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.kyc.domain.ScreeningType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WatchlistScreenerTest {
+
+    private static final Set<ScreeningType> SANCTIONS = Set.of(ScreeningType.SANCTIONS);
+
+    @TempDir
+    private Path listsDirectory;
+
+    private final List<Object> published = new ArrayList<>();
+
+    private final RescreenedWatchlists rescreened = mock(RescreenedWatchlists.class);
+
+    @Test
+    void reloadIfChanged_SwapsInNewListsAndKeepsOldOnesWhenAFileIsBroken() throws IOException {
+        write("sanctions.csv", """
+                entry_id,list,category,name,aliases,country
+                SDN-1,OFAC_SDN,SANCTIONS,"BOUT, Viktor",Viktor But;Victor Bout,RU
+                """, 1);
+        WatchlistScreener screener = new WatchlistScreener(published::add, rescreened, listsDirectory.toString(), 0.88, 10);
+        screener.afterSingletonsInstantiated();
+
+        assertThat(screener.screen("Victor Bout", SANCTIONS)).hasSize(1);
+        assertThat(screener.screen("Jane Roe", SANCTIONS)).isEmpty();
+        assertThat(published).isEmpty();
+        verify(rescreened).replace(eq(screener.fingerprint()), any());
+
+        write("sanctions.csv", """
+                entry_id,list,category,name,aliases,country
+                SDN-1,OFAC_SDN,SANCTIONS,"BOUT, Viktor",Viktor But;Victor Bout,RU
+                SDN-2,OFAC_SDN,SANCTIONS,Jane Roe,,US
+                """, 2);
+        screener.reloadIfChanged();
+
+        assertThat(screener.screen("Victor Bout", SANCTIONS)).hasSize(1);
+        assertThat(screener.screen("Jane Roe", SANCTIONS)).hasSize(1);
+        assertThat(published).singleElement().isInstanceOfSatisfying(WatchlistsUpdatedEvent.class, event -> {
+            assertThat(event.fingerprint()).isEqualTo(screener.fingerprint());
+            assertThat(event.changes().entries()).extracting(WatchlistEntry::id).containsExactly("SDN-2");
+        });
+
+        write("sanctions.csv", """
+                entry_id,list,category,name,aliases,country
+                SDN-2,OFAC_SDN,SANCTIONS,Jane Roe,,US
+                """, 3);
+        screener.reloadIfChanged();
+
+        assertThat(screener.screen("Victor Bout", SANCTIONS)).isEmpty();
+        assertThat(screener.screen("Jane Roe", SANCTIONS)).hasSize(1);
+
+        write("pep.csv", """
+                entry_id,list,category,name,aliases,country
+                PEP-1,PEP_DB,NOT_A_CATEGORY,John Smith,,GB
+                """, 4);
+        screener.reloadIfChanged();
+
+        assertThat(screener.screen("Jane Roe", SANCTIONS)).hasSize(1);
+        assertThat(screener.index().entryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_PublishesEntriesChangedSinceTheListsLastRescreened() throws IOException {
+        WatchlistEntry known = new WatchlistEntry("SDN-1", "OFAC_SDN", ScreeningType.SANCTIONS, "BOUT, Viktor",
+                List.of("Viktor But", "Victor Bout"), "RU");
+        when(rescreened.load()).thenReturn(Optional.of(new RescreenedWatchlists.Baseline("before restart",
+                Set.of(RescreenedWatchlists.digest(known)))));
+        write("sanctions.csv", """
+                entry_id,list,category,name,aliases,country
+                SDN-1,OFAC_SDN,SANCTIONS,"BOUT, Viktor",Viktor But;Victor Bout,RU
+                SDN-2,OFAC_SDN,SANCTIONS,Jane Roe,,US
+                """, 1);
+        WatchlistScreener screener = new WatchlistScreener(published::add, rescreened, listsDirectory.toString(), 0.88, 10);
+
+        screener.afterSingletonsInstantiated();
+
+        assertThat(published).singleElement().isInstanceOfSatisfying(WatchlistsUpdatedEvent.class, event -> {
+            assertThat(event.fingerprint()).isEqualTo(screener.fingerprint());
+            assertThat(event.changes().entries()).extracting(WatchlistEntry::id).containsExactly("SDN-2");
+            assertThat(event.lists().entryCount()).isEqualTo(2);
+        });
+        verify(rescreened, never()).replace(any(), any());
+    }
+
+    @Test
+    void reloadIfChanged_FingerprintsFileContentsNotTimestamps() throws IOException {
+        String content = """
+                entry_id,list,category,name,aliases,country
+                SDN-2,OFAC_SDN,SANCTIONS,Jane Roe,,US
+                """;
+        write("sanctions.csv", content, 1);
+        WatchlistScreener screener = new WatchlistScreener(published::add, rescreened, listsDirectory.toString(), 0.88, 10);
+        screener.afterSingletonsInstantiated();
+        String fingerprint = screener.fingerprint();
+
+        write("sanctions.csv", content, 2);
+        screener.reloadIfChanged();
+
+        assertThat(screener.fingerprint()).isEqualTo(fingerprint);
+        assertThat(published).isEmpty();
+
+        WatchlistScreener otherInstance =
+                new WatchlistScreener(published::add, rescreened, listsDirectory.toString(), 0.88, 10);
+        otherInstance.afterSingletonsInstantiated();
+        assertThat(otherInstance.fingerprint()).isEqualTo(fingerprint);
+
+        write("sanctions.csv", content.replace("Jane Roe", "Jane Doe"), 3);
+        screener.reloadIfChanged();
+
+        assertThat(screener.fingerprint()).isNotEqualTo(fingerprint);
+        assertThat(published).hasSize(1);
+    }
+
+    @Test
+    void screen_WithoutListsDirectory_FindsNothing() {
+        WatchlistScreener screener = new WatchlistScreener(published::add, rescreened, listsDirectory.resolve("missing").toString(), 0.88, 10);
+        screener.afterSingletonsInstantiated();
+
+        assertThat(screener.screen("Jane Roe", SANCTIONS)).isEmpty();
+        assertThat(screener.missingCategories(SANCTIONS)).isEqualTo(SANCTIONS);
+    }
+
+    @Test
+    void missingCategories_ReportsCategoriesWithoutEntriesAndFailedLoads() throws IOException {
+        write("sanctions.csv", """
+                entry_id,list,category,name,aliases,country
+                SDN-2,OFAC_SDN,SANCTIONS,Jane Roe,,US
+                """, 1);
+        write("pep.csv", """
+                entry_id,list,category,name,aliases,country
+                """, 1);
+        WatchlistScreener screener = new WatchlistScreener(published::add, rescreened, listsDirectory.toString(), 0.88, 10);
+        screener.afterSingletonsInstantiated();
+
+        assertThat(screener.missingCategories(Set.of(ScreeningType.SANCTIONS, ScreeningType.PEP)))
+                .containsExactly(ScreeningType.PEP);
+        assertThat(screener.lastLoadFailure()).isNull();
+
+        write("pep.csv", "not a watchlist\n", 2);
+        screener.reloadIfChanged();
+
+        assertThat(screener.lastLoadFailure()).contains("pep.csv");
+        assertThat(screener.missingCategories(SANCTIONS)).isEmpty();
+    }
+
+    private void write(String fileName, String content, long version) throws IOException {
+        Path staged = Files.writeString(listsDirectory.resolve(fileName + ".tmp"), content);
+        Files.setLastModifiedTime(staged, FileTime.from(Instant.ofEpochSecond(1_700_000_000L + version)));
+        Files.move(staged, listsDirectory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,76 @@
+package com.banking.kyc.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.kyc.repository.KYCCaseBatchRepository;
+import com.banking.kyc.repository.KYCCaseRepository;
+import com.banking.kyc.repository.ScreeningSubjectRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerEventBatchServiceTest {
+
+    @Mock
+    private KYCCaseRepository kycCaseRepository;
+
+    @Mock
+    private KYCCaseBatchRepository kycCaseBatchRepository;
+
+    @Mock
+    private ScreeningSubjectRepository screeningSubjectRepository;
+
+    private CustomerEventBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new CustomerEventBatchService(kycCaseRepository, kycCaseBatchRepository, screeningSubjectRepository);
+    }
+
+    @Test
+    void apply_OpensCasesOnlyForCustomersWithoutActiveCase() {
+        UUID withCase = UUID.randomUUID();
+        UUID withoutCase = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        when(kycCaseRepository.findCustomerIdsWithCaseNotIn(eq(Set.of(withCase, withoutCase)), anyList()))
+                .thenReturn(List.of(withCase));
+        when(kycCaseBatchRepository.insertOnboardingCases(eq(Set.of(withoutCase)), any())).thenReturn(1);
+
+        int opened = batchService.apply(Set.of(withCase, withoutCase), Map.of(withoutCase, "Jane Roe"), Set.of(deleted));
+
+        assertThat(opened).isEqualTo(1);
+        verify(screeningSubjectRepository).upsertAll(Map.of(withoutCase, "Jane Roe"));
+        verify(screeningSubjectRepository).deleteAll(Set.of(deleted));
+    }
+
+    @Test
+    void apply_WithoutCreatedCustomers_DoesNotQueryCases() {
+        int opened = batchService.apply(Set.of(), Map.of(UUID.randomUUID(), "Jane Roe"), Set.of());
+
+        assertThat(opened).isZero();
+        verify(kycCaseRepository, never()).findCustomerIdsWithCaseNotIn(any(), any());
+        verify(kycCaseBatchRepository, never()).insertOnboardingCases(any(), any());
+    }
+
+    @Test
+    void onboardingCaseId_IsStablePerCustomer() {
+        UUID customerId = UUID.randomUUID();
+
+        assertThat(KYCCaseBatchRepository.onboardingCaseId(customerId))
+                .isEqualTo(KYCCaseBatchRepository.onboardingCaseId(customerId))
+                .isNotEqualTo(KYCCaseBatchRepository.onboardingCaseId(UUID.randomUUID()));
+    }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.banking.kyc.domain.KYCCase;
@@ -12,9 +13,14 @@ import com.banking.kyc.domain.ScreeningResultStatus;
 import com.banking.kyc.domain.ScreeningType;
 import com.banking.kyc.repository.KYCCaseRepository;
 import com.banking.kyc.repository.ScreeningResultRepository;
+import com.banking.kyc.repository.ScreeningSubjectRepository;
+import com.banking.kyc.screening.WatchlistEntry;
+import com.banking.kyc.screening.WatchlistMatch;
+import com.banking.kyc.screening.WatchlistScreener;
 import com.banking.kyc.web.dto.CreateScreeningRequest;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,11 +40,18 @@ class ScreeningServiceTest {
     @Mock
     private KYCService kycService;
 
+    @Mock
+    private WatchlistScreener watchlistScreener;
+
+    @Mock
+    private ScreeningSubjectRepository screeningSubjectRepository;
+
     private ScreeningService screeningService;
 
     @BeforeEach
     void setUp() {
-        screeningService = new ScreeningService(screeningResultRepository, kycCaseRepository, kycService);
+        screeningService = new ScreeningService(
+                screeningResultRepository, kycCaseRepository, kycService, watchlistScreener, screeningSubjectRepository, 0.97);
     }
 
     @Test
@@ -48,7 +61,7 @@ class ScreeningServiceTest {
         UUID customerId = UUID.randomUUID();
         CreateScreeningRequest request = new CreateScreeningRequest(
                 kycCaseId, customerId, ScreeningType.SANCTIONS, ScreeningResultStatus.CLEAR,
-                null, null, null, null, null, null
+                null, null, null, null, null, null, null
         );
 
         KYCCase kycCase = new KYCCase();
@@ -72,13 +85,114 @@ class ScreeningServiceTest {
         verify(screeningResultRepository).save(any(ScreeningResult.class));
     }
 
+    @Test
+    void performScreening_WithSubjectName_MatchesAgainstWatchlists() {
+        // Given
+        UUID kycCaseId = UUID.randomUUID();
+        UUID customerId = UUID.randomUUID();
+        CreateScreeningRequest request = new CreateScreeningRequest(
+                kycCaseId, customerId, ScreeningType.SANCTIONS, ScreeningResultStatus.CLEAR,
+                null, null, null, null, null, "REF-1", "Viktor Bout"
+        );
+        WatchlistEntry entry = new WatchlistEntry(
+                "SDN-7001", "OFAC_SDN", ScreeningType.SANCTIONS, "BOUT, Viktor Anatolyevich", List.of("Viktor But"), "RU");
+
+        when(kycCaseRepository.findById(kycCaseId)).thenReturn(Optional.of(new KYCCase()));
+        when(watchlistScreener.screen("Viktor Bout", Set.of(ScreeningType.SANCTIONS)))
+                .thenReturn(List.of(new WatchlistMatch(entry, "Viktor But", 0.98)));
+        when(screeningResultRepository.findByKycCaseIdAndScreeningType(any(), any())).thenReturn(List.of());
+        when(screeningResultRepository.save(any(ScreeningResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ScreeningResult result = screeningService.performScreening(request);
+
+        // Then
+        assertThat(result.getResult()).isEqualTo(ScreeningResultStatus.MATCH);
+        assertThat(result.getMatchScore()).isEqualTo(98);
+        assertThat(result.getMatchedName()).isEqualTo("Viktor But");
+        assertThat(result.getMatchedList()).isEqualTo("OFAC_SDN");
+        verify(screeningSubjectRepository).upsert(customerId, "Viktor Bout");
+        assertThat(result.getMatchDetails()).contains("OFAC_SDN/SDN-7001");
+        assertThat(result.getScreeningProvider()).isEqualTo("INTERNAL");
+    }
+
+    @Test
+    void performScreening_WithWeakWatchlistCandidate_RequiresReview() {
+        // Given
+        UUID kycCaseId = UUID.randomUUID();
+        CreateScreeningRequest request = new CreateScreeningRequest(
+                kycCaseId, UUID.randomUUID(), ScreeningType.PEP, null,
+                null, null, null, null, null, null, "Jon Smyth"
+        );
+        WatchlistEntry entry = new WatchlistEntry("PEP-1", "PEP_DB", ScreeningType.PEP, "John Smith", List.of(), "GB");
+
+        when(kycCaseRepository.findById(kycCaseId)).thenReturn(Optional.of(new KYCCase()));
+        when(watchlistScreener.screen("Jon Smyth", Set.of(ScreeningType.PEP)))
+                .thenReturn(List.of(new WatchlistMatch(entry, "John Smith", 0.91)));
+        when(screeningResultRepository.findByKycCaseIdAndScreeningType(any(), any())).thenReturn(List.of());
+        when(screeningResultRepository.save(any(ScreeningResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ScreeningResult result = screeningService.performScreening(request);
+
+        // Then
+        assertThat(result.getResult()).isEqualTo(ScreeningResultStatus.REQUIRES_REVIEW);
+        assertThat(result.getMatchScore()).isEqualTo(91);
+    }
+
+    @Test
+    void performScreening_WithoutListForCategory_RequiresReviewInsteadOfClearing() {
+        // Given
+        UUID kycCaseId = UUID.randomUUID();
+        CreateScreeningRequest request = new CreateScreeningRequest(
+                kycCaseId, UUID.randomUUID(), ScreeningType.SANCTIONS, ScreeningResultStatus.CLEAR,
+                null, null, null, null, null, null, "Jane Roe"
+        );
+
+        when(kycCaseRepository.findById(kycCaseId)).thenReturn(Optional.of(new KYCCase()));
+        when(watchlistScreener.screen("Jane Roe", Set.of(ScreeningType.SANCTIONS))).thenReturn(List.of());
+        when(watchlistScreener.missingCategories(Set.of(ScreeningType.SANCTIONS)))
+                .thenReturn(Set.of(ScreeningType.SANCTIONS));
+        when(screeningResultRepository.findByKycCaseIdAndScreeningType(any(), any())).thenReturn(List.of());
+        when(screeningResultRepository.save(any(ScreeningResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ScreeningResult result = screeningService.performScreening(request);
+
+        // Then
+        assertThat(result.getResult()).isEqualTo(ScreeningResultStatus.REQUIRES_REVIEW);
+        assertThat(result.getMatchScore()).isZero();
+        assertThat(result.getMatchDetails()).contains("SANCTIONS");
+    }
+
+    @Test
+    void performScreening_WithExternalProvider_KeepsProviderOutcome() {
+        // Given
+        UUID kycCaseId = UUID.randomUUID();
+        CreateScreeningRequest request = new CreateScreeningRequest(
+                kycCaseId, UUID.randomUUID(), ScreeningType.SANCTIONS, ScreeningResultStatus.CLEAR,
+                null, null, null, null, "WORLD_CHECK", "WC-1", "Viktor Bout"
+        );
+
+        when(kycCaseRepository.findById(kycCaseId)).thenReturn(Optional.of(new KYCCase()));
+        when(screeningResultRepository.findByKycCaseIdAndScreeningType(any(), any())).thenReturn(List.of());
+        when(screeningResultRepository.save(any(ScreeningResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ScreeningResult result = screeningService.performScreening(request);
+
+        // Then
+        assertThat(result.getResult()).isEqualTo(ScreeningResultStatus.CLEAR);
+        verifyNoInteractions(watchlistScreener);
+    }
+
     @Test
     void performScreening_WithInvalidCase_ThrowsException() {
         // Given
         UUID kycCaseId = UUID.randomUUID();
         CreateScreeningRequest request = new CreateScreeningRequest(
                 kycCaseId, UUID.randomUUID(), ScreeningType.SANCTIONS, null,
-                null, null, null, null, null, null
+                null, null, null, null, null, null, null
         );
 
         when(kycCaseRepository.findById(kycCaseId)).thenReturn(Optional.empty());
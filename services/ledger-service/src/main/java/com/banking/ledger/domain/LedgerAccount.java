@@ -40,6 +40,17 @@ public class LedgerAccount {
     @Column(nullable = false, precision = 19, scale = 4)
     private BigDecimal balance;
 
+    @Column(name = "parent_id", updatable = false)
+    private UUID parentId;
+
+    /**
+     * Balance of this account plus every descendant. Maintained only through
+     * {@code LedgerAccountRepository#incrementRollupBalance} so concurrent postings
+     * never overwrite each other's deltas on shared parent nodes.
+     */
+    @Column(name = "rollup_balance", nullable = false, updatable = false, precision = 19, scale = 4)
+    private BigDecimal rollupBalance;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -57,6 +68,9 @@ public class LedgerAccount {
         if (balance == null) {
             balance = BigDecimal.ZERO;
         }
+        if (rollupBalance == null) {
+            rollupBalance = balance;
+        }
         Instant now = Instant.now();
         createdAt = now;
         updatedAt = now;
@@ -126,6 +140,22 @@ public class LedgerAccount {
         this.balance = balance;
     }
 
+    public UUID getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(UUID parentId) {
+        this.parentId = parentId;
+    }
+
+    public BigDecimal getRollupBalance() {
+        return rollupBalance;
+    }
+
+    public void setRollupBalance(BigDecimal rollupBalance) {
+        this.rollupBalance = rollupBalance;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,13 @@
+package com.banking.ledger.repository;
+
+import java.util.UUID;
+
+/**
+ * One (account, ancestor) pair from the chart-of-accounts hierarchy.
+ */
+public interface LedgerAccountAncestry {
+
+    UUID getAccountId();
+
+    UUID getAncestorId();
+}
@@ -1,14 +1,40 @@
 package com.banking.ledger.repository;
 
 import com.banking.ledger.domain.LedgerAccount;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface LedgerAccountRepository extends JpaRepository<LedgerAccount, UUID> {
 
     Optional<LedgerAccount> findByExternalAccountId(String externalAccountId);
 
     boolean existsByExternalAccountId(String externalAccountId);
-}
 
+    Page<LedgerAccount> findByParentId(UUID parentId, Pageable pageable);
+
+    @Query(value = """
+            WITH RECURSIVE ancestry (account_id, ancestor_id) AS (
+                SELECT a.id, a.parent_id FROM ledger_accounts a
+                WHERE a.id IN (:accountIds) AND a.parent_id IS NOT NULL
+                UNION ALL
+                SELECT an.account_id, p.parent_id FROM ancestry an
+                JOIN ledger_accounts p ON p.id = an.ancestor_id
+                WHERE p.parent_id IS NOT NULL
+            )
+            SELECT account_id AS "accountId", ancestor_id AS "ancestorId" FROM ancestry
+            """, nativeQuery = true)
+    List<LedgerAccountAncestry> findAncestors(@Param("accountIds") Collection<UUID> accountIds);
+
+    @Modifying
+    @Query("UPDATE LedgerAccount a SET a.rollupBalance = a.rollupBalance + :delta WHERE a.id = :id")
+    int incrementRollupBalance(@Param("id") UUID id, @Param("delta") BigDecimal delta);
+}
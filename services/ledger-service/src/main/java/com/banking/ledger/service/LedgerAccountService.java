@@ -26,6 +26,9 @@ public class LedgerAccountService {
                 && ledgerAccountRepository.existsByExternalAccountId(account.getExternalAccountId())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "External account id already exists");
         }
+        if (account.getParentId() != null) {
+            validateParent(account);
+        }
         return ledgerAccountRepository.save(account);
     }
 
@@ -40,11 +43,33 @@ public class LedgerAccountService {
         return ledgerAccountRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Page<LedgerAccount> listChildren(UUID parentId, Pageable pageable) {
+        if (!ledgerAccountRepository.existsById(parentId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Ledger account not found");
+        }
+        return ledgerAccountRepository.findByParentId(parentId, pageable);
+    }
+
     @Transactional
     public LedgerAccount updateStatus(UUID id, LedgerAccountStatus status) {
         LedgerAccount account = get(id);
         account.setStatus(status);
         return ledgerAccountRepository.save(account);
     }
-}
 
+    private void validateParent(LedgerAccount account) {
+        LedgerAccount parent = ledgerAccountRepository.findById(account.getParentId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parent ledger account not found"));
+        if (parent.getStatus() == LedgerAccountStatus.CLOSED) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parent ledger account is closed");
+        }
+        // Roll-ups add child balances to the parent as-is, so both must share sign convention and currency
+        if (parent.getType() != account.getType()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parent ledger account type mismatch");
+        }
+        if (!parent.getCurrency().equals(account.getCurrency())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parent ledger account currency mismatch");
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.banking.ledger.domain.LedgerAccountStatus;
 import com.banking.ledger.domain.LedgerAccountType;
 import com.banking.ledger.domain.LedgerEntry;
 import com.banking.ledger.domain.LedgerJournal;
+import com.banking.ledger.repository.LedgerAccountAncestry;
 import com.banking.ledger.repository.LedgerAccountRepository;
 import com.banking.ledger.repository.LedgerEntryRepository;
 import com.banking.ledger.repository.LedgerJournalRepository;
@@ -14,8 +15,10 @@ import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
@@ -53,8 +56,9 @@ public class LedgerService {
         validateEntries(entries, accounts);
 
         // Adjust balances first to ensure optimistic locking consistency
-        adjustAccountBalances(entries, accounts);
+        Map<UUID, BigDecimal> deltas = adjustAccountBalances(entries, accounts);
         accountRepository.saveAll(accounts.values());
+        applyRollupDeltas(deltas);
 
         journal.setStatus(JournalStatus.POSTED);
         journal.setPostedAt(Instant.now(clock));
@@ -176,12 +180,32 @@ public class LedgerService {
         }
     }
 
-    private void adjustAccountBalances(List<LedgerEntry> entries, Map<UUID, LedgerAccount> accounts) {
+    private Map<UUID, BigDecimal> adjustAccountBalances(List<LedgerEntry> entries, Map<UUID, LedgerAccount> accounts) {
+        Map<UUID, BigDecimal> deltas = new HashMap<>();
         for (LedgerEntry entry : entries) {
             LedgerAccount account = accounts.get(entry.getLedgerAccountId());
             BigDecimal delta = computeDelta(account.getType(), entry.getEntryType(), entry.getAmount());
             account.setBalance(account.getBalance().add(delta));
+            deltas.merge(account.getId(), delta, BigDecimal::add);
         }
+        return deltas;
+    }
+
+    /**
+     * Folds the per-account deltas of a posting into the roll-up balance of each posted
+     * account and all of its ancestors, inside the posting's transaction. Nodes are
+     * updated in id order so concurrent postings sharing a parent lock rows consistently.
+     */
+    private void applyRollupDeltas(Map<UUID, BigDecimal> deltas) {
+        Map<UUID, BigDecimal> rollups = new TreeMap<>(deltas);
+        for (LedgerAccountAncestry ancestry : accountRepository.findAncestors(deltas.keySet())) {
+            rollups.merge(ancestry.getAncestorId(), deltas.get(ancestry.getAccountId()), BigDecimal::add);
+        }
+        rollups.forEach((accountId, delta) -> {
+            if (delta.signum() != 0) {
+                accountRepository.incrementRollupBalance(accountId, delta);
+            }
+        });
     }
 
     private BigDecimal computeDelta(LedgerAccountType type, EntryType entryType, BigDecimal amount) {
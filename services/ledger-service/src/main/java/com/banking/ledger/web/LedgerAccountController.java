@@ -43,6 +43,7 @@ public class LedgerAccountController {
         account.setType(request.getType());
         account.setCurrency(request.getCurrency());
         account.setExternalAccountId(request.getExternalAccountId());
+        account.setParentId(request.getParentId());
         LedgerAccount created = ledgerAccountService.create(account);
         return mapper.toResponse(created);
     }
@@ -58,6 +59,12 @@ public class LedgerAccountController {
         return mapper.toPageResponse(page, mapper::toResponse);
     }
 
+    @GetMapping("/{id}/children")
+    public PageResponse<LedgerAccountResponse> listChildren(@PathVariable UUID id, @ParameterObject Pageable pageable) {
+        Page<LedgerAccount> page = ledgerAccountService.listChildren(id, normalize(pageable));
+        return mapper.toPageResponse(page, mapper::toResponse);
+    }
+
     @PutMapping("/{id}/status")
     public LedgerAccountResponse updateStatus(
             @PathVariable UUID id,
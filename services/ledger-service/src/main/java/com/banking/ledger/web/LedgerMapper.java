@@ -23,6 +23,8 @@ public class LedgerMapper {
         response.setCurrency(account.getCurrency());
         response.setExternalAccountId(account.getExternalAccountId());
         response.setBalance(account.getBalance());
+        response.setParentId(account.getParentId());
+        response.setRollupBalance(account.getRollupBalance());
         response.setCreatedAt(account.getCreatedAt());
         response.setUpdatedAt(account.getUpdatedAt());
         return response;
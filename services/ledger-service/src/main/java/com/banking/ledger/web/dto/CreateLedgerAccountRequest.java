@@ -4,6 +4,7 @@ import com.banking.ledger.domain.LedgerAccountType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import java.util.UUID;
 
 public class CreateLedgerAccountRequest {
 
@@ -21,6 +22,8 @@ public class CreateLedgerAccountRequest {
     @Size(max = 64)
     private String externalAccountId;
 
+    private UUID parentId;
+
     public String getName() {
         return name;
     }
@@ -52,5 +55,13 @@ public class CreateLedgerAccountRequest {
     public void setExternalAccountId(String externalAccountId) {
         this.externalAccountId = externalAccountId;
     }
+
+    public UUID getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(UUID parentId) {
+        this.parentId = parentId;
+    }
 }
 
@@ -15,6 +15,8 @@ public class LedgerAccountResponse {
     private String currency;
     private String externalAccountId;
     private BigDecimal balance;
+    private UUID parentId;
+    private BigDecimal rollupBalance;
     private Instant createdAt;
     private Instant updatedAt;
 
@@ -74,6 +76,22 @@ public class LedgerAccountResponse {
         this.balance = balance;
     }
 
+    public UUID getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(UUID parentId) {
+        this.parentId = parentId;
+    }
+
+    public BigDecimal getRollupBalance() {
+        return rollupBalance;
+    }
+
+    public void setRollupBalance(BigDecimal rollupBalance) {
+        this.rollupBalance = rollupBalance;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
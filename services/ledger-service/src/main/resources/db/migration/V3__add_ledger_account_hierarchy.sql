@@ -0,0 +1,7 @@
+ALTER TABLE ledger_accounts ADD COLUMN parent_id UUID REFERENCES ledger_accounts (id);
+ALTER TABLE ledger_accounts ADD COLUMN rollup_balance NUMERIC(19, 4) NOT NULL DEFAULT 0;
+
+-- Existing accounts have no children yet, so their subtree total is their own balance.
+UPDATE ledger_accounts SET rollup_balance = balance;
+
+CREATE INDEX idx_ledger_accounts_parent ON ledger_accounts (parent_id) WHERE parent_id IS NOT NULL;
@@ -16,6 +16,7 @@ import com.banking.ledger.domain.LedgerAccountStatus;
 import com.banking.ledger.domain.LedgerAccountType;
 import com.banking.ledger.domain.LedgerEntry;
 import com.banking.ledger.domain.LedgerJournal;
+import com.banking.ledger.repository.LedgerAccountAncestry;
 import com.banking.ledger.repository.LedgerAccountRepository;
 import com.banking.ledger.repository.LedgerEntryRepository;
 import com.banking.ledger.repository.LedgerJournalRepository;
@@ -82,6 +83,32 @@ class LedgerServiceTest {
         assertThat(payable.getBalance()).isEqualTo(new BigDecimal("100.00"));
     }
 
+    @Test
+    void postJournal_propagatesRollupDeltasToAncestors() {
+        UUID liabilitiesRoot = UUID.randomUUID();
+        LedgerAccount cash = buildAccount(LedgerAccountType.ASSET);
+        LedgerAccount payable = buildAccount(LedgerAccountType.LIABILITY);
+        payable.setParentId(liabilitiesRoot);
+
+        LedgerJournal journal = new LedgerJournal();
+        journal.setReferenceId("REF-ROLLUP");
+
+        LedgerEntry debit = buildEntry(cash.getId(), EntryType.DEBIT, new BigDecimal("40.00"));
+        LedgerEntry credit = buildEntry(payable.getId(), EntryType.CREDIT, new BigDecimal("40.00"));
+
+        when(journalRepository.findByReferenceId(anyString())).thenReturn(Optional.empty());
+        when(accountRepository.findAllById(anyList())).thenReturn(List.of(cash, payable));
+        when(accountRepository.findAncestors(any())).thenReturn(List.of(ancestry(payable.getId(), liabilitiesRoot)));
+        when(journalRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(entryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ledgerService.postJournal(journal, List.of(debit, credit));
+
+        verify(accountRepository).incrementRollupBalance(cash.getId(), new BigDecimal("40.00"));
+        verify(accountRepository).incrementRollupBalance(payable.getId(), new BigDecimal("40.00"));
+        verify(accountRepository).incrementRollupBalance(liabilitiesRoot, new BigDecimal("40.00"));
+    }
+
     @Test
     void postJournal_unbalanced_throwsBadRequest() {
         LedgerAccount cash = buildAccount(LedgerAccountType.ASSET);
@@ -140,6 +167,20 @@ class LedgerServiceTest {
         return account;
     }
 
+    private LedgerAccountAncestry ancestry(UUID accountId, UUID ancestorId) {
+        return new LedgerAccountAncestry() {
+            @Override
+            public UUID getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public UUID getAncestorId() {
+                return ancestorId;
+            }
+        };
+    }
+
     private LedgerEntry buildEntry(UUID accountId, EntryType type, BigDecimal amount) {
         LedgerEntry entry = new LedgerEntry();
         entry.setLedgerAccountId(accountId);
@@ -0,0 +1,263 @@
+package com.banking.payment.ach;
+
+import com.banking.payment.config.AchProperties;
+import com.banking.payment.domain.AchBatchFile;
+import com.banking.payment.repository.AchBatchFileRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Builds an outbound ACH file from PENDING outbound ACH payments. Payments are read in keyset
+ * pages ordered by originating account, so each originator's entries form one contiguous batch
+ * and are streamed straight to disk. Each page is locked as it is read, skipping rows another
+ * build holds, so a payment cancelled or filed since can no longer be written. Each page is
+ * then stamped with file, batch and trace number in one JDBC batch; if any stamp finds the
+ * payment no longer PENDING the whole file is abandoned. The file only gets its final name
+ * once the marks commit.
+ * <p>
+ * A file ID modifier is unique per file date; two builds that pick the same one cannot both
+ * commit. Trace sequence numbers are drawn from one database sequence for all files, a page at
+ * a time, so a trace number settles exactly one entry until the sequence wraps at 9,999,999.
+ */
+@Service
+public class AchBatchFileBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(AchBatchFileBuilder.class);
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final String FILE_ID_MODIFIERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String SELECT_PAGE = """
+            SELECT id, from_account_id, to_external_routing, to_external_account, amount, currency, reference_id, description
+            FROM payments
+            WHERE rail = 'ACH' AND direction = 'OUTBOUND' AND status = 'PENDING' AND ach_file_id IS NULL
+              AND initiated_at < ?
+              AND (from_account_id, id) > (?, ?)
+            ORDER BY from_account_id, id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String NEXT_TRACE_SEQUENCES =
+            "SELECT nextval('ach_trace_sequence') FROM generate_series(1, ?)";
+
+    private static final String MARK_PAYMENT = """
+            UPDATE payments
+            SET status = 'PROCESSING', ach_file_id = ?, ach_batch_number = ?, ach_trace_number = ?, updated_at = ?
+            WHERE id = ? AND status = 'PENDING'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AchBatchFileRepository fileRepository;
+    private final AchProperties properties;
+    private final Clock clock;
+
+    public AchBatchFileBuilder(
+            JdbcTemplate jdbcTemplate,
+            AchBatchFileRepository fileRepository,
+            AchProperties properties,
+            Clock clock
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fileRepository = fileRepository;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Transactional
+    public AchBatchFile buildFile(LocalDate effectiveDate) {
+        Instant now = Instant.now(clock);
+        LocalDate fileDate = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        LocalDate effective = effectiveDate != null ? effectiveDate : nextBusinessDay(fileDate);
+        char modifier = nextFileIdModifier(fileDate);
+        UUID fileId = UUID.randomUUID();
+        String fileName = "ACH-" + fileDate.format(FILE_DATE) + "-" + modifier + "-" + fileId.toString().substring(0, 8) + ".ach";
+        Path directory = Paths.get(properties.getOutputDirectory());
+        Path partial = directory.resolve(fileName + ".part");
+
+        NachaFileTotals totals;
+        long skipped = 0;
+        try {
+            Files.createDirectories(directory);
+            Deque<Long> traceSequences = new ArrayDeque<>();
+            try (NachaFileWriter writer = NachaFileWriter.open(
+                    partial, properties, LocalDateTime.ofInstant(now, ZoneOffset.UTC), modifier, traceSequences::removeFirst)) {
+                UUID currentOriginator = null;
+                int batchNumber = 0;
+                UUID cursorAccount = MIN_UUID;
+                UUID cursorId = MIN_UUID;
+                List<Object[]> marks = new ArrayList<>(properties.getPageSize());
+                Timestamp markedAt = Timestamp.from(now);
+
+                while (true) {
+                    List<AchPaymentRow> page = jdbcTemplate.query(SELECT_PAGE, AchPaymentRow.MAPPER,
+                            Timestamp.from(now), cursorAccount, cursorId, properties.getPageSize());
+                    long fileable = page.stream().filter(AchPaymentRow::isFileable).count();
+                    if (fileable > 0) {
+                        traceSequences.addAll(jdbcTemplate.queryForList(NEXT_TRACE_SEQUENCES, Long.class, fileable));
+                    }
+                    for (AchPaymentRow row : page) {
+                        cursorAccount = row.fromAccountId();
+                        cursorId = row.id();
+                        if (!row.isFileable()) {
+                            skipped++;
+                            continue;
+                        }
+                        if (!row.fromAccountId().equals(currentOriginator)) {
+                            if (currentOriginator != null) {
+                                writer.closeBatch();
+                            }
+                            currentOriginator = row.fromAccountId();
+                            batchNumber = writer.openBatch(currentOriginator.toString().replace("-", ""), effective);
+                        }
+                        String trace = writer.addCreditEntry(
+                                row.routingNumber(),
+                                row.accountNumber(),
+                                row.amountCents(),
+                                row.referenceId(),
+                                row.description() != null ? row.description() : row.referenceId()
+                        );
+                        marks.add(new Object[]{fileId, batchNumber, trace, markedAt, row.id()});
+                    }
+                    if (!marks.isEmpty()) {
+                        checkMarked(jdbcTemplate.batchUpdate(MARK_PAYMENT, marks), marks);
+                        marks.clear();
+                    }
+                    if (page.size() < properties.getPageSize()) {
+                        break;
+                    }
+                }
+                totals = writer.finish();
+            }
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new UncheckedIOException("Failed to write ACH file " + fileName, e);
+        } catch (RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+
+        if (totals.entryCount() == 0) {
+            deleteQuietly(partial);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No pending outbound ACH payments to batch");
+        }
+
+        AchBatchFile file = new AchBatchFile();
+        file.setId(fileId);
+        file.setFileName(fileName);
+        file.setFileDate(fileDate);
+        file.setFileIdModifier(String.valueOf(modifier));
+        file.setEffectiveDate(effective);
+        file.setBatchCount(totals.batchCount());
+        file.setEntryCount(totals.entryCount());
+        file.setEntryHash(totals.entryHash());
+        file.setTotalCredit(BigDecimal.valueOf(totals.totalCreditCents(), 2));
+        file.setSkippedCount(skipped);
+        file.setCreatedAt(now);
+        AchBatchFile saved;
+        try {
+            saved = fileRepository.saveAndFlush(file);
+        } catch (DataIntegrityViolationException e) {
+            deleteQuietly(partial);
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "Another ACH file took modifier " + modifier + " for " + fileDate + "; retry the build"
+            );
+        }
+
+        publishOnCommit(partial, directory.resolve(fileName));
+        log.info("Built ACH file {} with {} entries in {} batches ({} skipped)",
+                fileName, totals.entryCount(), totals.batchCount(), skipped);
+        return saved;
+    }
+
+    static LocalDate nextBusinessDay(LocalDate date) {
+        LocalDate next = date.plusDays(1);
+        while (next.getDayOfWeek() == DayOfWeek.SATURDAY || next.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            next = next.plusDays(1);
+        }
+        return next;
+    }
+
+    private char nextFileIdModifier(LocalDate fileDate) {
+        List<String> used = fileRepository.findFileIdModifiers(fileDate);
+        for (char modifier : FILE_ID_MODIFIERS.toCharArray()) {
+            if (!used.contains(String.valueOf(modifier))) {
+                return modifier;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "ACH file limit reached for " + fileDate);
+    }
+
+    private static void checkMarked(int[] counts, List<Object[]> marks) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "ACH payment " + marks.get(i)[4] + " left PENDING while its file was built"
+                );
+            }
+        }
+    }
+
+    private void publishOnCommit(Path partial, Path target) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            moveQuietly(partial, target);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    moveQuietly(partial, target);
+                } else {
+                    deleteQuietly(partial);
+                }
+            }
+        });
+    }
+
+    private void moveQuietly(Path from, Path to) {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("ACH file {} committed but could not be renamed from {}", to, from, e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete partial ACH file {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.banking.payment.ach;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * The columns of a payment needed to write its entry detail record.
+ */
+record AchPaymentRow(
+        UUID id,
+        UUID fromAccountId,
+        String routingNumber,
+        String accountNumber,
+        BigDecimal amount,
+        String currency,
+        String referenceId,
+        String description
+) {
+
+    static final RowMapper<AchPaymentRow> MAPPER = (rs, rowNum) -> new AchPaymentRow(
+            rs.getObject("id", UUID.class),
+            rs.getObject("from_account_id", UUID.class),
+            rs.getString("to_external_routing"),
+            rs.getString("to_external_account"),
+            rs.getBigDecimal("amount"),
+            rs.getString("currency"),
+            rs.getString("reference_id"),
+            rs.getString("description")
+    );
+
+    private static final long MAX_ENTRY_CENTS = 9_999_999_999L;
+
+    long amountCents() {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * USD, a positive amount that fits the entry's 10-digit field, a checksum-valid routing
+     * number and an account number NACHA can carry.
+     */
+    boolean isFileable() {
+        return "USD".equals(currency)
+                && amount != null && amount.signum() > 0 && amount.scale() <= 2
+                && amountCents() <= MAX_ENTRY_CENTS
+                && isValidRouting(routingNumber)
+                && accountNumber != null && !accountNumber.isBlank() && accountNumber.length() <= 17;
+    }
+
+    static boolean isValidRouting(String routing) {
+        if (routing == null || routing.length() != 9) {
+            return false;
+        }
+        int[] weights = {3, 7, 1, 3, 7, 1, 3, 7, 1};
+        int sum = 0;
+        for (int i = 0; i < 9; i++) {
+            char c = routing.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            sum += (c - '0') * weights[i];
+        }
+        return sum % 10 == 0;
+    }
+}
@@ -0,0 +1,10 @@
+package com.banking.payment.ach;
+
+public record NachaFileTotals(
+        int batchCount,
+        long entryCount,
+        long entryHash,
+        long totalCreditCents,
+        long blockCount
+) {
+}
@@ -0,0 +1,235 @@
+package com.banking.payment.ach;
+
+import com.banking.payment.config.AchProperties;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.LongSupplier;
+
+/**
+ * Writes a NACHA file record by record through a buffered {@link FileChannel}. Batch and file
+ * control totals are accumulated while entries are written, so memory use does not depend on
+ * the number of entries. Only credit entries (service class 220, PPD) are produced. Trace
+ * sequence numbers come from the supplier given to {@link #open}, or count up from 1.
+ */
+public class NachaFileWriter implements Closeable {
+
+    static final int RECORD_LENGTH = 94;
+    static final int BLOCKING_FACTOR = 10;
+
+    private static final DateTimeFormatter YYMMDD = DateTimeFormatter.ofPattern("yyMMdd");
+    private static final DateTimeFormatter HHMM = DateTimeFormatter.ofPattern("HHmm");
+    private static final String SERVICE_CLASS_CREDITS = "220";
+    private static final String CHECKING_CREDIT = "22";
+    private static final long HASH_MODULUS = 10_000_000_000L;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_LENGTH * 700);
+    private final byte[] record = new byte[RECORD_LENGTH];
+    private final AchProperties properties;
+
+    private long recordCount;
+    private int batchCount;
+    private long fileEntryCount;
+    private long fileEntryHash;
+    private long fileCreditCents;
+
+    private boolean batchOpen;
+    private long batchEntryCount;
+    private long batchEntryHash;
+    private long batchCreditCents;
+    private final LongSupplier traceSequences;
+    private long traceSequence;
+
+    private NachaFileWriter(FileChannel channel, AchProperties properties, LongSupplier traceSequences) {
+        this.channel = channel;
+        this.properties = properties;
+        this.traceSequences = traceSequences != null ? traceSequences : () -> ++traceSequence;
+    }
+
+    public static NachaFileWriter open(Path path, AchProperties properties, LocalDateTime createdAt, char fileIdModifier)
+            throws IOException {
+        return open(path, properties, createdAt, fileIdModifier, null);
+    }
+
+    public static NachaFileWriter open(Path path, AchProperties properties, LocalDateTime createdAt, char fileIdModifier,
+                                       LongSupplier traceSequences) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        NachaFileWriter writer = new NachaFileWriter(channel, properties, traceSequences);
+        writer.writeFileHeader(createdAt, fileIdModifier);
+        return writer;
+    }
+
+    public int openBatch(String discretionaryData, LocalDate effectiveDate) throws IOException {
+        if (batchOpen) {
+            throw new IllegalStateException("Previous batch not closed");
+        }
+        batchOpen = true;
+        batchCount++;
+        batchEntryCount = 0;
+        batchEntryHash = 0;
+        batchCreditCents = 0;
+        writeRecord(new StringBuilder(RECORD_LENGTH)
+                .append('5')
+                .append(SERVICE_CLASS_CREDITS)
+                .append(alpha(properties.getCompanyName(), 16))
+                .append(alpha(discretionaryData, 20))
+                .append(alpha(properties.getCompanyId(), 10))
+                .append("PPD")
+                .append(alpha(properties.getEntryDescription(), 10))
+                .append(effectiveDate.format(YYMMDD))
+                .append(effectiveDate.format(YYMMDD))
+                .append("   ")
+                .append('1')
+                .append(numeric(properties.getOdfiRouting(), 8))
+                .append(numeric(batchCount, 7)));
+        return batchCount;
+    }
+
+    /**
+     * Writes one credit entry and returns its 15-digit trace number.
+     */
+    public String addCreditEntry(String routingNumber, String accountNumber, long amountCents,
+                                 String individualId, String individualName) throws IOException {
+        if (!batchOpen) {
+            throw new IllegalStateException("No open batch");
+        }
+        String trace = numeric(properties.getOdfiRouting(), 8) + numeric(traceSequences.getAsLong(), 7);
+        long routingPrefix = Long.parseLong(routingNumber.substring(0, 8));
+        writeRecord(new StringBuilder(RECORD_LENGTH)
+                .append('6')
+                .append(CHECKING_CREDIT)
+                .append(routingNumber, 0, 9)
+                .append(alpha(accountNumber, 17))
+                .append(numeric(amountCents, 10))
+                .append(alpha(individualId, 15))
+                .append(alpha(individualName, 22))
+                .append("  ")
+                .append('0')
+                .append(trace));
+        batchEntryCount++;
+        batchEntryHash += routingPrefix;
+        batchCreditCents += amountCents;
+        return trace;
+    }
+
+    public void closeBatch() throws IOException {
+        if (!batchOpen) {
+            throw new IllegalStateException("No open batch");
+        }
+        writeRecord(new StringBuilder(RECORD_LENGTH)
+                .append('8')
+                .append(SERVICE_CLASS_CREDITS)
+                .append(numeric(batchEntryCount, 6))
+                .append(numeric(batchEntryHash % HASH_MODULUS, 10))
+                .append(numeric(0, 12))
+                .append(numeric(batchCreditCents, 12))
+                .append(alpha(properties.getCompanyId(), 10))
+                .append(" ".repeat(19))
+                .append(" ".repeat(6))
+                .append(numeric(properties.getOdfiRouting(), 8))
+                .append(numeric(batchCount, 7)));
+        fileEntryCount += batchEntryCount;
+        fileEntryHash += batchEntryHash;
+        fileCreditCents += batchCreditCents;
+        batchOpen = false;
+    }
+
+    /**
+     * Writes the file control record and block padding, then forces the file to disk.
+     */
+    public NachaFileTotals finish() throws IOException {
+        if (batchOpen) {
+            closeBatch();
+        }
+        long blockCount = (recordCount + 1 + BLOCKING_FACTOR - 1) / BLOCKING_FACTOR;
+        writeRecord(new StringBuilder(RECORD_LENGTH)
+                .append('9')
+                .append(numeric(batchCount, 6))
+                .append(numeric(blockCount, 6))
+                .append(numeric(fileEntryCount, 8))
+                .append(numeric(fileEntryHash % HASH_MODULUS, 10))
+                .append(numeric(0, 12))
+                .append(numeric(fileCreditCents, 12))
+                .append(" ".repeat(39)));
+        String filler = "9".repeat(RECORD_LENGTH);
+        while (recordCount % BLOCKING_FACTOR != 0) {
+            writeRecord(new StringBuilder(filler));
+        }
+        drain();
+        channel.force(true);
+        return new NachaFileTotals(batchCount, fileEntryCount, fileEntryHash % HASH_MODULUS, fileCreditCents, blockCount);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void writeFileHeader(LocalDateTime createdAt, char fileIdModifier) throws IOException {
+        writeRecord(new StringBuilder(RECORD_LENGTH)
+                .append('1')
+                .append("01")
+                .append(' ').append(numeric(properties.getImmediateDestination(), 9))
+                .append(alpha(properties.getImmediateOrigin(), 10))
+                .append(createdAt.format(YYMMDD))
+                .append(createdAt.format(HHMM))
+                .append(fileIdModifier)
+                .append("094")
+                .append(numeric(BLOCKING_FACTOR, 2))
+                .append('1')
+                .append(alpha(properties.getImmediateDestinationName(), 23))
+                .append(alpha(properties.getImmediateOriginName(), 23))
+                .append(" ".repeat(8)));
+    }
+
+    private void writeRecord(CharSequence line) throws IOException {
+        if (line.length() != RECORD_LENGTH) {
+            throw new IllegalStateException("NACHA record must be " + RECORD_LENGTH + " characters, was " + line.length());
+        }
+        if (buffer.remaining() < RECORD_LENGTH + 1) {
+            drain();
+        }
+        for (int i = 0; i < RECORD_LENGTH; i++) {
+            record[i] = (byte) line.charAt(i);
+        }
+        buffer.put(record).put((byte) '\n');
+        recordCount++;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static String alpha(String value, int length) {
+        String normalized = value == null ? "" : new String(value.getBytes(StandardCharsets.US_ASCII), StandardCharsets.US_ASCII)
+                .replace('?', ' ')
+                .toUpperCase();
+        if (normalized.length() >= length) {
+            return normalized.substring(0, length);
+        }
+        return normalized + " ".repeat(length - normalized.length());
+    }
+
+    static String numeric(long value, int length) {
+        return numeric(Long.toString(value), length);
+    }
+
+    static String numeric(String digits, int length) {
+        if (digits.length() >= length) {
+            return digits.substring(digits.length() - length);
+        }
+        return "0".repeat(length - digits.length()) + digits;
+    }
+}
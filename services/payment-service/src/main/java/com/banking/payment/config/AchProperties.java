@@ -0,0 +1,100 @@
+package com.banking.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment.ach")
+public class AchProperties {
+
+    private String outputDirectory = "build/ach";
+    private String immediateDestination = "091000019";
+    private String immediateDestinationName = "FEDERAL RESERVE BANK";
+    private String immediateOrigin = "1234567890";
+    private String immediateOriginName = "BANKING PLATFORM";
+    private String odfiRouting = "12345678";
+    private String companyName = "BANKING PLATFORM";
+    private String companyId = "1234567890";
+    private String entryDescription = "PAYMENT";
+    private int pageSize = 5000;
+
+    public String getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public void setOutputDirectory(String outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public String getImmediateDestination() {
+        return immediateDestination;
+    }
+
+    public void setImmediateDestination(String immediateDestination) {
+        this.immediateDestination = immediateDestination;
+    }
+
+    public String getImmediateDestinationName() {
+        return immediateDestinationName;
+    }
+
+    public void setImmediateDestinationName(String immediateDestinationName) {
+        this.immediateDestinationName = immediateDestinationName;
+    }
+
+    public String getImmediateOrigin() {
+        return immediateOrigin;
+    }
+
+    public void setImmediateOrigin(String immediateOrigin) {
+        this.immediateOrigin = immediateOrigin;
+    }
+
+    public String getImmediateOriginName() {
+        return immediateOriginName;
+    }
+
+    public void setImmediateOriginName(String immediateOriginName) {
+        this.immediateOriginName = immediateOriginName;
+    }
+
+    public String getOdfiRouting() {
+        return odfiRouting;
+    }
+
+    public void setOdfiRouting(String odfiRouting) {
+        this.odfiRouting = odfiRouting;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public void setCompanyName(String companyName) {
+        this.companyName = companyName;
+    }
+
+    public String getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(String companyId) {
+        this.companyId = companyId;
+    }
+
+    public String getEntryDescription() {
+        return entryDescription;
+    }
+
+    public void setEntryDescription(String entryDescription) {
+        this.entryDescription = entryDescription;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+}
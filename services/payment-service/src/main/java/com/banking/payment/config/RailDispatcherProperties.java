@@ -0,0 +1,196 @@
+package com.banking.payment.config;
+
+import com.banking.payment.domain.PaymentRail;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment.rails")
+public class RailDispatcherProperties {
+
+    private Lane defaults = new Lane();
+    private Map<PaymentRail, Lane> lanes = new EnumMap<>(PaymentRail.class);
+    private Simulator simulator = new Simulator();
+    private Redispatch redispatch = new Redispatch();
+    private Recording recording = new Recording();
+
+    /**
+     * Lane settings for a rail, falling back to {@link #getDefaults()} for anything not overridden.
+     */
+    public Lane laneFor(PaymentRail rail) {
+        Lane override = lanes.get(rail);
+        if (override == null) {
+            return defaults;
+        }
+        Lane resolved = new Lane();
+        resolved.setQueueCapacity(override.getQueueCapacity() > 0 ? override.getQueueCapacity() : defaults.getQueueCapacity());
+        resolved.setConcurrency(override.getConcurrency() > 0 ? override.getConcurrency() : defaults.getConcurrency());
+        resolved.setMaxPerSecond(override.getMaxPerSecond() > 0 ? override.getMaxPerSecond() : defaults.getMaxPerSecond());
+        return resolved;
+    }
+
+    public Lane getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Lane defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<PaymentRail, Lane> getLanes() {
+        return lanes;
+    }
+
+    public void setLanes(Map<PaymentRail, Lane> lanes) {
+        this.lanes = lanes;
+    }
+
+    public Simulator getSimulator() {
+        return simulator;
+    }
+
+    public void setSimulator(Simulator simulator) {
+        this.simulator = simulator;
+    }
+
+    public Redispatch getRedispatch() {
+        return redispatch;
+    }
+
+    public void setRedispatch(Redispatch redispatch) {
+        this.redispatch = redispatch;
+    }
+
+    public Recording getRecording() {
+        return recording;
+    }
+
+    public void setRecording(Recording recording) {
+        this.recording = recording;
+    }
+
+    public static class Lane {
+
+        private int queueCapacity = 1000;
+        private int concurrency = 4;
+        /**
+         * Submissions per second allowed towards the rail; 0 means unthrottled.
+         */
+        private double maxPerSecond;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public double getMaxPerSecond() {
+            return maxPerSecond;
+        }
+
+        public void setMaxPerSecond(double maxPerSecond) {
+            this.maxPerSecond = maxPerSecond;
+        }
+    }
+
+    public static class Simulator {
+
+        /**
+         * Submits payments of rails with no adapter to the simulator. Only for local and test
+         * environments: every simulated submission completes with a fake reference.
+         */
+        private boolean enabled;
+        private long latencyMs = 50;
+        private double failureRate;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getLatencyMs() {
+            return latencyMs;
+        }
+
+        public void setLatencyMs(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        public double getFailureRate() {
+            return failureRate;
+        }
+
+        public void setFailureRate(double failureRate) {
+            this.failureRate = failureRate;
+        }
+    }
+
+    public static class Redispatch {
+
+        /**
+         * How long a dispatched payment may wait unclaimed before it is queued again.
+         */
+        private Duration staleAfter = Duration.ofMinutes(5);
+        private int batchSize = 500;
+
+        public Duration getStaleAfter() {
+            return staleAfter;
+        }
+
+        public void setStaleAfter(Duration staleAfter) {
+            this.staleAfter = staleAfter;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Recording {
+
+        /**
+         * Attempts at writing a rail's answer back to the payment before it is left PROCESSING.
+         */
+        private int attempts = 5;
+        /**
+         * Wait before the second attempt, doubled for each one after it.
+         */
+        private Duration backoff = Duration.ofMillis(200);
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public void setAttempts(int attempts) {
+            this.attempts = attempts;
+        }
+
+        public Duration getBackoff() {
+            return backoff;
+        }
+
+        public void setBackoff(Duration backoff) {
+            this.backoff = backoff;
+        }
+    }
+}
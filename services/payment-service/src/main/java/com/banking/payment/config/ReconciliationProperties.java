@@ -0,0 +1,69 @@
+package com.banking.payment.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment.reconciliation")
+public class ReconciliationProperties {
+
+    /**
+     * Directory settlement files are read from; requests name a file relative to it.
+     */
+    private String inboundDirectory = "build/settlement/inbound";
+
+    /**
+     * Directory that receives spill partitions and the per-run bucket files.
+     */
+    private String workDirectory = "build/settlement/work";
+
+    /**
+     * How far before the end of its settlement date a payment may have been initiated and still
+     * settle in that day's file. Older unreconciled payments belong to earlier files.
+     */
+    private Duration settlementWindow = Duration.ofDays(3);
+
+    private int partitions = 64;
+    private int chunkSize = 5000;
+
+    public String getInboundDirectory() {
+        return inboundDirectory;
+    }
+
+    public void setInboundDirectory(String inboundDirectory) {
+        this.inboundDirectory = inboundDirectory;
+    }
+
+    public String getWorkDirectory() {
+        return workDirectory;
+    }
+
+    public void setWorkDirectory(String workDirectory) {
+        this.workDirectory = workDirectory;
+    }
+
+    public Duration getSettlementWindow() {
+        return settlementWindow;
+    }
+
+    public void setSettlementWindow(Duration settlementWindow) {
+        this.settlementWindow = settlementWindow;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
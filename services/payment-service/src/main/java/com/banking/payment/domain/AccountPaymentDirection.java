@@ -0,0 +1,7 @@
+package com.banking.payment.domain;
+
+public enum AccountPaymentDirection {
+    OUTGOING,
+    INCOMING,
+    INTERNAL
+}
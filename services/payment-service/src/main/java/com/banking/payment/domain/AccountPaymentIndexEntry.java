@@ -0,0 +1,106 @@
+package com.banking.payment.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * One row per (account, payment) so per-account history can be paged by keyset
+ * on {@code (account_id, initiated_at, payment_id)}. Rows are written once, together
+ * with the payment, and never updated. The id is assigned, so entries report themselves as
+ * new until persisted or loaded; otherwise {@code save} would merge, reading each row first.
+ */
+@Entity
+@Table(name = "account_payment_index")
+public class AccountPaymentIndexEntry implements Persistable<AccountPaymentIndexId> {
+
+    @EmbeddedId
+    private AccountPaymentIndexId id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false, length = 16)
+    private AccountPaymentDirection direction;
+
+    @Column(name = "initiated_at", nullable = false)
+    private Instant initiatedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected AccountPaymentIndexEntry() {
+    }
+
+    public AccountPaymentIndexEntry(
+            UUID accountId,
+            UUID paymentId,
+            AccountPaymentDirection direction,
+            Instant initiatedAt
+    ) {
+        this.id = new AccountPaymentIndexId(accountId, paymentId);
+        this.direction = direction;
+        this.initiatedAt = initiatedAt;
+    }
+
+    public static List<AccountPaymentIndexEntry> forPayment(Payment payment) {
+        UUID from = payment.getFromAccountId();
+        UUID to = payment.getToAccountId();
+        List<AccountPaymentIndexEntry> entries = new ArrayList<>(2);
+        if (from != null && from.equals(to)) {
+            entries.add(new AccountPaymentIndexEntry(
+                    from, payment.getId(), AccountPaymentDirection.INTERNAL, payment.getInitiatedAt()));
+            return entries;
+        }
+        if (from != null) {
+            entries.add(new AccountPaymentIndexEntry(
+                    from, payment.getId(), AccountPaymentDirection.OUTGOING, payment.getInitiatedAt()));
+        }
+        if (to != null) {
+            entries.add(new AccountPaymentIndexEntry(
+                    to, payment.getId(), AccountPaymentDirection.INCOMING, payment.getInitiatedAt()));
+        }
+        return entries;
+    }
+
+    @Override
+    public AccountPaymentIndexId getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    public UUID getAccountId() {
+        return id.getAccountId();
+    }
+
+    public UUID getPaymentId() {
+        return id.getPaymentId();
+    }
+
+    public AccountPaymentDirection getDirection() {
+        return direction;
+    }
+
+    public Instant getInitiatedAt() {
+        return initiatedAt;
+    }
+}
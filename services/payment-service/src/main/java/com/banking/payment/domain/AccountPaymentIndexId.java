@@ -0,0 +1,51 @@
+package com.banking.payment.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class AccountPaymentIndexId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "payment_id", nullable = false)
+    private UUID paymentId;
+
+    protected AccountPaymentIndexId() {
+    }
+
+    public AccountPaymentIndexId(UUID accountId, UUID paymentId) {
+        this.accountId = accountId;
+        this.paymentId = paymentId;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public UUID getPaymentId() {
+        return paymentId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AccountPaymentIndexId that)) {
+            return false;
+        }
+        return Objects.equals(accountId, that.accountId) && Objects.equals(paymentId, that.paymentId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId, paymentId);
+    }
+}
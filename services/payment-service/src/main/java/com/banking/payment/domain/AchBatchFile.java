@@ -0,0 +1,144 @@
+package com.banking.payment.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "ach_batch_files")
+public class AchBatchFile {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "file_name", nullable = false, unique = true, length = 255)
+    private String fileName;
+
+    @Column(name = "file_date", nullable = false)
+    private LocalDate fileDate;
+
+    @Column(name = "file_id_modifier", nullable = false, length = 1)
+    private String fileIdModifier;
+
+    @Column(name = "effective_date", nullable = false)
+    private LocalDate effectiveDate;
+
+    @Column(name = "batch_count", nullable = false)
+    private int batchCount;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    @Column(name = "entry_hash", nullable = false)
+    private long entryHash;
+
+    @Column(name = "total_credit", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalCredit;
+
+    @Column(name = "skipped_count", nullable = false)
+    private long skippedCount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public LocalDate getFileDate() {
+        return fileDate;
+    }
+
+    public void setFileDate(LocalDate fileDate) {
+        this.fileDate = fileDate;
+    }
+
+    public String getFileIdModifier() {
+        return fileIdModifier;
+    }
+
+    public void setFileIdModifier(String fileIdModifier) {
+        this.fileIdModifier = fileIdModifier;
+    }
+
+    public LocalDate getEffectiveDate() {
+        return effectiveDate;
+    }
+
+    public void setEffectiveDate(LocalDate effectiveDate) {
+        this.effectiveDate = effectiveDate;
+    }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    public void setBatchCount(int batchCount) {
+        this.batchCount = batchCount;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public long getEntryHash() {
+        return entryHash;
+    }
+
+    public void setEntryHash(long entryHash) {
+        this.entryHash = entryHash;
+    }
+
+    public BigDecimal getTotalCredit() {
+        return totalCredit;
+    }
+
+    public void setTotalCredit(BigDecimal totalCredit) {
+        this.totalCredit = totalCredit;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public void setSkippedCount(long skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
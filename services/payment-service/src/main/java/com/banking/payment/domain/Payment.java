@@ -67,6 +67,18 @@ public class Payment {
     @Column(name = "external_reference", length = 255)
     private String externalReference;
 
+    @Column(name = "ach_file_id")
+    private UUID achFileId;
+
+    @Column(name = "ach_batch_number")
+    private Integer achBatchNumber;
+
+    @Column(name = "ach_trace_number", length = 15)
+    private String achTraceNumber;
+
+    @Column(name = "reconciled_at")
+    private Instant reconciledAt;
+
     @Column(name = "initiated_at", nullable = false)
     private Instant initiatedAt;
 
@@ -214,6 +226,38 @@ public class Payment {
         this.externalReference = externalReference;
     }
 
+    public UUID getAchFileId() {
+        return achFileId;
+    }
+
+    public void setAchFileId(UUID achFileId) {
+        this.achFileId = achFileId;
+    }
+
+    public Integer getAchBatchNumber() {
+        return achBatchNumber;
+    }
+
+    public void setAchBatchNumber(Integer achBatchNumber) {
+        this.achBatchNumber = achBatchNumber;
+    }
+
+    public String getAchTraceNumber() {
+        return achTraceNumber;
+    }
+
+    public void setAchTraceNumber(String achTraceNumber) {
+        this.achTraceNumber = achTraceNumber;
+    }
+
+    public Instant getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(Instant reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+
     public Instant getInitiatedAt() {
         return initiatedAt;
     }
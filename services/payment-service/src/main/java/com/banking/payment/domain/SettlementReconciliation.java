@@ -0,0 +1,183 @@
+package com.banking.payment.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "settlement_reconciliations")
+public class SettlementReconciliation {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rail", nullable = false, length = 32)
+    private PaymentRail rail;
+
+    @Column(name = "source_file", nullable = false, length = 500)
+    private String sourceFile;
+
+    @Column(name = "settlement_date", nullable = false)
+    private LocalDate settlementDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private ReconciliationStatus status;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "settlement_record_count", nullable = false)
+    private long settlementRecordCount;
+
+    @Column(name = "matched_count", nullable = false)
+    private long matchedCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "amount_mismatch_count", nullable = false)
+    private long amountMismatchCount;
+
+    @Column(name = "missing_on_our_side_count", nullable = false)
+    private long missingOnOurSideCount;
+
+    @Column(name = "missing_on_rail_count", nullable = false)
+    private long missingOnRailCount;
+
+    @Column(name = "output_directory", nullable = false, length = 500)
+    private String outputDirectory;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public PaymentRail getRail() {
+        return rail;
+    }
+
+    public void setRail(PaymentRail rail) {
+        this.rail = rail;
+    }
+
+    public String getSourceFile() {
+        return sourceFile;
+    }
+
+    public void setSourceFile(String sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+
+    public LocalDate getSettlementDate() {
+        return settlementDate;
+    }
+
+    public void setSettlementDate(LocalDate settlementDate) {
+        this.settlementDate = settlementDate;
+    }
+
+    public long getSettlementRecordCount() {
+        return settlementRecordCount;
+    }
+
+    public void setSettlementRecordCount(long settlementRecordCount) {
+        this.settlementRecordCount = settlementRecordCount;
+    }
+
+    public long getMatchedCount() {
+        return matchedCount;
+    }
+
+    public void setMatchedCount(long matchedCount) {
+        this.matchedCount = matchedCount;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public void setCompletedCount(long completedCount) {
+        this.completedCount = completedCount;
+    }
+
+    public long getAmountMismatchCount() {
+        return amountMismatchCount;
+    }
+
+    public void setAmountMismatchCount(long amountMismatchCount) {
+        this.amountMismatchCount = amountMismatchCount;
+    }
+
+    public long getMissingOnOurSideCount() {
+        return missingOnOurSideCount;
+    }
+
+    public void setMissingOnOurSideCount(long missingOnOurSideCount) {
+        this.missingOnOurSideCount = missingOnOurSideCount;
+    }
+
+    public long getMissingOnRailCount() {
+        return missingOnRailCount;
+    }
+
+    public void setMissingOnRailCount(long missingOnRailCount) {
+        this.missingOnRailCount = missingOnRailCount;
+    }
+
+    public String getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public void setOutputDirectory(String outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public ReconciliationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReconciliationStatus status) {
+        this.status = status;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
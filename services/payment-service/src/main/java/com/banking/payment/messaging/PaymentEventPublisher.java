@@ -5,6 +5,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -42,6 +43,21 @@ public class PaymentEventPublisher {
         publishEvent(createEvent("PAYMENT_COMPLETED", payment));
     }
 
+    /**
+     * Publishes one completion event per payment, then flushes so a bulk completion is on the
+     * broker before the caller moves on.
+     */
+    public void publishPaymentsCompleted(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        for (Payment payment : payments) {
+            publishEvent(createEvent("PAYMENT_COMPLETED", payment));
+        }
+        kafkaTemplate.flush();
+        log.debug("Published {} PAYMENT_COMPLETED events", payments.size());
+    }
+
     public void publishPaymentFailed(Payment payment) {
         publishEvent(createEvent("PAYMENT_FAILED", payment));
     }
@@ -0,0 +1,6 @@
+package com.banking.payment.rail;
+
+public enum DispatchPriority {
+    URGENT,
+    NORMAL
+}
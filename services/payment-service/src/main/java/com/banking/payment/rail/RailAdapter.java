@@ -0,0 +1,15 @@
+package com.banking.payment.rail;
+
+import com.banking.payment.domain.Payment;
+import com.banking.payment.domain.PaymentRail;
+
+/**
+ * Integration with one external payment rail. Implementations are called from the rail's
+ * worker threads and may block for as long as the rail takes to answer.
+ */
+public interface RailAdapter {
+
+    PaymentRail rail();
+
+    RailSubmissionResult submit(Payment payment) throws Exception;
+}
@@ -0,0 +1,10 @@
+package com.banking.payment.rail;
+
+import com.banking.payment.domain.PaymentRail;
+import java.util.UUID;
+
+/**
+ * Published when a payment moves to PROCESSING; picked up by {@link RailDispatcher} once that change commits.
+ */
+public record RailDispatchRequest(UUID paymentId, PaymentRail rail, DispatchPriority priority) {
+}
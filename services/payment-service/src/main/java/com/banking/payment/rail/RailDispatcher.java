@@ -0,0 +1,246 @@
+package com.banking.payment.rail;
+
+import com.banking.payment.config.RailDispatcherProperties;
+import com.banking.payment.domain.Payment;
+import com.banking.payment.domain.PaymentRail;
+import com.banking.payment.service.PaymentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs rail submissions off the request threads. Each rail gets its own lane (bounded queue,
+ * worker pool, throughput limit), so a slow rail only backs up its own payments. Results are
+ * written back through {@link PaymentService#completePayment} and {@link PaymentService#failPayment}.
+ * <p>
+ * Payments of a rail with no adapter are failed, unless the simulator is enabled. Queues are
+ * in memory: dispatches lost with an instance are found by a periodic sweep and queued again.
+ * A worker claims each payment before submitting it, so a payment queued twice is submitted
+ * once. A payment is failed only when its rail rejects it. One claimed but never answered, say
+ * because the submission timed out, stays PROCESSING for settlement reconciliation, since it may
+ * have reached the rail. Writing the answer back is retried, so an accepted payment is completed
+ * with its external reference even through a short database outage.
+ */
+@Component
+public class RailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(RailDispatcher.class);
+
+    private final PaymentService paymentService;
+    private final MeterRegistry meterRegistry;
+    private final RailDispatcherProperties.Redispatch redispatch;
+    private final RailDispatcherProperties.Recording recording;
+    private final Map<PaymentRail, RailAdapter> adapters = new EnumMap<>(PaymentRail.class);
+    private final Map<PaymentRail, RailLane> lanes = new EnumMap<>(PaymentRail.class);
+    private final Map<PaymentRail, Counter> rejectedCounters = new EnumMap<>(PaymentRail.class);
+    private final ExecutorService overflowExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rail-overflow");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RailDispatcher(
+            PaymentService paymentService,
+            ObjectProvider<RailAdapter> railAdapters,
+            RailDispatcherProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.paymentService = paymentService;
+        this.meterRegistry = meterRegistry;
+        this.redispatch = properties.getRedispatch();
+        this.recording = properties.getRecording();
+        railAdapters.orderedStream().forEach(adapter -> adapters.putIfAbsent(adapter.rail(), adapter));
+
+        for (PaymentRail rail : PaymentRail.values()) {
+            if (!adapters.containsKey(rail)) {
+                if (properties.getSimulator().isEnabled()) {
+                    log.warn("No adapter registered for rail {}; using local simulator", rail);
+                    adapters.put(rail, new SimulatedRailAdapter(
+                            rail,
+                            properties.getSimulator().getLatencyMs(),
+                            properties.getSimulator().getFailureRate()
+                    ));
+                } else {
+                    log.warn("No adapter registered for rail {}; its dispatched payments will be failed", rail);
+                }
+            }
+            RailDispatcherProperties.Lane config = properties.laneFor(rail);
+            RailLane lane = new RailLane(
+                    rail,
+                    config.getQueueCapacity(),
+                    config.getConcurrency(),
+                    config.getMaxPerSecond(),
+                    Timer.builder("payment.rail.queue.wait")
+                            .tag("rail", rail.name())
+                            .description("Time a payment waits in its rail queue")
+                            .register(meterRegistry)
+            );
+            lanes.put(rail, lane);
+            Gauge.builder("payment.rail.queue.depth", lane, RailLane::depth)
+                    .tag("rail", rail.name())
+                    .description("Payments queued for submission to the rail")
+                    .register(meterRegistry);
+            rejectedCounters.put(rail, Counter.builder("payment.rail.rejected")
+                    .tag("rail", rail.name())
+                    .description("Dispatches rejected because the rail queue was full")
+                    .register(meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        lanes.values().forEach(lane -> lane.start(this::process));
+    }
+
+    @PreDestroy
+    void stop() {
+        lanes.values().forEach(RailLane::stop);
+        overflowExecutor.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDispatchRequested(RailDispatchRequest request) {
+        dispatch(request);
+    }
+
+    public boolean dispatch(RailDispatchRequest request) {
+        if (!adapters.containsKey(request.rail())) {
+            overflowExecutor.execute(() -> failQuietly(request, "No adapter for rail " + request.rail()));
+            return false;
+        }
+        if (lanes.get(request.rail()).offer(request)) {
+            return true;
+        }
+        rejectedCounters.get(request.rail()).increment();
+        log.warn("Rail {} queue full; failing payment {}", request.rail(), request.paymentId());
+        // Runs outside the committing transaction so the failure is persisted on its own
+        overflowExecutor.execute(() -> failQuietly(request, "Rail " + request.rail() + " queue full"));
+        return false;
+    }
+
+    public int queueDepth(PaymentRail rail) {
+        return lanes.get(rail).depth();
+    }
+
+    /**
+     * Queues again payments dispatched more than {@code payment.rails.redispatch.stale-after}
+     * ago and never claimed by a worker. One that does not fit its lane is left for a later sweep.
+     */
+    @Scheduled(fixedDelayString = "${payment.rails.redispatch.interval-ms:60000}",
+            initialDelayString = "${payment.rails.redispatch.initial-delay-ms:10000}")
+    public void redispatchStale() {
+        List<Payment> stale;
+        do {
+            stale = paymentService.reclaimStaleDispatches(redispatch.getStaleAfter(), redispatch.getBatchSize());
+            int requeued = 0;
+            for (Payment payment : stale) {
+                RailDispatchRequest request =
+                        new RailDispatchRequest(payment.getId(), payment.getRail(), DispatchPriority.NORMAL);
+                if (!adapters.containsKey(payment.getRail())) {
+                    dispatch(request);
+                } else if (lanes.get(payment.getRail()).offer(request)) {
+                    requeued++;
+                }
+            }
+            if (!stale.isEmpty()) {
+                log.info("Requeued {} of {} stale rail dispatches", requeued, stale.size());
+            }
+        } while (stale.size() == redispatch.getBatchSize());
+    }
+
+    private void process(RailDispatchRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            if (!paymentService.claimRailSubmission(request.paymentId())) {
+                outcome = "skipped";
+                log.info("Skipping rail submission for payment {}: not PROCESSING or already submitted",
+                        request.paymentId());
+                return;
+            }
+            Payment payment = paymentService.getPayment(request.paymentId());
+            RailSubmissionResult result;
+            try {
+                result = adapters.get(request.rail()).submit(payment);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                outcome = "unknown";
+                log.error("Rail {} submission of payment {} ended without an answer; leaving it PROCESSING "
+                        + "for reconciliation", request.rail(), payment.getId(), e);
+                return;
+            }
+            if (result.accepted()) {
+                record(payment.getId(), "completed as " + result.externalReference(),
+                        () -> paymentService.completePayment(payment.getId(), result.externalReference()));
+                outcome = "accepted";
+            } else {
+                record(payment.getId(), "failed: " + result.failureReason(),
+                        () -> paymentService.failPayment(payment.getId(), result.failureReason()));
+                outcome = "rejected";
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // The payment stays claimed and PROCESSING; reconciliation settles it
+            log.error("Rail {} dispatch of payment {} failed", request.rail(), request.paymentId(), e);
+        } finally {
+            sample.stop(Timer.builder("payment.rail.processing")
+                    .tag("rail", request.rail().name())
+                    .tag("outcome", outcome)
+                    .description("Time spent submitting a payment to the rail and recording the result")
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Writes the rail's answer back, retrying with backoff. A payment no longer PROCESSING was
+     * settled elsewhere and is not retried.
+     */
+    private void record(UUID paymentId, String answer, Runnable write) throws InterruptedException {
+        long backoffMillis = recording.getBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write.run();
+                return;
+            } catch (ResponseStatusException e) {
+                log.warn("Rail answer for payment {} ({}) not recorded: {}", paymentId, answer, e.getReason());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= recording.getAttempts()) {
+                    throw new IllegalStateException("Rail answer for payment " + paymentId + " (" + answer
+                            + ") not recorded after " + attempt + " attempts", e);
+                }
+                log.warn("Recording rail answer for payment {} failed (attempt {}): {}",
+                        paymentId, attempt, e.getMessage());
+                Thread.sleep(backoffMillis);
+                backoffMillis *= 2;
+            }
+        }
+    }
+
+    private void failQuietly(RailDispatchRequest request, String reason) {
+        try {
+            paymentService.failPayment(request.paymentId(), reason);
+        } catch (RuntimeException e) {
+            log.warn("Could not mark payment {} failed: {}", request.paymentId(), e.getMessage());
+        }
+    }
+}
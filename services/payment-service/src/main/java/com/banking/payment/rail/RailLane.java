@@ -0,0 +1,105 @@
+package com.banking.payment.rail;
+
+import com.banking.payment.domain.PaymentRail;
+import io.micrometer.core.instrument.Timer;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue plus a fixed worker pool for one rail. Urgent dispatches are taken before
+ * normal ones; within a priority the queue is FIFO.
+ */
+final class RailLane {
+
+    private static final Logger log = LoggerFactory.getLogger(RailLane.class);
+
+    private static final Comparator<QueuedDispatch> ORDER = Comparator
+            .comparing((QueuedDispatch dispatch) -> dispatch.request().priority())
+            .thenComparingLong(QueuedDispatch::sequence);
+
+    private final PaymentRail rail;
+    private final PriorityBlockingQueue<QueuedDispatch> queue;
+    private final Semaphore capacity;
+    private final AtomicLong sequence = new AtomicLong();
+    private final RailThrottle throttle;
+    private final Timer waitTimer;
+    private final int concurrency;
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    RailLane(PaymentRail rail, int queueCapacity, int concurrency, double maxPerSecond, Timer waitTimer) {
+        this.rail = rail;
+        this.queue = new PriorityBlockingQueue<>(Math.min(queueCapacity, 64), ORDER);
+        this.capacity = new Semaphore(queueCapacity);
+        this.throttle = new RailThrottle(maxPerSecond);
+        this.waitTimer = waitTimer;
+        this.concurrency = concurrency;
+    }
+
+    boolean offer(RailDispatchRequest request) {
+        if (!capacity.tryAcquire()) {
+            return false;
+        }
+        queue.add(new QueuedDispatch(request, sequence.incrementAndGet(), System.nanoTime()));
+        return true;
+    }
+
+    int depth() {
+        return queue.size();
+    }
+
+    void start(Consumer<RailDispatchRequest> handler) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        running = true;
+        workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "rail-" + rail.name().toLowerCase() + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> work(handler));
+        }
+    }
+
+    void stop() {
+        running = false;
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Rail {} stopped with {} queued dispatches; they are requeued once stale", rail, queue.size());
+        }
+    }
+
+    private void work(Consumer<RailDispatchRequest> handler) {
+        while (running) {
+            try {
+                QueuedDispatch dispatch = queue.poll(1, TimeUnit.SECONDS);
+                if (dispatch == null) {
+                    continue;
+                }
+                capacity.release();
+                waitTimer.record(System.nanoTime() - dispatch.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                throttle.acquire();
+                handler.accept(dispatch.request());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Rail {} worker failed to handle dispatch", rail, e);
+            }
+        }
+    }
+
+    private record QueuedDispatch(RailDispatchRequest request, long sequence, long enqueuedAtNanos) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.banking.payment.rail;
+
+public record RailSubmissionResult(boolean accepted, String externalReference, String failureReason) {
+
+    public static RailSubmissionResult accepted(String externalReference) {
+        return new RailSubmissionResult(true, externalReference, null);
+    }
+
+    public static RailSubmissionResult rejected(String failureReason) {
+        return new RailSubmissionResult(false, null, failureReason);
+    }
+}
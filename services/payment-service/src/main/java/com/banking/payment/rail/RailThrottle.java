@@ -0,0 +1,34 @@
+package com.banking.payment.rail;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces submissions evenly so a rail never sees more than {@code permitsPerSecond}.
+ */
+final class RailThrottle {
+
+    private final long intervalNanos;
+    private long nextSlotNanos;
+
+    RailThrottle(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        this.nextSlotNanos = System.nanoTime();
+    }
+
+    void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long slot = Math.max(nextSlotNanos, now);
+        nextSlotNanos = slot + intervalNanos;
+        return slot - now;
+    }
+}
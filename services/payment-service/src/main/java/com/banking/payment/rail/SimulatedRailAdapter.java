@@ -0,0 +1,39 @@
+package com.banking.payment.rail;
+
+import com.banking.payment.domain.Payment;
+import com.banking.payment.domain.PaymentRail;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a rail with no real adapter: answers after a fixed latency and
+ * rejects a configurable share of submissions.
+ */
+public class SimulatedRailAdapter implements RailAdapter {
+
+    private final PaymentRail rail;
+    private final long latencyMs;
+    private final double failureRate;
+
+    public SimulatedRailAdapter(PaymentRail rail, long latencyMs, double failureRate) {
+        this.rail = rail;
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public PaymentRail rail() {
+        return rail;
+    }
+
+    @Override
+    public RailSubmissionResult submit(Payment payment) throws InterruptedException {
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            return RailSubmissionResult.rejected("Simulated " + rail + " rejection");
+        }
+        return RailSubmissionResult.accepted("SIM-" + rail + "-" + UUID.randomUUID().toString().substring(0, 12));
+    }
+}
@@ -0,0 +1,18 @@
+package com.banking.payment.reconciliation;
+
+import com.banking.payment.domain.PaymentStatus;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The columns of an unreconciled payment needed to join it against a settlement file. The
+ * settlement key is the external reference, or the ACH trace number when none was recorded.
+ */
+public record PaymentSettlementRow(
+        UUID id,
+        PaymentStatus status,
+        BigDecimal amount,
+        String currency,
+        String settlementKey
+) {
+}
@@ -0,0 +1,21 @@
+package com.banking.payment.reconciliation;
+
+import java.io.IOException;
+
+/**
+ * Receives the outcome of each join between a payment and a settlement record.
+ */
+interface ReconciliationListener {
+
+    void matched(PaymentSettlementRow payment, SettlementRecord record) throws IOException;
+
+    void amountMismatch(PaymentSettlementRow payment, SettlementRecord record) throws IOException;
+
+    /**
+     * The rail settled something we have no unreconciled payment for, or settled the same
+     * reference more than once.
+     */
+    void missingOnOurSide(SettlementRecord record) throws IOException;
+
+    void missingOnRail(PaymentSettlementRow payment) throws IOException;
+}
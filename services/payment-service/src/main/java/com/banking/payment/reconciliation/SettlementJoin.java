@@ -0,0 +1,163 @@
+package com.banking.payment.reconciliation;
+
+import com.banking.payment.domain.PaymentStatus;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Grace hash join of settlement records against payments on the settlement key. Both sides are
+ * spilled to per-partition files while they stream in, then each partition's settlement records
+ * are loaded into a hash map and probed with that partition's payments. Memory is bounded by the
+ * largest settlement partition rather than by the size of the file.
+ */
+class SettlementJoin implements Closeable {
+
+    private final Path directory;
+    private final int partitions;
+    private final BufferedWriter[] settlementWriters;
+    private final BufferedWriter[] paymentWriters;
+    private boolean spilling = true;
+
+    SettlementJoin(Path directory, int partitions) throws IOException {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.partitions = partitions;
+        this.settlementWriters = new BufferedWriter[partitions];
+        this.paymentWriters = new BufferedWriter[partitions];
+        try {
+            for (int i = 0; i < partitions; i++) {
+                settlementWriters[i] = Files.newBufferedWriter(settlementPartition(i), StandardCharsets.UTF_8);
+                paymentWriters[i] = Files.newBufferedWriter(paymentPartition(i), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    void addSettlement(SettlementRecord record) throws IOException {
+        BufferedWriter writer = settlementWriters[partitionOf(record.externalReference())];
+        writer.write(record.amount().toPlainString());
+        writer.write(',');
+        writer.write(record.currency());
+        writer.write(',');
+        writer.write(record.externalReference());
+        writer.newLine();
+    }
+
+    void addPayment(PaymentSettlementRow payment) throws IOException {
+        BufferedWriter writer = paymentWriters[partitionOf(payment.settlementKey())];
+        writer.write(payment.id().toString());
+        writer.write(',');
+        writer.write(payment.status().name());
+        writer.write(',');
+        writer.write(payment.amount().toPlainString());
+        writer.write(',');
+        writer.write(payment.currency());
+        writer.write(',');
+        writer.write(payment.settlementKey());
+        writer.newLine();
+    }
+
+    /**
+     * Joins partition by partition, deleting each partition's spill files once it is done.
+     */
+    void join(ReconciliationListener listener) throws IOException {
+        closeWriters();
+        for (int i = 0; i < partitions; i++) {
+            Map<String, SettlementRecord> settled = new HashMap<>();
+            try (BufferedReader reader = Files.newBufferedReader(settlementPartition(i), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(",", 3);
+                    SettlementRecord record = new SettlementRecord(parts[2], new BigDecimal(parts[0]), parts[1]);
+                    if (settled.putIfAbsent(record.externalReference(), record) != null) {
+                        listener.missingOnOurSide(record);
+                    }
+                }
+            }
+            try (BufferedReader reader = Files.newBufferedReader(paymentPartition(i), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(",", 5);
+                    PaymentSettlementRow payment = new PaymentSettlementRow(
+                            UUID.fromString(parts[0]),
+                            PaymentStatus.valueOf(parts[1]),
+                            new BigDecimal(parts[2]),
+                            parts[3],
+                            parts[4]
+                    );
+                    SettlementRecord record = settled.remove(payment.settlementKey());
+                    if (record == null) {
+                        listener.missingOnRail(payment);
+                    } else if (record.amount().compareTo(payment.amount()) == 0
+                            && record.currency().equals(payment.currency())) {
+                        listener.matched(payment, record);
+                    } else {
+                        listener.amountMismatch(payment, record);
+                    }
+                }
+            }
+            for (SettlementRecord record : settled.values()) {
+                listener.missingOnOurSide(record);
+            }
+            Files.deleteIfExists(settlementPartition(i));
+            Files.deleteIfExists(paymentPartition(i));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeWriters();
+        for (int i = 0; i < partitions; i++) {
+            Files.deleteIfExists(settlementPartition(i));
+            Files.deleteIfExists(paymentPartition(i));
+        }
+    }
+
+    private void closeWriters() throws IOException {
+        if (!spilling) {
+            return;
+        }
+        spilling = false;
+        IOException failure = null;
+        for (int i = 0; i < partitions; i++) {
+            for (BufferedWriter writer : new BufferedWriter[]{settlementWriters[i], paymentWriters[i]}) {
+                if (writer == null) {
+                    continue;
+                }
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private int partitionOf(String key) {
+        return Math.floorMod(key.hashCode(), partitions);
+    }
+
+    private Path settlementPartition(int partition) {
+        return directory.resolve("settlement-" + partition + ".part");
+    }
+
+    private Path paymentPartition(int partition) {
+        return directory.resolve("payments-" + partition + ".part");
+    }
+}
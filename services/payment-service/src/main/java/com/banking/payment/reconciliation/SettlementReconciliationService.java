@@ -0,0 +1,366 @@
+package com.banking.payment.reconciliation;
+
+import com.banking.payment.config.ReconciliationProperties;
+import com.banking.payment.domain.Payment;
+import com.banking.payment.domain.PaymentRail;
+import com.banking.payment.domain.PaymentStatus;
+import com.banking.payment.domain.ReconciliationStatus;
+import com.banking.payment.domain.SettlementReconciliation;
+import com.banking.payment.messaging.PaymentEventPublisher;
+import com.banking.payment.repository.PaymentRepository;
+import com.banking.payment.repository.SettlementReconciliationRepository;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Reconciles a rail settlement file against our PROCESSING and COMPLETED payments on that rail
+ * initiated within {@code payment.reconciliation.settlement-window} before the end of the file's
+ * settlement date (UTC). Payments outside that window belong to other files and are neither
+ * matched nor reported missing on the rail.
+ * The file is streamed once into hash partitions, unreconciled payments are read in keyset chunks
+ * into the same partitions, and each partition is joined in memory. Every outcome is written to
+ * one of four bucket files under the run's output directory. Matched PROCESSING payments are
+ * completed and matched COMPLETED payments are marked reconciled, one chunk per statement.
+ * <p>
+ * Runs are started in the background, one at a time per instance, and recorded as RUNNING until
+ * they finish. A run cut short by a restart stays RUNNING; rerunning the same file is safe.
+ */
+@Service
+public class SettlementReconciliationService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementReconciliationService.class);
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private static final String SELECT_CHUNK = """
+            SELECT id, status, amount, currency, COALESCE(external_reference, ach_trace_number) AS settlement_key
+            FROM payments
+            WHERE rail = ? AND status IN ('PROCESSING', 'COMPLETED') AND reconciled_at IS NULL
+              AND COALESCE(external_reference, ach_trace_number) IS NOT NULL
+              AND initiated_at >= ? AND initiated_at < ?
+              AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final RowMapper<PaymentSettlementRow> ROW_MAPPER = (rs, rowNum) -> new PaymentSettlementRow(
+            rs.getObject("id", UUID.class),
+            PaymentStatus.valueOf(rs.getString("status")),
+            rs.getBigDecimal("amount"),
+            rs.getString("currency"),
+            rs.getString("settlement_key")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PaymentRepository paymentRepository;
+    private final SettlementReconciliationRepository reconciliationRepository;
+    private final PaymentEventPublisher eventPublisher;
+    private final ReconciliationProperties properties;
+    private final Clock clock;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "settlement-reconciliation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SettlementReconciliationService(
+            JdbcTemplate jdbcTemplate,
+            PaymentRepository paymentRepository,
+            SettlementReconciliationRepository reconciliationRepository,
+            PaymentEventPublisher eventPublisher,
+            ReconciliationProperties properties,
+            Clock clock
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.paymentRepository = paymentRepository;
+        this.reconciliationRepository = reconciliationRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Records a RUNNING reconciliation of {@code fileName}, resolved inside the configured inbound
+     * directory, for payments settling on {@code settlementDate}, and queues it. The file is checked
+     * to exist before anything is recorded.
+     */
+    public SettlementReconciliation start(PaymentRail rail, String fileName, LocalDate settlementDate) {
+        Path settlementFile = resolveInbound(fileName);
+        UUID id = UUID.randomUUID();
+
+        SettlementReconciliation reconciliation = new SettlementReconciliation();
+        reconciliation.setId(id);
+        reconciliation.setRail(rail);
+        reconciliation.setSourceFile(settlementFile.toString());
+        reconciliation.setSettlementDate(settlementDate);
+        reconciliation.setStatus(ReconciliationStatus.RUNNING);
+        reconciliation.setOutputDirectory(Paths.get(properties.getWorkDirectory()).resolve(id.toString()).toString());
+        reconciliation.setStartedAt(Instant.now(clock));
+        SettlementReconciliation saved = reconciliationRepository.save(reconciliation);
+        runner.execute(() -> run(saved));
+        return saved;
+    }
+
+    /**
+     * Runs a recorded reconciliation and stores its counts, or the reason it failed. Not
+     * transactional: each completion chunk commits on its own, and a rerun skips payments an
+     * earlier run already reconciled.
+     */
+    void run(SettlementReconciliation reconciliation) {
+        Path settlementFile = Paths.get(reconciliation.getSourceFile());
+        Path outputDirectory = Paths.get(reconciliation.getOutputDirectory());
+        PaymentRail rail = reconciliation.getRail();
+
+        try (SettlementJoin join = new SettlementJoin(outputDirectory.resolve("partitions"), properties.getPartitions());
+             Buckets buckets = new Buckets(outputDirectory)) {
+            reconciliation.setSettlementRecordCount(spillSettlementFile(settlementFile, join));
+            spillPayments(rail, reconciliation, join);
+            join.join(buckets);
+            buckets.flushCompletions();
+            reconciliation.setMatchedCount(buckets.matched);
+            reconciliation.setCompletedCount(buckets.completed);
+            reconciliation.setAmountMismatchCount(buckets.amountMismatch);
+            reconciliation.setMissingOnOurSideCount(buckets.missingOnOurSide);
+            reconciliation.setMissingOnRailCount(buckets.missingOnRail);
+            reconciliation.setStatus(ReconciliationStatus.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            log.error("Reconciliation {} of settlement file {} failed", reconciliation.getId(), settlementFile, e);
+            reconciliation.setStatus(ReconciliationStatus.FAILED);
+            reconciliation.setErrorMessage(truncate(e instanceof ResponseStatusException status
+                    ? status.getReason()
+                    : e.getMessage()));
+        }
+
+        reconciliation.setFinishedAt(Instant.now(clock));
+        SettlementReconciliation saved = reconciliationRepository.save(reconciliation);
+        if (saved.getStatus() == ReconciliationStatus.COMPLETED) {
+            log.info("Reconciled {} settlement records for rail {}: {} matched ({} completed), {} amount mismatches, "
+                            + "{} missing on our side, {} missing on rail",
+                    saved.getSettlementRecordCount(), rail, saved.getMatchedCount(), saved.getCompletedCount(),
+                    saved.getAmountMismatchCount(), saved.getMissingOnOurSideCount(), saved.getMissingOnRailCount());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public SettlementReconciliation getReconciliation(UUID id) {
+        return reconciliationRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Reconciliation not found: " + id
+                ));
+    }
+
+    @Override
+    public void destroy() {
+        runner.shutdownNow();
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= 1000) {
+            return message;
+        }
+        return message.substring(0, 1000);
+    }
+
+    private Path resolveInbound(String fileName) {
+        Path inbound = Paths.get(properties.getInboundDirectory()).toAbsolutePath().normalize();
+        Path file = inbound.resolve(fileName).normalize();
+        if (!file.startsWith(inbound)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Settlement file must be inside the inbound directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Settlement file not found: " + fileName);
+        }
+        return file;
+    }
+
+    /**
+     * Spills every settlement record. A malformed line rejects the file before any payment has
+     * been touched.
+     */
+    private long spillSettlementFile(Path file, SettlementJoin join) throws IOException {
+        long count = 0;
+        long lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.trim().equalsIgnoreCase(SettlementRecord.HEADER))) {
+                    continue;
+                }
+                SettlementRecord record = SettlementRecord.parse(line);
+                if (record == null) {
+                    throw new ResponseStatusException(
+                            HttpStatus.BAD_REQUEST,
+                            "Malformed settlement record at line " + lineNumber
+                    );
+                }
+                join.addSettlement(record);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Spills the payments the file can settle: initiated within the settlement window ending with
+     * the settlement date, and before the run started.
+     */
+    private void spillPayments(PaymentRail rail, SettlementReconciliation reconciliation, SettlementJoin join)
+            throws IOException {
+        Instant dayEnd = reconciliation.getSettlementDate().plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Timestamp from = Timestamp.from(dayEnd.minus(properties.getSettlementWindow()));
+        Timestamp to = Timestamp.from(dayEnd.isBefore(reconciliation.getStartedAt())
+                ? dayEnd
+                : reconciliation.getStartedAt());
+        UUID cursor = MIN_UUID;
+        while (true) {
+            List<PaymentSettlementRow> chunk = jdbcTemplate.query(SELECT_CHUNK, ROW_MAPPER,
+                    rail.name(), from, to, cursor, properties.getChunkSize());
+            for (PaymentSettlementRow payment : chunk) {
+                join.addPayment(payment);
+            }
+            if (chunk.size() < properties.getChunkSize()) {
+                return;
+            }
+            cursor = chunk.get(chunk.size() - 1).id();
+        }
+    }
+
+    /**
+     * Writes each outcome to its bucket file and applies matched payments in chunks.
+     */
+    private final class Buckets implements ReconciliationListener, Closeable {
+
+        private final BufferedWriter matchedWriter;
+        private final BufferedWriter mismatchWriter;
+        private final BufferedWriter missingOnOurSideWriter;
+        private final BufferedWriter missingOnRailWriter;
+        private final List<UUID> toComplete = new ArrayList<>();
+        private final List<UUID> toMarkReconciled = new ArrayList<>();
+
+        private long matched;
+        private long completed;
+        private long amountMismatch;
+        private long missingOnOurSide;
+        private long missingOnRail;
+
+        Buckets(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            matchedWriter = open(directory.resolve("matched.csv"), "payment_id,external_reference,amount,currency,status");
+            mismatchWriter = open(directory.resolve("amount-mismatch.csv"),
+                    "payment_id,external_reference,amount,currency,settled_amount,settled_currency");
+            missingOnOurSideWriter = open(directory.resolve("missing-on-our-side.csv"), SettlementRecord.HEADER);
+            missingOnRailWriter = open(directory.resolve("missing-on-rail.csv"),
+                    "payment_id,external_reference,amount,currency,status");
+        }
+
+        @Override
+        public void matched(PaymentSettlementRow payment, SettlementRecord record) throws IOException {
+            matched++;
+            write(matchedWriter, payment.id(), payment.settlementKey(), payment.amount().toPlainString(),
+                    payment.currency(), payment.status());
+            List<UUID> pending = payment.status() == PaymentStatus.PROCESSING ? toComplete : toMarkReconciled;
+            pending.add(payment.id());
+            if (pending.size() >= properties.getChunkSize()) {
+                flushCompletions();
+            }
+        }
+
+        @Override
+        public void amountMismatch(PaymentSettlementRow payment, SettlementRecord record) throws IOException {
+            amountMismatch++;
+            write(mismatchWriter, payment.id(), payment.settlementKey(), payment.amount().toPlainString(),
+                    payment.currency(), record.amount().toPlainString(), record.currency());
+        }
+
+        @Override
+        public void missingOnOurSide(SettlementRecord record) throws IOException {
+            missingOnOurSide++;
+            write(missingOnOurSideWriter, record.externalReference(), record.amount().toPlainString(), record.currency());
+        }
+
+        @Override
+        public void missingOnRail(PaymentSettlementRow payment) throws IOException {
+            missingOnRail++;
+            write(missingOnRailWriter, payment.id(), payment.settlementKey(), payment.amount().toPlainString(),
+                    payment.currency(), payment.status());
+        }
+
+        void flushCompletions() {
+            Instant now = Instant.now(clock);
+            if (!toComplete.isEmpty()) {
+                List<Payment> moved = paymentRepository.completeSettled(toComplete, now);
+                completed += moved.size();
+                eventPublisher.publishPaymentsCompleted(moved);
+                toComplete.clear();
+            }
+            if (!toMarkReconciled.isEmpty()) {
+                paymentRepository.markReconciled(toMarkReconciled, now);
+                toMarkReconciled.clear();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (matchedWriter; mismatchWriter; missingOnOurSideWriter; missingOnRailWriter) {
+                // closes all four writers even if one of them fails
+            }
+        }
+
+        private BufferedWriter open(Path path, String header) throws IOException {
+            BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            writer.write(header);
+            writer.newLine();
+            return writer;
+        }
+
+        private void write(BufferedWriter writer, Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csv(String.valueOf(values[i])));
+            }
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Quotes a value containing a comma, quote or line break, doubling its quotes (RFC 4180).
+     */
+    static String csv(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+}
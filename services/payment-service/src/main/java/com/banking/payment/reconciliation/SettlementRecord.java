@@ -0,0 +1,37 @@
+package com.banking.payment.reconciliation;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a rail settlement file: {@code external_reference,amount,currency}. The reference
+ * is everything before the last two commas, so references containing commas still parse.
+ */
+public record SettlementRecord(String externalReference, BigDecimal amount, String currency) {
+
+    static final String HEADER = "external_reference,amount,currency";
+
+    /**
+     * Parses a settlement line, returning {@code null} if it is not in the expected shape.
+     */
+    static SettlementRecord parse(String line) {
+        int currencyStart = line.lastIndexOf(',');
+        if (currencyStart <= 0) {
+            return null;
+        }
+        int amountStart = line.lastIndexOf(',', currencyStart - 1);
+        if (amountStart <= 0) {
+            return null;
+        }
+        String reference = line.substring(0, amountStart).trim();
+        String currency = line.substring(currencyStart + 1).trim();
+        if (reference.isEmpty() || currency.length() != 3) {
+            return null;
+        }
+        try {
+            BigDecimal amount = new BigDecimal(line.substring(amountStart + 1, currencyStart).trim());
+            return new SettlementRecord(reference, amount, currency);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.banking.payment.repository;
+
+import com.banking.payment.domain.AccountPaymentIndexEntry;
+import com.banking.payment.domain.AccountPaymentIndexId;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AccountPaymentIndexRepository
+        extends JpaRepository<AccountPaymentIndexEntry, AccountPaymentIndexId> {
+
+    @Query("""
+            SELECT e FROM AccountPaymentIndexEntry e
+            WHERE e.id.accountId = :accountId
+            ORDER BY e.initiatedAt DESC, e.id.paymentId DESC
+            """)
+    List<AccountPaymentIndexEntry> findLatest(@Param("accountId") UUID accountId, Pageable pageable);
+
+    @Query("""
+            SELECT e FROM AccountPaymentIndexEntry e
+            WHERE e.id.accountId = :accountId
+              AND (e.initiatedAt < :initiatedAt
+                   OR (e.initiatedAt = :initiatedAt AND e.id.paymentId < :paymentId))
+            ORDER BY e.initiatedAt DESC, e.id.paymentId DESC
+            """)
+    List<AccountPaymentIndexEntry> findBefore(
+            @Param("accountId") UUID accountId,
+            @Param("initiatedAt") Instant initiatedAt,
+            @Param("paymentId") UUID paymentId,
+            Pageable pageable
+    );
+}
@@ -0,0 +1,15 @@
+package com.banking.payment.repository;
+
+import com.banking.payment.domain.AchBatchFile;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AchBatchFileRepository extends JpaRepository<AchBatchFile, UUID> {
+
+    @Query("SELECT f.fileIdModifier FROM AchBatchFile f WHERE f.fileDate = :fileDate")
+    List<String> findFileIdModifiers(@Param("fileDate") LocalDate fileDate);
+}
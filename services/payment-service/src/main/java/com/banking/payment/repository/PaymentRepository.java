@@ -2,14 +2,18 @@ package com.banking.payment.repository;
 
 import com.banking.payment.domain.Payment;
 import com.banking.payment.domain.PaymentStatus;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
@@ -19,12 +23,79 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
     Page<Payment> findByToAccountId(UUID toAccountId, Pageable pageable);
 
-    @Query("SELECT p FROM Payment p WHERE (p.fromAccountId = :accountId OR p.toAccountId = :accountId)")
-    Page<Payment> findByAccountId(@Param("accountId") UUID accountId, Pageable pageable);
-
     Page<Payment> findByStatus(PaymentStatus status, Pageable pageable);
 
     @Query("SELECT p FROM Payment p WHERE p.status IN :statuses")
     Page<Payment> findByStatusIn(@Param("statuses") List<PaymentStatus> statuses, Pageable pageable);
-}
 
+    /**
+     * Completes PROCESSING payments confirmed by a settlement file and marks them reconciled,
+     * returning the rows that actually moved. The settlement key becomes the external reference
+     * when none was recorded at submission.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE payments
+            SET status = 'COMPLETED',
+                external_reference = COALESCE(external_reference, ach_trace_number),
+                completed_at = :now,
+                reconciled_at = :now,
+                updated_at = :now
+            WHERE id IN (:ids) AND status = 'PROCESSING'
+            RETURNING *
+            """, nativeQuery = true)
+    List<Payment> completeSettled(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE payments
+            SET reconciled_at = :now, updated_at = :now
+            WHERE id IN (:ids) AND status = 'COMPLETED' AND reconciled_at IS NULL
+            """, nativeQuery = true)
+    int markReconciled(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
+
+    /**
+     * Records that the payment was queued for its rail.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE payments SET rail_dispatched_at = :now WHERE id = :id", nativeQuery = true)
+    int markRailDispatched(@Param("id") UUID id, @Param("now") Instant now);
+
+    /**
+     * Claims a PROCESSING payment for submission to its rail. Only one claim per payment
+     * succeeds, so a payment queued twice is still submitted once.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE payments
+            SET rail_submitted_at = :now, updated_at = :now
+            WHERE id = :id AND status = 'PROCESSING' AND rail_submitted_at IS NULL
+            """, nativeQuery = true)
+    int claimRailSubmission(@Param("id") UUID id, @Param("now") Instant now);
+
+    /**
+     * Re-stamps PROCESSING payments queued before {@code staleBefore} and never claimed for
+     * submission, returning the rows that were re-stamped, oldest first.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE payments
+            SET rail_dispatched_at = :now
+            WHERE id IN (
+                SELECT id FROM payments
+                WHERE status = 'PROCESSING' AND rail_submitted_at IS NULL AND rail_dispatched_at < :staleBefore
+                ORDER BY rail_dispatched_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING *
+            """, nativeQuery = true)
+    List<Payment> reclaimStaleDispatches(
+            @Param("staleBefore") Instant staleBefore,
+            @Param("now") Instant now,
+            @Param("limit") int limit
+    );
+}
@@ -0,0 +1,8 @@
+package com.banking.payment.repository;
+
+import com.banking.payment.domain.SettlementReconciliation;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SettlementReconciliationRepository extends JpaRepository<SettlementReconciliation, UUID> {
+}
@@ -0,0 +1,34 @@
+package com.banking.payment.service;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Keyset position in an account's history: the last (initiatedAt, paymentId) already returned.
+ */
+public record AccountHistoryCursor(Instant initiatedAt, UUID paymentId) {
+
+    private static final char SEPARATOR = '_';
+
+    public static AccountHistoryCursor parse(String value) {
+        int separator = value.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid history cursor: " + value);
+        }
+        try {
+            return new AccountHistoryCursor(
+                    Instant.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1))
+            );
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid history cursor: " + value);
+        }
+    }
+
+    public String format() {
+        return initiatedAt.toString() + SEPARATOR + paymentId;
+    }
+}
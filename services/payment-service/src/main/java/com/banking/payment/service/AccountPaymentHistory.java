@@ -0,0 +1,14 @@
+package com.banking.payment.service;
+
+import com.banking.payment.domain.AccountPaymentDirection;
+import com.banking.payment.domain.Payment;
+import java.util.List;
+
+/**
+ * One keyset page of an account's payments, newest first. {@code nextCursor} is null on the last page.
+ */
+public record AccountPaymentHistory(List<Item> items, AccountHistoryCursor nextCursor) {
+
+    public record Item(AccountPaymentDirection direction, Payment payment) {
+    }
+}
@@ -1,17 +1,28 @@
 package com.banking.payment.service;
 
+import com.banking.payment.domain.AccountPaymentIndexEntry;
 import com.banking.payment.domain.Payment;
 import com.banking.payment.domain.PaymentDirection;
 import com.banking.payment.domain.PaymentRail;
 import com.banking.payment.domain.PaymentStatus;
 import com.banking.payment.messaging.PaymentEvent;
 import com.banking.payment.messaging.PaymentEventPublisher;
+import com.banking.payment.rail.DispatchPriority;
+import com.banking.payment.rail.RailDispatchRequest;
+import com.banking.payment.repository.AccountPaymentIndexRepository;
 import com.banking.payment.repository.PaymentRepository;
 import java.math.BigDecimal;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -21,17 +32,25 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 public class PaymentService {
 
+    static final int MAX_HISTORY_PAGE_SIZE = 200;
+
     private final PaymentRepository paymentRepository;
+    private final AccountPaymentIndexRepository accountIndexRepository;
     private final PaymentEventPublisher eventPublisher;
+    private final ApplicationEventPublisher applicationEventPublisher;
     private final Clock clock;
 
     public PaymentService(
             PaymentRepository paymentRepository,
+            AccountPaymentIndexRepository accountIndexRepository,
             PaymentEventPublisher eventPublisher,
+            ApplicationEventPublisher applicationEventPublisher,
             Clock clock
     ) {
         this.paymentRepository = paymentRepository;
+        this.accountIndexRepository = accountIndexRepository;
         this.eventPublisher = eventPublisher;
+        this.applicationEventPublisher = applicationEventPublisher;
         this.clock = clock;
     }
 
@@ -73,6 +92,7 @@ public class PaymentService {
         payment.setInitiatedAt(Instant.now(clock));
 
         Payment saved = paymentRepository.save(payment);
+        accountIndexRepository.saveAll(AccountPaymentIndexEntry.forPayment(saved));
 
         // Publish payment initiated event
         eventPublisher.publishPaymentInitiated(saved);
@@ -82,6 +102,15 @@ public class PaymentService {
 
     @Transactional
     public Payment processPayment(UUID paymentId) {
+        return processPayment(paymentId, DispatchPriority.NORMAL, true);
+    }
+
+    /**
+     * Marks the payment PROCESSING. When {@code dispatchToRail} is set, the payment is queued
+     * for its rail once this transaction commits and the result is recorded asynchronously.
+     */
+    @Transactional
+    public Payment processPayment(UUID paymentId, DispatchPriority priority, boolean dispatchToRail) {
         Payment payment = paymentRepository.findById(paymentId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
@@ -101,13 +130,32 @@ public class PaymentService {
         // Publish payment processing event
         eventPublisher.publishPaymentProcessing(updated);
 
-        // Simulate external rail processing
-        // In a real system, this would call external payment rail APIs
-        simulateRailProcessing(updated);
+        if (dispatchToRail) {
+            paymentRepository.markRailDispatched(updated.getId(), Instant.now(clock));
+            applicationEventPublisher.publishEvent(new RailDispatchRequest(updated.getId(), updated.getRail(), priority));
+        }
 
         return updated;
     }
 
+    /**
+     * Claims a dispatched payment for submission to its rail; false when it is no longer
+     * PROCESSING or another worker has already claimed it.
+     */
+    public boolean claimRailSubmission(UUID paymentId) {
+        return paymentRepository.claimRailSubmission(paymentId, Instant.now(clock)) == 1;
+    }
+
+    /**
+     * Dispatched payments that were queued more than {@code staleAfter} ago and never claimed
+     * for submission, such as those still queued when an instance stopped. They are re-stamped
+     * as dispatched now so concurrent sweeps do not both requeue them.
+     */
+    public List<Payment> reclaimStaleDispatches(Duration staleAfter, int limit) {
+        Instant now = Instant.now(clock);
+        return paymentRepository.reclaimStaleDispatches(now.minus(staleAfter), now, limit);
+    }
+
     @Transactional
     public Payment completePayment(UUID paymentId, String externalReference) {
         Payment payment = paymentRepository.findById(paymentId)
@@ -200,18 +248,38 @@ public class PaymentService {
                 ));
     }
 
-    public Page<Payment> getPaymentsByAccount(UUID accountId, Pageable pageable) {
-        return paymentRepository.findByAccountId(accountId, pageable);
+    /**
+     * Reads one page of an account's payments from the per-account projection, then loads
+     * the page's payments by primary key. Cost depends on the page size only.
+     */
+    @Transactional(readOnly = true)
+    public AccountPaymentHistory getAccountHistory(UUID accountId, AccountHistoryCursor cursor, int size) {
+        Pageable limit = PageRequest.of(0, Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE)));
+        List<AccountPaymentIndexEntry> entries = cursor == null
+                ? accountIndexRepository.findLatest(accountId, limit)
+                : accountIndexRepository.findBefore(accountId, cursor.initiatedAt(), cursor.paymentId(), limit);
+        if (entries.isEmpty()) {
+            return new AccountPaymentHistory(List.of(), null);
+        }
+
+        Map<UUID, Payment> payments = paymentRepository.findAllById(
+                        entries.stream().map(AccountPaymentIndexEntry::getPaymentId).toList()
+                ).stream()
+                .collect(Collectors.toMap(Payment::getId, Function.identity()));
+        List<AccountPaymentHistory.Item> items = entries.stream()
+                .filter(entry -> payments.containsKey(entry.getPaymentId()))
+                .map(entry -> new AccountPaymentHistory.Item(entry.getDirection(), payments.get(entry.getPaymentId())))
+                .toList();
+
+        AccountPaymentIndexEntry last = entries.get(entries.size() - 1);
+        AccountHistoryCursor nextCursor = entries.size() < limit.getPageSize()
+                ? null
+                : new AccountHistoryCursor(last.getInitiatedAt(), last.getPaymentId());
+        return new AccountPaymentHistory(items, nextCursor);
     }
 
     public Page<Payment> getPaymentsByStatus(PaymentStatus status, Pageable pageable) {
         return paymentRepository.findByStatus(status, pageable);
     }
-
-    private void simulateRailProcessing(Payment payment) {
-        // Simulate async processing - in real system, this would be handled by async workers
-        // For now, we'll just mark it as processing
-        // External rail integration would happen here
-    }
 }
 
@@ -0,0 +1,43 @@
+package com.banking.payment.web;
+
+import com.banking.payment.ach.AchBatchFileBuilder;
+import com.banking.payment.domain.AchBatchFile;
+import com.banking.payment.web.dto.AchBatchFileResponse;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/payments/ach/files")
+public class AchFileController {
+
+    private final AchBatchFileBuilder fileBuilder;
+
+    public AchFileController(AchBatchFileBuilder fileBuilder) {
+        this.fileBuilder = fileBuilder;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public AchBatchFileResponse buildFile(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate effectiveDate
+    ) {
+        AchBatchFile file = fileBuilder.buildFile(effectiveDate);
+        return new AchBatchFileResponse(
+                file.getId(),
+                file.getFileName(),
+                file.getEffectiveDate(),
+                file.getBatchCount(),
+                file.getEntryCount(),
+                file.getEntryHash(),
+                file.getTotalCredit(),
+                file.getSkippedCount(),
+                file.getCreatedAt()
+        );
+    }
+}
@@ -2,7 +2,10 @@ package com.banking.payment.web;
 
 import com.banking.payment.domain.Payment;
 import com.banking.payment.domain.PaymentStatus;
+import com.banking.payment.rail.DispatchPriority;
+import com.banking.payment.service.AccountHistoryCursor;
 import com.banking.payment.service.PaymentService;
+import com.banking.payment.web.dto.AccountPaymentHistoryResponse;
 import com.banking.payment.web.dto.CreatePaymentRequest;
 import com.banking.payment.web.dto.FailPaymentRequest;
 import com.banking.payment.web.dto.PageResponse;
@@ -69,15 +72,14 @@ public class PaymentController {
         return mapper.toResponse(payment);
     }
 
-    @GetMapping("/account/{accountId}")
-    public PageResponse<PaymentResponse> getPaymentsByAccount(
+    @GetMapping("/account/{accountId}/history")
+    public AccountPaymentHistoryResponse getAccountHistory(
             @PathVariable UUID accountId,
-            @ParameterObject @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
     ) {
-        return mapper.toPageResponse(
-                paymentService.getPaymentsByAccount(accountId, pageable)
-                        .map(mapper::toResponse)
-        );
+        AccountHistoryCursor position = cursor != null ? AccountHistoryCursor.parse(cursor) : null;
+        return mapper.toResponse(paymentService.getAccountHistory(accountId, position, size));
     }
 
     @GetMapping
@@ -102,9 +104,11 @@ public class PaymentController {
             @PathVariable UUID id,
             @Valid @RequestBody ProcessPaymentRequest request
     ) {
-        Payment payment = paymentService.processPayment(id);
-        // Auto-complete after processing (simplified - in real system this would be async)
-        if (request.externalReference() != null) {
+        // A caller-supplied external reference means the rail already settled it; otherwise dispatch to the rail
+        boolean settledExternally = request.externalReference() != null;
+        DispatchPriority priority = Boolean.TRUE.equals(request.urgent()) ? DispatchPriority.URGENT : DispatchPriority.NORMAL;
+        Payment payment = paymentService.processPayment(id, priority, !settledExternally);
+        if (settledExternally) {
             payment = paymentService.completePayment(id, request.externalReference());
         }
         return mapper.toResponse(payment);
@@ -1,6 +1,9 @@
 package com.banking.payment.web;
 
 import com.banking.payment.domain.Payment;
+import com.banking.payment.service.AccountPaymentHistory;
+import com.banking.payment.web.dto.AccountPaymentHistoryResponse;
+import com.banking.payment.web.dto.AccountPaymentResponse;
 import com.banking.payment.web.dto.PaymentResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
@@ -32,6 +35,15 @@ public class PaymentMapper {
         );
     }
 
+    public AccountPaymentHistoryResponse toResponse(AccountPaymentHistory history) {
+        return new AccountPaymentHistoryResponse(
+                history.items().stream()
+                        .map(item -> new AccountPaymentResponse(item.direction(), toResponse(item.payment())))
+                        .toList(),
+                history.nextCursor() != null ? history.nextCursor().format() : null
+        );
+    }
+
     public <T> com.banking.payment.web.dto.PageResponse<T> toPageResponse(Page<T> page) {
         return new com.banking.payment.web.dto.PageResponse<>(
                 page.getContent(),
@@ -0,0 +1,61 @@
+package com.banking.payment.web;
+
+import com.banking.payment.domain.SettlementReconciliation;
+import com.banking.payment.reconciliation.SettlementReconciliationService;
+import com.banking.payment.web.dto.SettlementReconciliationResponse;
+import com.banking.payment.web.dto.StartReconciliationRequest;
+import jakarta.validation.Valid;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/payments/reconciliations")
+public class ReconciliationController {
+
+    private final SettlementReconciliationService reconciliationService;
+
+    public ReconciliationController(SettlementReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    /**
+     * Starts a reconciliation in the background; poll the returned id until it is no longer RUNNING.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public SettlementReconciliationResponse reconcile(@Valid @RequestBody StartReconciliationRequest request) {
+        return toResponse(reconciliationService.start(request.rail(), request.fileName(), request.settlementDate()));
+    }
+
+    @GetMapping("/{id}")
+    public SettlementReconciliationResponse getReconciliation(@PathVariable UUID id) {
+        return toResponse(reconciliationService.getReconciliation(id));
+    }
+
+    private SettlementReconciliationResponse toResponse(SettlementReconciliation reconciliation) {
+        return new SettlementReconciliationResponse(
+                reconciliation.getId(),
+                reconciliation.getRail(),
+                reconciliation.getSourceFile(),
+                reconciliation.getSettlementDate(),
+                reconciliation.getStatus(),
+                reconciliation.getErrorMessage(),
+                reconciliation.getSettlementRecordCount(),
+                reconciliation.getMatchedCount(),
+                reconciliation.getCompletedCount(),
+                reconciliation.getAmountMismatchCount(),
+                reconciliation.getMissingOnOurSideCount(),
+                reconciliation.getMissingOnRailCount(),
+                reconciliation.getOutputDirectory(),
+                reconciliation.getStartedAt(),
+                reconciliation.getFinishedAt()
+        );
+    }
+}
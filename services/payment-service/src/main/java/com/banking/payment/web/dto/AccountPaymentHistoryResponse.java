@@ -0,0 +1,9 @@
+package com.banking.payment.web.dto;
+
+import java.util.List;
+
+public record AccountPaymentHistoryResponse(
+        List<AccountPaymentResponse> items,
+        String nextCursor
+) {
+}
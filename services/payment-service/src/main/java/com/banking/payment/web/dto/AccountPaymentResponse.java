@@ -0,0 +1,9 @@
+package com.banking.payment.web.dto;
+
+import com.banking.payment.domain.AccountPaymentDirection;
+
+public record AccountPaymentResponse(
+        AccountPaymentDirection direction,
+        PaymentResponse payment
+) {
+}
@@ -0,0 +1,19 @@
+package com.banking.payment.web.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record AchBatchFileResponse(
+        UUID id,
+        String fileName,
+        LocalDate effectiveDate,
+        int batchCount,
+        long entryCount,
+        long entryHash,
+        BigDecimal totalCredit,
+        long skippedCount,
+        Instant createdAt
+) {
+}
@@ -4,7 +4,8 @@ import jakarta.validation.constraints.Size;
 
 public record ProcessPaymentRequest(
         @Size(max = 255, message = "External reference must not exceed 255 characters")
-        String externalReference
+        String externalReference,
+
+        Boolean urgent
 ) {
 }
-
@@ -0,0 +1,26 @@
+package com.banking.payment.web.dto;
+
+import com.banking.payment.domain.PaymentRail;
+import com.banking.payment.domain.ReconciliationStatus;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record SettlementReconciliationResponse(
+        UUID id,
+        PaymentRail rail,
+        String sourceFile,
+        LocalDate settlementDate,
+        ReconciliationStatus status,
+        String errorMessage,
+        long settlementRecordCount,
+        long matchedCount,
+        long completedCount,
+        long amountMismatchCount,
+        long missingOnOurSideCount,
+        long missingOnRailCount,
+        String outputDirectory,
+        Instant startedAt,
+        Instant finishedAt
+) {
+}
@@ -0,0 +1,20 @@
+package com.banking.payment.web.dto;
+
+import com.banking.payment.domain.PaymentRail;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+
+public record StartReconciliationRequest(
+        @NotNull(message = "Payment rail is required")
+        PaymentRail rail,
+
+        @NotBlank(message = "Settlement file name is required")
+        @Size(max = 255, message = "Settlement file name must not exceed 255 characters")
+        String fileName,
+
+        @NotNull(message = "Settlement date is required")
+        LocalDate settlementDate
+) {
+}
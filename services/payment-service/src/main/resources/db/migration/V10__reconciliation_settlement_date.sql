@@ -0,0 +1,4 @@
+-- Reconciliations match only payments initiated in the window ending with the file's settlement date
+ALTER TABLE settlement_reconciliations ADD COLUMN settlement_date DATE;
+UPDATE settlement_reconciliations SET settlement_date = CAST(started_at AS DATE);
+ALTER TABLE settlement_reconciliations ALTER COLUMN settlement_date SET NOT NULL;
@@ -0,0 +1,21 @@
+-- Per-account projection of payments so account history is served from a single
+-- (account_id, initiated_at, payment_id) index instead of an OR across two columns.
+CREATE TABLE account_payment_index (
+    account_id UUID NOT NULL,
+    payment_id UUID NOT NULL REFERENCES payments(id),
+    direction VARCHAR(16) NOT NULL,
+    initiated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (account_id, payment_id)
+);
+
+CREATE INDEX idx_account_payment_index_history
+    ON account_payment_index(account_id, initiated_at DESC, payment_id DESC) INCLUDE (direction);
+
+INSERT INTO account_payment_index (account_id, payment_id, direction, initiated_at)
+SELECT from_account_id, id, CASE WHEN from_account_id = to_account_id THEN 'INTERNAL' ELSE 'OUTGOING' END, initiated_at
+FROM payments
+UNION ALL
+SELECT to_account_id, id, 'INCOMING', initiated_at
+FROM payments
+WHERE to_account_id IS NOT NULL
+  AND from_account_id <> to_account_id;
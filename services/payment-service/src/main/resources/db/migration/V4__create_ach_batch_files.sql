@@ -0,0 +1,23 @@
+CREATE TABLE ach_batch_files (
+    id UUID PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL UNIQUE,
+    effective_date DATE NOT NULL,
+    batch_count INTEGER NOT NULL,
+    entry_count BIGINT NOT NULL,
+    entry_hash BIGINT NOT NULL,
+    total_credit DECIMAL(19, 2) NOT NULL,
+    skipped_count BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_ach_batch_files_created_at ON ach_batch_files(created_at);
+
+ALTER TABLE payments ADD COLUMN ach_file_id UUID;
+ALTER TABLE payments ADD COLUMN ach_batch_number INTEGER;
+ALTER TABLE payments ADD COLUMN ach_trace_number VARCHAR(15);
+
+CREATE INDEX idx_payments_ach_file_id ON payments(ach_file_id) WHERE ach_file_id IS NOT NULL;
+
+-- Keyset scan used by the batch builder, restricted to payments still waiting for a file
+CREATE INDEX idx_payments_ach_pending ON payments(from_account_id, id)
+    WHERE rail = 'ACH' AND direction = 'OUTBOUND' AND status = 'PENDING' AND ach_file_id IS NULL;
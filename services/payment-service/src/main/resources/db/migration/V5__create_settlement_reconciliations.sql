@@ -0,0 +1,22 @@
+CREATE TABLE settlement_reconciliations (
+    id UUID PRIMARY KEY,
+    rail VARCHAR(32) NOT NULL,
+    source_file VARCHAR(500) NOT NULL,
+    settlement_record_count BIGINT NOT NULL,
+    matched_count BIGINT NOT NULL,
+    completed_count BIGINT NOT NULL,
+    amount_mismatch_count BIGINT NOT NULL,
+    missing_on_our_side_count BIGINT NOT NULL,
+    missing_on_rail_count BIGINT NOT NULL,
+    output_directory VARCHAR(500) NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_settlement_reconciliations_started_at ON settlement_reconciliations(started_at);
+
+ALTER TABLE payments ADD COLUMN reconciled_at TIMESTAMP;
+
+-- Keyset scan used by reconciliation, restricted to payments a settlement file can still match
+CREATE INDEX idx_payments_unreconciled ON payments(rail, id)
+    WHERE status IN ('PROCESSING', 'COMPLETED') AND reconciled_at IS NULL;
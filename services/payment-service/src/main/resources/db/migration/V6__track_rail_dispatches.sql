@@ -0,0 +1,7 @@
+-- When a payment was last queued for its rail, and when a worker claimed it for submission
+ALTER TABLE payments ADD COLUMN rail_dispatched_at TIMESTAMP;
+ALTER TABLE payments ADD COLUMN rail_submitted_at TIMESTAMP;
+
+-- Sweep for dispatches lost from an in-memory rail queue
+CREATE INDEX idx_payments_unsubmitted_dispatches ON payments(rail_dispatched_at)
+    WHERE status = 'PROCESSING' AND rail_submitted_at IS NULL;
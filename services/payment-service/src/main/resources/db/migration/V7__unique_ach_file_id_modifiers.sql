@@ -0,0 +1,11 @@
+-- One file per (file date, file ID modifier), as NACHA requires
+ALTER TABLE ach_batch_files ADD COLUMN file_date DATE;
+ALTER TABLE ach_batch_files ADD COLUMN file_id_modifier VARCHAR(1);
+
+UPDATE ach_batch_files
+SET file_date = CAST(created_at AS DATE),
+    file_id_modifier = SUBSTRING(file_name FROM 14 FOR 1);
+
+ALTER TABLE ach_batch_files ALTER COLUMN file_date SET NOT NULL;
+ALTER TABLE ach_batch_files ALTER COLUMN file_id_modifier SET NOT NULL;
+ALTER TABLE ach_batch_files ADD CONSTRAINT uq_ach_batch_files_modifier UNIQUE (file_date, file_id_modifier);
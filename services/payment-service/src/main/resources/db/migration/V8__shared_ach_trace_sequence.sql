@@ -0,0 +1,3 @@
+-- Trace sequence numbers shared by every ACH file, so a trace number identifies one entry
+-- across files rather than only within its own
+CREATE SEQUENCE ach_trace_sequence MINVALUE 1 MAXVALUE 9999999 CYCLE;
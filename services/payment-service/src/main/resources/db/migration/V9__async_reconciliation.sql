@@ -0,0 +1,5 @@
+-- Reconciliations run in the background; counts are filled in when they finish
+ALTER TABLE settlement_reconciliations ADD COLUMN status VARCHAR(16) NOT NULL DEFAULT 'COMPLETED';
+ALTER TABLE settlement_reconciliations ADD COLUMN error_message VARCHAR(1000);
+ALTER TABLE settlement_reconciliations ALTER COLUMN finished_at DROP NOT NULL;
+ALTER TABLE settlement_reconciliations ALTER COLUMN status DROP DEFAULT;
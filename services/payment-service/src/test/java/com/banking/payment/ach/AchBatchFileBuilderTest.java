@@ -0,0 +1,154 @@
+package com.banking.payment.ach;
+
+import com.banking.payment.config.AchProperties;
+import com.banking.payment.domain.AchBatchFile;
+import com.banking.payment.repository.AchBatchFileRepository;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AchBatchFileBuilderTest {
+
+    private static final LocalDate FILE_DATE = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AchBatchFileRepository fileRepository;
+
+    private AchBatchFileBuilder builder;
+
+    @BeforeEach
+    void setUp() {
+        AchProperties properties = new AchProperties();
+        properties.setOutputDirectory(tempDir.toString());
+        properties.setPageSize(10);
+        Clock clock = Clock.fixed(Instant.parse("2024-03-01T09:30:00Z"), ZoneOffset.UTC);
+        builder = new AchBatchFileBuilder(jdbcTemplate, fileRepository, properties, clock);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buildFile_LocksPageAndStampsEveryEntry() throws Exception {
+        AchPaymentRow first = row("REF-1");
+        AchPaymentRow second = row("REF-2");
+        when(fileRepository.findFileIdModifiers(FILE_DATE)).thenReturn(List.of("A", "B"));
+        when(jdbcTemplate.query(contains("FOR UPDATE SKIP LOCKED"), any(RowMapper.class), any(), any(), any(), any()))
+                .thenReturn(List.of(first, second));
+        when(jdbcTemplate.queryForList(contains("ach_trace_sequence"), eq(Long.class), eq(2L)))
+                .thenReturn(List.of(41L, 42L));
+        List<Object> marked = new ArrayList<>();
+        List<Object> traces = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(contains("WHERE id = ? AND status = 'PENDING'"), anyList()))
+                .thenAnswer(invocation -> {
+                    // The builder reuses its mark buffer, so read it before it is cleared
+                    invocation.<List<Object[]>>getArgument(1).forEach(mark -> {
+                        marked.add(mark[4]);
+                        traces.add(mark[2]);
+                    });
+                    return new int[] {1, 1};
+                });
+        when(fileRepository.saveAndFlush(any(AchBatchFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AchBatchFile file = builder.buildFile(null);
+
+        assertThat(file.getFileIdModifier()).isEqualTo("C");
+        assertThat(file.getFileDate()).isEqualTo(FILE_DATE);
+        assertThat(file.getEntryCount()).isEqualTo(2);
+        assertThat(Files.exists(tempDir.resolve(file.getFileName()))).isTrue();
+        assertThat(marked).containsExactly(first.id(), second.id());
+        assertThat(traces).containsExactly("123456780000041", "123456780000042");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buildFile_PaymentNoLongerPending_AbandonsFile() throws Exception {
+        when(fileRepository.findFileIdModifiers(FILE_DATE)).thenReturn(List.of());
+        when(jdbcTemplate.query(contains("FOR UPDATE SKIP LOCKED"), any(RowMapper.class), any(), any(), any(), any()))
+                .thenReturn(List.of(row("REF-1"), row("REF-2")));
+        when(jdbcTemplate.queryForList(contains("ach_trace_sequence"), eq(Long.class), eq(2L)))
+                .thenReturn(List.of(1L, 2L));
+        when(jdbcTemplate.batchUpdate(contains("UPDATE payments"), anyList())).thenReturn(new int[] {1, 0});
+
+        assertThatThrownBy(() -> builder.buildFile(null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        verify(fileRepository, never()).saveAndFlush(any());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buildFile_ModifierTakenConcurrently_Conflicts() throws Exception {
+        when(fileRepository.findFileIdModifiers(FILE_DATE)).thenReturn(List.of());
+        when(jdbcTemplate.query(contains("FOR UPDATE SKIP LOCKED"), any(RowMapper.class), any(), any(), any(), any()))
+                .thenReturn(List.of(row("REF-1")));
+        when(jdbcTemplate.queryForList(contains("ach_trace_sequence"), eq(Long.class), eq(1L)))
+                .thenReturn(List.of(1L));
+        when(jdbcTemplate.batchUpdate(contains("UPDATE payments"), anyList())).thenReturn(new int[] {1});
+        when(fileRepository.saveAndFlush(any(AchBatchFile.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_ach_batch_files_modifier"));
+
+        assertThatThrownBy(() -> builder.buildFile(LocalDate.of(2024, 3, 4)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void buildFile_AllModifiersUsed_Conflicts() {
+        List<String> all = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".chars()
+                .mapToObj(c -> String.valueOf((char) c))
+                .toList();
+        when(fileRepository.findFileIdModifiers(FILE_DATE)).thenReturn(all);
+
+        assertThatThrownBy(() -> builder.buildFile(null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("limit reached");
+    }
+
+    private static AchPaymentRow row(String referenceId) {
+        return new AchPaymentRow(UUID.randomUUID(), UUID.fromString("00000000-0000-0000-0000-000000000001"),
+                "021000021", "12345", new BigDecimal("10.50"), "USD", referenceId, null);
+    }
+}
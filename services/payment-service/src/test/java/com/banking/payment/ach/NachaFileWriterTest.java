@@ -0,0 +1,66 @@
+package com.banking.payment.ach;
+
+import com.banking.payment.config.AchProperties;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NachaFileWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writesBlockedFileWithControlTotals() throws Exception {
+        Path path = tempDir.resolve("test.ach");
+        NachaFileTotals totals;
+        try (NachaFileWriter writer = NachaFileWriter.open(
+                path, new AchProperties(), LocalDateTime.of(2024, 3, 1, 9, 30), 'A')) {
+            writer.openBatch("originator-1", LocalDate.of(2024, 3, 4));
+            String firstTrace = writer.addCreditEntry("021000021", "12345", 1050, "REF-1", "Alice");
+            writer.addCreditEntry("011000015", "67890", 2500, "REF-2", "Bob");
+            writer.closeBatch();
+            writer.openBatch("originator-2", LocalDate.of(2024, 3, 4));
+            String lastTrace = writer.addCreditEntry("021000021", "55555", 100, "REF-3", "Carol");
+            totals = writer.finish();
+
+            assertThat(firstTrace).isEqualTo("123456780000001");
+            assertThat(lastTrace).isEqualTo("123456780000003");
+        }
+
+        List<String> lines = Files.readAllLines(path);
+        assertThat(lines).hasSize(10).allSatisfy(line -> assertThat(line).hasSize(94));
+        assertThat(lines.get(0)).startsWith("101 091000019");
+        assertThat(lines.get(0).charAt(33)).isEqualTo('A');
+        assertThat(lines.get(8)).startsWith("9");
+        assertThat(lines.get(9)).isEqualTo("9".repeat(94));
+
+        assertThat(totals.batchCount()).isEqualTo(2);
+        assertThat(totals.entryCount()).isEqualTo(3);
+        assertThat(totals.entryHash()).isEqualTo(2_100_002L + 1_100_001L + 2_100_002L);
+        assertThat(totals.totalCreditCents()).isEqualTo(3650);
+        assertThat(totals.blockCount()).isEqualTo(1);
+
+        String fileControl = lines.get(8);
+        assertThat(fileControl.substring(1, 7)).isEqualTo("000002");
+        assertThat(fileControl.substring(13, 21)).isEqualTo("00000003");
+        assertThat(fileControl.substring(21, 31)).isEqualTo("0005300005");
+        assertThat(fileControl.substring(43, 55)).isEqualTo("000000003650");
+    }
+
+    @Test
+    void rejectsEntryOutsideBatch() throws Exception {
+        try (NachaFileWriter writer = NachaFileWriter.open(
+                tempDir.resolve("empty.ach"), new AchProperties(), LocalDateTime.of(2024, 3, 1, 9, 30), 'A')) {
+            assertThatThrownBy(() -> writer.addCreditEntry("021000021", "1", 1, "R", "N"))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.banking.payment.rail;
+
+import com.banking.payment.config.RailDispatcherProperties;
+import com.banking.payment.domain.Payment;
+import com.banking.payment.domain.PaymentRail;
+import com.banking.payment.domain.PaymentStatus;
+import com.banking.payment.service.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RailDispatcherTest {
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private ObjectProvider<RailAdapter> railAdapters;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RailDispatcherProperties properties;
+    private RailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RailDispatcherProperties();
+        properties.getDefaults().setConcurrency(1);
+        properties.getSimulator().setLatencyMs(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void dispatch_AcceptedByRail_CompletesPaymentAsynchronously() {
+        Payment payment = processingPayment(PaymentRail.ACH);
+        when(paymentService.claimRailSubmission(payment.getId())).thenReturn(true);
+        when(paymentService.getPayment(payment.getId())).thenReturn(payment);
+        when(railAdapters.orderedStream()).thenReturn(Stream.of(adapter(PaymentRail.ACH, RailSubmissionResult.accepted("ACH-1"))));
+        dispatcher = new RailDispatcher(paymentService, railAdapters, properties, meterRegistry);
+        dispatcher.start();
+
+        boolean queued = dispatcher.dispatch(new RailDispatchRequest(payment.getId(), PaymentRail.ACH, DispatchPriority.NORMAL));
+
+        assertThat(queued).isTrue();
+        verify(paymentService, timeout(2000)).completePayment(payment.getId(), "ACH-1");
+        verify(paymentService, never()).failPayment(eq(payment.getId()), contains("queue"));
+    }
+
+    @Test
+    void dispatch_RejectedByRail_FailsPayment() {
+        Payment payment = processingPayment(PaymentRail.WIRE);
+        when(paymentService.claimRailSubmission(payment.getId())).thenReturn(true);
+        when(paymentService.getPayment(payment.getId())).thenReturn(payment);
+        when(railAdapters.orderedStream()).thenReturn(Stream.of(adapter(PaymentRail.WIRE, RailSubmissionResult.rejected("Invalid beneficiary"))));
+        dispatcher = new RailDispatcher(paymentService, railAdapters, properties, meterRegistry);
+        dispatcher.start();
+
+        dispatcher.dispatch(new RailDispatchRequest(payment.getId(), PaymentRail.WIRE, DispatchPriority.URGENT));
+
+        verify(paymentService, timeout(2000)).failPayment(payment.getId(), "Invalid beneficiary");
+    }
+
+    @Test
+    void dispatch_SubmissionThrows_LeavesPaymentProcessing() throws Exception {
+        Payment payment = processingPayment(PaymentRail.ACH);
+        when(paymentService.claimRailSubmission(payment.getId())).thenReturn(true);
+        when(paymentService.getPayment(payment.getId())).thenReturn(payment);
+        RailAdapter adapter = mock(RailAdapter.class);
+        when(adapter.rail()).thenReturn(PaymentRail.ACH);
+        when(adapter.submit(payment)).thenThrow(new SocketTimeoutException("Read timed out"));
+        when(railAdapters.orderedStream()).thenReturn(Stream.of(adapter));
+        dispatcher = new RailDispatcher(paymentService, railAdapters, properties, meterRegistry);
+        dispatcher.start();
+
+        dispatcher.dispatch(new RailDispatchRequest(payment.getId(), PaymentRail.ACH, DispatchPriority.NORMAL));
+
+        awaitOutcome(PaymentRail.ACH, "unknown");
+        verify(paymentService, never()).failPayment(eq(payment.getId()), anyString());
+        verify(paymentService, never()).completePayment(eq(payment.getId()), anyString());
+    }
+
+    @Test
+    void dispatch_RecordingFails_RetriesWithSameExternalReference() {
+        properties.getRecording().setBackoff(Duration.ofMillis(1));
+        Payment payment = processingPayment(PaymentRail.ACH);
+        when(paymentService.claimRailSubmission(payment.getId())).thenReturn(true);
+        when(paymentService.getPayment(payment.getId())).thenReturn(payment);
+        when(paymentService.completePayment(payment.getId(), "ACH-3"))
+                .thenThrow(new CannotCreateTransactionException("Connection refused"))
+                .thenReturn(payment);
+        when(railAdapters.orderedStream()).thenReturn(Stream.of(adapter(PaymentRail.ACH, RailSubmissionResult.accepted("ACH-3"))));
+        dispatcher = new RailDispatcher(paymentService, railAdapters, properties, meterRegistry);
+        dispatcher.start();
+
+        dispatcher.dispatch(new RailDispatchRequest(payment.getId(), PaymentRail.ACH, DispatchPriority.NORMAL));
+
+        verify(paymentService, timeout(2000).times(2)).completePayment(payment.getId(), "ACH-3");
+        verify(paymentService, never()).failPayment(eq(payment.getId()), anyString());
+    }
+
+    @Test
+    void dispatch_QueueFull_RejectsAndFailsPayment() {
+        properties.getDefaults().setQueueCapacity(1);
+        properties.getSimulator().setEnabled(true);
+        when(railAdapters.orderedStream()).thenReturn(Stream.empty());
+        // Workers are not started, so the first dispatch occupies the only queue slot
+        dispatcher = new RailDispatcher(paymentService, railAdapters, properties, meterRegistry);
+        UUID queuedId = UUID.randomUUID();
+        UUID overflowId = UUID.randomUUID();
+
+        assertThat(dispatcher.dispatch(new RailDispatchRequest(queuedId, PaymentRail.RTP, DispatchPriority.NORMAL))).isTrue();
+        assertThat(dispatcher.dispatch(new RailDispatchRequest(overflowId, PaymentRail.RTP, DispatchPriority.NORMAL))).isFalse();
+
+        assertThat(dispatcher.queueDepth(PaymentRail.RTP)).isEqualTo(1);
+        assertThat(meterRegistry.get("payment.rail.rejected").tag("rail", "RTP").counter().count()).isEqualTo(1.0);
+        verify(paymentService, timeout(2000)).failPayment(eq(overflowId), contains("queue full"));
+    }
+
+    @Test
+    void dispatch_AlreadyClaimed_DoesNotSubmitAgain() {
+        UUID paymentId = UUID.randomUUID();
+        when(paymentService.claimRailSubmission(paymentId)).thenReturn(false);
+        RailAdapter adapter = mock(RailAdapter.class);
+        when(adapter.rail()).thenReturn(PaymentRail.ACH);
+        when(railAdapters.orderedStream()).thenReturn(Stream.of(adapter));
+        dispatcher = new RailDispatcher(paymentService, railAdapters, properties, meterRegistry);
+        dispatcher.start();
+
+        dispatcher.dispatch(new RailDispatchRequest(paymentId, PaymentRail.ACH, DispatchPriority.NORMAL));
+
+        verify(paymentService, timeout(2000)).claimRailSubmission(paymentId);
+        verify(paymentService, never()).getPayment(paymentId);
+        verifyNoMoreInteractions(adapter);
+    }
+
+    @Test
+    void dispatch_NoAdapterAndSimulatorDisabled_FailsPayment() {
+        when(railAdapters.orderedStream()).thenReturn(Stream.empty());
+        dispatcher = new RailDispatcher(paymentService, railAdapters, properties, meterRegistry);
+        dispatcher.start();
+        UUID paymentId = UUID.randomUUID();
+
+        assertThat(dispatcher.dispatch(new RailDispatchRequest(paymentId, PaymentRail.SWIFT, DispatchPriority.NORMAL)))
+                .isFalse();
+
+        verify(paymentService, timeout(2000)).failPayment(paymentId, "No adapter for rail SWIFT");
+        verify(paymentService, never()).completePayment(eq(paymentId), anyString());
+    }
+
+    @Test
+    void redispatchStale_QueuesReclaimedPaymentsAgain() {
+        Payment payment = processingPayment(PaymentRail.ACH);
+        when(paymentService.reclaimStaleDispatches(properties.getRedispatch().getStaleAfter(),
+                properties.getRedispatch().getBatchSize())).thenReturn(List.of(payment));
+        when(railAdapters.orderedStream()).thenReturn(Stream.of(adapter(PaymentRail.ACH, RailSubmissionResult.accepted("ACH-2"))));
+        dispatcher = new RailDispatcher(paymentService, railAdapters, properties, meterRegistry);
+
+        dispatcher.redispatchStale();
+
+        assertThat(dispatcher.queueDepth(PaymentRail.ACH)).isEqualTo(1);
+    }
+
+    private void awaitOutcome(PaymentRail rail, String outcome) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (meterRegistry.find("payment.rail.processing").tag("rail", rail.name()).tag("outcome", outcome).timer() == null) {
+            assertThat(System.nanoTime()).as("dispatch outcome %s", outcome).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private Payment processingPayment(PaymentRail rail) {
+        Payment payment = new Payment();
+        payment.setId(UUID.randomUUID());
+        payment.setRail(rail);
+        payment.setStatus(PaymentStatus.PROCESSING);
+        return payment;
+    }
+
+    private RailAdapter adapter(PaymentRail rail, RailSubmissionResult result) {
+        return new RailAdapter() {
+            @Override
+            public PaymentRail rail() {
+                return rail;
+            }
+
+            @Override
+            public RailSubmissionResult submit(Payment payment) {
+                return result;
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.banking.payment.reconciliation;
+
+import com.banking.payment.domain.PaymentStatus;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlementJoinTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sortsEveryRecordIntoExactlyOneBucket() throws Exception {
+        PaymentSettlementRow matched = payment("REF-1", "100.00", PaymentStatus.PROCESSING);
+        PaymentSettlementRow mismatched = payment("REF-2", "50.00", PaymentStatus.COMPLETED);
+        PaymentSettlementRow unsettled = payment("REF-3", "10.00", PaymentStatus.PROCESSING);
+        RecordingListener listener = new RecordingListener();
+
+        Path partitions = tempDir.resolve("partitions");
+        try (SettlementJoin join = new SettlementJoin(partitions, 4)) {
+            join.addSettlement(SettlementRecord.parse("REF-1,100.0,USD"));
+            join.addSettlement(SettlementRecord.parse("REF-2,49.99,USD"));
+            join.addSettlement(SettlementRecord.parse("REF-4,5.00,USD"));
+            join.addSettlement(SettlementRecord.parse("REF-1,100.00,USD"));
+            join.addPayment(matched);
+            join.addPayment(mismatched);
+            join.addPayment(unsettled);
+            join.join(listener);
+        }
+
+        assertThat(listener.matched).containsExactly(matched.id());
+        assertThat(listener.mismatched).containsExactly(mismatched.id());
+        assertThat(listener.missingOnRail).containsExactly(unsettled.id());
+        assertThat(listener.missingOnOurSide).containsExactlyInAnyOrder("REF-4", "REF-1");
+        try (var files = Files.list(partitions)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void parsesReferencesContainingCommas() {
+        SettlementRecord record = SettlementRecord.parse("BATCH,7,12.50,EUR");
+
+        assertThat(record.externalReference()).isEqualTo("BATCH,7");
+        assertThat(record.amount()).isEqualByComparingTo("12.50");
+        assertThat(record.currency()).isEqualTo("EUR");
+        assertThat(SettlementRecord.parse("REF-1,not-a-number,USD")).isNull();
+        assertThat(SettlementRecord.parse("REF-1")).isNull();
+    }
+
+    private static PaymentSettlementRow payment(String key, String amount, PaymentStatus status) {
+        return new PaymentSettlementRow(UUID.randomUUID(), status, new BigDecimal(amount), "USD", key);
+    }
+
+    private static class RecordingListener implements ReconciliationListener {
+
+        private final List<UUID> matched = new ArrayList<>();
+        private final List<UUID> mismatched = new ArrayList<>();
+        private final List<UUID> missingOnRail = new ArrayList<>();
+        private final List<String> missingOnOurSide = new ArrayList<>();
+
+        @Override
+        public void matched(PaymentSettlementRow payment, SettlementRecord record) {
+            matched.add(payment.id());
+        }
+
+        @Override
+        public void amountMismatch(PaymentSettlementRow payment, SettlementRecord record) {
+            mismatched.add(payment.id());
+        }
+
+        @Override
+        public void missingOnOurSide(SettlementRecord record) {
+            missingOnOurSide.add(record.externalReference());
+        }
+
+        @Override
+        public void missingOnRail(PaymentSettlementRow payment) {
+            missingOnRail.add(payment.id());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.banking.payment.reconciliation;
+
+import com.banking.payment.config.ReconciliationProperties;
+import com.banking.payment.domain.Payment;
+import com.banking.payment.domain.PaymentRail;
+import com.banking.payment.domain.PaymentStatus;
+import com.banking.payment.domain.ReconciliationStatus;
+import com.banking.payment.domain.SettlementReconciliation;
+import com.banking.payment.messaging.PaymentEventPublisher;
+import com.banking.payment.repository.PaymentRepository;
+import com.banking.payment.repository.SettlementReconciliationRepository;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementReconciliationServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private SettlementReconciliationRepository reconciliationRepository;
+
+    @Mock
+    private PaymentEventPublisher eventPublisher;
+
+    private SettlementReconciliationService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReconciliationProperties properties = new ReconciliationProperties();
+        properties.setInboundDirectory(tempDir.resolve("inbound").toString());
+        properties.setWorkDirectory(tempDir.resolve("work").toString());
+        properties.setPartitions(2);
+        Files.createDirectories(tempDir.resolve("inbound"));
+        Clock clock = Clock.fixed(Instant.parse("2024-03-01T09:30:00Z"), ZoneOffset.UTC);
+        service = new SettlementReconciliationService(jdbcTemplate, paymentRepository, reconciliationRepository,
+                eventPublisher, properties, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void start_MissingFile_RejectedBeforeAnythingIsRecorded() {
+        assertThatThrownBy(() -> service.start(PaymentRail.WIRE, "absent.csv", LocalDate.parse("2024-02-29")))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("not found");
+        verify(reconciliationRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_CompletesMatchedPaymentsAndEscapesBucketValues() throws Exception {
+        Files.writeString(tempDir.resolve("inbound/wire.csv"),
+                "external_reference,amount,currency\nWIRE,\"7\",100.00,USD\nWIRE-9,5.00,USD\n");
+        UUID paymentId = UUID.randomUUID();
+        when(jdbcTemplate.query(any(String.class), any(RowMapper.class), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(new PaymentSettlementRow(paymentId, PaymentStatus.PROCESSING,
+                        new BigDecimal("100.00"), "USD", "WIRE,\"7\"")));
+        Payment completed = new Payment();
+        completed.setId(paymentId);
+        when(paymentRepository.completeSettled(eq(List.of(paymentId)), any())).thenReturn(List.of(completed));
+        when(reconciliationRepository.save(any(SettlementReconciliation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        SettlementReconciliation reconciliation = new SettlementReconciliation();
+        reconciliation.setId(UUID.randomUUID());
+        reconciliation.setRail(PaymentRail.WIRE);
+        reconciliation.setSourceFile(tempDir.resolve("inbound/wire.csv").toString());
+        reconciliation.setSettlementDate(LocalDate.parse("2024-02-29"));
+        reconciliation.setOutputDirectory(tempDir.resolve("work/run").toString());
+        reconciliation.setStatus(ReconciliationStatus.RUNNING);
+        reconciliation.setStartedAt(Instant.parse("2024-03-01T09:30:00Z"));
+
+        service.run(reconciliation);
+
+        assertThat(reconciliation.getStatus()).isEqualTo(ReconciliationStatus.COMPLETED);
+        assertThat(reconciliation.getFinishedAt()).isNotNull();
+        assertThat(reconciliation.getMatchedCount()).isEqualTo(1);
+        assertThat(reconciliation.getCompletedCount()).isEqualTo(1);
+        assertThat(reconciliation.getMissingOnOurSideCount()).isEqualTo(1);
+        verify(eventPublisher).publishPaymentsCompleted(anyList());
+        assertThat(Files.readAllLines(tempDir.resolve("work/run/matched.csv")))
+                .containsExactly("payment_id,external_reference,amount,currency,status",
+                        paymentId + ",\"WIRE,\"\"7\"\"\",100.00,USD,PROCESSING");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_ReadsOnlyPaymentsInTheSettlementWindow() throws Exception {
+        Files.writeString(tempDir.resolve("inbound/ach.csv"), "external_reference,amount,currency\n");
+        when(jdbcTemplate.query(any(String.class), any(RowMapper.class), any(), any(), any(), any(), any()))
+                .thenReturn(List.of());
+        when(reconciliationRepository.save(any(SettlementReconciliation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        SettlementReconciliation reconciliation = new SettlementReconciliation();
+        reconciliation.setId(UUID.randomUUID());
+        reconciliation.setRail(PaymentRail.ACH);
+        reconciliation.setSourceFile(tempDir.resolve("inbound/ach.csv").toString());
+        reconciliation.setSettlementDate(LocalDate.parse("2024-02-27"));
+        reconciliation.setOutputDirectory(tempDir.resolve("work/ach").toString());
+        reconciliation.setStatus(ReconciliationStatus.RUNNING);
+        reconciliation.setStartedAt(Instant.parse("2024-03-01T09:30:00Z"));
+
+        service.run(reconciliation);
+
+        assertThat(reconciliation.getStatus()).isEqualTo(ReconciliationStatus.COMPLETED);
+        verify(jdbcTemplate).query(any(String.class), any(RowMapper.class), eq("ACH"),
+                eq(Timestamp.from(Instant.parse("2024-02-25T00:00:00Z"))),
+                eq(Timestamp.from(Instant.parse("2024-02-28T00:00:00Z"))), any(), eq(5000));
+    }
+
+    @Test
+    void run_MalformedFile_RecordsFailure() throws Exception {
+        Files.writeString(tempDir.resolve("inbound/bad.csv"), "not a settlement line\n");
+        when(reconciliationRepository.save(any(SettlementReconciliation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        SettlementReconciliation reconciliation = new SettlementReconciliation();
+        reconciliation.setId(UUID.randomUUID());
+        reconciliation.setRail(PaymentRail.ACH);
+        reconciliation.setSourceFile(tempDir.resolve("inbound/bad.csv").toString());
+        reconciliation.setSettlementDate(LocalDate.parse("2024-02-29"));
+        reconciliation.setOutputDirectory(tempDir.resolve("work/bad").toString());
+        reconciliation.setStatus(ReconciliationStatus.RUNNING);
+        reconciliation.setStartedAt(Instant.parse("2024-03-01T09:30:00Z"));
+
+        service.run(reconciliation);
+
+        assertThat(reconciliation.getStatus()).isEqualTo(ReconciliationStatus.FAILED);
+        assertThat(reconciliation.getErrorMessage()).contains("line 1");
+    }
+
+    @Test
+    void csv_QuotesOnlyValuesThatNeedIt() {
+        assertThat(SettlementReconciliationService.csv("REF-1")).isEqualTo("REF-1");
+        assertThat(SettlementReconciliationService.csv("A,B")).isEqualTo("\"A,B\"");
+        assertThat(SettlementReconciliationService.csv("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+    }
+}
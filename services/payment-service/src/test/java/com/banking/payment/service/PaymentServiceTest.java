@@ -5,6 +5,9 @@ import com.banking.payment.domain.PaymentDirection;
 import com.banking.payment.domain.PaymentRail;
 import com.banking.payment.domain.PaymentStatus;
 import com.banking.payment.messaging.PaymentEventPublisher;
+import com.banking.payment.rail.DispatchPriority;
+import com.banking.payment.rail.RailDispatchRequest;
+import com.banking.payment.repository.AccountPaymentIndexRepository;
 import com.banking.payment.repository.PaymentRepository;
 import java.math.BigDecimal;
 import java.time.Clock;
@@ -19,11 +22,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.server.ResponseStatusException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,9 +40,15 @@ class PaymentServiceTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    @Mock
+    private AccountPaymentIndexRepository accountIndexRepository;
+
     @Mock
     private PaymentEventPublisher eventPublisher;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Mock
     private Clock clock;
 
@@ -92,6 +104,7 @@ class PaymentServiceTest {
         assertThat(result.getAmount()).isEqualByComparingTo(amount);
 
         verify(paymentRepository).save(any(Payment.class));
+        verify(accountIndexRepository).saveAll(anyList());
         verify(eventPublisher).publishPaymentInitiated(any(Payment.class));
     }
 
@@ -132,6 +145,22 @@ class PaymentServiceTest {
         assertThat(result.getStatus()).isEqualTo(PaymentStatus.PROCESSING);
         verify(paymentRepository).save(payment);
         verify(eventPublisher).publishPaymentProcessing(payment);
+        verify(paymentRepository).markRailDispatched(eq(paymentId), any());
+        verify(applicationEventPublisher).publishEvent(
+                new RailDispatchRequest(paymentId, payment.getRail(), DispatchPriority.NORMAL));
+    }
+
+    @Test
+    void processPayment_SettledExternally_DoesNotDispatchToRail() {
+        Payment payment = createPayment(PaymentStatus.PENDING);
+
+        when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+
+        paymentService.processPayment(paymentId, DispatchPriority.URGENT, false);
+
+        verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+        verify(paymentRepository, never()).markRailDispatched(any(), any());
     }
 
     @Test
@@ -4,6 +4,7 @@ import com.banking.payment.domain.Payment;
 import com.banking.payment.domain.PaymentDirection;
 import com.banking.payment.domain.PaymentRail;
 import com.banking.payment.domain.PaymentStatus;
+import com.banking.payment.rail.DispatchPriority;
 import com.banking.payment.service.PaymentService;
 import com.banking.payment.web.dto.CreatePaymentRequest;
 import com.banking.payment.web.dto.FailPaymentRequest;
@@ -160,9 +161,9 @@ class PaymentControllerTest {
     @Test
     void processPayment_ProcessesPayment() throws Exception {
         payment.setStatus(PaymentStatus.PROCESSING);
-        ProcessPaymentRequest request = new ProcessPaymentRequest("EXT-REF-123");
+        ProcessPaymentRequest request = new ProcessPaymentRequest("EXT-REF-123", null);
 
-        when(paymentService.processPayment(paymentId)).thenReturn(payment);
+        when(paymentService.processPayment(paymentId, DispatchPriority.NORMAL, false)).thenReturn(payment);
         when(paymentService.completePayment(eq(paymentId), any())).thenReturn(payment);
         when(mapper.toResponse(any(Payment.class)))
                 .thenReturn(new com.banking.payment.web.dto.PaymentResponse(
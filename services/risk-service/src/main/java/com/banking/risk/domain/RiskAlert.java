@@ -32,9 +32,20 @@ public class RiskAlert {
     @Column(name = "risk_level", nullable = false, length = 16)
     private RiskLevel riskLevel;
 
-    @Column(name = "risk_score", nullable = false)
+    // Written by the alert aggregator only, so a status change never overwrites a coalesced repeat
+    @Column(name = "risk_score", nullable = false, updatable = false)
     private Integer riskScore;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "risk_type", length = 32, updatable = false)
+    private RiskType riskType;
+
+    @Column(name = "occurrence_count", nullable = false, updatable = false)
+    private Integer occurrenceCount = 1;
+
+    @Column(name = "last_occurred_at", updatable = false)
+    private Instant lastOccurredAt;
+
     @Column(name = "customer_id")
     private UUID customerId;
 
@@ -114,6 +125,30 @@ public class RiskAlert {
         this.riskScore = riskScore;
     }
 
+    public RiskType getRiskType() {
+        return riskType;
+    }
+
+    public void setRiskType(RiskType riskType) {
+        this.riskType = riskType;
+    }
+
+    public Integer getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    public void setOccurrenceCount(Integer occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
+
+    public Instant getLastOccurredAt() {
+        return lastOccurredAt;
+    }
+
+    public void setLastOccurredAt(Instant lastOccurredAt) {
+        this.lastOccurredAt = lastOccurredAt;
+    }
+
     public UUID getCustomerId() {
         return customerId;
     }
@@ -0,0 +1,46 @@
+package com.banking.risk.features;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Decay rates and thresholds of the per-customer features behind risk scoring.
+ *
+ * @param velocityHalfLife  half-life of the recent transaction count and amount
+ * @param profileHalfLife   half-life of the country and hour-of-day profile
+ * @param newAccountAge     age below which a customer's latest account counts as new
+ * @param minProfileWeight  decayed transactions a profile needs before a country or hour can be
+ *                          unusual for it
+ * @param unusualShare      share of the profile below which a country or hour is unusual
+ * @param maxCustomers      customers tracked at once
+ * @param snapshotFile      file the features are written to and restored from on startup
+ */
+@ConfigurationProperties(prefix = "risk.features")
+public record CustomerFeatureProperties(
+        Duration velocityHalfLife,
+        Duration profileHalfLife,
+        Duration newAccountAge,
+        double minProfileWeight,
+        double unusualShare,
+        int maxCustomers,
+        String snapshotFile
+) {
+
+    public CustomerFeatureProperties {
+        velocityHalfLife = velocityHalfLife != null ? velocityHalfLife : Duration.ofHours(12);
+        profileHalfLife = profileHalfLife != null ? profileHalfLife : Duration.ofDays(30);
+        newAccountAge = newAccountAge != null ? newAccountAge : Duration.ofDays(30);
+        minProfileWeight = minProfileWeight > 0 ? minProfileWeight : 10;
+        unusualShare = unusualShare > 0 ? unusualShare : 0.05;
+        maxCustomers = maxCustomers > 0 ? maxCustomers : 1_000_000;
+        snapshotFile = snapshotFile != null ? snapshotFile : "data/customer-features.bin";
+        if (velocityHalfLife.isZero() || velocityHalfLife.isNegative()
+                || profileHalfLife.isZero() || profileHalfLife.isNegative()) {
+            throw new IllegalArgumentException("risk.features half-lives must be positive");
+        }
+    }
+
+    public static CustomerFeatureProperties defaults() {
+        return new CustomerFeatureProperties(null, null, null, 0, 0, 0, null);
+    }
+}
@@ -0,0 +1,286 @@
+package com.banking.risk.features;
+
+import com.banking.risk.service.RiskScoringService.RiskScoringContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory rolling features per customer, fed by the activity consumer, from which a risk
+ * assessment's scoring context is assembled without calling other services.
+ *
+ * The features are written to a snapshot file periodically and on shutdown, and restored from it
+ * on startup before the Kafka listeners start. The snapshot also holds the next offset of every
+ * partition the features were built from, so the consumer can resume exactly where the snapshot
+ * left off: events are applied through {@link #consumed} under a shared lock that the snapshot
+ * takes exclusively, which keeps the features and offsets written together consistent.
+ */
+@Component
+public class CustomerFeatureStore implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerFeatureStore.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x52464653;
+    private static final int SNAPSHOT_VERSION = 2;
+    // Written before offsets were kept in the snapshot
+    private static final int SNAPSHOT_VERSION_WITHOUT_OFFSETS = 1;
+    // Decayed weight below which a customer's features no longer matter
+    private static final double IDLE_WEIGHT = 0.01;
+
+    private final CustomerFeatureProperties properties;
+    private final Clock clock;
+    private final Path snapshotFile;
+    private final Map<UUID, CustomerFeatures> features = new ConcurrentHashMap<>();
+    private final Map<ConsumedPartition, Long> nextOffsets = new ConcurrentHashMap<>();
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    public CustomerFeatureStore(CustomerFeatureProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clock = clock;
+        this.snapshotFile = Path.of(properties.snapshotFile());
+        Gauge.builder("risk.features.customers", features, Map::size)
+                .description("Customers with rolling risk features")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies the event at {@code offset} of a partition with {@code update} and records the
+     * partition's next offset, atomically with respect to {@link #snapshot()}.
+     */
+    public void consumed(String topic, int partition, long offset, Runnable update) {
+        snapshotLock.readLock().lock();
+        try {
+            update.run();
+            nextOffsets.put(new ConsumedPartition(topic, partition), offset + 1);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Offset to resume a partition from: the one after the last event in the features, or empty
+     * when no event of the partition is.
+     */
+    public OptionalLong nextOffset(String topic, int partition) {
+        Long offset = nextOffsets.get(new ConsumedPartition(topic, partition));
+        return offset != null ? OptionalLong.of(offset) : OptionalLong.empty();
+    }
+
+    /**
+     * Records a transaction of {@code amount} at {@code at}; {@code country} is an ISO 3166
+     * alpha-2 code or null.
+     */
+    public void recordActivity(UUID customerId, BigDecimal amount, String country, Instant at) {
+        makeRoomFor(customerId);
+        double value = amount != null ? amount.doubleValue() : 0;
+        int hour = at.atZone(ZoneOffset.UTC).getHour();
+        short code = CustomerFeatures.countryCode(country);
+        features.compute(customerId, (id, current) -> {
+            CustomerFeatures updated = current != null ? current : new CustomerFeatures();
+            updated.recordActivity(at.toEpochMilli(), value, hour, code, properties);
+            return updated;
+        });
+    }
+
+    public void recordAccountOpened(UUID customerId, Instant at) {
+        makeRoomFor(customerId);
+        features.compute(customerId, (id, current) -> {
+            CustomerFeatures updated = current != null ? current : new CustomerFeatures();
+            updated.recordAccountOpened(at.toEpochMilli());
+            return updated;
+        });
+    }
+
+    /**
+     * Scoring context for an assessment of {@code customerId} now, in {@code country} when known.
+     * A customer without features gets an empty context.
+     */
+    public RiskScoringContext contextFor(UUID customerId, String country) {
+        RiskScoringContext context = new RiskScoringContext();
+        if (customerId == null) {
+            return context;
+        }
+        Instant now = Instant.now(clock);
+        long nowMillis = now.toEpochMilli();
+        int hour = now.atZone(ZoneOffset.UTC).getHour();
+        short code = CustomerFeatures.countryCode(country);
+        // Read under the entry so a concurrent update is not seen half-applied
+        features.computeIfPresent(customerId, (id, current) -> {
+            context.setRecentTransactionCount((int) Math.round(current.recentCount(nowMillis, properties)));
+            context.setRecentTransactionAmount(BigDecimal.valueOf(current.recentAmount(nowMillis, properties))
+                    .setScale(2, RoundingMode.HALF_UP));
+            context.setNewAccount(current.accountOpenedAtMillis() > 0
+                    && nowMillis - current.accountOpenedAtMillis() < properties.newAccountAge().toMillis());
+            if (current.hasProfile(nowMillis, properties)) {
+                context.setUnusualTime(current.hourShare(hour) < properties.unusualShare());
+                context.setUnusualLocation(code >= 0 && current.countryShare(code) < properties.unusualShare());
+            }
+            return current;
+        });
+        return context;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            int version = in.readInt() == SNAPSHOT_MAGIC ? in.readInt() : -1;
+            if (version != SNAPSHOT_VERSION && version != SNAPSHOT_VERSION_WITHOUT_OFFSETS) {
+                log.warn("Ignoring feature snapshot {} written in an unknown format", snapshotFile);
+                return;
+            }
+            while (in.readBoolean()) {
+                UUID customerId = new UUID(in.readLong(), in.readLong());
+                features.put(customerId, CustomerFeatures.readFrom(in));
+            }
+            if (version == SNAPSHOT_VERSION) {
+                for (int partitions = in.readInt(); partitions > 0; partitions--) {
+                    nextOffsets.put(new ConsumedPartition(in.readUTF(), in.readInt()), in.readLong());
+                }
+            }
+            log.info("Restored features of {} customers and offsets of {} partitions from {} in {} ms",
+                    features.size(), nextOffsets.size(), snapshotFile, (System.nanoTime() - start) / 1_000_000);
+        } catch (NoSuchFileException e) {
+            log.info("No feature snapshot at {}; starting with empty features", snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            features.clear();
+            nextOffsets.clear();
+            log.warn("Could not restore features from {}; starting with empty features", snapshotFile, e);
+        }
+    }
+
+    /**
+     * Drops idle customers and writes the rest to the snapshot file with the offsets they were
+     * built up to, replacing it atomically. Consumption waits while the file is written.
+     */
+    @Scheduled(fixedDelayString = "${risk.features.snapshot-interval-ms:60000}",
+            initialDelayString = "${risk.features.snapshot-interval-ms:60000}")
+    public synchronized void snapshot() {
+        long start = System.nanoTime();
+        evictIdle();
+        if (features.isEmpty() && nextOffsets.isEmpty() && !Files.exists(snapshotFile)) {
+            return;
+        }
+        snapshotLock.writeLock().lock();
+        try {
+            Path directory = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path staged = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+            int[] written = {0};
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(staged)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                for (UUID customerId : features.keySet()) {
+                    // Written under the entry so the snapshot holds no half-applied update
+                    features.computeIfPresent(customerId, (id, current) -> {
+                        try {
+                            out.writeBoolean(true);
+                            out.writeLong(id.getMostSignificantBits());
+                            out.writeLong(id.getLeastSignificantBits());
+                            current.writeTo(out);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        written[0]++;
+                        return current;
+                    });
+                }
+                out.writeBoolean(false);
+                out.writeInt(nextOffsets.size());
+                for (Map.Entry<ConsumedPartition, Long> offset : nextOffsets.entrySet()) {
+                    out.writeUTF(offset.getKey().topic());
+                    out.writeInt(offset.getKey().partition());
+                    out.writeLong(offset.getValue());
+                }
+            } catch (IOException | UncheckedIOException e) {
+                Files.deleteIfExists(staged);
+                throw e;
+            }
+            Files.move(staged, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote features of {} customers to {} in {} ms",
+                    written[0], snapshotFile, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to write feature snapshot {}", snapshotFile, e);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        snapshot();
+    }
+
+    int size() {
+        return features.size();
+    }
+
+    private void evictIdle() {
+        long now = Instant.now(clock).toEpochMilli();
+        for (UUID customerId : features.keySet()) {
+            features.computeIfPresent(customerId,
+                    (id, current) -> current.isIdle(now, IDLE_WEIGHT, properties) ? null : current);
+        }
+    }
+
+    /**
+     * Keeps the store within {@code maxCustomers} before {@code customerId} is added. Idle
+     * customers go first; if none are, the customers active least recently are dropped, as their
+     * features have decayed furthest. A tenth of the store is freed at once so the ordering pass
+     * runs rarely.
+     */
+    private void makeRoomFor(UUID customerId) {
+        if (features.size() < properties.maxCustomers() || features.containsKey(customerId)) {
+            return;
+        }
+        evictIdle();
+        int excess = features.size() - properties.maxCustomers() + 1;
+        if (excess <= 0) {
+            return;
+        }
+        // Read outside the entry locks; a timestamp moving meanwhile only shifts who is dropped
+        long[] lastActive = features.values().stream().mapToLong(CustomerFeatures::lastActiveMillis).sorted().toArray();
+        int toRemove = Math.min(lastActive.length, Math.max(excess, properties.maxCustomers() / 10));
+        if (toRemove == 0) {
+            return;
+        }
+        long cutoff = lastActive[toRemove - 1];
+        Iterator<CustomerFeatures> customers = features.values().iterator();
+        while (toRemove > 0 && customers.hasNext()) {
+            if (customers.next().lastActiveMillis() <= cutoff) {
+                customers.remove();
+                toRemove--;
+            }
+        }
+    }
+
+    private record ConsumedPartition(String topic, int partition) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.banking.risk.features;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Rolling features of one customer, held in primitives only. Counters decay exponentially, so
+ * recording an event costs the same however much history the customer has: before a change every
+ * counter is scaled by {@code 2^(-elapsed / halfLife)} up to the event's time. Not thread-safe;
+ * the store updates each customer under its map entry.
+ */
+final class CustomerFeatures {
+
+    static final int HOURS = 24;
+    static final int MAX_COUNTRIES = 8;
+    private static final short NO_COUNTRY = -1;
+
+    private long updatedAtMillis;
+    private long accountOpenedAtMillis;
+    private double recentCount;
+    private double recentAmount;
+    private double profileWeight;
+    private final float[] hourWeights = new float[HOURS];
+    private final short[] countries = new short[MAX_COUNTRIES];
+    private final float[] countryWeights = new float[MAX_COUNTRIES];
+
+    CustomerFeatures() {
+        Arrays.fill(countries, NO_COUNTRY);
+    }
+
+    void recordActivity(long atMillis, double amount, int hourOfDay, short country, CustomerFeatureProperties properties) {
+        double weight = 1;
+        if (atMillis >= updatedAtMillis) {
+            decayTo(atMillis, properties);
+        } else {
+            // Late event: add it as already decayed to the current time
+            weight = Math.pow(0.5, (updatedAtMillis - atMillis) / (double) properties.velocityHalfLife().toMillis());
+        }
+        double profileContribution = atMillis >= updatedAtMillis ? 1
+                : Math.pow(0.5, (updatedAtMillis - atMillis) / (double) properties.profileHalfLife().toMillis());
+        recentCount += weight;
+        recentAmount += weight * amount;
+        profileWeight += profileContribution;
+        hourWeights[hourOfDay] += (float) profileContribution;
+        if (country != NO_COUNTRY) {
+            addCountry(country, (float) profileContribution);
+        }
+    }
+
+    void recordAccountOpened(long atMillis) {
+        accountOpenedAtMillis = Math.max(accountOpenedAtMillis, atMillis);
+    }
+
+    double recentCount(long atMillis, CustomerFeatureProperties properties) {
+        return recentCount * velocityDecay(atMillis, properties);
+    }
+
+    double recentAmount(long atMillis, CustomerFeatureProperties properties) {
+        return recentAmount * velocityDecay(atMillis, properties);
+    }
+
+    long accountOpenedAtMillis() {
+        return accountOpenedAtMillis;
+    }
+
+    /**
+     * Time of the latest activity or account opening recorded.
+     */
+    long lastActiveMillis() {
+        return Math.max(updatedAtMillis, accountOpenedAtMillis);
+    }
+
+    /**
+     * Whether the profile has enough history to call anything unusual. Decay scales the profile
+     * uniformly, so shares below can be read without bringing it up to date.
+     */
+    boolean hasProfile(long atMillis, CustomerFeatureProperties properties) {
+        return profileWeight * profileDecay(atMillis, properties) >= properties.minProfileWeight();
+    }
+
+    /**
+     * Share of the profile at this hour or the hours either side of it.
+     */
+    double hourShare(int hourOfDay) {
+        double around = hourWeights[(hourOfDay + HOURS - 1) % HOURS] + hourWeights[hourOfDay]
+                + hourWeights[(hourOfDay + 1) % HOURS];
+        return profileWeight > 0 ? around / profileWeight : 0;
+    }
+
+    double countryShare(short country) {
+        for (int i = 0; i < MAX_COUNTRIES; i++) {
+            if (countries[i] == country) {
+                return profileWeight > 0 ? countryWeights[i] / profileWeight : 0;
+            }
+        }
+        return 0;
+    }
+
+    int distinctCountries() {
+        int distinct = 0;
+        for (short country : countries) {
+            if (country != NO_COUNTRY) {
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Whether nothing recorded is left above {@code minWeight} and no recent account opening
+     * keeps the customer relevant.
+     */
+    boolean isIdle(long atMillis, double minWeight, CustomerFeatureProperties properties) {
+        return recentCount(atMillis, properties) < minWeight
+                && profileWeight * profileDecay(atMillis, properties) < minWeight
+                && atMillis - accountOpenedAtMillis > properties.newAccountAge().toMillis();
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(updatedAtMillis);
+        out.writeLong(accountOpenedAtMillis);
+        out.writeDouble(recentCount);
+        out.writeDouble(recentAmount);
+        out.writeDouble(profileWeight);
+        for (float weight : hourWeights) {
+            out.writeFloat(weight);
+        }
+        for (int i = 0; i < MAX_COUNTRIES; i++) {
+            out.writeShort(countries[i]);
+            out.writeFloat(countryWeights[i]);
+        }
+    }
+
+    static CustomerFeatures readFrom(DataInput in) throws IOException {
+        CustomerFeatures features = new CustomerFeatures();
+        features.updatedAtMillis = in.readLong();
+        features.accountOpenedAtMillis = in.readLong();
+        features.recentCount = in.readDouble();
+        features.recentAmount = in.readDouble();
+        features.profileWeight = in.readDouble();
+        for (int i = 0; i < HOURS; i++) {
+            features.hourWeights[i] = in.readFloat();
+        }
+        for (int i = 0; i < MAX_COUNTRIES; i++) {
+            features.countries[i] = in.readShort();
+            features.countryWeights[i] = in.readFloat();
+        }
+        return features;
+    }
+
+    /**
+     * Packs an ISO 3166 alpha-2 code into a short, or returns -1 when {@code code} is not one.
+     */
+    static short countryCode(String code) {
+        if (code == null || code.length() != 2) {
+            return NO_COUNTRY;
+        }
+        char first = Character.toUpperCase(code.charAt(0));
+        char second = Character.toUpperCase(code.charAt(1));
+        if (first < 'A' || first > 'Z' || second < 'A' || second > 'Z') {
+            return NO_COUNTRY;
+        }
+        return (short) ((first - 'A') * 26 + (second - 'A'));
+    }
+
+    private void decayTo(long atMillis, CustomerFeatureProperties properties) {
+        if (updatedAtMillis > 0) {
+            double velocity = velocityDecay(atMillis, properties);
+            double profile = profileDecay(atMillis, properties);
+            recentCount *= velocity;
+            recentAmount *= velocity;
+            profileWeight *= profile;
+            for (int i = 0; i < HOURS; i++) {
+                hourWeights[i] *= (float) profile;
+            }
+            for (int i = 0; i < MAX_COUNTRIES; i++) {
+                countryWeights[i] *= (float) profile;
+            }
+        }
+        updatedAtMillis = atMillis;
+    }
+
+    private double velocityDecay(long atMillis, CustomerFeatureProperties properties) {
+        return decay(atMillis, properties.velocityHalfLife().toMillis());
+    }
+
+    private double profileDecay(long atMillis, CustomerFeatureProperties properties) {
+        return decay(atMillis, properties.profileHalfLife().toMillis());
+    }
+
+    private double decay(long atMillis, long halfLifeMillis) {
+        long elapsed = atMillis - updatedAtMillis;
+        return elapsed <= 0 || updatedAtMillis == 0 ? 1 : Math.pow(0.5, elapsed / (double) halfLifeMillis);
+    }
+
+    // Keeps the most used countries; a new one replaces the least used when all slots are taken
+    private void addCountry(short country, float weight) {
+        int free = -1;
+        int lightest = 0;
+        for (int i = 0; i < MAX_COUNTRIES; i++) {
+            if (countries[i] == country) {
+                countryWeights[i] += weight;
+                return;
+            }
+            if (countries[i] == NO_COUNTRY) {
+                free = free < 0 ? i : free;
+            } else if (countryWeights[i] < countryWeights[lightest]) {
+                lightest = i;
+            }
+        }
+        int slot = free >= 0 ? free : lightest;
+        countries[slot] = country;
+        countryWeights[slot] = weight;
+    }
+}
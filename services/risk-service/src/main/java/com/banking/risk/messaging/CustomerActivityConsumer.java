@@ -0,0 +1,169 @@
+package com.banking.risk.messaging;
+
+import com.banking.risk.features.CustomerFeatureStore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the customer feature store. Every instance scores with its own features, so each one
+ * consumes all events in a group of its own, named after {@code risk.features.instance-id}, which
+ * must be set and stay the same across restarts. On assignment each partition is sought to the offset the
+ * restored feature snapshot was built up to; partitions the snapshot does not cover start from the
+ * group's committed offset, or the latest one.
+ *
+ * A transaction is counted once, on its first event: follow-up status events are skipped. Events
+ * without a customer or an amount (payment events carry only accounts, card events are lifecycle
+ * changes) do not contribute, except account openings, which mark a customer's newest account.
+ */
+@Component
+public class CustomerActivityConsumer implements ConsumerSeekAware {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerActivityConsumer.class);
+
+    private static final Set<String> FOLLOW_UP_SUFFIXES =
+            Set.of("_PROCESSING", "_COMPLETED", "_FAILED", "_CANCELLED", "_REVERSED", "_UPDATED");
+    private static final String ACCOUNT_CREATED = "ACCOUNT_CREATED";
+
+    private final CustomerFeatureStore featureStore;
+    private final ObjectReader reader;
+    private final ObjectReader instantReader;
+    private final Clock clock;
+
+    public CustomerActivityConsumer(
+            CustomerFeatureStore featureStore,
+            ObjectMapper objectMapper,
+            Clock clock,
+            @Value("${risk.features.instance-id:}") String instanceId,
+            @Value("${risk.features.consumer-group:}") String consumerGroup) {
+        // A host name changes with every pod, which would replay the topics into a fresh group
+        if (instanceId.isBlank() && consumerGroup.isBlank()) {
+            throw new IllegalArgumentException("risk.features.instance-id must be set to a name that stays the same "
+                    + "across restarts of this instance, such as a StatefulSet pod name");
+        }
+        this.featureStore = featureStore;
+        this.reader = objectMapper.readerFor(ActivityPayload.class);
+        this.instantReader = objectMapper.readerFor(Instant.class);
+        this.clock = clock;
+    }
+
+    @KafkaListener(
+            topics = {"transaction-events", "payment-events", "card-events", "account-events"},
+            groupId = "${risk.features.consumer-group:risk-service-features-${risk.features.instance-id}}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void handleActivityEvent(ConsumerRecord<String, String> record) {
+        featureStore.consumed(record.topic(), record.partition(), record.offset(), () -> apply(record));
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(partition -> featureStore.nextOffset(partition.topic(), partition.partition())
+                .ifPresent(offset -> callback.seek(partition.topic(), partition.partition(), offset)));
+    }
+
+    private void apply(ConsumerRecord<String, String> record) {
+        ActivityPayload event;
+        try {
+            event = reader.readValue(record.value());
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping undecodable event from {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getOriginalMessage());
+            return;
+        }
+        UUID customerId = toUuid(event.customerId());
+        if (customerId == null || event.eventType() == null) {
+            return;
+        }
+        Instant at = occurredAt(event);
+        if (ACCOUNT_CREATED.equals(event.eventType())) {
+            featureStore.recordAccountOpened(customerId, at);
+        } else if (event.amount() != null && !isFollowUp(event.eventType())) {
+            featureStore.recordActivity(customerId, event.amount(),
+                    firstPresent(event.country(), event.merchantCountry(), event.countryCode()), at);
+        }
+    }
+
+    private static boolean isFollowUp(String eventType) {
+        for (String suffix : FOLLOW_UP_SUFFIXES) {
+            if (eventType.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * When the event happened: its {@code timestamp} or {@code occurredAt}, read by Jackson's
+     * {@link Instant} support, which takes both ISO-8601 text and the decimal epoch seconds that
+     * producers serializing {@code Instant} with Jackson's defaults write. Without a readable one
+     * the event is placed at the time it is consumed.
+     */
+    private Instant occurredAt(ActivityPayload event) {
+        for (JsonNode value : new JsonNode[] {event.timestamp(), event.occurredAt()}) {
+            if (value == null || value.isNull()) {
+                continue;
+            }
+            try {
+                Instant at = instantReader.readValue(value);
+                if (at != null) {
+                    return at;
+                }
+            } catch (IOException | DateTimeException e) {
+                log.debug("Unreadable event time {}; trying the next one", value);
+            }
+        }
+        return Instant.now(clock);
+    }
+
+    private static UUID toUuid(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String firstPresent(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ActivityPayload(
+            String eventType,
+            String customerId,
+            BigDecimal amount,
+            String country,
+            String merchantCountry,
+            String countryCode,
+            JsonNode timestamp,
+            JsonNode occurredAt
+    ) {
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -43,6 +44,31 @@ public class RiskEventPublisher {
         publishEvent(createAlertEvent("RISK_ALERT_UPDATED", alert));
     }
 
+    /**
+     * Publishes the events of bulk-written assessments, handing them all to the producer before
+     * waiting once for the batch to be sent.
+     */
+    public void publishAll(List<RiskAssessment> assessments) {
+        for (RiskAssessment assessment : assessments) {
+            publishRiskAssessment(assessment);
+        }
+        kafkaTemplate.flush();
+    }
+
+    /**
+     * Publishes alerts opened and coalesced alerts updated by one write-behind flush, waiting
+     * once for the batch to be sent.
+     */
+    public void publishAlertChanges(List<RiskAlert> created, List<RiskAlert> updated) {
+        for (RiskAlert alert : created) {
+            publishRiskAlert(alert);
+        }
+        for (RiskAlert alert : updated) {
+            publishRiskAlertUpdated(alert);
+        }
+        kafkaTemplate.flush();
+    }
+
     private RiskEvent createAssessmentEvent(String eventType, RiskAssessment assessment) {
         return new RiskEvent(
                 eventType,
@@ -0,0 +1,259 @@
+package com.banking.risk.portfolio;
+
+import com.banking.risk.domain.RiskLevel;
+import com.banking.risk.domain.RiskType;
+import com.banking.risk.service.BatchRiskScoringService;
+import com.banking.risk.service.BatchRiskScoringService.RaisedAlerts;
+import com.banking.risk.service.BatchRiskScoringService.ScoredBatch;
+import com.banking.risk.service.RiskAssessmentInput;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Rescores a whole portfolio: every entity of one risk type that has been assessed before.
+ * <ul>
+ *   <li>each entity is rescored from the inputs of its latest assessment against its customer's
+ *       current features,</li>
+ *   <li>entities are read in keyset chunks of {@code entity_id}, and each chunk is scored on the
+ *       batch scoring pool while the previous chunk is written,</li>
+ *   <li>each chunk's assessments and the run's checkpoint are written in one transaction with
+ *       JDBC batches. Once it has committed the chunk's events are published and its alerts go
+ *       through the {@link com.banking.risk.service.RiskAlertAggregator}, so a rescoring folds into
+ *       alerts already open; the run counts the alerts opened and suppressed.</li>
+ * </ul>
+ * Only one run per risk type can be RUNNING. A run whose instance died stays RUNNING; once its
+ * heartbeat is older than {@code risk.portfolio.stale-after} another instance resumes it from its
+ * checkpoint.
+ */
+@Service
+public class PortfolioRiskJob implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioRiskJob.class);
+
+    // Latest assessment of each entity, in entity order
+    private static final String FIRST_CHUNK = """
+            SELECT DISTINCT ON (entity_id) entity_id, customer_id, account_id, amount, currency
+              FROM risk_assessments
+             WHERE risk_type = ?
+             ORDER BY entity_id, assessed_at DESC
+             LIMIT ?
+            """;
+
+    private static final String NEXT_CHUNK = """
+            SELECT DISTINCT ON (entity_id) entity_id, customer_id, account_id, amount, currency
+              FROM risk_assessments
+             WHERE risk_type = ? AND entity_id > ?
+             ORDER BY entity_id, assessed_at DESC
+             LIMIT ?
+            """;
+
+    private static final String CHECKPOINT = """
+            UPDATE portfolio_runs
+               SET last_entity_id = ?, entities_scored = entities_scored + ?, low_count = low_count + ?, medium_count = medium_count + ?, high_count = high_count + ?,
+                   critical_count = critical_count + ?, heartbeat_at = ?
+             WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchRiskScoringService scoringService;
+    private final Clock clock;
+    private final int chunkSize;
+    private final Duration staleAfter;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "risk-portfolio-run");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PortfolioRiskJob(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            BatchRiskScoringService scoringService,
+            Clock clock,
+            @Value("${risk.portfolio.chunk-size:2000}") int chunkSize,
+            @Value("${risk.portfolio.stale-after:5m}") Duration staleAfter
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scoringService = scoringService;
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * Queues a rescoring of every entity of {@code riskType}.
+     */
+    public PortfolioRun startRun(RiskType riskType) {
+        UUID runId = UUID.randomUUID();
+        Instant now = Instant.now(clock);
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT entity_id) FROM risk_assessments WHERE risk_type = ?",
+                Long.class, riskType.name());
+        try {
+            jdbcTemplate.update("""
+                    INSERT INTO portfolio_runs (id, risk_type, status, entities_total, started_at, heartbeat_at)
+                    VALUES (?, ?, 'RUNNING', ?, ?, ?)
+                    """, runId, riskType.name(), total != null ? total : 0L, Timestamp.from(now), Timestamp.from(now));
+        } catch (DuplicateKeyException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "A portfolio run for " + riskType + " is already in progress"
+            );
+        }
+        log.info("Queued portfolio run {} over {} {} entities", runId, total, riskType);
+        submit(runId);
+        return findRun(runId).orElseThrow();
+    }
+
+    public Optional<PortfolioRun> findRun(UUID runId) {
+        return jdbcTemplate.query("SELECT " + PortfolioRun.COLUMNS + " FROM portfolio_runs WHERE id = ?",
+                PortfolioRun::map, runId).stream().findFirst();
+    }
+
+    /**
+     * Resumes runs left RUNNING by an instance that stopped heartbeating.
+     */
+    @Scheduled(fixedDelayString = "${risk.portfolio.resume-interval-ms:60000}",
+            initialDelayString = "${risk.portfolio.resume-interval-ms:60000}")
+    public void resumeStaleRuns() {
+        Instant now = Instant.now(clock);
+        Timestamp staleBefore = Timestamp.from(now.minus(staleAfter));
+        List<UUID> stale = jdbcTemplate.queryForList("""
+                SELECT id FROM portfolio_runs
+                 WHERE status = 'RUNNING' AND (heartbeat_at IS NULL OR heartbeat_at < ?)
+                 ORDER BY started_at
+                """, UUID.class, staleBefore);
+        for (UUID runId : stale) {
+            int claimed = jdbcTemplate.update("""
+                    UPDATE portfolio_runs SET heartbeat_at = ?, error_message = NULL
+                     WHERE id = ? AND status = 'RUNNING' AND (heartbeat_at IS NULL OR heartbeat_at < ?)
+                    """, Timestamp.from(now), runId, staleBefore);
+            if (claimed == 1) {
+                log.info("Resuming portfolio run {}", runId);
+                submit(runId);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        runner.shutdownNow();
+    }
+
+    private void submit(UUID runId) {
+        runner.execute(() -> {
+            try {
+                findRun(runId).ifPresent(this::execute);
+            } catch (RuntimeException e) {
+                // Already recorded on the run
+            }
+        });
+    }
+
+    void execute(PortfolioRun run) {
+        RiskType riskType = RiskType.valueOf(run.riskType());
+        String description = "Portfolio rescoring " + run.id();
+        try {
+            heartbeat(run.id());
+            List<Entity> chunk = fetchChunk(riskType, run.lastEntityId());
+            CompletableFuture<ScoredBatch> scored = chunk.isEmpty() ? null : score(riskType, chunk, description);
+            while (scored != null) {
+                List<Entity> current = chunk;
+                ScoredBatch batch = scored.join();
+                UUID last = current.get(current.size() - 1).entityId();
+
+                // Score the next chunk while this one is written
+                chunk = current.size() < chunkSize ? List.of() : fetchChunk(riskType, last);
+                scored = chunk.isEmpty() ? null : score(riskType, chunk, description);
+
+                transactionTemplate.executeWithoutResult(status -> {
+                    scoringService.store(batch);
+                    checkpoint(run.id(), batch, last);
+                });
+                scoringService.publish(batch);
+                RaisedAlerts alerts = scoringService.raiseAlerts(batch);
+                jdbcTemplate.update(
+                        "UPDATE portfolio_runs SET alerts_created = alerts_created + ?, "
+                                + "alerts_suppressed = alerts_suppressed + ? WHERE id = ?",
+                        alerts.opened(), alerts.suppressed(), run.id());
+            }
+            Timestamp now = Timestamp.from(Instant.now(clock));
+            jdbcTemplate.update("""
+                    UPDATE portfolio_runs SET status = 'COMPLETED', completed_at = ?, heartbeat_at = ?
+                     WHERE id = ?
+                    """, now, now, run.id());
+            log.info("Completed portfolio run {}", run.id());
+        } catch (RuntimeException e) {
+            log.error("Portfolio run {} failed; it will resume from its last checkpoint", run.id(), e);
+            jdbcTemplate.update(
+                    "UPDATE portfolio_runs SET error_message = ?, heartbeat_at = NULL WHERE id = ?",
+                    String.valueOf(e.getMessage()), run.id());
+            throw e;
+        }
+    }
+
+    private void heartbeat(UUID runId) {
+        jdbcTemplate.update("UPDATE portfolio_runs SET heartbeat_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now(clock)), runId);
+    }
+
+    private List<Entity> fetchChunk(RiskType riskType, UUID afterEntityId) {
+        if (afterEntityId == null) {
+            return jdbcTemplate.query(FIRST_CHUNK, Entity::map, riskType.name(), chunkSize);
+        }
+        return jdbcTemplate.query(NEXT_CHUNK, Entity::map, riskType.name(), afterEntityId, chunkSize);
+    }
+
+    private CompletableFuture<ScoredBatch> score(RiskType riskType, List<Entity> chunk, String description) {
+        return scoringService.score(chunk.stream()
+                .map(entity -> new RiskAssessmentInput(riskType, entity.entityId(), entity.customerId(),
+                        entity.accountId(), entity.amount(), entity.currency(), description, null))
+                .toList());
+    }
+
+    private void checkpoint(UUID runId, ScoredBatch batch, UUID lastEntityId) {
+        Map<RiskLevel, Long> byLevel = batch.byLevel();
+        jdbcTemplate.update(CHECKPOINT, lastEntityId, batch.assessments().size(),
+                byLevel.get(RiskLevel.LOW), byLevel.get(RiskLevel.MEDIUM),
+                byLevel.get(RiskLevel.HIGH), byLevel.get(RiskLevel.CRITICAL),
+                Timestamp.from(Instant.now(clock)), runId);
+    }
+
+    record Entity(UUID entityId, UUID customerId, UUID accountId, BigDecimal amount, String currency) {
+
+        static Entity map(ResultSet rs, int rowNum) throws SQLException {
+            return new Entity(
+                    rs.getObject("entity_id", UUID.class),
+                    rs.getObject("customer_id", UUID.class),
+                    rs.getObject("account_id", UUID.class),
+                    rs.getBigDecimal("amount"),
+                    rs.getString("currency"));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.banking.risk.portfolio;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A row of {@code portfolio_runs}. {@code lastEntityId} is the keyset position of the last
+ * committed chunk; the level counts cover every entity scored so far.
+ */
+public record PortfolioRun(
+        UUID id,
+        String riskType,
+        String status,
+        UUID lastEntityId,
+        long entitiesTotal,
+        long entitiesScored,
+        long alertsCreated,
+        long alertsSuppressed,
+        long lowCount,
+        long mediumCount,
+        long highCount,
+        long criticalCount,
+        String errorMessage,
+        Instant startedAt,
+        Instant heartbeatAt,
+        Instant completedAt
+) {
+
+    static final String COLUMNS = """
+            id, risk_type, status, last_entity_id, entities_total, entities_scored, alerts_created,
+            alerts_suppressed, low_count, medium_count, high_count, critical_count, error_message, started_at, heartbeat_at, completed_at""";
+
+    static PortfolioRun map(ResultSet rs, int rowNum) throws SQLException {
+        return new PortfolioRun(
+                rs.getObject("id", UUID.class),
+                rs.getString("risk_type"),
+                rs.getString("status"),
+                rs.getObject("last_entity_id", UUID.class),
+                rs.getLong("entities_total"),
+                rs.getLong("entities_scored"),
+                rs.getLong("alerts_created"),
+                rs.getLong("alerts_suppressed"),
+                rs.getLong("low_count"),
+                rs.getLong("medium_count"),
+                rs.getLong("high_count"),
+                rs.getLong("critical_count"),
+                rs.getString("error_message"),
+                toInstant(rs.getTimestamp("started_at")),
+                toInstant(rs.getTimestamp("heartbeat_at")),
+                toInstant(rs.getTimestamp("completed_at"))
+        );
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
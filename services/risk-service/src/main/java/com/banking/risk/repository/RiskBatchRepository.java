@@ -0,0 +1,146 @@
+package com.banking.risk.repository;
+
+import com.banking.risk.domain.AlertStatus;
+import com.banking.risk.domain.RiskAlert;
+import com.banking.risk.domain.RiskAssessment;
+import com.banking.risk.domain.RiskLevel;
+import com.banking.risk.domain.RiskType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch writes for assessments scored in bulk and for coalesced alerts. Callers assign ids
+ * and timestamps, since entity lifecycle callbacks do not run here.
+ */
+@Repository
+public class RiskBatchRepository {
+
+    private static final String INSERT_ASSESSMENT = """
+            INSERT INTO risk_assessments
+                (id, risk_type, entity_id, risk_level, risk_score, customer_id, account_id, amount, currency,
+                 risk_factors, description, assessed_at, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_ALERT = """
+            INSERT INTO risk_alerts
+                (id, risk_assessment_id, status, risk_level, risk_score, customer_id, account_id, title, description,
+                 risk_type, occurrence_count, last_occurred_at, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Alerts an analyst has closed are left alone
+    private static final String UPDATE_COALESCED_ALERT = """
+            UPDATE risk_alerts
+               SET risk_score = GREATEST(risk_score, ?), occurrence_count = ?, last_occurred_at = ?, updated_at = ?
+             WHERE id = ? AND status NOT IN ('RESOLVED', 'FALSE_POSITIVE')
+            """;
+
+    private static final String SELECT_COALESCING_ALERTS = """
+            SELECT id, risk_assessment_id, status, risk_level, risk_score, customer_id, account_id, title, description,
+                   risk_type, occurrence_count, last_occurred_at, created_at, updated_at
+              FROM risk_alerts
+             WHERE status NOT IN ('RESOLVED', 'FALSE_POSITIVE') AND risk_type IS NOT NULL AND created_at > ?
+             ORDER BY created_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public RiskBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = 500;
+    }
+
+    public void insertAssessments(List<RiskAssessment> assessments) {
+        jdbcTemplate.batchUpdate(INSERT_ASSESSMENT, assessments, batchSize, (ps, assessment) -> {
+            ps.setObject(1, assessment.getId());
+            ps.setString(2, assessment.getRiskType().name());
+            ps.setObject(3, assessment.getEntityId());
+            ps.setString(4, assessment.getRiskLevel().name());
+            ps.setInt(5, assessment.getRiskScore());
+            ps.setObject(6, assessment.getCustomerId());
+            ps.setObject(7, assessment.getAccountId());
+            ps.setBigDecimal(8, assessment.getAmount());
+            ps.setString(9, assessment.getCurrency());
+            ps.setString(10, assessment.getRiskFactors());
+            ps.setString(11, assessment.getDescription());
+            ps.setTimestamp(12, Timestamp.from(assessment.getAssessedAt()));
+            ps.setTimestamp(13, Timestamp.from(assessment.getCreatedAt()));
+            ps.setTimestamp(14, Timestamp.from(assessment.getUpdatedAt()));
+        });
+    }
+
+    public void insertAlerts(List<RiskAlert> alerts) {
+        jdbcTemplate.batchUpdate(INSERT_ALERT, alerts, batchSize, (ps, alert) -> {
+            ps.setObject(1, alert.getId());
+            ps.setObject(2, alert.getRiskAssessmentId());
+            ps.setString(3, alert.getStatus().name());
+            ps.setString(4, alert.getRiskLevel().name());
+            ps.setInt(5, alert.getRiskScore());
+            ps.setObject(6, alert.getCustomerId());
+            ps.setObject(7, alert.getAccountId());
+            ps.setString(8, alert.getTitle());
+            ps.setString(9, alert.getDescription());
+            ps.setString(10, alert.getRiskType() != null ? alert.getRiskType().name() : null);
+            ps.setInt(11, alert.getOccurrenceCount());
+            ps.setTimestamp(12, alert.getLastOccurredAt() != null ? Timestamp.from(alert.getLastOccurredAt()) : null);
+            ps.setTimestamp(13, Timestamp.from(alert.getCreatedAt()));
+            ps.setTimestamp(14, Timestamp.from(alert.getUpdatedAt()));
+        });
+    }
+
+    /**
+     * Writes the occurrence count and highest score of coalesced alerts; returns the rows updated
+     * per alert, 0 where the alert has been closed.
+     */
+    public int[] updateCoalescedAlerts(List<RiskAlert> alerts) {
+        return jdbcTemplate.batchUpdate(UPDATE_COALESCED_ALERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                RiskAlert alert = alerts.get(i);
+                ps.setInt(1, alert.getRiskScore());
+                ps.setInt(2, alert.getOccurrenceCount());
+                ps.setTimestamp(3, Timestamp.from(alert.getLastOccurredAt()));
+                ps.setTimestamp(4, Timestamp.from(alert.getUpdatedAt()));
+                ps.setObject(5, alert.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return alerts.size();
+            }
+        });
+    }
+
+    /**
+     * Alerts still open that were opened after {@code openedAfter}, oldest first.
+     */
+    public List<RiskAlert> findCoalescingAlerts(Instant openedAfter) {
+        return jdbcTemplate.query(SELECT_COALESCING_ALERTS, (rs, rowNum) -> {
+            RiskAlert alert = new RiskAlert();
+            alert.setId(rs.getObject("id", UUID.class));
+            alert.setRiskAssessmentId(rs.getObject("risk_assessment_id", UUID.class));
+            alert.setStatus(AlertStatus.valueOf(rs.getString("status")));
+            alert.setRiskLevel(RiskLevel.valueOf(rs.getString("risk_level")));
+            alert.setRiskScore(rs.getInt("risk_score"));
+            alert.setCustomerId(rs.getObject("customer_id", UUID.class));
+            alert.setAccountId(rs.getObject("account_id", UUID.class));
+            alert.setTitle(rs.getString("title"));
+            alert.setDescription(rs.getString("description"));
+            alert.setRiskType(RiskType.valueOf(rs.getString("risk_type")));
+            alert.setOccurrenceCount(rs.getInt("occurrence_count"));
+            alert.setLastOccurredAt(rs.getTimestamp("last_occurred_at").toInstant());
+            alert.setCreatedAt(rs.getTimestamp("created_at").toInstant());
+            alert.setUpdatedAt(rs.getTimestamp("updated_at").toInstant());
+            return alert;
+        }, Timestamp.from(openedAfter));
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.risk.service;
+
+import com.banking.risk.domain.RiskLevel;
+import java.util.Map;
+
+/**
+ * Outcome of a batch of assessments: how many were stored, how many alerts they opened, how many
+ * of their alerts were folded into alerts already open, and how many assessments landed on each
+ * risk level.
+ */
+public record BatchAssessmentSummary(int assessed, int alertsCreated, int alertsSuppressed,
+                                     Map<RiskLevel, Long> byLevel) {
+}
@@ -0,0 +1,169 @@
+package com.banking.risk.service;
+
+import com.banking.risk.domain.RiskAssessment;
+import com.banking.risk.domain.RiskLevel;
+import com.banking.risk.features.CustomerFeatureStore;
+import com.banking.risk.messaging.RiskEventPublisher;
+import com.banking.risk.repository.RiskBatchRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Scores many assessments at once. Items are scored in parallel on a fork-join pool, the
+ * resulting assessments are written with JDBC batch inserts in one transaction, and once it has
+ * committed their events are published and the assessments that raise alerts go to the
+ * {@link RiskAlertAggregator}, so repeats coalesce with the alerts single assessments open. If
+ * the instance stops between the commit and that hand-over, those events and alerts are lost; the
+ * assessments are not.
+ */
+@Service
+public class BatchRiskScoringService implements DisposableBean {
+
+    private final RiskScoringService scoringService;
+    private final CustomerFeatureStore featureStore;
+    private final RiskBatchRepository batchRepository;
+    private final RiskEventPublisher eventPublisher;
+    private final RiskAlertAggregator alertAggregator;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int maxBatchSize;
+    private final ForkJoinPool pool;
+
+    public BatchRiskScoringService(
+            RiskScoringService scoringService,
+            CustomerFeatureStore featureStore,
+            RiskBatchRepository batchRepository,
+            RiskEventPublisher eventPublisher,
+            RiskAlertAggregator alertAggregator,
+            PlatformTransactionManager transactionManager,
+            Clock clock,
+            @Value("${risk.batch.max-size:10000}") int maxBatchSize,
+            @Value("${risk.batch.parallelism:0}") int parallelism
+    ) {
+        this.scoringService = scoringService;
+        this.featureStore = featureStore;
+        this.batchRepository = batchRepository;
+        this.eventPublisher = eventPublisher;
+        this.alertAggregator = alertAggregator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.maxBatchSize = maxBatchSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Scores, stores and publishes every input, then raises its alerts. Nothing is stored if any
+     * input fails.
+     */
+    public BatchAssessmentSummary assessBatch(List<RiskAssessmentInput> inputs) {
+        if (inputs.size() > maxBatchSize) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "A batch may hold at most " + maxBatchSize + " assessments"
+            );
+        }
+        ScoredBatch batch = score(inputs).join();
+        transactionTemplate.executeWithoutResult(status -> store(batch));
+        publish(batch);
+        return batch.summary(raiseAlerts(batch));
+    }
+
+    /**
+     * Scores the inputs on the scoring pool. The assessments get their ids and timestamps here,
+     * in input order, but nothing is stored.
+     */
+    public CompletableFuture<ScoredBatch> score(List<RiskAssessmentInput> inputs) {
+        Instant now = Instant.now(clock);
+        return CompletableFuture.supplyAsync(() -> new ScoredBatch(inputs.parallelStream()
+                .map(input -> assess(input, now))
+                .toList()), pool);
+    }
+
+    /**
+     * Writes a scored batch's assessments in the caller's transaction.
+     */
+    public void store(ScoredBatch batch) {
+        if (!batch.assessments().isEmpty()) {
+            batchRepository.insertAssessments(batch.assessments());
+        }
+    }
+
+    public void publish(ScoredBatch batch) {
+        eventPublisher.publishAll(batch.assessments());
+    }
+
+    /**
+     * Hands the assessments that raise alerts to the aggregator, once the batch has committed.
+     */
+    public RaisedAlerts raiseAlerts(ScoredBatch batch) {
+        int opened = 0;
+        int suppressed = 0;
+        for (RiskAssessment assessment : batch.assessments()) {
+            if (RiskAssessmentService.raisesAlert(assessment.getRiskLevel())) {
+                if (alertAggregator.record(assessment)) {
+                    opened++;
+                } else {
+                    suppressed++;
+                }
+            }
+        }
+        return new RaisedAlerts(opened, suppressed);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private RiskAssessment assess(RiskAssessmentInput input, Instant now) {
+        RiskScoringService.RiskScoreResult scoreResult = scoringService.calculateRiskScore(
+                input.amount(), input.currency(), input.customerId(), input.accountId(),
+                featureStore.contextFor(input.customerId(), input.countryCode())
+        );
+        RiskAssessment assessment = RiskAssessmentService.newAssessment(input, scoreResult, now);
+        assessment.setId(UUID.randomUUID());
+        assessment.setCreatedAt(now);
+        assessment.setUpdatedAt(now);
+        return assessment;
+    }
+
+    /**
+     * Assessments scored together.
+     */
+    public record ScoredBatch(List<RiskAssessment> assessments) {
+
+        public Map<RiskLevel, Long> byLevel() {
+            Map<RiskLevel, Long> byLevel = new EnumMap<>(RiskLevel.class);
+            for (RiskLevel level : RiskLevel.values()) {
+                byLevel.put(level, 0L);
+            }
+            for (RiskAssessment assessment : assessments) {
+                byLevel.merge(assessment.getRiskLevel(), 1L, Long::sum);
+            }
+            return byLevel;
+        }
+
+        public BatchAssessmentSummary summary(RaisedAlerts alerts) {
+            return new BatchAssessmentSummary(assessments.size(), alerts.opened(), alerts.suppressed(), byLevel());
+        }
+    }
+
+    /**
+     * Alerts a batch opened, and its alerts folded into ones already open.
+     */
+    public record RaisedAlerts(int opened, int suppressed) {
+    }
+}
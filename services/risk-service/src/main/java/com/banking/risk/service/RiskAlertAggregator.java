@@ -0,0 +1,299 @@
+package com.banking.risk.service;
+
+import com.banking.risk.domain.RiskAlert;
+import com.banking.risk.domain.RiskAssessment;
+import com.banking.risk.domain.RiskLevel;
+import com.banking.risk.domain.RiskType;
+import com.banking.risk.messaging.RiskEventPublisher;
+import com.banking.risk.repository.RiskBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Coalesces repeated risk alerts. Alerts are keyed by customer (or account when there is no
+ * customer), risk type and level. Within {@code risk.alerts.coalescing-window} of an alert being
+ * opened, further assessments with the same key raise its occurrence count and highest score
+ * instead of opening another alert; after the window the next one opens a new alert.
+ * <p>
+ * Changes are kept in memory and written behind in JDBC batches every
+ * {@code risk.alerts.flush-interval-ms}, followed by one created or updated event per changed
+ * alert. Alerts still open from the current window are reloaded on startup. Changes not yet
+ * flushed when an instance dies are lost, and each instance coalesces on its own.
+ */
+@Component
+public class RiskAlertAggregator implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskAlertAggregator.class);
+
+    private final RiskBatchRepository batchRepository;
+    private final RiskEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Duration window;
+    private final Map<AlertKey, OpenAlert> openAlerts = new ConcurrentHashMap<>();
+    private final Set<OpenAlert> pending = ConcurrentHashMap.newKeySet();
+    private final Counter openedCounter;
+    private final Counter suppressedCounter;
+    private final Counter flushFailures;
+
+    public RiskAlertAggregator(
+            RiskBatchRepository batchRepository,
+            RiskEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${risk.alerts.coalescing-window:1h}") Duration window
+    ) {
+        this.batchRepository = batchRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.window = window;
+        this.openedCounter = Counter.builder("risk.alerts.opened")
+                .description("Risk alerts opened")
+                .register(meterRegistry);
+        this.suppressedCounter = Counter.builder("risk.alerts.suppressed")
+                .description("Repeated risk alerts folded into an open alert")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("risk.alerts.flush.failures")
+                .description("Write-behind flushes of risk alerts that failed and will be retried")
+                .register(meterRegistry);
+        Gauge.builder("risk.alerts.coalescing", openAlerts, Map::size)
+                .description("Open risk alerts that repeats are folded into")
+                .register(meterRegistry);
+        Gauge.builder("risk.alerts.pending-writes", pending, Set::size)
+                .description("Risk alerts with changes not yet written")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            Instant now = Instant.now(clock);
+            List<RiskAlert> alerts = batchRepository.findCoalescingAlerts(now.minus(window));
+            for (RiskAlert alert : alerts) {
+                AlertKey key = AlertKey.of(alert.getCustomerId(), alert.getAccountId(), alert.getRiskType(),
+                        alert.getRiskLevel());
+                if (key != null) {
+                    OpenAlert open = new OpenAlert(key, alert, alert.getCreatedAt().plus(window));
+                    open.persisted = true;
+                    openAlerts.put(key, open);
+                }
+            }
+            log.info("Coalescing repeats into {} open risk alerts", openAlerts.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not load open risk alerts; repeats of them will open new alerts", e);
+        }
+    }
+
+    /**
+     * Opens an alert for the assessment, or folds it into the open alert with the same key. The
+     * change is written by the next flush.
+     *
+     * @return whether a new alert was opened rather than a repeat folded in
+     */
+    public boolean record(RiskAssessment assessment) {
+        Instant now = Instant.now(clock);
+        AlertKey key = AlertKey.of(assessment.getCustomerId(), assessment.getAccountId(),
+                assessment.getRiskType(), assessment.getRiskLevel());
+        if (key == null) {
+            pending.add(open(null, assessment, now));
+            return true;
+        }
+        boolean[] opened = {false};
+        OpenAlert alert = openAlerts.compute(key, (k, current) -> {
+            if (current != null && current.fold(assessment, now)) {
+                return current;
+            }
+            opened[0] = true;
+            return open(k, assessment, now);
+        });
+        if (!opened[0]) {
+            suppressedCounter.increment();
+        }
+        pending.add(alert);
+        return opened[0];
+    }
+
+    /**
+     * Stops folding repeats into an alert once an analyst has closed it.
+     */
+    public void release(RiskAlert alert) {
+        AlertKey key = AlertKey.of(alert.getCustomerId(), alert.getAccountId(), alert.getRiskType(),
+                alert.getRiskLevel());
+        if (key != null) {
+            openAlerts.computeIfPresent(key, (k, current) -> current.alert.getId().equals(alert.getId())
+                    ? current.close()
+                    : current);
+        }
+    }
+
+    /**
+     * Writes every pending change in one transaction, then publishes the created and updated
+     * events. A failed flush keeps its changes pending for the next one.
+     */
+    @Scheduled(fixedDelayString = "${risk.alerts.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Instant now = Instant.now(clock);
+        List<OpenAlert> changed = new ArrayList<>();
+        for (Iterator<OpenAlert> it = pending.iterator(); it.hasNext(); ) {
+            changed.add(it.next());
+            it.remove();
+        }
+        List<OpenAlert> inserted = new ArrayList<>();
+        List<RiskAlert> created = new ArrayList<>();
+        List<OpenAlert> updated = new ArrayList<>();
+        List<RiskAlert> updates = new ArrayList<>();
+        for (OpenAlert alert : changed) {
+            synchronized (alert) {
+                RiskAlert snapshot = alert.snapshot(now);
+                if (alert.persisted) {
+                    updated.add(alert);
+                    updates.add(snapshot);
+                } else {
+                    inserted.add(alert);
+                    created.add(snapshot);
+                }
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            int[] counts;
+            try {
+                counts = transactionTemplate.execute(status -> {
+                    if (!created.isEmpty()) {
+                        batchRepository.insertAlerts(created);
+                    }
+                    return updates.isEmpty() ? new int[0] : batchRepository.updateCoalescedAlerts(updates);
+                });
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} risk alerts; retrying with the next flush", changed.size(), e);
+                flushFailures.increment();
+                pending.addAll(changed);
+                return;
+            }
+            for (OpenAlert alert : inserted) {
+                synchronized (alert) {
+                    alert.persisted = true;
+                }
+            }
+            List<RiskAlert> published = new ArrayList<>();
+            for (int i = 0; i < updates.size(); i++) {
+                if (counts[i] == 0) {
+                    // Closed by an analyst since it was opened
+                    OpenAlert alert = updated.get(i);
+                    openAlerts.computeIfPresent(alert.key, (k, current) -> current == alert ? alert.close() : current);
+                } else {
+                    published.add(updates.get(i));
+                }
+            }
+            eventPublisher.publishAlertChanges(created, published);
+        }
+
+        openAlerts.values().removeIf(alert -> alert.expired(now) && !pending.contains(alert));
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private OpenAlert open(AlertKey key, RiskAssessment assessment, Instant now) {
+        RiskAlert alert = RiskAssessmentService.newAlert(assessment);
+        alert.setId(UUID.randomUUID());
+        alert.setCreatedAt(now);
+        openedCounter.increment();
+        return new OpenAlert(key, alert, now.plus(window));
+    }
+
+    record AlertKey(UUID subjectId, RiskType riskType, RiskLevel riskLevel) {
+
+        /**
+         * The key of an alert, or null when it has neither a customer nor an account to coalesce on.
+         */
+        static AlertKey of(UUID customerId, UUID accountId, RiskType riskType, RiskLevel riskLevel) {
+            UUID subjectId = customerId != null ? customerId : accountId;
+            return subjectId != null && riskType != null ? new AlertKey(subjectId, riskType, riskLevel) : null;
+        }
+    }
+
+    /**
+     * An alert repeats can be folded into until {@code windowEnd}. Guarded by its own monitor.
+     */
+    static final class OpenAlert {
+
+        private final AlertKey key;
+        private final RiskAlert alert;
+        private final Instant windowEnd;
+        private boolean persisted;
+        private boolean closed;
+
+        OpenAlert(AlertKey key, RiskAlert alert, Instant windowEnd) {
+            this.key = key;
+            this.alert = alert;
+            this.windowEnd = windowEnd;
+        }
+
+        synchronized boolean fold(RiskAssessment assessment, Instant now) {
+            if (closed || !now.isBefore(windowEnd)) {
+                return false;
+            }
+            alert.setOccurrenceCount(alert.getOccurrenceCount() + 1);
+            alert.setRiskScore(Math.max(alert.getRiskScore(), assessment.getRiskScore()));
+            alert.setLastOccurredAt(assessment.getAssessedAt());
+            return true;
+        }
+
+        synchronized OpenAlert close() {
+            closed = true;
+            return null;
+        }
+
+        synchronized boolean expired(Instant now) {
+            return closed || !now.isBefore(windowEnd);
+        }
+
+        /**
+         * A copy of the alert as it is now, for writing and publishing outside the monitor.
+         */
+        RiskAlert snapshot(Instant now) {
+            RiskAlert copy = new RiskAlert();
+            copy.setId(alert.getId());
+            copy.setRiskAssessmentId(alert.getRiskAssessmentId());
+            copy.setStatus(alert.getStatus());
+            copy.setRiskLevel(alert.getRiskLevel());
+            copy.setRiskScore(alert.getRiskScore());
+            copy.setRiskType(alert.getRiskType());
+            copy.setOccurrenceCount(alert.getOccurrenceCount());
+            copy.setLastOccurredAt(alert.getLastOccurredAt());
+            copy.setCustomerId(alert.getCustomerId());
+            copy.setAccountId(alert.getAccountId());
+            copy.setTitle(alert.getTitle());
+            copy.setDescription(alert.getDescription());
+            copy.setCreatedAt(alert.getCreatedAt());
+            copy.setUpdatedAt(now);
+            return copy;
+        }
+    }
+}
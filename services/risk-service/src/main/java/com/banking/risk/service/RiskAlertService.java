@@ -20,15 +20,18 @@ public class RiskAlertService {
 
     private final RiskAlertRepository alertRepository;
     private final RiskEventPublisher eventPublisher;
+    private final RiskAlertAggregator alertAggregator;
     private final Clock clock;
 
     public RiskAlertService(
             RiskAlertRepository alertRepository,
             RiskEventPublisher eventPublisher,
+            RiskAlertAggregator alertAggregator,
             Clock clock
     ) {
         this.alertRepository = alertRepository;
         this.eventPublisher = eventPublisher;
+        this.alertAggregator = alertAggregator;
         this.clock = clock;
     }
 
@@ -69,6 +72,7 @@ public class RiskAlertService {
             alert.setReviewedBy(reviewedBy);
             alert.setReviewedAt(Instant.now(clock));
             alert.setResolutionNotes(resolutionNotes);
+            alertAggregator.release(alert);
         }
 
         alert.setStatus(status);
@@ -0,0 +1,20 @@
+package com.banking.risk.service;
+
+import com.banking.risk.domain.RiskType;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * What one assessment is scored from; {@code countryCode} is where the activity takes place, when known.
+ */
+public record RiskAssessmentInput(
+        RiskType riskType,
+        UUID entityId,
+        UUID customerId,
+        UUID accountId,
+        BigDecimal amount,
+        String currency,
+        String description,
+        String countryCode
+) {
+}
@@ -5,8 +5,8 @@ import com.banking.risk.domain.RiskAlert;
 import com.banking.risk.domain.RiskAssessment;
 import com.banking.risk.domain.RiskLevel;
 import com.banking.risk.domain.RiskType;
+import com.banking.risk.features.CustomerFeatureStore;
 import com.banking.risk.messaging.RiskEventPublisher;
-import com.banking.risk.repository.RiskAlertRepository;
 import com.banking.risk.repository.RiskAssessmentRepository;
 import java.math.BigDecimal;
 import java.time.Clock;
@@ -18,31 +18,40 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class RiskAssessmentService {
 
     private final RiskAssessmentRepository assessmentRepository;
-    private final RiskAlertRepository alertRepository;
+    private final RiskAlertAggregator alertAggregator;
     private final RiskScoringService scoringService;
     private final RiskEventPublisher eventPublisher;
+    private final CustomerFeatureStore featureStore;
     private final Clock clock;
 
     public RiskAssessmentService(
             RiskAssessmentRepository assessmentRepository,
-            RiskAlertRepository alertRepository,
+            RiskAlertAggregator alertAggregator,
             RiskScoringService scoringService,
             RiskEventPublisher eventPublisher,
+            CustomerFeatureStore featureStore,
             Clock clock
     ) {
         this.assessmentRepository = assessmentRepository;
-        this.alertRepository = alertRepository;
+        this.alertAggregator = alertAggregator;
         this.scoringService = scoringService;
         this.eventPublisher = eventPublisher;
+        this.featureStore = featureStore;
         this.clock = clock;
     }
 
+    /**
+     * Scores an activity against its customer's rolling features; {@code countryCode} is where it
+     * takes place, when known.
+     */
     @Transactional
     public RiskAssessment assessRisk(
             RiskType riskType,
@@ -52,30 +61,20 @@ public class RiskAssessmentService {
             BigDecimal amount,
             String currency,
             String description,
-            RiskScoringService.RiskScoringContext context
+            String countryCode
     ) {
+        RiskAssessmentInput input = new RiskAssessmentInput(
+                riskType, entityId, customerId, accountId, amount, currency, description, countryCode);
         RiskScoringService.RiskScoreResult scoreResult = scoringService.calculateRiskScore(
-                amount, currency, customerId, accountId, context
+                amount, currency, customerId, accountId, featureStore.contextFor(customerId, countryCode)
         );
-
-        RiskAssessment assessment = new RiskAssessment();
-        assessment.setRiskType(riskType);
-        assessment.setEntityId(entityId);
-        assessment.setCustomerId(customerId);
-        assessment.setAccountId(accountId);
-        assessment.setAmount(amount);
-        assessment.setCurrency(currency);
-        assessment.setDescription(description);
-        assessment.setRiskScore(scoreResult.score());
-        assessment.setRiskLevel(scoreResult.level());
-        assessment.setRiskFactors(String.join(", ", scoreResult.riskFactors()));
-        assessment.setAssessedAt(Instant.now(clock));
+        RiskAssessment assessment = newAssessment(input, scoreResult, Instant.now(clock));
 
         RiskAssessment saved = assessmentRepository.save(assessment);
 
-        // Create alert if risk level is MEDIUM or higher
-        if (scoreResult.level().ordinal() >= RiskLevel.MEDIUM.ordinal()) {
-            createRiskAlert(saved);
+        // Raise an alert if risk level is MEDIUM or higher, once the assessment is committed
+        if (raisesAlert(scoreResult.level())) {
+            raiseAlert(saved);
         }
 
         // Publish risk assessment event
@@ -84,8 +83,47 @@ public class RiskAssessmentService {
         return saved;
     }
 
-    @Transactional
-    private void createRiskAlert(RiskAssessment assessment) {
+    private void raiseAlert(RiskAssessment assessment) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    alertAggregator.record(assessment);
+                }
+            });
+        } else {
+            alertAggregator.record(assessment);
+        }
+    }
+
+    static RiskAssessment newAssessment(
+            RiskAssessmentInput input,
+            RiskScoringService.RiskScoreResult scoreResult,
+            Instant assessedAt
+    ) {
+        RiskAssessment assessment = new RiskAssessment();
+        assessment.setRiskType(input.riskType());
+        assessment.setEntityId(input.entityId());
+        assessment.setCustomerId(input.customerId());
+        assessment.setAccountId(input.accountId());
+        assessment.setAmount(input.amount());
+        assessment.setCurrency(input.currency());
+        assessment.setDescription(input.description());
+        assessment.setRiskScore(scoreResult.score());
+        assessment.setRiskLevel(scoreResult.level());
+        assessment.setRiskFactors(String.join(", ", scoreResult.riskFactors()));
+        assessment.setAssessedAt(assessedAt);
+        return assessment;
+    }
+
+    /**
+     * Whether an assessment at this level opens an alert.
+     */
+    static boolean raisesAlert(RiskLevel riskLevel) {
+        return riskLevel.ordinal() >= RiskLevel.MEDIUM.ordinal();
+    }
+
+    static RiskAlert newAlert(RiskAssessment assessment) {
         RiskAlert alert = new RiskAlert();
         alert.setRiskAssessmentId(assessment.getId());
         alert.setStatus(AlertStatus.OPEN);
@@ -93,11 +131,12 @@ public class RiskAssessmentService {
         alert.setRiskScore(assessment.getRiskScore());
         alert.setCustomerId(assessment.getCustomerId());
         alert.setAccountId(assessment.getAccountId());
+        alert.setRiskType(assessment.getRiskType());
+        alert.setOccurrenceCount(1);
+        alert.setLastOccurredAt(assessment.getAssessedAt());
         alert.setTitle("Risk Alert: " + assessment.getRiskType() + " - " + assessment.getRiskLevel());
         alert.setDescription("Risk assessment detected: " + assessment.getRiskFactors());
-
-        RiskAlert saved = alertRepository.save(alert);
-        eventPublisher.publishRiskAlert(saved);
+        return alert;
     }
 
     public RiskAssessment getAssessment(UUID assessmentId) {
@@ -0,0 +1,62 @@
+package com.banking.risk.web;
+
+import com.banking.risk.domain.RiskLevel;
+import com.banking.risk.portfolio.PortfolioRiskJob;
+import com.banking.risk.portfolio.PortfolioRun;
+import com.banking.risk.web.dto.PortfolioRunResponse;
+import com.banking.risk.web.dto.StartPortfolioRunRequest;
+import jakarta.validation.Valid;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/risk/portfolio-runs")
+public class PortfolioRunController {
+
+    private final PortfolioRiskJob portfolioRiskJob;
+
+    public PortfolioRunController(PortfolioRiskJob portfolioRiskJob) {
+        this.portfolioRiskJob = portfolioRiskJob;
+    }
+
+    @PostMapping
+    public ResponseEntity<PortfolioRunResponse> startRun(@Valid @RequestBody StartPortfolioRunRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toResponse(portfolioRiskJob.startRun(request.riskType())));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PortfolioRunResponse> getRun(@PathVariable UUID id) {
+        return ResponseEntity.of(portfolioRiskJob.findRun(id).map(this::toResponse));
+    }
+
+    private PortfolioRunResponse toResponse(PortfolioRun run) {
+        Map<RiskLevel, Long> byLevel = new EnumMap<>(RiskLevel.class);
+        byLevel.put(RiskLevel.LOW, run.lowCount());
+        byLevel.put(RiskLevel.MEDIUM, run.mediumCount());
+        byLevel.put(RiskLevel.HIGH, run.highCount());
+        byLevel.put(RiskLevel.CRITICAL, run.criticalCount());
+        return new PortfolioRunResponse(
+                run.id(),
+                run.riskType(),
+                run.status(),
+                run.entitiesTotal(),
+                run.entitiesScored(),
+                run.alertsCreated(),
+                run.alertsSuppressed(),
+                byLevel,
+                run.errorMessage(),
+                run.startedAt(),
+                run.heartbeatAt(),
+                run.completedAt()
+        );
+    }
+}
@@ -3,9 +3,11 @@ package com.banking.risk.web;
 import com.banking.risk.domain.RiskAssessment;
 import com.banking.risk.domain.RiskLevel;
 import com.banking.risk.domain.RiskType;
+import com.banking.risk.service.BatchRiskScoringService;
 import com.banking.risk.service.RiskAssessmentService;
-import com.banking.risk.service.RiskScoringService;
 import com.banking.risk.web.dto.AssessRiskRequest;
+import com.banking.risk.web.dto.BatchAssessRiskRequest;
+import com.banking.risk.web.dto.BatchRiskAssessmentResponse;
 import com.banking.risk.web.dto.PageResponse;
 import com.banking.risk.web.dto.RiskAssessmentResponse;
 import java.util.List;
@@ -31,19 +33,22 @@ import org.springframework.web.bind.annotation.RestController;
 public class RiskAssessmentController {
 
     private final RiskAssessmentService assessmentService;
+    private final BatchRiskScoringService batchScoringService;
     private final RiskMapper mapper;
 
-    public RiskAssessmentController(RiskAssessmentService assessmentService, RiskMapper mapper) {
+    public RiskAssessmentController(
+            RiskAssessmentService assessmentService,
+            BatchRiskScoringService batchScoringService,
+            RiskMapper mapper
+    ) {
         this.assessmentService = assessmentService;
+        this.batchScoringService = batchScoringService;
         this.mapper = mapper;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public RiskAssessmentResponse assessRisk(@Valid @RequestBody AssessRiskRequest request) {
-        RiskScoringService.RiskScoringContext context = new RiskScoringService.RiskScoringContext();
-        // In a real system, populate context from historical data
-
         RiskAssessment assessment = assessmentService.assessRisk(
                 request.riskType(),
                 request.entityId(),
@@ -52,11 +57,19 @@ public class RiskAssessmentController {
                 request.amount(),
                 request.currency(),
                 request.description(),
-                context
+                request.countryCode()
         );
         return mapper.toResponse(assessment);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BatchRiskAssessmentResponse assessRiskBatch(@Valid @RequestBody BatchAssessRiskRequest request) {
+        return mapper.toResponse(batchScoringService.assessBatch(
+                request.assessments().stream().map(mapper::toInput).toList()
+        ));
+    }
+
     @GetMapping("/{id}")
     public RiskAssessmentResponse getAssessment(@PathVariable UUID id) {
         RiskAssessment assessment = assessmentService.getAssessment(id);
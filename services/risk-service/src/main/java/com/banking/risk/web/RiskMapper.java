@@ -2,6 +2,10 @@ package com.banking.risk.web;
 
 import com.banking.risk.domain.RiskAlert;
 import com.banking.risk.domain.RiskAssessment;
+import com.banking.risk.service.BatchAssessmentSummary;
+import com.banking.risk.service.RiskAssessmentInput;
+import com.banking.risk.web.dto.AssessRiskRequest;
+import com.banking.risk.web.dto.BatchRiskAssessmentResponse;
 import com.banking.risk.web.dto.RiskAlertResponse;
 import com.banking.risk.web.dto.RiskAssessmentResponse;
 import org.springframework.data.domain.Page;
@@ -10,6 +14,24 @@ import org.springframework.stereotype.Component;
 @Component
 public class RiskMapper {
 
+    public RiskAssessmentInput toInput(AssessRiskRequest request) {
+        return new RiskAssessmentInput(
+                request.riskType(),
+                request.entityId(),
+                request.customerId(),
+                request.accountId(),
+                request.amount(),
+                request.currency(),
+                request.description(),
+                request.countryCode()
+        );
+    }
+
+    public BatchRiskAssessmentResponse toResponse(BatchAssessmentSummary summary) {
+        return new BatchRiskAssessmentResponse(summary.assessed(), summary.alertsCreated(), summary.alertsSuppressed(),
+                summary.byLevel());
+    }
+
     public RiskAssessmentResponse toResponse(RiskAssessment assessment) {
         return new RiskAssessmentResponse(
                 assessment.getId(),
@@ -36,6 +58,9 @@ public class RiskMapper {
                 alert.getStatus(),
                 alert.getRiskLevel(),
                 alert.getRiskScore(),
+                alert.getRiskType(),
+                alert.getOccurrenceCount(),
+                alert.getLastOccurredAt(),
                 alert.getCustomerId(),
                 alert.getAccountId(),
                 alert.getTitle(),
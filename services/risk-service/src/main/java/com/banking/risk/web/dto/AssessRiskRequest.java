@@ -25,7 +25,10 @@ public record AssessRiskRequest(
         String currency,
 
         @Size(max = 500, message = "Description must not exceed 500 characters")
-        String description
+        String description,
+
+        @Size(min = 2, max = 2, message = "Country code must be 2 characters")
+        String countryCode
 ) {
 }
 
@@ -0,0 +1,11 @@
+package com.banking.risk.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public record BatchAssessRiskRequest(
+        @NotEmpty(message = "At least one assessment is required")
+        List<@Valid AssessRiskRequest> assessments
+) {
+}
@@ -0,0 +1,12 @@
+package com.banking.risk.web.dto;
+
+import com.banking.risk.domain.RiskLevel;
+import java.util.Map;
+
+public record BatchRiskAssessmentResponse(
+        int assessed,
+        int alertsCreated,
+        int alertsSuppressed,
+        Map<RiskLevel, Long> byLevel
+) {
+}
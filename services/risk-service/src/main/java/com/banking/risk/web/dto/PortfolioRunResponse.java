@@ -0,0 +1,22 @@
+package com.banking.risk.web.dto;
+
+import com.banking.risk.domain.RiskLevel;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+public record PortfolioRunResponse(
+        UUID id,
+        String riskType,
+        String status,
+        long entitiesTotal,
+        long entitiesScored,
+        long alertsCreated,
+        long alertsSuppressed,
+        Map<RiskLevel, Long> byLevel,
+        String errorMessage,
+        Instant startedAt,
+        Instant heartbeatAt,
+        Instant completedAt
+) {
+}
@@ -2,6 +2,7 @@ package com.banking.risk.web.dto;
 
 import com.banking.risk.domain.AlertStatus;
 import com.banking.risk.domain.RiskLevel;
+import com.banking.risk.domain.RiskType;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -11,6 +12,9 @@ public record RiskAlertResponse(
         AlertStatus status,
         RiskLevel riskLevel,
         Integer riskScore,
+        RiskType riskType,
+        Integer occurrenceCount,
+        Instant lastOccurredAt,
         UUID customerId,
         UUID accountId,
         String title,
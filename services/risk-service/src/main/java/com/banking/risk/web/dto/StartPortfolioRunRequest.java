@@ -0,0 +1,10 @@
+package com.banking.risk.web.dto;
+
+import com.banking.risk.domain.RiskType;
+import jakarta.validation.constraints.NotNull;
+
+public record StartPortfolioRunRequest(
+        @NotNull(message = "Risk type is required")
+        RiskType riskType
+) {
+}
@@ -0,0 +1,26 @@
+CREATE TABLE IF NOT EXISTS portfolio_runs (
+    id UUID PRIMARY KEY,
+    risk_type VARCHAR(32) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    last_entity_id UUID,
+    entities_total BIGINT NOT NULL DEFAULT 0,
+    entities_scored BIGINT NOT NULL DEFAULT 0,
+    alerts_created BIGINT NOT NULL DEFAULT 0,
+    low_count BIGINT NOT NULL DEFAULT 0,
+    medium_count BIGINT NOT NULL DEFAULT 0,
+    high_count BIGINT NOT NULL DEFAULT 0,
+    critical_count BIGINT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    started_at TIMESTAMPTZ NOT NULL,
+    heartbeat_at TIMESTAMPTZ,
+    completed_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_portfolio_runs_status ON portfolio_runs (status);
+-- One run per risk type at a time
+CREATE UNIQUE INDEX IF NOT EXISTS uq_portfolio_runs_running
+    ON portfolio_runs (risk_type) WHERE status = 'RUNNING';
+
+-- Lets a run walk each entity's latest assessment in entity order
+CREATE INDEX IF NOT EXISTS idx_risk_assessments_type_entity
+    ON risk_assessments (risk_type, entity_id, assessed_at DESC);
@@ -0,0 +1,6 @@
+-- Repeats of an alert within the coalescing window are folded into it
+ALTER TABLE risk_alerts ADD COLUMN IF NOT EXISTS risk_type VARCHAR(32);
+ALTER TABLE risk_alerts ADD COLUMN IF NOT EXISTS occurrence_count INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE risk_alerts ADD COLUMN IF NOT EXISTS last_occurred_at TIMESTAMPTZ;
+
+UPDATE risk_alerts SET last_occurred_at = created_at WHERE last_occurred_at IS NULL;
@@ -0,0 +1,2 @@
+-- Alerts of a run folded into alerts already open instead of opening new ones
+ALTER TABLE portfolio_runs ADD COLUMN IF NOT EXISTS alerts_suppressed BIGINT NOT NULL DEFAULT 0;
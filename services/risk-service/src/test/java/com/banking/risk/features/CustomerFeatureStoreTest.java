@@ -0,0 +1,128 @@
+package com.banking.risk.features;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.risk.service.RiskScoringService.RiskScoringContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CustomerFeatureStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T14:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void contextFor_DecaysRecentActivityAndFlagsUnusualCountryAndHour() {
+        CustomerFeatureStore store = store(NOW);
+        UUID customerId = UUID.randomUUID();
+        // Twenty daytime transactions in Great Britain over the last 10 days
+        for (int i = 0; i < 20; i++) {
+            store.recordActivity(customerId, new BigDecimal("100"), "GB",
+                    NOW.minus(Duration.ofHours(12L * i)).atZone(ZoneOffset.UTC).withHour(14).toInstant());
+        }
+        // and three just now
+        for (int i = 0; i < 3; i++) {
+            store.recordActivity(customerId, new BigDecimal("20000"), "GB", NOW);
+        }
+
+        RiskScoringContext home = store.contextFor(customerId, "gb");
+        assertThat(home.getRecentTransactionCount()).isBetween(5, 7);
+        assertThat(home.getRecentTransactionAmount()).isGreaterThan(new BigDecimal("60000"));
+        assertThat(home.isUnusualLocation()).isFalse();
+        assertThat(home.isUnusualTime()).isFalse();
+        assertThat(home.isNewAccount()).isFalse();
+
+        assertThat(store.contextFor(customerId, "KP").isUnusualLocation()).isTrue();
+    }
+
+    @Test
+    void contextFor_WithoutEnoughHistory_FlagsNothingUnusual() {
+        CustomerFeatureStore store = store(NOW);
+        UUID customerId = UUID.randomUUID();
+        store.recordActivity(customerId, new BigDecimal("50"), "FR", NOW.minus(Duration.ofHours(10)));
+        store.recordAccountOpened(customerId, NOW.minus(Duration.ofDays(2)));
+
+        RiskScoringContext context = store.contextFor(customerId, "KP");
+
+        assertThat(context.isUnusualLocation()).isFalse();
+        assertThat(context.isUnusualTime()).isFalse();
+        assertThat(context.isNewAccount()).isTrue();
+        assertThat(store.contextFor(UUID.randomUUID(), "GB").getRecentTransactionCount()).isZero();
+    }
+
+    @Test
+    void snapshot_RestoresFeaturesOnStartup() {
+        CustomerFeatureStore store = store(NOW);
+        UUID customerId = UUID.randomUUID();
+        for (int i = 0; i < 12; i++) {
+            store.recordActivity(customerId, new BigDecimal("250"), "DE", NOW.minus(Duration.ofMinutes(i)));
+        }
+        store.recordActivity(UUID.randomUUID(), new BigDecimal("1"), null, NOW.minus(Duration.ofDays(400)));
+        store.snapshot();
+
+        CustomerFeatureStore restored = store(NOW);
+        restored.afterSingletonsInstantiated();
+
+        assertThat(restored.size()).isEqualTo(1);
+        RiskScoringContext context = restored.contextFor(customerId, "US");
+        assertThat(context.getRecentTransactionCount()).isEqualTo(12);
+        assertThat(context.getRecentTransactionAmount()).isEqualByComparingTo(
+                store.contextFor(customerId, "US").getRecentTransactionAmount());
+        assertThat(context.isUnusualLocation()).isTrue();
+    }
+
+    @Test
+    void snapshot_RestoresOffsetsTheFeaturesWereBuiltUpTo() {
+        CustomerFeatureStore store = store(NOW);
+        UUID customerId = UUID.randomUUID();
+        store.consumed("transaction-events", 2, 41, () -> store.recordActivity(customerId, BigDecimal.TEN, null, NOW));
+        store.consumed("card-events", 0, 7, () -> { });
+        store.snapshot();
+
+        CustomerFeatureStore restored = store(NOW);
+        restored.afterSingletonsInstantiated();
+
+        assertThat(restored.size()).isEqualTo(1);
+        assertThat(restored.nextOffset("transaction-events", 2)).hasValue(42);
+        assertThat(restored.nextOffset("card-events", 0)).hasValue(8);
+        assertThat(restored.nextOffset("transaction-events", 0)).isEmpty();
+    }
+
+    @Test
+    void recordActivity_WhenFull_DropsTheCustomersActiveLeastRecently() {
+        CustomerFeatureStore store = store(NOW, 10);
+        UUID[] customers = new UUID[10];
+        for (int i = 0; i < customers.length; i++) {
+            customers[i] = UUID.randomUUID();
+            // Customer 3 is the one active longest ago
+            Instant at = NOW.minus(Duration.ofMinutes(i == 3 ? 600 : i));
+            store.recordActivity(customers[i], new BigDecimal("100"), "GB", at);
+        }
+
+        store.recordActivity(UUID.randomUUID(), new BigDecimal("100"), "GB", NOW);
+
+        assertThat(store.size()).isEqualTo(10);
+        assertThat(store.contextFor(customers[3], "GB").getRecentTransactionCount()).isZero();
+        assertThat(store.contextFor(customers[0], "GB").getRecentTransactionCount()).isEqualTo(1);
+    }
+
+    private CustomerFeatureStore store(Instant now) {
+        return store(now, 0);
+    }
+
+    private CustomerFeatureStore store(Instant now, int maxCustomers) {
+        CustomerFeatureProperties properties = new CustomerFeatureProperties(
+                null, null, null, 0, 0, maxCustomers, directory.resolve("features.bin").toString());
+        return new CustomerFeatureStore(properties, Clock.fixed(now, ZoneOffset.UTC), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,133 @@
+package com.banking.risk.messaging;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.banking.risk.features.CustomerFeatureStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerActivityConsumerTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T14:00:00Z");
+
+    @Mock
+    private CustomerFeatureStore featureStore;
+
+    private CustomerActivityConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new CustomerActivityConsumer(featureStore, new ObjectMapper().findAndRegisterModules(),
+                Clock.fixed(NOW, ZoneOffset.UTC), "risk-1", "");
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(3).run();
+            return null;
+        }).when(featureStore).consumed(anyString(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void handleActivityEvent_RecordsTransactionOnceOnItsFirstEvent() {
+        UUID customerId = UUID.randomUUID();
+        String initiated = String.format("""
+                {"eventType":"TRANSACTION_INITIATED","customerId":"%s","amount":250.00,"currency":"EUR",
+                 "timestamp":"2024-03-01T13:59:58Z"}""", customerId);
+        String completed = initiated.replace("TRANSACTION_INITIATED", "TRANSACTION_COMPLETED");
+
+        consumer.handleActivityEvent(record("transaction-events", initiated));
+        consumer.handleActivityEvent(record("transaction-events", completed));
+
+        verify(featureStore).recordActivity(customerId, new BigDecimal("250.00"), null,
+                Instant.parse("2024-03-01T13:59:58Z"));
+    }
+
+    @Test
+    void handleActivityEvent_RecordsAccountOpeningWithEpochSecondsTimestamp() {
+        UUID customerId = UUID.randomUUID();
+
+        consumer.handleActivityEvent(record("account-events", String.format(
+                "{\"eventType\":\"ACCOUNT_CREATED\",\"customerId\":\"%s\",\"occurredAt\":1709301600.5}", customerId)));
+
+        verify(featureStore).recordAccountOpened(customerId, Instant.parse("2024-03-01T14:00:00.5Z"));
+        verify(featureStore, never()).recordActivity(any(), any(), any(), any());
+    }
+
+    @Test
+    void handleActivityEvent_WithUnreadableTimestamp_FallsBackToOccurredAtThenToNow() {
+        UUID customerId = UUID.randomUUID();
+
+        consumer.handleActivityEvent(record("card-events", String.format("""
+                {"eventType":"CARD_AUTHORIZED","customerId":"%s","amount":12,"timestamp":"yesterday",
+                 "occurredAt":"1709301590"}""", customerId)));
+        consumer.handleActivityEvent(record("card-events", String.format("""
+                {"eventType":"CARD_AUTHORIZED","customerId":"%s","amount":13,"timestamp":"yesterday"}""",
+                customerId)));
+
+        verify(featureStore).recordActivity(customerId, new BigDecimal("12"), null,
+                Instant.parse("2024-03-01T13:59:50Z"));
+        verify(featureStore).recordActivity(customerId, new BigDecimal("13"), null, NOW);
+    }
+
+    @Test
+    void constructor_RequiresAStableInstanceId() {
+        assertThatThrownBy(() -> new CustomerActivityConsumer(featureStore, new ObjectMapper(),
+                Clock.fixed(NOW, ZoneOffset.UTC), "", ""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("risk.features.instance-id");
+    }
+
+    @Test
+    void handleActivityEvent_IgnoresEventsWithoutCustomerOrUndecodable() {
+        consumer.handleActivityEvent(record("payment-events",
+                "{\"eventType\":\"PAYMENT_INITIATED\",\"amount\":10,\"fromAccountId\":\"" + UUID.randomUUID() + "\"}"));
+        consumer.handleActivityEvent(record("card-events", "{not json"));
+
+        verify(featureStore).consumed(eq("payment-events"), eq(0), eq(0L), any());
+        verify(featureStore).consumed(eq("card-events"), eq(0), eq(0L), any());
+        verify(featureStore, never()).recordActivity(any(), any(), any(), any());
+        verify(featureStore, never()).recordAccountOpened(any(), any());
+    }
+
+    @Test
+    void onPartitionsAssigned_SeeksPartitionsTheSnapshotCovers() {
+        TopicPartition covered = new TopicPartition("transaction-events", 0);
+        TopicPartition uncovered = new TopicPartition("transaction-events", 1);
+        when(featureStore.nextOffset("transaction-events", 0)).thenReturn(OptionalLong.of(42));
+        when(featureStore.nextOffset("transaction-events", 1)).thenReturn(OptionalLong.empty());
+        ConsumerSeekAware.ConsumerSeekCallback callback = mock(ConsumerSeekAware.ConsumerSeekCallback.class);
+
+        consumer.onPartitionsAssigned(Map.of(covered, 0L, uncovered, 0L), callback);
+
+        verify(callback).seek("transaction-events", 0, 42);
+        verifyNoMoreInteractions(callback);
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, String value) {
+        return new ConsumerRecord<>(topic, 0, 0, null, value);
+    }
+}
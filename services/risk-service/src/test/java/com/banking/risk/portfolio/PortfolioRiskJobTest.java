@@ -0,0 +1,109 @@
+package com.banking.risk.portfolio;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.risk.domain.RiskAssessment;
+import com.banking.risk.domain.RiskLevel;
+import com.banking.risk.service.BatchRiskScoringService;
+import com.banking.risk.service.BatchRiskScoringService.RaisedAlerts;
+import com.banking.risk.service.BatchRiskScoringService.ScoredBatch;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioRiskJobTest {
+
+    private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID THIRD = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private BatchRiskScoringService scoringService;
+
+    private PortfolioRiskJob job;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneId.of("UTC"));
+        job = new PortfolioRiskJob(jdbcTemplate, transactionManager, scoringService, clock, 2, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute_ScoresChunksAndCheckpointsEachBeforePublishing() {
+        PortfolioRun run = new PortfolioRun(UUID.randomUUID(), "CUSTOMER", "RUNNING", null, 3, 0, 0, 0, 0, 0, 0, 0,
+                null, null, null, null);
+        when(jdbcTemplate.query(contains("WHERE risk_type = ?\n"), any(RowMapper.class), eq("CUSTOMER"), eq(2)))
+                .thenReturn(List.of(entity(FIRST), entity(SECOND)));
+        when(jdbcTemplate.query(contains("entity_id > ?"), any(RowMapper.class), eq("CUSTOMER"), eq(SECOND), eq(2)))
+                .thenReturn(List.of(entity(THIRD)));
+        ScoredBatch firstBatch = batch(RiskLevel.LOW, RiskLevel.HIGH);
+        ScoredBatch secondBatch = batch(RiskLevel.CRITICAL);
+        when(scoringService.score(any()))
+                .thenReturn(CompletableFuture.completedFuture(firstBatch))
+                .thenReturn(CompletableFuture.completedFuture(secondBatch));
+        when(scoringService.raiseAlerts(firstBatch)).thenReturn(new RaisedAlerts(1, 0));
+        when(scoringService.raiseAlerts(secondBatch)).thenReturn(new RaisedAlerts(0, 1));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        job.execute(run);
+
+        InOrder order = inOrder(scoringService, jdbcTemplate);
+        order.verify(scoringService).store(firstBatch);
+        order.verify(jdbcTemplate).update(contains("entities_scored = entities_scored + ?"),
+                eq(SECOND), eq(2), eq(1L), eq(0L), eq(1L), eq(0L), any(), eq(run.id()));
+        order.verify(scoringService).publish(firstBatch);
+        order.verify(scoringService).raiseAlerts(firstBatch);
+        order.verify(jdbcTemplate).update(contains("alerts_suppressed = alerts_suppressed + ?"),
+                eq(1), eq(0), eq(run.id()));
+        order.verify(scoringService).store(secondBatch);
+        order.verify(jdbcTemplate).update(contains("entities_scored = entities_scored + ?"),
+                eq(THIRD), eq(1), eq(0L), eq(0L), eq(0L), eq(1L), any(), eq(run.id()));
+        order.verify(scoringService).publish(secondBatch);
+        order.verify(scoringService).raiseAlerts(secondBatch);
+        order.verify(jdbcTemplate).update(contains("alerts_suppressed = alerts_suppressed + ?"),
+                eq(0), eq(1), eq(run.id()));
+        verify(jdbcTemplate).update(contains("status = 'COMPLETED'"), any(), any(), eq(run.id()));
+    }
+
+    private static PortfolioRiskJob.Entity entity(UUID entityId) {
+        return new PortfolioRiskJob.Entity(entityId, UUID.randomUUID(), null, new BigDecimal("100"), "USD");
+    }
+
+    private static ScoredBatch batch(RiskLevel... levels) {
+        List<RiskAssessment> assessments = Arrays.stream(levels).map(level -> {
+            RiskAssessment assessment = new RiskAssessment();
+            assessment.setRiskLevel(level);
+            return assessment;
+        }).toList();
+        return new ScoredBatch(assessments);
+    }
+}
@@ -0,0 +1,166 @@
+package com.banking.risk.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.risk.domain.AlertStatus;
+import com.banking.risk.domain.RiskAlert;
+import com.banking.risk.domain.RiskAssessment;
+import com.banking.risk.domain.RiskLevel;
+import com.banking.risk.domain.RiskType;
+import com.banking.risk.features.CustomerFeatureStore;
+import com.banking.risk.messaging.RiskEventPublisher;
+import com.banking.risk.repository.RiskBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class BatchRiskScoringServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private RiskScoringService scoringService;
+
+    @Mock
+    private CustomerFeatureStore featureStore;
+
+    @Mock
+    private RiskBatchRepository batchRepository;
+
+    @Mock
+    private RiskEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RiskAlertAggregator alertAggregator;
+    private BatchRiskScoringService batchScoringService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(NOW, ZoneId.of("UTC"));
+        alertAggregator = new RiskAlertAggregator(batchRepository, eventPublisher, transactionManager, clock,
+                new SimpleMeterRegistry(), Duration.ofHours(1));
+        batchScoringService = new BatchRiskScoringService(
+                scoringService,
+                featureStore,
+                batchRepository,
+                eventPublisher,
+                alertAggregator,
+                transactionManager,
+                clock,
+                100,
+                4
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchScoringService.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void assessBatch_storesAssessmentsInBulkAndCoalescesTheirAlerts() {
+        // Ten large amounts over five customers, two each
+        List<UUID> customers = IntStream.range(0, 5).mapToObj(i -> UUID.randomUUID()).toList();
+        List<RiskAssessmentInput> inputs = IntStream.range(0, 50)
+                .mapToObj(i -> new RiskAssessmentInput(RiskType.CUSTOMER, UUID.randomUUID(),
+                        i < 10 ? customers.get(i % 5) : UUID.randomUUID(), null,
+                        new BigDecimal(i < 10 ? "20000" : "100"), "USD", "Quarterly review", null))
+                .toList();
+        when(scoringService.calculateRiskScore(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            BigDecimal amount = invocation.getArgument(0);
+            return amount.compareTo(new BigDecimal("10000")) >= 0
+                    ? new RiskScoringService.RiskScoreResult(85, RiskLevel.HIGH, List.of("Large transaction amount"))
+                    : new RiskScoringService.RiskScoreResult(0, RiskLevel.LOW, List.of());
+        });
+
+        BatchAssessmentSummary summary = batchScoringService.assessBatch(inputs);
+
+        assertThat(summary.assessed()).isEqualTo(50);
+        assertThat(summary.alertsCreated()).isEqualTo(5);
+        assertThat(summary.alertsSuppressed()).isEqualTo(5);
+        assertThat(summary.byLevel()).containsEntry(RiskLevel.LOW, 40L).containsEntry(RiskLevel.HIGH, 10L)
+                .containsEntry(RiskLevel.MEDIUM, 0L).containsEntry(RiskLevel.CRITICAL, 0L);
+
+        ArgumentCaptor<List<RiskAssessment>> assessments = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository).insertAssessments(assessments.capture());
+        verify(transactionManager).commit(any());
+        verify(eventPublisher).publishAll(assessments.getValue());
+        // Alerts are written by the aggregator's flush, not with the assessments
+        verify(batchRepository, never()).insertAlerts(any());
+
+        assertThat(assessments.getValue()).extracting(RiskAssessment::getEntityId)
+                .containsExactlyElementsOf(inputs.stream().map(RiskAssessmentInput::entityId).toList());
+        assertThat(assessments.getValue()).allSatisfy(assessment -> {
+            assertThat(assessment.getId()).isNotNull();
+            assertThat(assessment.getAssessedAt()).isEqualTo(NOW);
+            assertThat(assessment.getCreatedAt()).isEqualTo(NOW);
+        });
+
+        alertAggregator.flush();
+
+        ArgumentCaptor<List<RiskAlert>> alerts = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository).insertAlerts(alerts.capture());
+        assertThat(alerts.getValue()).hasSize(5).allSatisfy(alert -> {
+            assertThat(alert.getStatus()).isEqualTo(AlertStatus.OPEN);
+            assertThat(alert.getRiskLevel()).isEqualTo(RiskLevel.HIGH);
+            assertThat(alert.getOccurrenceCount()).isEqualTo(2);
+        });
+        assertThat(alerts.getValue()).extracting(RiskAlert::getCustomerId).containsExactlyInAnyOrderElementsOf(customers);
+        assertThat(alerts.getValue()).extracting(RiskAlert::getRiskAssessmentId)
+                .isSubsetOf(assessments.getValue().stream().map(RiskAssessment::getId).toList());
+    }
+
+    @Test
+    void assessBatch_scoresAgainstCustomerFeatures() {
+        UUID customerId = UUID.randomUUID();
+        RiskScoringService.RiskScoringContext context = new RiskScoringService.RiskScoringContext();
+        when(featureStore.contextFor(customerId, "FR")).thenReturn(context);
+        when(scoringService.calculateRiskScore(any(), any(), eq(customerId), any(), eq(context)))
+                .thenReturn(new RiskScoringService.RiskScoreResult(0, RiskLevel.LOW, List.of()));
+
+        batchScoringService.assessBatch(List.of(new RiskAssessmentInput(
+                RiskType.TRANSACTION, UUID.randomUUID(), customerId, null, BigDecimal.TEN, "EUR", null, "FR")));
+
+        verify(batchRepository, never()).insertAlerts(any());
+    }
+
+    @Test
+    void assessBatch_tooLarge_throwsBadRequest() {
+        List<RiskAssessmentInput> inputs = IntStream.range(0, 101)
+                .mapToObj(i -> new RiskAssessmentInput(RiskType.CUSTOMER, UUID.randomUUID(), null, null, null, null,
+                        null, null))
+                .toList();
+
+        assertThatThrownBy(() -> batchScoringService.assessBatch(inputs))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_REQUEST));
+        verify(batchRepository, never()).insertAssessments(any());
+    }
+}
@@ -0,0 +1,181 @@
+package com.banking.risk.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.banking.risk.domain.AlertStatus;
+import com.banking.risk.domain.RiskAlert;
+import com.banking.risk.domain.RiskAssessment;
+import com.banking.risk.domain.RiskLevel;
+import com.banking.risk.domain.RiskType;
+import com.banking.risk.messaging.RiskEventPublisher;
+import com.banking.risk.repository.RiskBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class RiskAlertAggregatorTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private RiskBatchRepository batchRepository;
+
+    @Mock
+    private RiskEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private RiskAlertAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        meterRegistry = new SimpleMeterRegistry();
+        aggregator = new RiskAlertAggregator(batchRepository, eventPublisher, transactionManager, clock, meterRegistry,
+                Duration.ofHours(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_repeatsWithinWindow_writeOneAlertWithCountAndMaxScore() {
+        UUID customerId = UUID.randomUUID();
+        aggregator.record(assessment(customerId, 65));
+        aggregator.record(assessment(customerId, 72));
+        aggregator.record(assessment(customerId, 68));
+
+        aggregator.flush();
+
+        ArgumentCaptor<List<RiskAlert>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository).insertAlerts(inserted.capture());
+        verify(batchRepository, never()).updateCoalescedAlerts(anyList());
+        assertThat(inserted.getValue()).singleElement().satisfies(alert -> {
+            assertThat(alert.getStatus()).isEqualTo(AlertStatus.OPEN);
+            assertThat(alert.getRiskType()).isEqualTo(RiskType.TRANSACTION);
+            assertThat(alert.getOccurrenceCount()).isEqualTo(3);
+            assertThat(alert.getRiskScore()).isEqualTo(72);
+        });
+        verify(eventPublisher).publishAlertChanges(inserted.getValue(), List.of());
+        assertThat(meterRegistry.counter("risk.alerts.opened").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("risk.alerts.suppressed").count()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_repeatAfterFlush_updatesAlertAndPublishesUpdate() {
+        UUID customerId = UUID.randomUUID();
+        aggregator.record(assessment(customerId, 65));
+        aggregator.flush();
+        when(batchRepository.updateCoalescedAlerts(anyList())).thenReturn(new int[] {1});
+
+        aggregator.record(assessment(customerId, 90));
+        aggregator.flush();
+
+        ArgumentCaptor<List<RiskAlert>> updated = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository).updateCoalescedAlerts(updated.capture());
+        assertThat(updated.getValue()).singleElement().satisfies(alert -> {
+            assertThat(alert.getOccurrenceCount()).isEqualTo(2);
+            assertThat(alert.getRiskScore()).isEqualTo(90);
+        });
+        verify(eventPublisher).publishAlertChanges(List.of(), updated.getValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_afterWindowOrRelease_opensNewAlert() {
+        UUID customerId = UUID.randomUUID();
+        aggregator.record(assessment(customerId, 65));
+        aggregator.flush();
+
+        clock.advance(Duration.ofMinutes(61));
+        aggregator.record(assessment(customerId, 65));
+        aggregator.flush();
+
+        ArgumentCaptor<List<RiskAlert>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, times(2)).insertAlerts(inserted.capture());
+        RiskAlert second = inserted.getAllValues().get(1).get(0);
+        assertThat(second.getId()).isNotEqualTo(inserted.getAllValues().get(0).get(0).getId());
+
+        aggregator.release(second);
+        aggregator.record(assessment(customerId, 65));
+        aggregator.flush();
+
+        verify(batchRepository, times(3)).insertAlerts(anyList());
+        verify(batchRepository, never()).updateCoalescedAlerts(anyList());
+        assertThat(meterRegistry.counter("risk.alerts.opened").count()).isEqualTo(3);
+    }
+
+    @Test
+    void flush_failedWrite_keepsChangesPending() {
+        UUID customerId = UUID.randomUUID();
+        aggregator.record(assessment(customerId, 65));
+        when(transactionManager.getTransaction(any())).thenThrow(new IllegalStateException("database down"));
+
+        aggregator.flush();
+
+        verifyNoInteractions(eventPublisher);
+        assertThat(meterRegistry.counter("risk.alerts.flush.failures").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("risk.alerts.pending-writes").gauge().value()).isEqualTo(1);
+    }
+
+    private RiskAssessment assessment(UUID customerId, int score) {
+        RiskAssessment assessment = new RiskAssessment();
+        assessment.setId(UUID.randomUUID());
+        assessment.setRiskType(RiskType.TRANSACTION);
+        assessment.setEntityId(UUID.randomUUID());
+        assessment.setCustomerId(customerId);
+        assessment.setRiskLevel(RiskLevel.MEDIUM);
+        assessment.setRiskScore(score);
+        assessment.setAssessedAt(clock.instant());
+        return assessment;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
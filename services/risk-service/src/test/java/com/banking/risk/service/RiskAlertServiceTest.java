@@ -3,6 +3,7 @@ package com.banking.risk.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,13 +39,16 @@ class RiskAlertServiceTest {
     @Mock
     private RiskEventPublisher eventPublisher;
 
+    @Mock
+    private RiskAlertAggregator alertAggregator;
+
     private Clock fixedClock;
     private RiskAlertService alertService;
 
     @BeforeEach
     void setUp() {
         fixedClock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneId.of("UTC"));
-        alertService = new RiskAlertService(alertRepository, eventPublisher, fixedClock);
+        alertService = new RiskAlertService(alertRepository, eventPublisher, alertAggregator, fixedClock);
     }
 
     @Test
@@ -103,6 +107,7 @@ class RiskAlertServiceTest {
         assertThat(result.getReviewedAt()).isNotNull();
         assertThat(result.getResolutionNotes()).isEqualTo("Resolved as false positive");
 
+        verify(alertAggregator).release(alert);
         verify(eventPublisher).publishRiskAlertUpdated(any(RiskAlert.class));
     }
 
@@ -128,6 +133,7 @@ class RiskAlertServiceTest {
         assertThat(result.getStatus()).isEqualTo(AlertStatus.UNDER_REVIEW);
         assertThat(result.getReviewedBy()).isNull();
         assertThat(result.getReviewedAt()).isNull();
+        verify(alertAggregator, never()).release(any());
     }
 
     @Test
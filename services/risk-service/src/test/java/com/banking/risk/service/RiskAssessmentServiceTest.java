@@ -3,17 +3,16 @@ package com.banking.risk.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.banking.risk.domain.AlertStatus;
-import com.banking.risk.domain.RiskAlert;
 import com.banking.risk.domain.RiskAssessment;
 import com.banking.risk.domain.RiskLevel;
 import com.banking.risk.domain.RiskType;
+import com.banking.risk.features.CustomerFeatureStore;
 import com.banking.risk.messaging.RiskEventPublisher;
-import com.banking.risk.repository.RiskAlertRepository;
 import com.banking.risk.repository.RiskAssessmentRepository;
 import java.math.BigDecimal;
 import java.time.Clock;
@@ -25,7 +24,6 @@ import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -41,7 +39,7 @@ class RiskAssessmentServiceTest {
     private RiskAssessmentRepository assessmentRepository;
 
     @Mock
-    private RiskAlertRepository alertRepository;
+    private RiskAlertAggregator alertAggregator;
 
     @Mock
     private RiskScoringService scoringService;
@@ -49,6 +47,9 @@ class RiskAssessmentServiceTest {
     @Mock
     private RiskEventPublisher eventPublisher;
 
+    @Mock
+    private CustomerFeatureStore featureStore;
+
     private Clock fixedClock;
     private RiskAssessmentService assessmentService;
 
@@ -57,9 +58,10 @@ class RiskAssessmentServiceTest {
         fixedClock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneId.of("UTC"));
         assessmentService = new RiskAssessmentService(
                 assessmentRepository,
-                alertRepository,
+                alertAggregator,
                 scoringService,
                 eventPublisher,
+                featureStore,
                 fixedClock
         );
     }
@@ -74,8 +76,10 @@ class RiskAssessmentServiceTest {
         RiskScoringService.RiskScoreResult scoreResult = new RiskScoringService.RiskScoreResult(
                 20, RiskLevel.LOW, List.of("Low risk transaction")
         );
+        RiskScoringService.RiskScoringContext context = new RiskScoringService.RiskScoringContext();
 
-        when(scoringService.calculateRiskScore(any(), any(), any(), any(), any()))
+        when(featureStore.contextFor(customerId, "GB")).thenReturn(context);
+        when(scoringService.calculateRiskScore(any(), any(), any(), any(), eq(context)))
                 .thenReturn(scoreResult);
         when(assessmentRepository.save(any(RiskAssessment.class)))
                 .thenAnswer(invocation -> {
@@ -92,7 +96,7 @@ class RiskAssessmentServiceTest {
                 amount,
                 "USD",
                 "Test transaction",
-                null
+                "GB"
         );
 
         assertThat(result).isNotNull();
@@ -102,7 +106,7 @@ class RiskAssessmentServiceTest {
         assertThat(result.getRiskScore()).isEqualTo(20);
 
         verify(assessmentRepository).save(any(RiskAssessment.class));
-        verify(alertRepository, never()).save(any(RiskAlert.class));
+        verify(alertAggregator, never()).record(any());
         verify(eventPublisher).publishRiskAssessment(any(RiskAssessment.class));
     }
 
@@ -125,13 +129,6 @@ class RiskAssessmentServiceTest {
                     assessment.setId(UUID.randomUUID());
                     return assessment;
                 });
-        when(alertRepository.save(any(RiskAlert.class)))
-                .thenAnswer(invocation -> {
-                    RiskAlert alert = invocation.getArgument(0);
-                    alert.setId(UUID.randomUUID());
-                    return alert;
-                });
-
         RiskAssessment result = assessmentService.assessRisk(
                 RiskType.TRANSACTION,
                 entityId,
@@ -146,14 +143,8 @@ class RiskAssessmentServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getRiskLevel()).isEqualTo(RiskLevel.CRITICAL);
 
-        ArgumentCaptor<RiskAlert> alertCaptor = ArgumentCaptor.forClass(RiskAlert.class);
-        verify(alertRepository).save(alertCaptor.capture());
-        RiskAlert alert = alertCaptor.getValue();
-        assertThat(alert.getStatus()).isEqualTo(AlertStatus.OPEN);
-        assertThat(alert.getRiskLevel()).isEqualTo(RiskLevel.CRITICAL);
-        assertThat(alert.getRiskAssessmentId()).isEqualTo(result.getId());
-
-        verify(eventPublisher).publishRiskAlert(any(RiskAlert.class));
+        verify(alertAggregator).record(result);
+        verify(eventPublisher).publishRiskAssessment(result);
     }
 
     @Test
@@ -11,6 +11,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.banking.risk.domain.AlertStatus;
 import com.banking.risk.domain.RiskAlert;
 import com.banking.risk.domain.RiskLevel;
+import com.banking.risk.domain.RiskType;
 import com.banking.risk.service.RiskAlertService;
 import com.banking.risk.web.dto.PageResponse;
 import com.banking.risk.web.dto.RiskAlertResponse;
@@ -89,6 +90,9 @@ class RiskAlertControllerTest {
                 AlertStatus.OPEN,
                 RiskLevel.HIGH,
                 75,
+                RiskType.TRANSACTION,
+                1,
+                Instant.now(),
                 customerId,
                 null,
                 "Test Alert",
@@ -122,6 +126,9 @@ class RiskAlertControllerTest {
                 AlertStatus.OPEN,
                 RiskLevel.HIGH,
                 75,
+                RiskType.TRANSACTION,
+                1,
+                Instant.now(),
                 customerId,
                 null,
                 "Test Alert",
@@ -174,6 +181,9 @@ class RiskAlertControllerTest {
                 AlertStatus.RESOLVED,
                 RiskLevel.HIGH,
                 75,
+                RiskType.TRANSACTION,
+                1,
+                Instant.now(),
                 customerId,
                 null,
                 "Test Alert",
@@ -2,6 +2,7 @@ package com.banking.risk.web;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -11,8 +12,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.banking.risk.domain.RiskAssessment;
 import com.banking.risk.domain.RiskLevel;
 import com.banking.risk.domain.RiskType;
+import com.banking.risk.service.BatchRiskScoringService;
 import com.banking.risk.service.RiskAssessmentService;
 import com.banking.risk.web.dto.AssessRiskRequest;
+import com.banking.risk.web.dto.BatchAssessRiskRequest;
 import com.banking.risk.web.dto.PageResponse;
 import com.banking.risk.web.dto.RiskAssessmentResponse;
 import com.banking.risk.config.RequestLoggingFilter;
@@ -57,6 +60,9 @@ class RiskAssessmentControllerTest {
     @MockBean
     private RiskAssessmentService assessmentService;
 
+    @MockBean
+    private BatchRiskScoringService batchScoringService;
+
     @MockBean
     private RiskMapper mapper;
 
@@ -86,7 +92,8 @@ class RiskAssessmentControllerTest {
                 null,
                 new BigDecimal("1000"),
                 "USD",
-                "Test transaction"
+                "Test transaction",
+                "GB"
         );
 
         RiskAssessment assessment = new RiskAssessment();
@@ -127,6 +134,16 @@ class RiskAssessmentControllerTest {
                 .andExpect(jsonPath("$.riskLevel").value("LOW"));
     }
 
+    @Test
+    void assessRiskBatch_emptyBatch_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/risk/assessments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchAssessRiskRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(batchScoringService);
+    }
+
     @Test
     void getAssessment_exists_returnsOk() throws Exception {
         RiskAssessment assessment = new RiskAssessment();
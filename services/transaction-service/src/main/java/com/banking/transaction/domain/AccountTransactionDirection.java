@@ -0,0 +1,7 @@
+package com.banking.transaction.domain;
+
+public enum AccountTransactionDirection {
+    OUTGOING,
+    INCOMING,
+    INTERNAL
+}
@@ -0,0 +1,106 @@
+package com.banking.transaction.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * One row per (account, transaction) so per-account history can be paged by keyset
+ * on {@code (account_id, initiated_at, transaction_id)}. Rows are written once, together
+ * with the transaction, and never updated. The id is assigned, so entries report themselves as
+ * new until persisted or loaded; otherwise {@code save} would merge, reading each row first.
+ */
+@Entity
+@Table(name = "account_transaction_index")
+public class AccountTransactionIndexEntry implements Persistable<AccountTransactionIndexId> {
+
+    @EmbeddedId
+    private AccountTransactionIndexId id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false, length = 16)
+    private AccountTransactionDirection direction;
+
+    @Column(name = "initiated_at", nullable = false)
+    private Instant initiatedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected AccountTransactionIndexEntry() {
+    }
+
+    public AccountTransactionIndexEntry(
+            UUID accountId,
+            UUID transactionId,
+            AccountTransactionDirection direction,
+            Instant initiatedAt
+    ) {
+        this.id = new AccountTransactionIndexId(accountId, transactionId);
+        this.direction = direction;
+        this.initiatedAt = initiatedAt;
+    }
+
+    public static List<AccountTransactionIndexEntry> forTransaction(Transaction transaction) {
+        UUID from = transaction.getFromAccountId();
+        UUID to = transaction.getToAccountId();
+        List<AccountTransactionIndexEntry> entries = new ArrayList<>(2);
+        if (from != null && from.equals(to)) {
+            entries.add(new AccountTransactionIndexEntry(
+                    from, transaction.getId(), AccountTransactionDirection.INTERNAL, transaction.getInitiatedAt()));
+            return entries;
+        }
+        if (from != null) {
+            entries.add(new AccountTransactionIndexEntry(
+                    from, transaction.getId(), AccountTransactionDirection.OUTGOING, transaction.getInitiatedAt()));
+        }
+        if (to != null) {
+            entries.add(new AccountTransactionIndexEntry(
+                    to, transaction.getId(), AccountTransactionDirection.INCOMING, transaction.getInitiatedAt()));
+        }
+        return entries;
+    }
+
+    @Override
+    public AccountTransactionIndexId getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    public UUID getAccountId() {
+        return id.getAccountId();
+    }
+
+    public UUID getTransactionId() {
+        return id.getTransactionId();
+    }
+
+    public AccountTransactionDirection getDirection() {
+        return direction;
+    }
+
+    public Instant getInitiatedAt() {
+        return initiatedAt;
+    }
+}
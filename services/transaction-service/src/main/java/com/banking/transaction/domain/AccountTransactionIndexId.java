@@ -0,0 +1,51 @@
+package com.banking.transaction.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class AccountTransactionIndexId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private UUID transactionId;
+
+    protected AccountTransactionIndexId() {
+    }
+
+    public AccountTransactionIndexId(UUID accountId, UUID transactionId) {
+        this.accountId = accountId;
+        this.transactionId = transactionId;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AccountTransactionIndexId that)) {
+            return false;
+        }
+        return Objects.equals(accountId, that.accountId) && Objects.equals(transactionId, that.transactionId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId, transactionId);
+    }
+}
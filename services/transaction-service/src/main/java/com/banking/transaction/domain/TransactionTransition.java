@@ -0,0 +1,41 @@
+package com.banking.transaction.domain;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Allowed lifecycle transitions. Each transition is applied as a single guarded
+ * {@code UPDATE ... WHERE status IN (...)}, so the source states here are the state machine.
+ */
+public enum TransactionTransition {
+    PROCESS(EnumSet.of(TransactionStatus.PENDING), TransactionStatus.PROCESSING),
+    COMPLETE(EnumSet.of(TransactionStatus.PROCESSING), TransactionStatus.COMPLETED),
+    FAIL(EnumSet.complementOf(EnumSet.of(TransactionStatus.COMPLETED, TransactionStatus.REVERSED)), TransactionStatus.FAILED),
+    CANCEL(EnumSet.of(TransactionStatus.PENDING), TransactionStatus.CANCELLED),
+    REVERSE(EnumSet.of(TransactionStatus.COMPLETED), TransactionStatus.REVERSED);
+
+    private final Set<TransactionStatus> fromStatuses;
+    private final TransactionStatus targetStatus;
+
+    TransactionTransition(Set<TransactionStatus> fromStatuses, TransactionStatus targetStatus) {
+        this.fromStatuses = fromStatuses;
+        this.targetStatus = targetStatus;
+    }
+
+    public Set<TransactionStatus> getFromStatuses() {
+        return fromStatuses;
+    }
+
+    public TransactionStatus getTargetStatus() {
+        return targetStatus;
+    }
+
+    public boolean requiresReason() {
+        return this == FAIL || this == REVERSE;
+    }
+
+    public List<String> fromStatusNames() {
+        return fromStatuses.stream().map(Enum::name).toList();
+    }
+}
@@ -1,10 +1,12 @@
 package com.banking.transaction.messaging;
 
 import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.domain.TransactionTransition;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -54,6 +56,28 @@ public class TransactionEventPublisher {
         publishEvent(createEvent("TRANSACTION_REVERSED", transaction));
     }
 
+    /**
+     * Publishes one event per transitioned transaction, handing the whole batch to the
+     * producer before flushing once instead of waiting on each send.
+     */
+    public void publishTransitions(TransactionTransition transition, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        String eventType = switch (transition) {
+            case PROCESS -> "TRANSACTION_PROCESSING";
+            case COMPLETE -> "TRANSACTION_COMPLETED";
+            case FAIL -> "TRANSACTION_FAILED";
+            case CANCEL -> "TRANSACTION_CANCELLED";
+            case REVERSE -> "TRANSACTION_REVERSED";
+        };
+        for (Transaction transaction : transactions) {
+            publishEvent(createEvent(eventType, transaction));
+        }
+        kafkaTemplate.flush();
+        log.debug("Published {} {} events", transactions.size(), eventType);
+    }
+
     private TransactionEvent createEvent(String eventType, Transaction transaction) {
         return new TransactionEvent(
                 eventType,
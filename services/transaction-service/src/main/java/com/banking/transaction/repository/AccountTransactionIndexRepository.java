@@ -0,0 +1,36 @@
+package com.banking.transaction.repository;
+
+import com.banking.transaction.domain.AccountTransactionIndexEntry;
+import com.banking.transaction.domain.AccountTransactionIndexId;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AccountTransactionIndexRepository
+        extends JpaRepository<AccountTransactionIndexEntry, AccountTransactionIndexId> {
+
+    @Query("""
+            SELECT e FROM AccountTransactionIndexEntry e
+            WHERE e.id.accountId = :accountId
+            ORDER BY e.initiatedAt DESC, e.id.transactionId DESC
+            """)
+    List<AccountTransactionIndexEntry> findLatest(@Param("accountId") UUID accountId, Pageable pageable);
+
+    @Query("""
+            SELECT e FROM AccountTransactionIndexEntry e
+            WHERE e.id.accountId = :accountId
+              AND (e.initiatedAt < :initiatedAt
+                   OR (e.initiatedAt = :initiatedAt AND e.id.transactionId < :transactionId))
+            ORDER BY e.initiatedAt DESC, e.id.transactionId DESC
+            """)
+    List<AccountTransactionIndexEntry> findBefore(
+            @Param("accountId") UUID accountId,
+            @Param("initiatedAt") Instant initiatedAt,
+            @Param("transactionId") UUID transactionId,
+            Pageable pageable
+    );
+}
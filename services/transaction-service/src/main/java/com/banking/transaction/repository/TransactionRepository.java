@@ -3,6 +3,9 @@ package com.banking.transaction.repository;
 import com.banking.transaction.domain.Transaction;
 import com.banking.transaction.domain.TransactionStatus;
 import com.banking.transaction.domain.TransactionType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
@@ -25,7 +28,42 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
 
     Page<Transaction> findByToAccountId(UUID toAccountId, Pageable pageable);
 
-    @Query("SELECT t FROM Transaction t WHERE t.fromAccountId = :accountId OR t.toAccountId = :accountId")
-    Page<Transaction> findByAccountId(@Param("accountId") UUID accountId, Pageable pageable);
-}
+    /**
+     * Moves every listed transaction currently in one of {@code fromStatuses} to {@code toStatus}
+     * in one statement and returns the rows that actually transitioned. Must run inside the
+     * caller's transaction.
+     */
+    @Query(value = """
+            UPDATE transactions
+            SET status = :toStatus,
+                completed_at = CASE WHEN :toStatus = 'COMPLETED' THEN :now ELSE completed_at END,
+                updated_at = :now
+            WHERE id IN (:ids) AND status IN (:fromStatuses)
+            RETURNING *
+            """, nativeQuery = true)
+    List<Transaction> transitionStatus(
+            @Param("ids") Collection<UUID> ids,
+            @Param("fromStatuses") Collection<String> fromStatuses,
+            @Param("toStatus") String toStatus,
+            @Param("now") Instant now
+    );
 
+    /**
+     * Same as {@link #transitionStatus} but also records {@code reason} as the failure reason.
+     */
+    @Query(value = """
+            UPDATE transactions
+            SET status = :toStatus,
+                failure_reason = :reason,
+                updated_at = :now
+            WHERE id IN (:ids) AND status IN (:fromStatuses)
+            RETURNING *
+            """, nativeQuery = true)
+    List<Transaction> transitionStatusWithReason(
+            @Param("ids") Collection<UUID> ids,
+            @Param("fromStatuses") Collection<String> fromStatuses,
+            @Param("toStatus") String toStatus,
+            @Param("reason") String reason,
+            @Param("now") Instant now
+    );
+}
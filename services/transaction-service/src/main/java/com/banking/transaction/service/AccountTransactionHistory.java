@@ -0,0 +1,14 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.domain.AccountTransactionDirection;
+import com.banking.transaction.domain.Transaction;
+import java.util.List;
+
+/**
+ * One keyset page of an account's transactions, newest first. {@code nextCursor} is null on the last page.
+ */
+public record AccountTransactionHistory(List<Item> items, AccountHistoryCursor nextCursor) {
+
+    public record Item(AccountTransactionDirection direction, Transaction transaction) {
+    }
+}
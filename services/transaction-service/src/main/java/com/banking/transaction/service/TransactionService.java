@@ -1,15 +1,25 @@
 package com.banking.transaction.service;
 
+import com.banking.transaction.domain.AccountTransactionIndexEntry;
 import com.banking.transaction.domain.Transaction;
 import com.banking.transaction.domain.TransactionStatus;
+import com.banking.transaction.domain.TransactionTransition;
 import com.banking.transaction.domain.TransactionType;
 import com.banking.transaction.messaging.TransactionEventPublisher;
+import com.banking.transaction.repository.AccountTransactionIndexRepository;
 import com.banking.transaction.repository.TransactionRepository;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -19,16 +29,21 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 public class TransactionService {
 
+    static final int MAX_HISTORY_PAGE_SIZE = 200;
+
     private final TransactionRepository transactionRepository;
+    private final AccountTransactionIndexRepository accountIndexRepository;
     private final TransactionEventPublisher eventPublisher;
     private final Clock clock;
 
     public TransactionService(
             TransactionRepository transactionRepository,
+            AccountTransactionIndexRepository accountIndexRepository,
             TransactionEventPublisher eventPublisher,
             Clock clock
     ) {
         this.transactionRepository = transactionRepository;
+        this.accountIndexRepository = accountIndexRepository;
         this.eventPublisher = eventPublisher;
         this.clock = clock;
     }
@@ -68,6 +83,7 @@ public class TransactionService {
         transaction.setInitiatedAt(Instant.now(clock));
 
         Transaction saved = transactionRepository.save(transaction);
+        accountIndexRepository.saveAll(AccountTransactionIndexEntry.forTransaction(saved));
         eventPublisher.publishTransactionInitiated(saved);
 
         return saved;
@@ -75,99 +91,56 @@ public class TransactionService {
 
     @Transactional
     public Transaction processTransaction(UUID transactionId) {
-        Transaction transaction = getTransaction(transactionId);
-
-        if (transaction.getStatus() != TransactionStatus.PENDING) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Transaction is not in PENDING status: " + transaction.getStatus()
-            );
-        }
-
-        transaction.setStatus(TransactionStatus.PROCESSING);
-        Transaction updated = transactionRepository.save(transaction);
-
+        Transaction updated = transition(transactionId, TransactionTransition.PROCESS, null);
         eventPublisher.publishTransactionProcessing(updated);
-
         return updated;
     }
 
     @Transactional
     public Transaction completeTransaction(UUID transactionId) {
-        Transaction transaction = getTransaction(transactionId);
-
-        if (transaction.getStatus() != TransactionStatus.PROCESSING) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Transaction is not in PROCESSING status: " + transaction.getStatus()
-            );
-        }
-
-        transaction.setStatus(TransactionStatus.COMPLETED);
-        transaction.setCompletedAt(Instant.now(clock));
-        Transaction updated = transactionRepository.save(transaction);
-
+        Transaction updated = transition(transactionId, TransactionTransition.COMPLETE, null);
         eventPublisher.publishTransactionCompleted(updated);
-
         return updated;
     }
 
     @Transactional
     public Transaction failTransaction(UUID transactionId, String failureReason) {
-        Transaction transaction = getTransaction(transactionId);
-
-        if (transaction.getStatus() == TransactionStatus.COMPLETED || transaction.getStatus() == TransactionStatus.REVERSED) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Cannot fail transaction in status: " + transaction.getStatus()
-            );
-        }
-
-        transaction.setStatus(TransactionStatus.FAILED);
-        transaction.setFailureReason(failureReason);
-        Transaction updated = transactionRepository.save(transaction);
-
+        Transaction updated = transition(transactionId, TransactionTransition.FAIL, failureReason);
         eventPublisher.publishTransactionFailed(updated);
-
         return updated;
     }
 
     @Transactional
     public Transaction cancelTransaction(UUID transactionId) {
-        Transaction transaction = getTransaction(transactionId);
-
-        if (transaction.getStatus() != TransactionStatus.PENDING) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Only PENDING transactions can be cancelled"
-            );
-        }
-
-        transaction.setStatus(TransactionStatus.CANCELLED);
-        Transaction updated = transactionRepository.save(transaction);
-
+        Transaction updated = transition(transactionId, TransactionTransition.CANCEL, null);
         eventPublisher.publishTransactionCancelled(updated);
-
         return updated;
     }
 
     @Transactional
     public Transaction reverseTransaction(UUID transactionId, String reason) {
-        Transaction transaction = getTransaction(transactionId);
+        Transaction updated = transition(transactionId, TransactionTransition.REVERSE, reason);
+        eventPublisher.publishTransactionReversed(updated);
+        return updated;
+    }
 
-        if (transaction.getStatus() != TransactionStatus.COMPLETED) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Only COMPLETED transactions can be reversed"
-            );
+    /**
+     * Applies one transition to many transactions in a single statement. Transactions that
+     * are missing or not in an allowed source status are skipped rather than failing the batch.
+     */
+    @Transactional
+    public List<Transaction> transitionTransactions(
+            TransactionTransition transition,
+            Collection<UUID> transactionIds,
+            String reason
+    ) {
+        requireReason(transition, reason);
+        if (transactionIds.isEmpty()) {
+            return List.of();
         }
 
-        transaction.setStatus(TransactionStatus.REVERSED);
-        transaction.setFailureReason(reason);
-        Transaction updated = transactionRepository.save(transaction);
-
-        eventPublisher.publishTransactionReversed(updated);
-
+        List<Transaction> updated = applyTransition(new LinkedHashSet<>(transactionIds), transition, reason);
+        eventPublisher.publishTransitions(transition, updated);
         return updated;
     }
 
@@ -199,8 +172,75 @@ public class TransactionService {
         return transactionRepository.findByCustomerId(customerId, pageable);
     }
 
-    public Page<Transaction> getTransactionsByAccount(UUID accountId, Pageable pageable) {
-        return transactionRepository.findByAccountId(accountId, pageable);
+    /**
+     * Reads one page of an account's history from the per-account projection, then loads
+     * the page's transactions by primary key. Cost depends on the page size only.
+     */
+    @Transactional(readOnly = true)
+    public AccountTransactionHistory getAccountHistory(UUID accountId, AccountHistoryCursor cursor, int size) {
+        Pageable limit = PageRequest.of(0, Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE)));
+        List<AccountTransactionIndexEntry> entries = cursor == null
+                ? accountIndexRepository.findLatest(accountId, limit)
+                : accountIndexRepository.findBefore(accountId, cursor.initiatedAt(), cursor.transactionId(), limit);
+        if (entries.isEmpty()) {
+            return new AccountTransactionHistory(List.of(), null);
+        }
+
+        Map<UUID, Transaction> transactions = transactionRepository.findAllById(
+                        entries.stream().map(AccountTransactionIndexEntry::getTransactionId).toList()
+                ).stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+        List<AccountTransactionHistory.Item> items = entries.stream()
+                .filter(entry -> transactions.containsKey(entry.getTransactionId()))
+                .map(entry -> new AccountTransactionHistory.Item(
+                        entry.getDirection(), transactions.get(entry.getTransactionId())))
+                .toList();
+
+        AccountTransactionIndexEntry last = entries.get(entries.size() - 1);
+        AccountHistoryCursor nextCursor = entries.size() < limit.getPageSize()
+                ? null
+                : new AccountHistoryCursor(last.getInitiatedAt(), last.getTransactionId());
+        return new AccountTransactionHistory(items, nextCursor);
+    }
+
+    private Transaction transition(UUID transactionId, TransactionTransition transition, String reason) {
+        requireReason(transition, reason);
+        List<Transaction> updated = applyTransition(List.of(transactionId), transition, reason);
+        if (!updated.isEmpty()) {
+            return updated.get(0);
+        }
+        // Guard rejected the update; read the row only to report why
+        Transaction current = getTransaction(transactionId);
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, rejectionMessage(transition, current.getStatus()));
+    }
+
+    private static void requireReason(TransactionTransition transition, String reason) {
+        if (transition.requiresReason() && (reason == null || reason.isBlank())) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Reason is required for " + transition + " transitions"
+            );
+        }
+    }
+
+    private List<Transaction> applyTransition(Collection<UUID> ids, TransactionTransition transition, String reason) {
+        Instant now = Instant.now(clock);
+        String toStatus = transition.getTargetStatus().name();
+        if (transition.requiresReason()) {
+            return transactionRepository.transitionStatusWithReason(
+                    ids, transition.fromStatusNames(), toStatus, reason, now);
+        }
+        return transactionRepository.transitionStatus(ids, transition.fromStatusNames(), toStatus, now);
+    }
+
+    private String rejectionMessage(TransactionTransition transition, TransactionStatus status) {
+        return switch (transition) {
+            case PROCESS -> "Transaction is not in PENDING status: " + status;
+            case COMPLETE -> "Transaction is not in PROCESSING status: " + status;
+            case FAIL -> "Cannot fail transaction in status: " + status;
+            case CANCEL -> "Only PENDING transactions can be cancelled";
+            case REVERSE -> "Only COMPLETED transactions can be reversed";
+        };
     }
 
     private String generateReferenceId() {
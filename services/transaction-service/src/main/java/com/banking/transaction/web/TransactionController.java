@@ -3,14 +3,22 @@ package com.banking.transaction.web;
 import com.banking.transaction.domain.Transaction;
 import com.banking.transaction.domain.TransactionStatus;
 import com.banking.transaction.domain.TransactionType;
+import com.banking.transaction.service.AccountHistoryCursor;
 import com.banking.transaction.service.TransactionService;
+import com.banking.transaction.web.dto.AccountTransactionHistoryResponse;
+import com.banking.transaction.web.dto.BatchTransitionRequest;
+import com.banking.transaction.web.dto.BatchTransitionResponse;
 import com.banking.transaction.web.dto.FailTransactionRequest;
 import com.banking.transaction.web.dto.PageResponse;
 import com.banking.transaction.web.dto.ReverseTransactionRequest;
 import com.banking.transaction.web.dto.TransactionResponse;
 import com.banking.transaction.web.dto.CreateTransactionRequest;
 import jakarta.validation.Valid;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -25,6 +33,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -93,9 +102,10 @@ public class TransactionController {
             );
         }
         if (accountId != null) {
-            return mapper.toPageResponse(
-                    transactionService.getTransactionsByAccount(accountId, pageable)
-                            .map(mapper::toResponse)
+            // Offset paging over an account's history degrades with depth; it is paged by cursor
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Page an account's transactions with GET /api/transactions/accounts/" + accountId + "/history"
             );
         }
         // Default: return empty page (could be enhanced to return all transactions)
@@ -104,6 +114,16 @@ public class TransactionController {
         );
     }
 
+    @GetMapping("/accounts/{accountId}/history")
+    public AccountTransactionHistoryResponse getAccountHistory(
+            @PathVariable UUID accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        AccountHistoryCursor position = cursor != null ? AccountHistoryCursor.parse(cursor) : null;
+        return mapper.toResponse(transactionService.getAccountHistory(accountId, position, size));
+    }
+
     @PutMapping("/{id}/process")
     public TransactionResponse processTransaction(@PathVariable UUID id) {
         Transaction transaction = transactionService.processTransaction(id);
@@ -131,6 +151,28 @@ public class TransactionController {
         return mapper.toResponse(transaction);
     }
 
+    @PostMapping("/batch-transitions")
+    public BatchTransitionResponse transitionTransactions(@Valid @RequestBody BatchTransitionRequest request) {
+        List<UUID> requestedIds = request.transactionIds().stream().distinct().toList();
+        Set<UUID> transitionedIds = transactionService.transitionTransactions(
+                        request.transition(),
+                        requestedIds,
+                        request.reason()
+                ).stream()
+                .map(Transaction::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<UUID> skippedIds = requestedIds.stream()
+                .filter(id -> !transitionedIds.contains(id))
+                .toList();
+        return new BatchTransitionResponse(
+                request.transition(),
+                requestedIds.size(),
+                transitionedIds.size(),
+                List.copyOf(transitionedIds),
+                skippedIds
+        );
+    }
+
     @PutMapping("/{id}/reverse")
     public TransactionResponse reverseTransaction(
             @PathVariable UUID id,
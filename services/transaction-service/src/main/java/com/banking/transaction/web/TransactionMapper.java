@@ -1,6 +1,9 @@
 package com.banking.transaction.web;
 
 import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.AccountTransactionHistory;
+import com.banking.transaction.web.dto.AccountTransactionHistoryResponse;
+import com.banking.transaction.web.dto.AccountTransactionResponse;
 import com.banking.transaction.web.dto.TransactionResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
@@ -28,6 +31,15 @@ public class TransactionMapper {
         );
     }
 
+    public AccountTransactionHistoryResponse toResponse(AccountTransactionHistory history) {
+        return new AccountTransactionHistoryResponse(
+                history.items().stream()
+                        .map(item -> new AccountTransactionResponse(item.direction(), toResponse(item.transaction())))
+                        .toList(),
+                history.nextCursor() != null ? history.nextCursor().format() : null
+        );
+    }
+
     public <T> com.banking.transaction.web.dto.PageResponse<T> toPageResponse(Page<T> page) {
         return new com.banking.transaction.web.dto.PageResponse<>(
                 page.getContent(),
@@ -0,0 +1,9 @@
+package com.banking.transaction.web.dto;
+
+import java.util.List;
+
+public record AccountTransactionHistoryResponse(
+        List<AccountTransactionResponse> items,
+        String nextCursor
+) {
+}
@@ -0,0 +1,9 @@
+package com.banking.transaction.web.dto;
+
+import com.banking.transaction.domain.AccountTransactionDirection;
+
+public record AccountTransactionResponse(
+        AccountTransactionDirection direction,
+        TransactionResponse transaction
+) {
+}
@@ -0,0 +1,21 @@
+package com.banking.transaction.web.dto;
+
+import com.banking.transaction.domain.TransactionTransition;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+public record BatchTransitionRequest(
+        @NotNull(message = "Transition is required")
+        TransactionTransition transition,
+
+        @NotEmpty(message = "At least one transaction ID is required")
+        @Size(max = 10000, message = "At most 10000 transactions can be transitioned per batch")
+        List<@NotNull UUID> transactionIds,
+
+        @Size(max = 1000, message = "Reason must not exceed 1000 characters")
+        String reason
+) {
+}
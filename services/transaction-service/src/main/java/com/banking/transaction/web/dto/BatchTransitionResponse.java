@@ -0,0 +1,14 @@
+package com.banking.transaction.web.dto;
+
+import com.banking.transaction.domain.TransactionTransition;
+import java.util.List;
+import java.util.UUID;
+
+public record BatchTransitionResponse(
+        TransactionTransition transition,
+        int requested,
+        int transitioned,
+        List<UUID> transitionedIds,
+        List<UUID> skippedIds
+) {
+}
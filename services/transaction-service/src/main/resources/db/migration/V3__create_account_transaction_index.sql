@@ -0,0 +1,22 @@
+-- Per-account projection of transactions so account history is served from a single
+-- (account_id, initiated_at, transaction_id) index instead of an OR across two columns.
+CREATE TABLE account_transaction_index (
+    account_id UUID NOT NULL,
+    transaction_id UUID NOT NULL REFERENCES transactions(id),
+    direction VARCHAR(16) NOT NULL,
+    initiated_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (account_id, transaction_id)
+);
+
+CREATE INDEX idx_account_transaction_index_history
+    ON account_transaction_index(account_id, initiated_at DESC, transaction_id DESC) INCLUDE (direction);
+
+INSERT INTO account_transaction_index (account_id, transaction_id, direction, initiated_at)
+SELECT from_account_id, id, CASE WHEN from_account_id = to_account_id THEN 'INTERNAL' ELSE 'OUTGOING' END, initiated_at
+FROM transactions
+WHERE from_account_id IS NOT NULL
+UNION ALL
+SELECT to_account_id, id, 'INCOMING', initiated_at
+FROM transactions
+WHERE to_account_id IS NOT NULL
+  AND (from_account_id IS NULL OR from_account_id <> to_account_id);
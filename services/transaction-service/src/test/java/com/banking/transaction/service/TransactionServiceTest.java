@@ -2,20 +2,32 @@ package com.banking.transaction.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.banking.transaction.domain.AccountTransactionDirection;
+import com.banking.transaction.domain.AccountTransactionIndexEntry;
 import com.banking.transaction.domain.Transaction;
 import com.banking.transaction.domain.TransactionStatus;
+import com.banking.transaction.domain.TransactionTransition;
 import com.banking.transaction.domain.TransactionType;
 import com.banking.transaction.messaging.TransactionEventPublisher;
+import com.banking.transaction.repository.AccountTransactionIndexRepository;
 import com.banking.transaction.repository.TransactionRepository;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -35,6 +47,9 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private AccountTransactionIndexRepository accountIndexRepository;
+
     @Mock
     private TransactionEventPublisher eventPublisher;
 
@@ -44,7 +59,7 @@ class TransactionServiceTest {
     @BeforeEach
     void setUp() {
         fixedClock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneId.of("UTC"));
-        transactionService = new TransactionService(transactionRepository, eventPublisher, fixedClock);
+        transactionService = new TransactionService(transactionRepository, accountIndexRepository, eventPublisher, fixedClock);
     }
 
     @Test
@@ -79,9 +94,43 @@ class TransactionServiceTest {
         assertThat(result.getCustomerId()).isEqualTo(customerId);
 
         verify(transactionRepository).save(any(Transaction.class));
+        verify(accountIndexRepository).saveAll(anyList());
         verify(eventPublisher).publishTransactionInitiated(any(Transaction.class));
     }
 
+    @Test
+    void getAccountHistory_readsProjectionByKeysetAndReturnsNextCursor() {
+        UUID accountId = UUID.randomUUID();
+        UUID newer = UUID.randomUUID();
+        UUID older = UUID.randomUUID();
+        Instant cursorTime = Instant.parse("2024-01-02T00:00:00Z");
+        List<AccountTransactionIndexEntry> entries = List.of(
+                new AccountTransactionIndexEntry(accountId, newer, AccountTransactionDirection.OUTGOING, Instant.parse("2024-01-01T12:00:00Z")),
+                new AccountTransactionIndexEntry(accountId, older, AccountTransactionDirection.INCOMING, Instant.parse("2024-01-01T06:00:00Z"))
+        );
+
+        when(accountIndexRepository.findBefore(accountId, cursorTime, newer, PageRequest.of(0, 2)))
+                .thenReturn(entries);
+        when(transactionRepository.findAllById(List.of(newer, older)))
+                .thenReturn(List.of(
+                        transactionWithStatus(older, TransactionStatus.COMPLETED),
+                        transactionWithStatus(newer, TransactionStatus.PENDING)
+                ));
+
+        AccountTransactionHistory history = transactionService.getAccountHistory(
+                accountId, new AccountHistoryCursor(cursorTime, newer), 2);
+
+        assertThat(history.items())
+                .extracting(item -> item.transaction().getId(), AccountTransactionHistory.Item::direction)
+                .containsExactly(
+                        tuple(newer, AccountTransactionDirection.OUTGOING),
+                        tuple(older, AccountTransactionDirection.INCOMING)
+                );
+        assertThat(history.nextCursor())
+                .isEqualTo(new AccountHistoryCursor(Instant.parse("2024-01-01T06:00:00Z"), older));
+        assertThat(AccountHistoryCursor.parse(history.nextCursor().format())).isEqualTo(history.nextCursor());
+    }
+
     @Test
     void createTransaction_duplicateReferenceId_throwsException() {
         String referenceId = "REF-123";
@@ -108,32 +157,43 @@ class TransactionServiceTest {
     @Test
     void processTransaction_updatesStatus() {
         UUID transactionId = UUID.randomUUID();
-        Transaction transaction = new Transaction();
-        transaction.setId(transactionId);
-        transaction.setStatus(TransactionStatus.PENDING);
+        Transaction transaction = transactionWithStatus(transactionId, TransactionStatus.PROCESSING);
 
-        when(transactionRepository.findById(transactionId))
-                .thenReturn(Optional.of(transaction));
-        when(transactionRepository.save(any(Transaction.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionRepository.transitionStatus(
+                eq(List.of(transactionId)), eq(List.of("PENDING")), eq("PROCESSING"), any(Instant.class)))
+                .thenReturn(List.of(transaction));
 
         Transaction result = transactionService.processTransaction(transactionId);
 
         assertThat(result.getStatus()).isEqualTo(TransactionStatus.PROCESSING);
+        verify(transactionRepository, never()).save(any(Transaction.class));
         verify(eventPublisher).publishTransactionProcessing(any(Transaction.class));
     }
 
     @Test
-    void completeTransaction_updatesStatusAndSetsCompletedAt() {
+    void processTransaction_guardRejects_throwsBadRequestWithCurrentStatus() {
         UUID transactionId = UUID.randomUUID();
-        Transaction transaction = new Transaction();
-        transaction.setId(transactionId);
-        transaction.setStatus(TransactionStatus.PROCESSING);
 
+        when(transactionRepository.transitionStatus(anyCollection(), anyCollection(), anyString(), any(Instant.class)))
+                .thenReturn(List.of());
         when(transactionRepository.findById(transactionId))
-                .thenReturn(Optional.of(transaction));
-        when(transactionRepository.save(any(Transaction.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+                .thenReturn(Optional.of(transactionWithStatus(transactionId, TransactionStatus.COMPLETED)));
+
+        assertThatThrownBy(() -> transactionService.processTransaction(transactionId))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Transaction is not in PENDING status: COMPLETED");
+        verify(eventPublisher, never()).publishTransactionProcessing(any(Transaction.class));
+    }
+
+    @Test
+    void completeTransaction_updatesStatusAndSetsCompletedAt() {
+        UUID transactionId = UUID.randomUUID();
+        Transaction transaction = transactionWithStatus(transactionId, TransactionStatus.COMPLETED);
+        transaction.setCompletedAt(Instant.now(fixedClock));
+
+        when(transactionRepository.transitionStatus(
+                eq(List.of(transactionId)), eq(List.of("PROCESSING")), eq("COMPLETED"), eq(Instant.now(fixedClock))))
+                .thenReturn(List.of(transaction));
 
         Transaction result = transactionService.completeTransaction(transactionId);
 
@@ -145,14 +205,12 @@ class TransactionServiceTest {
     @Test
     void failTransaction_updatesStatus() {
         UUID transactionId = UUID.randomUUID();
-        Transaction transaction = new Transaction();
-        transaction.setId(transactionId);
-        transaction.setStatus(TransactionStatus.PROCESSING);
+        Transaction transaction = transactionWithStatus(transactionId, TransactionStatus.FAILED);
+        transaction.setFailureReason("Insufficient funds");
 
-        when(transactionRepository.findById(transactionId))
-                .thenReturn(Optional.of(transaction));
-        when(transactionRepository.save(any(Transaction.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionRepository.transitionStatusWithReason(
+                eq(List.of(transactionId)), anyCollection(), eq("FAILED"), eq("Insufficient funds"), any(Instant.class)))
+                .thenReturn(List.of(transaction));
 
         Transaction result = transactionService.failTransaction(transactionId, "Insufficient funds");
 
@@ -161,17 +219,26 @@ class TransactionServiceTest {
         verify(eventPublisher).publishTransactionFailed(any(Transaction.class));
     }
 
+    @Test
+    void failTransaction_withoutReason_isRejected() {
+        assertThatThrownBy(() -> transactionService.failTransaction(UUID.randomUUID(), " "))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Reason is required for FAIL");
+        assertThatThrownBy(() -> transactionService.reverseTransaction(UUID.randomUUID(), null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Reason is required for REVERSE");
+
+        verifyNoInteractions(transactionRepository, eventPublisher);
+    }
+
     @Test
     void cancelTransaction_onlyPending_allowsCancellation() {
         UUID transactionId = UUID.randomUUID();
-        Transaction transaction = new Transaction();
-        transaction.setId(transactionId);
-        transaction.setStatus(TransactionStatus.PENDING);
+        Transaction transaction = transactionWithStatus(transactionId, TransactionStatus.CANCELLED);
 
-        when(transactionRepository.findById(transactionId))
-                .thenReturn(Optional.of(transaction));
-        when(transactionRepository.save(any(Transaction.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionRepository.transitionStatus(
+                eq(List.of(transactionId)), eq(List.of("PENDING")), eq("CANCELLED"), any(Instant.class)))
+                .thenReturn(List.of(transaction));
 
         Transaction result = transactionService.cancelTransaction(transactionId);
 
@@ -182,14 +249,12 @@ class TransactionServiceTest {
     @Test
     void reverseTransaction_onlyCompleted_allowsReversal() {
         UUID transactionId = UUID.randomUUID();
-        Transaction transaction = new Transaction();
-        transaction.setId(transactionId);
-        transaction.setStatus(TransactionStatus.COMPLETED);
+        Transaction transaction = transactionWithStatus(transactionId, TransactionStatus.REVERSED);
+        transaction.setFailureReason("Customer request");
 
-        when(transactionRepository.findById(transactionId))
-                .thenReturn(Optional.of(transaction));
-        when(transactionRepository.save(any(Transaction.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionRepository.transitionStatusWithReason(
+                eq(List.of(transactionId)), eq(List.of("COMPLETED")), eq("REVERSED"), eq("Customer request"), any(Instant.class)))
+                .thenReturn(List.of(transaction));
 
         Transaction result = transactionService.reverseTransaction(transactionId, "Customer request");
 
@@ -197,5 +262,36 @@ class TransactionServiceTest {
         assertThat(result.getFailureReason()).isEqualTo("Customer request");
         verify(eventPublisher).publishTransactionReversed(any(Transaction.class));
     }
-}
 
+    @Test
+    void transitionTransactions_appliesOneStatementAndPublishesBatch() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<Transaction> transitioned = List.of(transactionWithStatus(first, TransactionStatus.COMPLETED));
+
+        when(transactionRepository.transitionStatus(
+                eq(new LinkedHashSet<>(List.of(first, second))), eq(List.of("PROCESSING")), eq("COMPLETED"), any(Instant.class)))
+                .thenReturn(transitioned);
+
+        List<Transaction> result = transactionService.transitionTransactions(
+                TransactionTransition.COMPLETE, List.of(first, second, first), null);
+
+        assertThat(result).extracting(Transaction::getId).containsExactly(first);
+        verify(eventPublisher).publishTransitions(TransactionTransition.COMPLETE, transitioned);
+    }
+
+    @Test
+    void transitionTransactions_failWithoutReason_throwsBadRequest() {
+        assertThatThrownBy(() -> transactionService.transitionTransactions(
+                TransactionTransition.FAIL, List.of(UUID.randomUUID()), " "))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(ex -> assertThat(((ResponseStatusException) ex).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private Transaction transactionWithStatus(UUID transactionId, TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setId(transactionId);
+        transaction.setStatus(status);
+        return transaction;
+    }
+}